@@ -0,0 +1,87 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11.x
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JMH 1.x
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/****************************************************************************
+ * <b>Title</b>: TreeAggregateBenchmark.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Measures a roll up of the user objects of each subtree,
+ * on the fork/join pool and sequentially.  The nodes form a random tree with a
+ * fan out of about 8.  Run with ./gradlew jmh
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TreeAggregateBenchmark {
+
+	@Param({ "100000", "500000" })
+	int size;
+
+	Tree tree;
+
+	/**
+	 * Builds the tree
+	 */
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		List<Node> data = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			String parentId = i < 8 ? "root" : "node_" + random.nextInt(i / 8 + 1);
+			data.add(new Node("node_" + i, parentId, (Object) random.nextDouble()));
+		}
+
+		tree = new Tree(data, new Node("root", null, (Object) 0d));
+	}
+
+	/**
+	 * Rolls up the sum of the tree on the fork/join pool
+	 * @return Sum of the tree
+	 */
+	@Benchmark
+	public Double parallel() {
+		return tree.aggregate(n -> (Double) n.getUserObject(), Double::sum);
+	}
+
+	/**
+	 * Rolls up the sum of the tree in a single thread, keeping the sums of the
+	 * subtrees on a stack as they are walked in postorder
+	 * @return Sum of the tree
+	 */
+	@Benchmark
+	public Double sequential() {
+		ArrayDeque<Double> sums = new ArrayDeque<>();
+		Iterator<Node> nodes = TreeTraversal.postorder(tree.getRootNode());
+		while (nodes.hasNext()) {
+			Node node = nodes.next();
+			double sum = (Double) node.getUserObject();
+			for (int i = node.getChildren().size(); i > 0; i--) sum += sums.pop();
+			sums.push(sum);
+		}
+
+		return sums.pop();
+	}
+}
@@ -0,0 +1,74 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11.x
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JMH 1.x
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/****************************************************************************
+ * <b>Title</b>: TreeBuildBenchmark.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Measures the construction of a Tree from unlinked nodes
+ * as the number of nodes grows.  The nodes form a random tree with a fan out
+ * of about 8 and are shuffled, so parents do not precede their children.  The
+ * time per node stays flat across the sizes when the construction is linear.
+ * Run with ./gradlew jmh
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TreeBuildBenchmark {
+
+	@Param({ "1000", "10000", "100000", "200000" })
+	int size;
+
+	List<Node> data;
+	Node root;
+
+	/**
+	 * Creates the unlinked nodes
+	 */
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		data = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			String parentId = i < 8 ? "root" : "node_" + random.nextInt(i / 8 + 1);
+			Node node = new Node("node_" + i, parentId);
+			node.setNodeName("Node " + i);
+			data.add(node);
+		}
+
+		Collections.shuffle(data, random);
+		root = new Node("root", null);
+		root.setNodeName("Root");
+	}
+
+	/**
+	 * Builds the tree
+	 * @return Tree built, so the construction is not optimized away
+	 */
+	@Benchmark
+	public Tree build() {
+		return new Tree(data, new Node(root));
+	}
+}
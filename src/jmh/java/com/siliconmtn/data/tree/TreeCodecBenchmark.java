@@ -0,0 +1,129 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11.x
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JMH 1.x
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/****************************************************************************
+ * <b>Title</b>: TreeCodecBenchmark.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Compares the binary codec of the Tree with Java
+ * serialization, writing a tree and reading it back either fully or as a view
+ * looking up a single node.  Run with ./gradlew jmh
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TreeCodecBenchmark {
+
+	@Param({ "10000", "100000" })
+	int size;
+
+	Tree tree;
+	TreeCodec codec = new TreeCodec();
+	byte[] encoded;
+	byte[] serialized;
+
+	/**
+	 * Builds the tree and its encoded forms
+	 * @throws IOException
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		Random random = new Random(42);
+		List<Node> data = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			String parentId = i < 8 ? "root" : "node_" + random.nextInt(i / 8 + 1);
+			Node node = new Node("node_" + i, parentId, (Object) ("value " + i));
+			node.setNodeName("Node " + i);
+			data.add(node);
+		}
+
+		tree = new Tree(data, new Node("root", null));
+		tree.buildNodePaths();
+		encoded = codec.encode(tree);
+		serialized = serialize();
+	}
+
+	/**
+	 * Encodes the tree
+	 * @return Encoded tree
+	 * @throws IOException
+	 */
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return codec.encode(tree);
+	}
+
+	/**
+	 * Decodes all of the nodes
+	 * @return Tree decoded
+	 * @throws IOException
+	 */
+	@Benchmark
+	public Tree decode() throws IOException {
+		return codec.decode(encoded);
+	}
+
+	/**
+	 * Opens a view and reads a single node
+	 * @return Name of the node
+	 * @throws IOException
+	 */
+	@Benchmark
+	public String view() throws IOException {
+		EncodedTree view = codec.view(encoded);
+		return view.getNodeName(view.size() / 2);
+	}
+
+	/**
+	 * Serializes the tree with Java serialization
+	 * @return Serialized tree
+	 * @throws IOException
+	 */
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(tree);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Deserializes the tree with Java serialization
+	 * @return Tree deserialized
+	 * @throws Exception
+	 */
+	@Benchmark
+	public Tree deserialize() throws Exception {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+			return (Tree) in.readObject();
+		}
+	}
+}
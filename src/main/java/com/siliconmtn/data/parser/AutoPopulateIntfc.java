@@ -37,4 +37,14 @@ public interface AutoPopulateIntfc {
 	public default void populateData(HttpServletRequest req, String suffix) {
 		BeanDataMapper.parseBean(this, req.getParameterMap(), suffix);
 	}
+
+	/**
+	 * Maps the incoming request object into the bean data's member variables
+	 * and the members of its nested beans.  Request parameter names may be
+	 * dotted or indexed paths, such as "address.city" or "items[3].qty"
+	 * @param req Http Servlet Request Object
+	 */
+	public default void populateNestedData(HttpServletRequest req) {
+		BeanDataMapper.parseNestedBean(this, req.getParameterMap());
+	}
 }
@@ -0,0 +1,31 @@
+package com.siliconmtn.data.parser;
+
+// JDK 11.x
+import java.util.Map;
+
+/****************************************************************************
+ * <b>Title</b>: BeanBinder.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Binds request parameters to a bean class without
+ * reflection.  Implementations are generated by the BeanBinderProcessor for the
+ * classes annotated with GenerateBinder, and used by BeanDataMapper.parseBean.
+ * Binders are stateless and shared by every thread
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public interface BeanBinder<T> {
+
+	/**
+	 * Maps the data into the bean's member variables, the same way
+	 * BeanDataMapper.parseBean maps them
+	 * @param bean Java Bean
+	 * @param data Data to be mapped into the bean
+	 * @param suffix Suffix added in the UI for parsing purposes
+	 */
+	void bind(T bean, Map<String, String[]> data, String suffix);
+}
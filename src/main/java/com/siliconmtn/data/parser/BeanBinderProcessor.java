@@ -0,0 +1,322 @@
+package com.siliconmtn.data.parser;
+
+// JDK 11.x
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/****************************************************************************
+ * <b>Title</b>: BeanBinderProcessor.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Generates a BeanBinder for each class annotated with
+ * GenerateBinder.  The binder calls the setters of the class directly, in the
+ * order of the BeanDataMapper, and converts the values of the types known at
+ * compile time through the TypeConverterRegistry.  Setters of other types,
+ * overloaded setters and single values bound to arrays are handed to
+ * BinderSupport.bind, which binds them through reflection like parseBean, so a
+ * generated binder always binds a class the same way parseBean does
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+@SupportedAnnotationTypes("com.siliconmtn.data.parser.GenerateBinder")
+public class BeanBinderProcessor extends AbstractProcessor {
+
+	/**
+	 * Suffix of the generated class names
+	 */
+	public static final String BINDER_SUFFIX = "_Binder";
+
+	// Library classes named by the binders.  Named rather than loaded, so the
+	// processor runs without the runtime dependencies of the library
+	private static final String POPULATE = "com.siliconmtn.data.parser.AutoPopulateIntfc";
+	private static final String BINDER = "com.siliconmtn.data.parser.BeanBinder";
+	private static final String SUPPORT = "com.siliconmtn.data.parser.BinderSupport";
+
+	// Classes converted by the default converters of the TypeConverterRegistry
+	private static final Set<String> SCALARS = Set.of(
+		String.class.getName(), Boolean.class.getName(), Character.class.getName(),
+		Byte.class.getName(), Short.class.getName(), Integer.class.getName(),
+		Long.class.getName(), Float.class.getName(), Double.class.getName(),
+		"java.math.BigDecimal", "java.math.BigInteger", "java.util.UUID",
+		"java.time.LocalDate", "java.time.LocalTime", "java.time.LocalDateTime",
+		"java.time.OffsetDateTime", "java.time.ZonedDateTime", "java.time.Instant");
+
+	// Collection parameters of the setters, with the collection created for each
+	private static final Map<String, String> COLLECTIONS = Map.of(
+		"java.util.List", "java.util.ArrayList",
+		"java.util.Collection", "java.util.ArrayList",
+		"java.util.ArrayList", "java.util.ArrayList",
+		"java.util.Set", "java.util.LinkedHashSet",
+		"java.util.LinkedHashSet", "java.util.LinkedHashSet",
+		"java.util.HashSet", "java.util.HashSet",
+		"java.util.SortedSet", "java.util.TreeSet",
+		"java.util.TreeSet", "java.util.TreeSet");
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.annotation.processing.AbstractProcessor#getSupportedSourceVersion()
+	 */
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.annotation.processing.AbstractProcessor#process(java.util.Set, javax.annotation.processing.RoundEnvironment)
+	 */
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (isBindable(element)) generate((TypeElement) element);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks that a binder can be generated for an annotated element, reporting
+	 * an error on the element otherwise
+	 * @param element Annotated element
+	 * @return true when a binder can be generated
+	 */
+	private boolean isBindable(Element element) {
+		String error = null;
+		TypeMirror populate = processingEnv.getElementUtils().getTypeElement(POPULATE).asType();
+
+		if (element.getKind() != ElementKind.CLASS) error = "only classes can be annotated";
+		else if (element.getModifiers().contains(Modifier.ABSTRACT)) error = "abstract classes can't be bound";
+		else if (! ((TypeElement) element).getTypeParameters().isEmpty()) error = "generic classes can't be bound";
+		else if (! processingEnv.getTypeUtils().isAssignable(element.asType(), populate)) error = "the class must implement AutoPopulateIntfc";
+
+		for (Element e = element; error == null && e instanceof TypeElement; e = e.getEnclosingElement()) {
+			if (e.getModifiers().contains(Modifier.PRIVATE)) error = "private classes can't be bound";
+		}
+
+		if (error != null) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@GenerateBinder: " + error, element);
+		}
+
+		return error == null;
+	}
+
+	/**
+	 * Writes the binder of a class
+	 * @param type Annotated class
+	 */
+	private void generate(TypeElement type) {
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+		String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + BINDER_SUFFIX;
+		String beanName = type.getQualifiedName().toString();
+
+		try (Writer w = processingEnv.getFiler().createSourceFile(binaryName.replace('$', '_') + BINDER_SUFFIX, type).openWriter();
+			PrintWriter out = new PrintWriter(w)) {
+			if (! packageName.isEmpty()) out.println("package " + packageName + ";");
+			out.println();
+			out.println("/**");
+			out.println(" * Binds request parameters to " + beanName + ".  Generated by the BeanBinderProcessor");
+			out.println(" */");
+			out.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+			out.println("public final class " + simpleName + " implements " + BINDER + "<" + beanName + "> {");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic void bind(" + beanName + " bean, java.util.Map<java.lang.String, java.lang.String[]> data, java.lang.String suffix) {");
+			out.println("\t\tjava.lang.String[] values;");
+
+			for (Map.Entry<String, List<ExecutableElement>> entry : getSetters(type).entrySet()) {
+				out.println();
+				writeField(out, type, entry.getKey(), entry.getValue());
+			}
+
+			out.println("\t}");
+			out.println("}");
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@GenerateBinder: unable to write " + simpleName + " (" + e.getMessage() + ")", type);
+		}
+	}
+
+	/**
+	 * Collects the set methods of a class by field name, with the name rules of
+	 * BeanMetadata: every public method starting with "set" and having at least
+	 * one parameter, with the first letter after "set" lowercased
+	 * @param type Annotated class
+	 * @return Set methods of each field, in declaration order
+	 */
+	private Map<String, List<ExecutableElement>> getSetters(TypeElement type) {
+		Map<String, List<ExecutableElement>> setters = new LinkedHashMap<>();
+		for (ExecutableElement m : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+			String name = m.getSimpleName().toString();
+			if (! name.startsWith("set") || name.length() == 3 || m.getParameters().isEmpty()) continue;
+			if (! m.getModifiers().contains(Modifier.PUBLIC)) continue;
+
+			String fieldName = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+			setters.computeIfAbsent(fieldName, k -> new ArrayList<>()).add(m);
+		}
+
+		return setters;
+	}
+
+	/**
+	 * Writes the binding of a field.  Fields without a single setter whose
+	 * conversion is known at compile time are bound through BinderSupport
+	 * @param out Source of the binder
+	 * @param type Annotated class
+	 * @param fieldName Name of the field
+	 * @param methods Set methods of the field
+	 */
+	private void writeField(PrintWriter out, TypeElement type, String fieldName, List<ExecutableElement> methods) {
+		String statement = methods.size() == 1 && isDirect(type, fieldName, methods.get(0)) ? assignment(methods.get(0)) : null;
+		String fallback = SUPPORT + ".bind(bean, \"" + fieldName + "\", values);";
+
+		out.println("\t\tvalues = " + SUPPORT + ".values(data, \"" + fieldName + "\", suffix);");
+		if (statement == null) {
+			out.println("\t\tif (values != null) " + fallback);
+			return;
+		}
+
+		out.println("\t\tif (values != null) {");
+		out.println("\t\t\ttry {");
+		if (methods.get(0).getParameters().get(0).asType().getKind() == TypeKind.ARRAY) {
+			out.println("\t\t\t\tif (values.length > 1) " + statement);
+			out.println("\t\t\t\telse " + fallback);
+		} else {
+			out.println("\t\t\t\t" + statement);
+		}
+		out.println("\t\t\t} catch (RuntimeException e) {");
+		out.println("\t\t\t\t" + SUPPORT + ".error(\"" + fieldName + "\", values, e);");
+		out.println("\t\t\t}");
+		out.println("\t\t}");
+	}
+
+	/**
+	 * Checks that a setter can be called directly.  It must be a JavaBeans write
+	 * method of a public class, named like its property, without checked
+	 * exceptions and with a getter of the same type when the property has one.  Other setters are
+	 * resolved differently by the Introspector, and are bound through reflection
+	 * @param type Annotated class
+	 * @param fieldName Name of the field
+	 * @param m Set method of the field
+	 * @return true when the setter can be called directly
+	 */
+	private boolean isDirect(TypeElement type, String fieldName, ExecutableElement m) {
+		if (m.getParameters().size() != 1 || m.getReturnType().getKind() != TypeKind.VOID) return false;
+		if (m.getModifiers().contains(Modifier.STATIC) || ! m.getThrownTypes().isEmpty()) return false;
+		if (! m.getEnclosingElement().getModifiers().contains(Modifier.PUBLIC)) return false;
+
+		// The Introspector keeps names starting with two capitals as they are
+		String property = m.getSimpleName().toString().substring(3);
+		if (property.length() > 1 && Character.isUpperCase(property.charAt(0)) && Character.isUpperCase(property.charAt(1))) return false;
+		if (! property.equals(Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1))) return false;
+
+		TypeMirror parameter = m.getParameters().get(0).asType();
+		for (ExecutableElement getter : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+			String name = getter.getSimpleName().toString();
+			if (! getter.getParameters().isEmpty() || getter.getModifiers().contains(Modifier.STATIC)) continue;
+			if (! name.equals("get" + property) && ! name.equals("is" + property)) continue;
+			if (! processingEnv.getTypeUtils().isSameType(getter.getReturnType(), parameter)) return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Creates the statement converting the values and calling a setter
+	 * @param m Set method of the field
+	 * @return Statement calling the setter.  Null when the conversion isn't
+	 * known at compile time
+	 */
+	private String assignment(ExecutableElement m) {
+		TypeMirror parameter = m.getParameters().get(0).asType();
+		String value = null;
+
+		if (parameter.getKind().isPrimitive() || isConvertible(parameter)) {
+			value = SUPPORT + ".convert(values, " + erasure(parameter) + ".class)";
+		} else if (parameter.getKind() == TypeKind.ARRAY) {
+			if (isConvertible(((ArrayType) parameter).getComponentType())) {
+				value = SUPPORT + ".toArray(values, " + erasure(parameter) + ".class)";
+			}
+		} else if (parameter.getKind() == TypeKind.DECLARED) {
+			String collection = COLLECTIONS.get(erasure(parameter));
+			TypeMirror element = elementType((DeclaredType) parameter);
+			if (collection != null && element != null && isConvertible(element)) {
+				value = SUPPORT + ".toCollection(values, " + erasure(element) + ".class, new " + collection + "<>())";
+			}
+		}
+
+		return value == null ? null : "bean." + m.getSimpleName() + "(" + value + ");";
+	}
+
+	/**
+	 * Checks that the TypeConverterRegistry converts a type by default
+	 * @param type Type of a value
+	 * @return true for primitives, the default scalars and enums
+	 */
+	private boolean isConvertible(TypeMirror type) {
+		if (type.getKind().isPrimitive()) return true;
+		if (type.getKind() != TypeKind.DECLARED) return false;
+
+		Element element = ((DeclaredType) type).asElement();
+		return element.getKind() == ElementKind.ENUM || SCALARS.contains(erasure(type));
+	}
+
+	/**
+	 * Returns the element type of a collection, following the rules of BeanMetadata
+	 * @param type Collection type
+	 * @return Element type.  String when the collection isn't typed, and null
+	 * when the elements have no single class
+	 */
+	private TypeMirror elementType(DeclaredType type) {
+		TypeMirror string = processingEnv.getElementUtils().getTypeElement(String.class.getName()).asType();
+		if (type.getTypeArguments().isEmpty()) return string;
+
+		TypeMirror element = type.getTypeArguments().get(0);
+		if (element.getKind() == TypeKind.WILDCARD) {
+			element = ((WildcardType) element).getExtendsBound();
+			if (element == null) return string;
+		}
+
+		if (element.getKind() != TypeKind.DECLARED || ! ((DeclaredType) element).getTypeArguments().isEmpty()) return null;
+		return Object.class.getName().equals(erasure(element)) ? string : element;
+	}
+
+	/**
+	 * Returns the canonical name of the erasure of a type, used as a class literal
+	 * @param type Type to erase
+	 * @return Name of the erased type
+	 */
+	private String erasure(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+}
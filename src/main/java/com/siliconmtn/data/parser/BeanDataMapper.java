@@ -3,14 +3,14 @@ package com.siliconmtn.data.parser;
 // JDK 1.8.x
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 // Apache Bean Utils
-import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.beanutils.ConvertUtils;
-import org.apache.commons.beanutils.ConvertUtilsBean;
 import org.apache.commons.beanutils.converters.DateConverter;
 import org.apache.commons.beanutils.converters.DateTimeConverter;
 
@@ -19,7 +19,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 // Space Libs 1.x
-import com.siliconmtn.data.util.EnumUtil;
+import com.siliconmtn.data.parser.BeanMetadata.PropertySetter;
 
 /********************************************************************
  * <b>Title: </b>BeanDataMapper.java
@@ -37,6 +37,10 @@ public final class BeanDataMapper {
 	private static final Logger log = LogManager.getLogger(BeanDataMapper.class);
 	private static final DateTimeConverter dtConverter;
 
+	// Generated binders of the annotated classes, and NO_BINDER for the others
+	private static final Map<Class<?>, BeanBinder<Object>> BINDERS = new ConcurrentHashMap<>();
+	private static final BeanBinder<Object> NO_BINDER = (bean, data, suffix) -> {};
+
 	static {
 		// Bean utils requires that the date formats be set into the class
 		dtConverter = new DateConverter();
@@ -53,45 +57,119 @@ public final class BeanDataMapper {
 	}
 	/**
 	 * Takes the provided java bean and the data map and parse the data mapped 
-	 * fields into the bean's member variables
+	 * fields into the bean's member variables.  Classes annotated with
+	 * GenerateBinder are bound by their generated binder, the others through
+	 * reflection
 	 * @param o Java Bean
 	 * @param data Data to be mapped into the bean
 	 * @param suffix Suffix added in the UI for parsing purposes
 	 */
 	public static void parseBean(Object o, Map<String, String[]> data, String suffix) {
-		
-		for (Method m : o.getClass().getMethods()) {
-			if (m.getName().startsWith("set")) {
-				// Parse out the set out of the method name and lowercase the first letter
-				String fieldName = m.getName().substring(3);
-				fieldName = Character.toLowerCase(fieldName.charAt(0)) + fieldName.substring(1);
-	
-				//Create a Request FieldName with the passed Suffix.
-				String reqFieldName = fieldName + suffix;
-				
-				//Lookup FieldValue using reqFieldName instead.
-				Object fieldValue = data.get(reqFieldName);
-				if (fieldValue == null) continue;
-				
-				// If the array of values is larger than 1, convert it to a List instead
-				fieldValue = getBeanArrayValue(fieldValue, m);
-	
-				// Check the enum values
-				fieldValue = checkEnum(fieldValue, m);
-	
-				// Assign value to the class
-				try {
-					BeanUtils.setProperty(o, fieldName, fieldValue);
-				} catch (Exception e) {
-					// Typically this is circumstantial (missing or uncastable data), not an error.
-					// We don't print the exception stack here - it's just noise in the logs.
-					// This exception is thrown when you pass a blank to a Date field (one scenario).
-					// log level changed to debug. -JM- 04/03/18
-					log.error(String.format("Unable to parse data for %s=%s (%s)", fieldName, fieldValue, e.getMessage()));
+		BeanBinder<Object> binder = getBinder(o.getClass());
+		if (binder != null) {
+			binder.bind(o, data, suffix);
+			return;
+		}
+
+		for (PropertySetter setter : BeanMetadata.forClass(o.getClass()).getSetters()) {
+			String fieldName = setter.getFieldName();
+
+			//Create a Request FieldName with the passed Suffix.
+			String reqFieldName = "".equals(suffix) ? fieldName : fieldName + suffix;
+			
+			//Lookup FieldValue using reqFieldName instead.
+			String[] fieldValue = data.get(reqFieldName);
+			if (fieldValue == null) continue;
+
+			// Convert the values and assign them to the class
+			try {
+				setter.bind(o, fieldValue);
+			} catch (Exception e) {
+				// Typically this is circumstantial (missing or uncastable data), not an error.
+				// We don't print the exception stack here - it's just noise in the logs.
+				// This exception is thrown when you pass a blank to a Date field (one scenario).
+				// log level changed to debug. -JM- 04/03/18
+				Object value = fieldValue.length == 1 ? fieldValue[0] : Arrays.asList(fieldValue);
+				log.error(String.format("Unable to parse data for %s=%s (%s)", fieldName, value, e.getMessage()));
+			}
+		}
+	}
+
+	/**
+	 * Takes the provided java bean and the data map and parses the data mapped
+	 * fields into the bean's member variables and the members of its nested
+	 * beans, in a single pass over the data.  Besides the flat names bound by
+	 * parseBean, parameter names may be dotted or indexed paths such as
+	 * address.city or items[3].qty.  Null nested beans are created with their
+	 * public no argument constructor, and lists and arrays are grown to fit the
+	 * indexes, up to BeanPath.MAX_INDEX
+	 * @param o Java Bean
+	 * @param data Data to be mapped into the bean and its nested beans
+	 */
+	public static void parseNestedBean(Object o, Map<String, String[]> data) {
+		BeanMetadata metadata = BeanMetadata.forClass(o.getClass());
+
+		for (Map.Entry<String, String[]> entry : data.entrySet()) {
+			String name = entry.getKey();
+			String[] fieldValue = entry.getValue();
+			if (name == null || fieldValue == null) continue;
+
+			try {
+				if (name.indexOf('.') < 0 && name.indexOf('[') < 0) {
+					PropertySetter setter = metadata.getProperty(name);
+					if (setter != null) setter.bind(o, fieldValue);
+				} else {
+					BeanPath path = BeanPath.parse(name);
+					if (path != null) path.bind(o, fieldValue);
 				}
+			} catch (Exception e) {
+				Object value = fieldValue.length == 1 ? fieldValue[0] : Arrays.asList(fieldValue);
+				log.error(String.format("Unable to parse data for %s=%s (%s)", name, value, e.getMessage()));
 			}
 		}
 	}
+
+	/**
+	 * Returns the binder generated for a class annotated with GenerateBinder.
+	 * The binder is loaded once per class.  Classes whose binder wasn't
+	 * generated, or can't be created, are bound through reflection
+	 * @param type Class of the bean
+	 * @return Binder of the class.  Null when the class has no binder
+	 */
+	static BeanBinder<Object> getBinder(Class<?> type) {
+		BeanBinder<Object> binder = BINDERS.computeIfAbsent(type, BeanDataMapper::loadBinder);
+		return binder == NO_BINDER ? null : binder;
+	}
+
+	/**
+	 * Creates the generated binder of a class
+	 * @param type Class of the bean
+	 * @return Binder of the class.  NO_BINDER when it isn't annotated or the
+	 * binder can't be created
+	 */
+	@SuppressWarnings("unchecked")
+	private static BeanBinder<Object> loadBinder(Class<?> type) {
+		if (! type.isAnnotationPresent(GenerateBinder.class)) return NO_BINDER;
+
+		String name = type.getName().replace('$', '_') + BeanBinderProcessor.BINDER_SUFFIX;
+		try {
+			Class<?> binder = Class.forName(name, true, type.getClassLoader());
+			return (BeanBinder<Object>) binder.getDeclaredConstructor().newInstance();
+		} catch (Exception | LinkageError e) {
+			log.warn("Binder {} unavailable, binding {} through reflection", name, type.getName(), e);
+			return NO_BINDER;
+		}
+	}
+
+	/**
+	 * Clears the cached setters of the bean classes.  Call after registering
+	 * converters with ConvertUtils once beans have been parsed, so the setters
+	 * use the new converters.  Converters registered with the
+	 * TypeConverterRegistry clear the cache themselves
+	 */
+	public static void clearCache() {
+		BeanMetadata.clear();
+	}
 	
 	/**
 	 * Checks for an enum and assigns it
@@ -100,12 +178,21 @@ public final class BeanDataMapper {
 	 * @return fieldValue as an enum.  Original value otherwise
 	 */
 	protected static Object checkEnum(Object fieldValue, Method m) {
+		return checkEnum(fieldValue, m.getParameterTypes()[0]);
+	}
+
+	/**
+	 * Checks for an enum and assigns it
+	 * @param fieldValue Value to be converted to an enum
+	 * @param type Parameter type of the setter
+	 * @return fieldValue as an enum.  Original value otherwise
+	 */
+	static Object checkEnum(Object fieldValue, Class<?> type) {
 		
 		// Make sure the type is not an enum.  If so, convert it to the proper
 		// Class type
-		if (m.getParameterTypes()[0].isEnum()) {
-			String name = m.getParameterTypes()[0].getName();
-			fieldValue = EnumUtil.safeValueOf(name, fieldValue.toString());
+		if (type.isEnum()) {
+			fieldValue = TypeConverterRegistry.lookup(type).convert(fieldValue.toString());
 		}
 		
 		return fieldValue;
@@ -119,9 +206,19 @@ public final class BeanDataMapper {
 	 * @return List of values in the field value
 	 */
 	static Object getBeanArrayValue(Object fieldValue, Method m) {
+		return getBeanArrayValue(fieldValue, m.getParameterTypes()[0]);
+	}
+
+	/**
+	 * Gets the field value when the setter is an array
+	 * @param fieldValue value of the field
+	 * @param type Parameter type of the setter
+	 * @return List of values in the field value
+	 */
+	static Object getBeanArrayValue(Object fieldValue, Class<?> type) {
 
 		if (((Object[]) fieldValue).length > 1) {
-			fieldValue = createList( m.getParameterTypes()[0], (Object[]) fieldValue);
+			fieldValue = createList(type, (Object[]) fieldValue);
 		} else {
 			fieldValue = ((Object[])fieldValue)[0];
 		}
@@ -140,18 +237,15 @@ public final class BeanDataMapper {
 	 * @return Collection of objects formt he array of values
 	 */
 	protected static List<Object> createList(Class<?> cls, Object[] data) {
-		// Create the converter and register the date converter
-		ConvertUtilsBean cub = new ConvertUtilsBean();
-		cub.register(dtConverter, Date.class);
-
-		// Loop the items in the array and convert data types and add to list
+		// Loop the items in the array and convert data types with the shared
+		// converters, which hold the date converter, and add to list
 		List<Object> coll = new ArrayList<>();
 
 		for (Object o : data) {
-			Object entry = cub.convert(o, cls);
+			Object entry = ConvertUtils.convert(o, cls);
 
 			// Make sure the class types are compatible
-			if (entry.getClass().isAssignableFrom(cls))
+			if (entry != null && entry.getClass().isAssignableFrom(cls))
 				coll.add(entry);
 		}
 
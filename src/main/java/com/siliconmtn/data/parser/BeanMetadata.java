@@ -0,0 +1,416 @@
+package com.siliconmtn.data.parser;
+
+// JDK 11.x
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Apache Bean Utils
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.beanutils.BeanUtilsBean;
+import org.apache.commons.beanutils.ConvertUtilsBean;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.PropertyUtils;
+
+/****************************************************************************
+ * <b>Title</b>: BeanMetadata.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Setters of a bean class, introspected once per class and
+ * cached for the BeanDataMapper.  Each setter is compiled into a MethodHandle
+ * and its converters are looked up when the class is first bound, so binding a
+ * request only reads the parameters, converts them and calls the setters.  The
+ * values are converted by the TypeConverterRegistry when it handles the type of
+ * the property, or of the elements of its array or collection.  Other values
+ * are converted the same way BeanUtils.setProperty converts them.  Setters that
+ * can't be called through a public MethodHandle are still assigned through
+ * BeanUtils.  The getters of the properties and the no argument constructor of
+ * the class are compiled as well, to walk and create nested beans
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+final class BeanMetadata {
+
+	// Metadata of each class bound so far
+	private static final Map<Class<?>, BeanMetadata> CACHE = new ConcurrentHashMap<>();
+
+	// Erased types of the compiled setters, getters and constructors
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	// Returned by the typed converters for values converted by BeanUtils
+	private static final Object LEGACY = new Object();
+
+	private final List<PropertySetter> setters;
+	private final Map<String, PropertySetter> properties;
+	private final MethodHandle constructor;
+
+	/**
+	 * Introspects the setters of a class.  Every public method starting with
+	 * "set" is kept, in the order returned by getMethods, like the setters
+	 * parsed by earlier versions of the BeanDataMapper.  Maps and DynaBeans
+	 * are assigned through BeanUtils, which stores their values as entries
+	 * @param type Class of the bean
+	 */
+	private BeanMetadata(Class<?> type) {
+		Map<String, PropertyDescriptor> descriptors = new HashMap<>();
+		if (! Map.class.isAssignableFrom(type) && ! DynaBean.class.isAssignableFrom(type)) {
+			for (PropertyDescriptor pd : PropertyUtils.getPropertyDescriptors(type)) descriptors.put(pd.getName(), pd);
+		}
+
+		ConvertUtilsBean cub = BeanUtilsBean.getInstance().getConvertUtils();
+
+		List<PropertySetter> list = new ArrayList<>();
+		Map<String, PropertySetter> byName = new HashMap<>();
+		for (Method m : type.getMethods()) {
+			if (! m.getName().startsWith("set") || m.getName().length() == 3 || m.getParameterCount() == 0) continue;
+
+			// Parse out the set out of the method name and lowercase the first letter
+			String fieldName = m.getName().substring(3);
+			fieldName = Character.toLowerCase(fieldName.charAt(0)) + fieldName.substring(1);
+
+			PropertyDescriptor pd = descriptors.get(fieldName);
+			if (pd != null && pd.getWriteMethod() == null) continue;
+			PropertySetter setter = new PropertySetter(fieldName, m.getParameterTypes()[0], pd, cub);
+			list.add(setter);
+
+			// Overloaded setters are found by name through the setter of the property type
+			PropertySetter current = byName.get(fieldName);
+			if (current == null || (current.parameterType != current.propertyType && setter.parameterType == setter.propertyType)) {
+				byName.put(fieldName, setter);
+			}
+		}
+
+		setters = Collections.unmodifiableList(list);
+		properties = byName;
+		constructor = compileConstructor(type);
+	}
+
+	/**
+	 * Creates a MethodHandle calling the public no argument constructor of a class
+	 * @param type Class to create
+	 * @return Handle of the constructor.  Null when the class can't be created
+	 */
+	private static MethodHandle compileConstructor(Class<?> type) {
+		if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers())) return null;
+
+		try {
+			return MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class)).asType(CONSTRUCTOR_TYPE);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the metadata of a class, introspecting the class on its first call
+	 * @param type Class of the bean
+	 * @return Metadata of the class
+	 */
+	static BeanMetadata forClass(Class<?> type) {
+		return CACHE.computeIfAbsent(type, BeanMetadata::new);
+	}
+
+	/**
+	 * Removes the cached metadata of every class.  Converters registered with
+	 * ConvertUtils are looked up when a class is introspected, so the cache is
+	 * cleared when converters are registered after binding has started
+	 */
+	static void clear() {
+		CACHE.clear();
+	}
+
+	/**
+	 * @return the setters of the class
+	 */
+	List<PropertySetter> getSetters() {
+		return setters;
+	}
+
+	/**
+	 * Returns the setter of a property
+	 * @param fieldName Name of the property
+	 * @return Setter of the property.  Null if the class has no setter for it
+	 */
+	PropertySetter getProperty(String fieldName) {
+		return properties.get(fieldName);
+	}
+
+	/**
+	 * Creates an instance of the class with its public no argument constructor
+	 * @return Instance created.  Null when the class has no such constructor
+	 * @throws Exception when the constructor fails
+	 */
+	Object newInstance() throws Exception {
+		if (constructor == null) return null;
+
+		try {
+			return constructor.invokeExact();
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	/**
+	 * Setter of a single property, with the converters of its type
+	 */
+	static final class PropertySetter {
+		private final String fieldName;
+		private final Class<?> parameterType;
+		private final Class<?> propertyType;
+		private final MethodHandle handle;
+		private final MethodHandle getter;
+		private final Type genericType;
+		private final Converter converter;
+		private final Converter stringConverter;
+		private final Function<String[], Object> typedConverter;
+
+		/**
+		 * Compiles the setter of a property
+		 * @param fieldName Name of the property
+		 * @param parameterType Parameter type of the set method
+		 * @param pd Descriptor of the property.  Null when BeanUtils resolves the property
+		 * @param cub Converters used by BeanUtils
+		 */
+		PropertySetter(String fieldName, Class<?> parameterType, PropertyDescriptor pd, ConvertUtilsBean cub) {
+			this.fieldName = fieldName;
+			this.parameterType = parameterType;
+			this.propertyType = pd == null ? null : pd.getPropertyType();
+			this.handle = pd == null || propertyType == null ? null : compile(pd.getWriteMethod(), SETTER_TYPE);
+			this.getter = handle == null || pd.getReadMethod() == null ? null : compile(pd.getReadMethod(), GETTER_TYPE);
+			this.genericType = handle == null ? null : pd.getWriteMethod().getGenericParameterTypes()[0];
+			this.converter = propertyType == null ? null : cub.lookup(propertyType);
+			this.stringConverter = converter != null || propertyType == null ? converter : cub.lookup(String.class);
+			this.typedConverter = handle == null || parameterType != propertyType ? null : typedConverter(pd.getWriteMethod());
+		}
+
+		/**
+		 * Creates a MethodHandle calling an accessor with erased types
+		 * @param m Setter or getter of the property
+		 * @param type Erased type of the handle
+		 * @return Handle of the accessor.  Null when the accessor isn't accessible
+		 */
+		private static MethodHandle compile(Method m, MethodType type) {
+			try {
+				return MethodHandles.publicLookup().unreflect(m).asType(type);
+			} catch (IllegalAccessException e) {
+				return null;
+			}
+		}
+
+		/**
+		 * Resolves the TypeConverterRegistry converters of a setter.  Scalars use
+		 * the first value, and collections and arrays of several values convert
+		 * each value.  A single value bound to an array is left to BeanUtils,
+		 * which splits it on commas
+		 * @param m Setter of the property
+		 * @return Converter of the parameter values.  Null when BeanUtils converts them
+		 */
+		private static Function<String[], Object> typedConverter(Method m) {
+			Class<?> type = m.getParameterTypes()[0];
+			if (type.isArray()) {
+				TypeConverter<?> element = TypeConverterRegistry.lookup(type.getComponentType());
+				if (element == null) return null;
+
+				Class<?> component = type.getComponentType();
+				return values -> {
+					if (values.length < 2) return LEGACY;
+					Object array = Array.newInstance(component, values.length);
+					for (int i = 0; i < values.length; i++) Array.set(array, i, element.convert(values[i]));
+					return array;
+				};
+			}
+
+			Supplier<Collection<Object>> factory = collectionFactory(type);
+			if (factory != null) {
+				TypeConverter<?> element = TypeConverterRegistry.lookup(elementType(m.getGenericParameterTypes()[0]));
+				if (element == null) return null;
+
+				return values -> {
+					Collection<Object> items = factory.get();
+					for (String value : values) items.add(element.convert(value));
+					return items;
+				};
+			}
+
+			TypeConverter<?> scalar = TypeConverterRegistry.lookup(type);
+			if (scalar == null) return null;
+			return values -> scalar.convert(values.length == 0 ? null : values[0]);
+		}
+
+		/**
+		 * Returns the factory of a collection parameter
+		 * @param type Parameter type of the setter
+		 * @return Factory creating an empty collection.  Null when the type isn't
+		 * a supported collection
+		 */
+		private static Supplier<Collection<Object>> collectionFactory(Class<?> type) {
+			if (type == List.class || type == Collection.class || type == ArrayList.class) return ArrayList::new;
+			if (type == Set.class || type == LinkedHashSet.class) return LinkedHashSet::new;
+			if (type == HashSet.class) return HashSet::new;
+			if (type == SortedSet.class || type == TreeSet.class) return TreeSet::new;
+			return null;
+		}
+
+		/**
+		 * Returns the element class of a collection parameter
+		 * @param type Generic parameter type of the setter
+		 * @return Element class.  String when the collection isn't typed
+		 */
+		private static Class<?> elementType(Type type) {
+			if (! (type instanceof ParameterizedType)) return String.class;
+
+			Type element = ((ParameterizedType) type).getActualTypeArguments()[0];
+			if (element instanceof WildcardType) element = ((WildcardType) element).getUpperBounds()[0];
+			if (element == Object.class) return String.class;
+			return element instanceof Class ? (Class<?>) element : null;
+		}
+
+		/**
+		 * @return the name of the property
+		 */
+		String getFieldName() {
+			return fieldName;
+		}
+
+		/**
+		 * @return the parameter type of the set method
+		 */
+		Class<?> getParameterType() {
+			return parameterType;
+		}
+
+		/**
+		 * @return the type of the property.  Null when BeanUtils resolves the property
+		 */
+		Class<?> getPropertyType() {
+			return propertyType;
+		}
+
+		/**
+		 * Returns the class of the elements of an array or collection property
+		 * @return Element class.  String for untyped collections, and null when
+		 * the elements have no single class
+		 */
+		Class<?> getElementType() {
+			if (propertyType == null) return null;
+			if (propertyType.isArray()) return propertyType.getComponentType();
+			return elementType(genericType);
+		}
+
+		/**
+		 * @return true when the property can be read and assigned through MethodHandles
+		 */
+		boolean isNavigable() {
+			return getter != null;
+		}
+
+		/**
+		 * Returns the value of the property
+		 * @param bean Bean to read
+		 * @return Value of the property
+		 * @throws Exception when the getter fails
+		 */
+		Object get(Object bean) throws Exception {
+			if (getter == null) throw new IllegalStateException("Property " + fieldName + " can't be read");
+
+			try {
+				return getter.invokeExact(bean);
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		}
+
+		/**
+		 * Converts the parameter values and assigns them to the property
+		 * @param bean Bean to update
+		 * @param values Parameter values of the property
+		 * @throws Exception when the values can't be converted or assigned
+		 */
+		void bind(Object bean, String[] values) throws Exception {
+			Object value = typedConverter == null ? LEGACY : typedConverter.apply(values);
+			if (value == LEGACY) {
+				// If the array of values is larger than 1, convert it to a List instead
+				value = BeanDataMapper.getBeanArrayValue(values, parameterType);
+
+				// Check the enum values
+				value = BeanDataMapper.checkEnum(value, parameterType);
+				if (handle != null) value = convert(value);
+			}
+
+			set(bean, value);
+		}
+
+		/**
+		 * Assigns a value to the property.  The value is converted by BeanUtils
+		 * when the setter has no MethodHandle
+		 * @param bean Bean to update
+		 * @param value Value of the property
+		 * @throws Exception when the value can't be assigned
+		 */
+		void set(Object bean, Object value) throws Exception {
+			if (handle == null) {
+				BeanUtils.setProperty(bean, fieldName, value);
+				return;
+			}
+
+			try {
+				handle.invokeExact(bean, value);
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		}
+
+		/**
+		 * Converts a value to the type of the property with the BeanUtils
+		 * converters, following the rules of BeanUtils.setProperty for simple
+		 * properties
+		 * @param value Value to convert
+		 * @return Converted value
+		 */
+		Object convert(Object value) {
+			if (propertyType.isArray()) {
+				Object source = value == null ? new String[] { null } : value;
+				return converter == null ? source : converter.convert(propertyType, source);
+			} else if (value instanceof String) {
+				return stringConverter.convert(propertyType, value);
+			} else if (value instanceof String[]) {
+				return stringConverter.convert(propertyType, ((String[]) value)[0]);
+			} else {
+				return converter == null ? value : converter.convert(propertyType, value);
+			}
+		}
+	}
+}
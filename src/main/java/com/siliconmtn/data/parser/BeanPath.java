@@ -0,0 +1,233 @@
+package com.siliconmtn.data.parser;
+
+// JDK 11.x
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+// Apache Bean Utils
+import org.apache.commons.beanutils.ConvertUtils;
+
+// Space Libs 1.x
+import com.siliconmtn.data.parser.BeanMetadata.PropertySetter;
+
+/****************************************************************************
+ * <b>Title</b>: BeanPath.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Path of a nested or indexed property in a request
+ * parameter name, such as address.city or items[3].qty.  The path is walked
+ * through the cached getters and setters of each bean on the way.  Null beans
+ * are created with their public no argument constructor.  Null lists, and lists
+ * and arrays too short for an index, are grown to fit it.  Only properties with
+ * both a public getter and setter are walked.  Indexes are limited to
+ * MAX_INDEX, so a request can't grow a collection without bounds
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+final class BeanPath {
+
+	/**
+	 * Largest index of a list or array element in a parameter name
+	 */
+	static final int MAX_INDEX = 255;
+
+	// Property names of the segments, with the element index of each.  -1 for
+	// segments without an index
+	private final String[] names;
+	private final int[] indexes;
+
+	/**
+	 * Creates the path
+	 * @param names Property names of the segments
+	 * @param indexes Element index of each segment
+	 */
+	private BeanPath(String[] names, int[] indexes) {
+		this.names = names;
+		this.indexes = indexes;
+	}
+
+	/**
+	 * Parses a parameter name.  Segments are separated by dots, and each may end
+	 * with an element index in brackets
+	 * @param name Parameter name
+	 * @return Path of the name.  Null when the name isn't a valid path
+	 */
+	static BeanPath parse(String name) {
+		if (name == null || name.isEmpty()) return null;
+
+		List<String> segments = new ArrayList<>();
+		List<Integer> positions = new ArrayList<>();
+		int start = 0;
+		while (start <= name.length()) {
+			int end = start;
+			while (end < name.length() && name.charAt(end) != '.' && name.charAt(end) != '[') end++;
+			if (end == start) return null;
+
+			int index = -1;
+			int next = end;
+			if (end < name.length() && name.charAt(end) == '[') {
+				int close = name.indexOf(']', end);
+				if (close < 0) return null;
+				index = parseIndex(name, end + 1, close);
+				if (index < 0) return null;
+				next = close + 1;
+			}
+
+			segments.add(name.substring(start, end));
+			positions.add(index);
+			if (next == name.length()) break;
+			if (name.charAt(next) != '.') return null;
+			start = next + 1;
+		}
+
+		int[] indexes = new int[positions.size()];
+		for (int i = 0; i < indexes.length; i++) indexes[i] = positions.get(i);
+		return new BeanPath(segments.toArray(new String[0]), indexes);
+	}
+
+	/**
+	 * Parses an element index
+	 * @param name Parameter name
+	 * @param from Position of the first digit
+	 * @param to Position after the last digit
+	 * @return Index.  -1 when the digits aren't a valid index
+	 */
+	private static int parseIndex(String name, int from, int to) {
+		if (from == to || to - from > 3) return -1;
+
+		int index = 0;
+		for (int i = from; i < to; i++) {
+			char c = name.charAt(i);
+			if (c < '0' || c > '9') return -1;
+			index = index * 10 + (c - '0');
+		}
+
+		return index > MAX_INDEX ? -1 : index;
+	}
+
+	/**
+	 * Converts parameter values and assigns them to the property of the path.
+	 * Paths naming unknown properties are ignored, like unknown parameters
+	 * @param bean Bean at the start of the path
+	 * @param values Parameter values
+	 * @throws Exception when the values can't be converted or assigned
+	 */
+	void bind(Object bean, String[] values) throws Exception {
+		Object current = bean;
+		int last = names.length - 1;
+		for (int i = 0; i < last && current != null; i++) {
+			PropertySetter setter = BeanMetadata.forClass(current.getClass()).getProperty(names[i]);
+			if (setter == null || ! setter.isNavigable()) return;
+			current = indexes[i] < 0 ? child(current, setter) : element(current, setter, indexes[i], null, false);
+		}
+
+		if (current == null) return;
+		PropertySetter setter = BeanMetadata.forClass(current.getClass()).getProperty(names[last]);
+		if (setter == null) return;
+
+		if (indexes[last] < 0) {
+			setter.bind(current, values);
+		} else if (setter.isNavigable() && setter.getElementType() != null) {
+			Object value = convert(values.length == 0 ? null : values[0], setter.getElementType());
+			element(current, setter, indexes[last], value, true);
+		}
+	}
+
+	/**
+	 * Returns the bean held by a property, creating it when null
+	 * @param bean Bean holding the property
+	 * @param setter Setter of the property
+	 * @return Bean of the property.  Null when it can't be created
+	 * @throws Exception when the property can't be read or assigned
+	 */
+	private static Object child(Object bean, PropertySetter setter) throws Exception {
+		Object child = setter.get(bean);
+		if (child == null) {
+			child = BeanMetadata.forClass(setter.getPropertyType()).newInstance();
+			if (child != null) setter.set(bean, child);
+		}
+
+		return child;
+	}
+
+	/**
+	 * Returns or assigns an element of a list or array property.  The list or
+	 * array is created or grown to fit the index
+	 * @param bean Bean holding the property
+	 * @param setter Setter of the property
+	 * @param index Index of the element
+	 * @param value Value assigned to the element
+	 * @param assign True to assign the value, false to return the element,
+	 * creating it when null
+	 * @return Element of the index.  Null when it can't be created
+	 * @throws Exception when the property can't be read or assigned
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object element(Object bean, PropertySetter setter, int index, Object value, boolean assign) throws Exception {
+		Class<?> type = setter.getPropertyType();
+		Class<?> elementType = setter.getElementType();
+		if (elementType == null) return null;
+
+		if (type.isArray()) {
+			Object array = setter.get(bean);
+			int length = array == null ? 0 : Array.getLength(array);
+			if (length <= index) {
+				Object grown = Array.newInstance(elementType, index + 1);
+				if (array != null) System.arraycopy(array, 0, grown, 0, length);
+				array = grown;
+				setter.set(bean, array);
+			}
+
+			if (assign) {
+				Array.set(array, index, value);
+				return value;
+			}
+
+			Object element = Array.get(array, index);
+			if (element == null) {
+				element = BeanMetadata.forClass(elementType).newInstance();
+				Array.set(array, index, element);
+			}
+
+			return element;
+		}
+
+		if (! List.class.isAssignableFrom(type)) return null;
+		List<Object> list = (List<Object>) setter.get(bean);
+		if (list == null) {
+			if (! type.isAssignableFrom(ArrayList.class)) return null;
+			list = new ArrayList<>();
+			setter.set(bean, list);
+		}
+
+		while (list.size() <= index) list.add(null);
+		if (assign) {
+			list.set(index, value);
+			return value;
+		}
+
+		Object element = list.get(index);
+		if (element == null) {
+			element = BeanMetadata.forClass(elementType).newInstance();
+			list.set(index, element);
+		}
+
+		return element;
+	}
+
+	/**
+	 * Converts a value to the class of an element
+	 * @param value Parameter value
+	 * @param type Class of the element
+	 * @return Converted value
+	 */
+	private static Object convert(String value, Class<?> type) {
+		TypeConverter<?> converter = TypeConverterRegistry.lookup(type);
+		return converter == null ? ConvertUtils.convert(value, type) : converter.convert(value);
+	}
+}
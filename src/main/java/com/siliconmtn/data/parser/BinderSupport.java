@@ -0,0 +1,123 @@
+package com.siliconmtn.data.parser;
+
+// JDK 11.x
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+//Log4j 2.x
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Space Libs 1.x
+import com.siliconmtn.data.parser.BeanMetadata.PropertySetter;
+
+/****************************************************************************
+ * <b>Title</b>: BinderSupport.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Conversions called by the generated BeanBinders.  Values
+ * are converted by the TypeConverterRegistry, exactly like the reflective
+ * binding of the BeanDataMapper, so a class binds the same way with or without
+ * its generated binder.  Properties whose types the processor doesn't handle
+ * are bound through the cached setters of the BeanDataMapper
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public final class BinderSupport {
+	private static final Logger log = LogManager.getLogger(BinderSupport.class);
+
+	private BinderSupport() {
+		//Hidden Default Constructor.
+	}
+
+	/**
+	 * Returns the values of a field
+	 * @param data Data to be mapped into the bean
+	 * @param fieldName Name of the field
+	 * @param suffix Suffix added in the UI for parsing purposes
+	 * @return Values of the field.  Null when not found
+	 */
+	public static String[] values(Map<String, String[]> data, String fieldName, String suffix) {
+		return data.get("".equals(suffix) ? fieldName : fieldName + suffix);
+	}
+
+	/**
+	 * Converts the first value of a field
+	 * @param <T> Type of the field
+	 * @param values Values of the field
+	 * @param type Class of the field
+	 * @return Converted value
+	 */
+	public static <T> T convert(String[] values, Class<T> type) {
+		return TypeConverterRegistry.convert(values.length == 0 ? null : values[0], type);
+	}
+
+	/**
+	 * Converts the values of a field to the elements of a collection
+	 * @param <E> Type of the elements
+	 * @param <C> Type of the collection
+	 * @param values Values of the field
+	 * @param type Class of the elements
+	 * @param target Empty collection receiving the elements
+	 * @return The collection
+	 */
+	public static <E, C extends Collection<E>> C toCollection(String[] values, Class<E> type, C target) {
+		TypeConverter<E> converter = TypeConverterRegistry.lookup(type);
+		if (converter == null) throw new IllegalArgumentException("No converter registered for " + type);
+		for (String value : values) target.add(converter.convert(value));
+		return target;
+	}
+
+	/**
+	 * Converts the values of a field to the elements of an array
+	 * @param <A> Type of the array
+	 * @param values Values of the field
+	 * @param arrayType Class of the array
+	 * @return Array of the converted values
+	 */
+	public static <A> A toArray(String[] values, Class<A> arrayType) {
+		TypeConverter<?> converter = TypeConverterRegistry.lookup(arrayType.getComponentType());
+		if (converter == null) throw new IllegalArgumentException("No converter registered for " + arrayType);
+
+		Object array = Array.newInstance(arrayType.getComponentType(), values.length);
+		for (int i = 0; i < values.length; i++) Array.set(array, i, converter.convert(values[i]));
+		return arrayType.cast(array);
+	}
+
+	/**
+	 * Binds a field through the cached setters of the BeanDataMapper, logging
+	 * the values that can't be assigned.  Every set method of the field is
+	 * called, like parseBean calls them
+	 * @param bean Java Bean
+	 * @param fieldName Name of the field
+	 * @param values Values of the field
+	 */
+	public static void bind(Object bean, String fieldName, String[] values) {
+		for (PropertySetter setter : BeanMetadata.forClass(bean.getClass()).getSetters()) {
+			if (! fieldName.equals(setter.getFieldName())) continue;
+
+			try {
+				setter.bind(bean, values);
+			} catch (Exception e) {
+				error(fieldName, values, e);
+			}
+		}
+	}
+
+	/**
+	 * Logs the values of a field that can't be assigned, like the BeanDataMapper
+	 * @param fieldName Name of the field
+	 * @param values Values of the field
+	 * @param e Cause of the failure
+	 */
+	public static void error(String fieldName, String[] values, Exception e) {
+		Object value = values.length == 1 ? values[0] : Arrays.asList(values);
+		log.error(String.format("Unable to parse data for %s=%s (%s)", fieldName, value, e.getMessage()));
+	}
+}
@@ -0,0 +1,36 @@
+package com.siliconmtn.data.parser;
+
+// JDK 11.x
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/****************************************************************************
+ * <b>Title</b>: GenerateBinder.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Marks a BeanDataVO or AutoPopulateIntfc implementor for
+ * the BeanBinderProcessor, which generates a BeanBinder named after the class
+ * with a _Binder suffix, in the same package.  BeanDataMapper.parseBean binds
+ * the class through the generated binder instead of reflection.  Setters the
+ * processor can't resolve (other types, overloaded setters and single values
+ * bound to arrays) are still bound through BinderSupport.bind, which uses the
+ * reflective setters of the BeanMetadata.  The processor isn't registered in
+ * the library jar.  Gradle builds run it by adding the processor classifier,
+ * annotationProcessor 'com.siliconmtn:spacelibs-java:&lt;version&gt;:processor',
+ * or javac runs it with -processor com.siliconmtn.data.parser.BeanBinderProcessor
+ * and the library on the processor path
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface GenerateBinder {
+}
@@ -0,0 +1,27 @@
+package com.siliconmtn.data.parser;
+
+/****************************************************************************
+ * <b>Title</b>: TypeConverter.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Converts a request parameter value to the type of a
+ * bean property.  Converters are registered with the TypeConverterRegistry and
+ * shared by every thread binding beans, so they must be stateless or thread safe
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+@FunctionalInterface
+public interface TypeConverter<T> {
+
+	/**
+	 * Converts a value
+	 * @param value Parameter value.  May be null or blank
+	 * @return Converted value
+	 * @throws IllegalArgumentException When the value can't be converted
+	 */
+	T convert(String value);
+}
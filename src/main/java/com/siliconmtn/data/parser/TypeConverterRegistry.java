@@ -0,0 +1,192 @@
+package com.siliconmtn.data.parser;
+
+// JDK 11.x
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Space Libs 1.x
+import com.siliconmtn.data.util.EnumUtil;
+
+/****************************************************************************
+ * <b>Title</b>: TypeConverterRegistry.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Thread safe registry of the converters used by the
+ * BeanDataMapper to convert request parameters to the types of the bean
+ * properties.  Strings, primitives and their wrappers, BigDecimal, BigInteger,
+ * UUID, the ISO-8601 java.time types and enums are registered by default.  The
+ * converters are looked up once per bean property when a bean class is first
+ * bound, so binding a request allocates no converters.  The numbers, booleans
+ * and characters keep the defaults of the BeanUtils converters they replace: a
+ * blank or invalid value converts to 0, false or a space.  A blank java.time or
+ * UUID value converts to null, and an invalid one is rejected.  An enum value
+ * not matching a constant converts to null.  Types without a converter, such as
+ * java.util.Date, are still converted by BeanUtils
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public final class TypeConverterRegistry {
+
+	// Values accepted as true by the BeanUtils BooleanConverter
+	private static final Set<String> TRUE_VALUES = Set.of("true", "yes", "y", "on", "1");
+
+	// Converters by target type.  Enum converters are added on first use
+	private static final Map<Class<?>, TypeConverter<?>> CONVERTERS = new ConcurrentHashMap<>();
+
+	static {
+		CONVERTERS.put(String.class, value -> value);
+
+		register(Integer.class, int.class, number(Integer::valueOf, 0));
+		register(Long.class, long.class, number(Long::valueOf, 0L));
+		register(Short.class, short.class, number(Short::valueOf, (short) 0));
+		register(Byte.class, byte.class, number(Byte::valueOf, (byte) 0));
+		register(Double.class, double.class, number(Double::valueOf, 0d));
+		register(Float.class, float.class, number(Float::valueOf, 0f));
+		register(Boolean.class, boolean.class, TypeConverterRegistry::toBoolean);
+		register(Character.class, char.class, value -> value == null || value.isEmpty() ? ' ' : value.charAt(0));
+		CONVERTERS.put(BigDecimal.class, number(BigDecimal::new, BigDecimal.ZERO));
+		CONVERTERS.put(BigInteger.class, number(BigInteger::new, BigInteger.ZERO));
+
+		CONVERTERS.put(UUID.class, nullable(UUID::fromString));
+		CONVERTERS.put(LocalDate.class, nullable(LocalDate::parse));
+		CONVERTERS.put(LocalTime.class, nullable(LocalTime::parse));
+		CONVERTERS.put(LocalDateTime.class, nullable(LocalDateTime::parse));
+		CONVERTERS.put(OffsetDateTime.class, nullable(OffsetDateTime::parse));
+		CONVERTERS.put(ZonedDateTime.class, nullable(ZonedDateTime::parse));
+		CONVERTERS.put(Instant.class, nullable(Instant::parse));
+	}
+
+	private TypeConverterRegistry() {
+		// Hidden Default Constructor.
+	}
+
+	/**
+	 * Registers the converter of a type, replacing any converter of the type.
+	 * Beans bound afterwards use the converter
+	 * @param <T> Target type
+	 * @param type Class of the target type
+	 * @param converter Converter of the type
+	 */
+	public static <T> void register(Class<T> type, TypeConverter<? extends T> converter) {
+		if (type == null || converter == null) throw new IllegalArgumentException("Type and converter are required");
+		CONVERTERS.put(type, converter);
+		BeanMetadata.clear();
+	}
+
+	/**
+	 * Returns the converter of a type
+	 * @param <T> Target type
+	 * @param type Class of the target type
+	 * @return Converter of the type.  Null when no converter handles the type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> TypeConverter<T> lookup(Class<T> type) {
+		if (type == null) return null;
+		TypeConverter<?> converter = CONVERTERS.get(type);
+		if (converter == null && type.isEnum()) converter = CONVERTERS.computeIfAbsent(type, TypeConverterRegistry::enumConverter);
+
+		return (TypeConverter<T>) converter;
+	}
+
+	/**
+	 * Converts a value to a type
+	 * @param <T> Target type
+	 * @param value Value to convert
+	 * @param type Class of the target type
+	 * @return Converted value
+	 * @throws IllegalArgumentException When no converter handles the type or the
+	 * value can't be converted
+	 */
+	public static <T> T convert(String value, Class<T> type) {
+		TypeConverter<T> converter = lookup(type);
+		if (converter == null) throw new IllegalArgumentException("No converter registered for " + type);
+		return converter.convert(value);
+	}
+
+	/**
+	 * Registers the converter of a wrapper and of its primitive type
+	 * @param <T> Wrapper type
+	 * @param wrapper Class of the wrapper
+	 * @param primitive Class of the primitive type
+	 * @param converter Converter of the types
+	 */
+	private static <T> void register(Class<T> wrapper, Class<?> primitive, TypeConverter<T> converter) {
+		CONVERTERS.put(wrapper, converter);
+		CONVERTERS.put(primitive, converter);
+	}
+
+	/**
+	 * Creates a converter of numbers, returning a default value for blank and
+	 * invalid values
+	 * @param <T> Number type
+	 * @param parser Parses the trimmed value
+	 * @param defaultValue Value returned for blank and invalid values
+	 * @return Converter created
+	 */
+	private static <T> TypeConverter<T> number(Function<String, T> parser, T defaultValue) {
+		return value -> {
+			if (value == null || value.isBlank()) return defaultValue;
+			try {
+				return parser.apply(value.trim());
+			} catch (NumberFormatException e) {
+				return defaultValue;
+			}
+		};
+	}
+
+	/**
+	 * Creates a converter returning null for blank values and rejecting invalid
+	 * values
+	 * @param <T> Target type
+	 * @param parser Parses the trimmed value
+	 * @return Converter created
+	 */
+	private static <T> TypeConverter<T> nullable(Function<String, T> parser) {
+		return value -> {
+			if (value == null || value.isBlank()) return null;
+			try {
+				return parser.apply(value.trim());
+			} catch (DateTimeException e) {
+				throw new IllegalArgumentException(e.getMessage(), e);
+			}
+		};
+	}
+
+	/**
+	 * Converts a value to a boolean, accepting the same values as BeanUtils
+	 * @param value Value to convert
+	 * @return Boolean value.  False for blank and unknown values
+	 */
+	private static Boolean toBoolean(String value) {
+		if (value == null) return Boolean.FALSE;
+		return Boolean.valueOf(TRUE_VALUES.contains(value.trim().toLowerCase(Locale.ENGLISH)));
+	}
+
+	/**
+	 * Creates the converter of an enum
+	 * @param type Class of the enum
+	 * @return Converter of the enum constants by name
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static TypeConverter<?> enumConverter(Class<?> type) {
+		Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+		return value -> value == null ? null : EnumUtil.safeValueOf(enumType, value);
+	}
+}
@@ -0,0 +1,543 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Spacelibs 1.x
+import com.siliconmtn.data.text.StringUtil;
+
+/****************************************************************************
+ * <b>Title</b>: CompactTree.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Immutable tree built from the same unlinked nodes as the
+ * Tree, storing the structure in int arrays instead of Node objects.  The nodes
+ * are numbered in preorder, starting with the root node at position 0, so the
+ * subtree of a node is the range of positions from the node to the node plus
+ * its total children.  Each node holds its parent, first child and next sibling
+ * links, depth and subtree size, along with references to its id, name and user
+ * object.  Ids equal to their case-folded key are shared with the lookup table,
+ * and equal ids are stored once.  The tree is linked the same way the Tree links
+ * it, and is safe for concurrent readers.  Methods returning Node objects create
+ * them on each call, detached from the tree
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class CompactTree implements Serializable {
+	private static final long serialVersionUID = 1l;
+
+	/**
+	 * Position returned when a node is not found
+	 */
+	public static final int NOT_FOUND = -1;
+
+	// Structure, by position in preorder
+	private final int[] parent;
+	private final int[] firstChild;
+	private final int[] nextSibling;
+	private final int[] depthLevel;
+	private final int[] subtreeSize;
+	private final int depth;
+
+	// Values, by position in preorder
+	private final String[] ids;
+	private final String[] keys;
+	private final String[] names;
+	private final Object[] userObjects;
+
+	// Open addressing table of the positions + 1, by id key
+	private final int[] table;
+
+	/**
+	 * Creates a compact tree of nodes based upon a Collection of unlinked nodes
+	 * @param data Collection of unlinked Node objects
+	 */
+	public CompactTree(List<Node> data) {
+		this(data, null);
+	}
+
+	/**
+	 * Creates a compact tree of nodes based upon a Collection of unlinked nodes.
+	 * Uses the assigned Node as the root node.  The data nodes are linked to
+	 * the tree the same way the Tree links them
+	 * @param data Collection of unlinked Node objects
+	 * @param root Root Node object.  A root with no id is used when null
+	 */
+	public CompactTree(List<Node> data, Node root) {
+		Builder builder = new Builder(data, root == null ? new Node(null, null) : root);
+		int size = builder.size;
+		parent = new int[size];
+		firstChild = new int[size];
+		nextSibling = new int[size];
+		depthLevel = new int[size];
+		subtreeSize = new int[size];
+		ids = new String[size];
+		keys = new String[size];
+		names = new String[size];
+		Object[] objects = null;
+
+		// Number the nodes in preorder, walking the first child and next sibling links
+		int[] position = new int[size];
+		int[] stack = new int[Math.max(1, builder.maxLevel + 1)];
+		Map<String, String> shared = new HashMap<>();
+		int top = 0;
+		int next = 0;
+		stack[0] = 0;
+		while (top >= 0) {
+			int node = stack[top];
+			int pos = next++;
+			position[node] = pos;
+
+			Node source = builder.source(node);
+			int parentNode = builder.parent.get(node);
+			parent[pos] = parentNode < 0 ? NOT_FOUND : position[parentNode];
+			depthLevel[pos] = parentNode < 0 ? source.getDepthLevel() : depthLevel[parent[pos]] + 1;
+			names[pos] = source.getNodeName();
+			if (source.getNodeId() != null) {
+				ids[pos] = shared.computeIfAbsent(source.getNodeId(), id -> id);
+				keys[pos] = shared.computeIfAbsent(Tree.toIndexKey(ids[pos]), key -> key);
+			}
+
+			if (source.getUserObject() != null) {
+				if (objects == null) objects = new Object[size];
+				objects[pos] = source.getUserObject();
+			}
+
+			// Descend to the first child, or move to the next sibling of the
+			// node or of its closest ancestor having one
+			int child = builder.firstChild.get(node);
+			if (child >= 0) {
+				stack[++top] = child;
+				continue;
+			}
+
+			while (top >= 0) {
+				int done = stack[top];
+				int sibling = builder.nextSibling.get(done);
+				if (sibling >= 0) {
+					stack[top] = sibling;
+					break;
+				}
+
+				top--;
+			}
+		}
+
+		userObjects = objects;
+		depth = builder.maxLevel + 1;
+		link();
+		table = buildTable();
+	}
+
+	/**
+	 * Assigns the subtree sizes and child links from the preorder numbering
+	 */
+	private void link() {
+		Arrays.fill(firstChild, NOT_FOUND);
+		Arrays.fill(nextSibling, NOT_FOUND);
+		Arrays.fill(subtreeSize, 1);
+		for (int pos = size() - 1; pos > 0; pos--) {
+			int p = parent[pos];
+			subtreeSize[p] += subtreeSize[pos];
+			nextSibling[pos] = firstChild[p];
+			firstChild[p] = pos;
+		}
+	}
+
+	/**
+	 * Builds the lookup table of the ids.  The nodes are added closest to the
+	 * root first, so an id used by more than one node finds the same node the
+	 * Tree finds
+	 * @return Open addressing table of the positions + 1
+	 */
+	private int[] buildTable() {
+		int capacity = Integer.highestOneBit(Math.max(2, size() * 2 - 1)) << 1;
+		int[] slots = new int[capacity];
+
+		// Breadth first, in the order of the children
+		int[] queue = new int[size()];
+		int head = 0;
+		int tail = 0;
+		for (int child = firstChild[0]; child >= 0; child = nextSibling[child]) queue[tail++] = child;
+		while (head < tail) {
+			int pos = queue[head++];
+			for (int child = firstChild[pos]; child >= 0; child = nextSibling[child]) queue[tail++] = child;
+			if (keys[pos] == null) continue;
+
+			int slot = slot(slots, keys[pos]);
+			if (slots[slot] == 0) slots[slot] = pos + 1;
+		}
+
+		return slots;
+	}
+
+	/**
+	 * Finds the slot of a key: the slot holding it, or the empty slot ending its probe
+	 * @param slots Open addressing table
+	 * @param key Key to find
+	 * @return Slot of the key
+	 */
+	private int slot(int[] slots, String key) {
+		int mask = slots.length - 1;
+		int h = key.hashCode();
+		int slot = (h ^ (h >>> 16)) & mask;
+		while (slots[slot] != 0 && ! key.equals(keys[slots[slot] - 1])) slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	/**
+	 * Returns the position of a node.  The root node is not searched.  Ids are
+	 * matched ignoring case
+	 * @param nodeId Id to find
+	 * @return Position of the node.  NOT_FOUND if not found
+	 */
+	public int indexOf(String nodeId) {
+		if (nodeId == null) return NOT_FOUND;
+		return table[slot(table, Tree.toIndexKey(nodeId))] - 1;
+	}
+
+	/**
+	 * Returns a node and all of it's children based upon the node ID.  The
+	 * nodes are created on each call
+	 * @param nodeId Id to find
+	 * @return Node within the tree.  Null if not found
+	 */
+	public Node findNode(String nodeId) {
+		int pos = indexOf(nodeId);
+		return pos < 0 ? null : toNode(pos);
+	}
+
+	/**
+	 * Creates the node at a position, along with its children
+	 * @param position Position of the node
+	 * @return Node created
+	 */
+	public Node toNode(int position) {
+		Node[] created = new Node[subtreeSize[position]];
+		for (int i = 0; i < created.length; i++) {
+			int pos = position + i;
+			Node node = new Node(ids[pos], parent[pos] < 0 ? null : ids[parent[pos]]);
+			node.setNodeName(names[pos]);
+			node.setUserObject(getUserObject(pos));
+			node.setTotalChildren(subtreeSize[pos] - 1);
+			node.setRoot(pos == 0);
+			node.setDepthLevel(depthLevel[pos]);
+			node.setParentName(parent[pos] < 0 ? null : names[parent[pos]]);
+			if (i > 0) {
+				Node parentNode = created[parent[pos] - position];
+				parentNode.getChildren().add(node);
+				parentNode.setLeaf(false);
+			}
+
+			created[i] = node;
+		}
+
+		return created[0];
+	}
+
+	/**
+	 * Creates the nodes below the root node in preorder, linked to their children
+	 * @return Collection of Nodes in the appropriate order
+	 */
+	public List<Node> preorderList() {
+		return preorderList(false);
+	}
+
+	/**
+	 * Creates the nodes of the tree in preorder, linked to their children
+	 * @param root Defines whether the rootNode should be returned in the List
+	 * @return Collection of Nodes in the appropriate order
+	 */
+	public List<Node> preorderList(boolean root) {
+		Node rootNode = toNode(0);
+		List<Node> hldr = new ArrayList<>(size());
+		if (root) hldr.add(rootNode);
+		TreeTraversal.preorder(rootNode.getChildren()).forEachRemaining(hldr::add);
+		return hldr;
+	}
+
+	/**
+	 * Returns the path of a node, joining the ids or names from the child of
+	 * the root node down to the node
+	 * @param position Position of the node
+	 * @param delimiter delimiter/character to use in the path
+	 * @param useName determines if the name or id of the node is used for the path
+	 * @return Path starting with the delimiter.  The delimiter for the root node
+	 */
+	public String getPath(int position, String delimiter, boolean useName) {
+		int[] path = new int[depthLevel[position] - depthLevel[0]];
+		int length = 0;
+		for (int pos = position; pos > 0; pos = parent[pos]) path[length++] = pos;
+		if (length == 0) return delimiter;
+
+		StringBuilder sb = new StringBuilder(length * 16);
+		for (int i = length - 1; i >= 0; i--) {
+			int pos = path[i];
+			sb.append(delimiter).append(useName && ! StringUtil.isEmpty(names[pos]) ? names[pos] : ids[pos]);
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the path of a node, joining the ids with the default delimiter
+	 * @param nodeId Id of the node
+	 * @return Path of the node.  Null if not found
+	 */
+	public String getPath(String nodeId) {
+		int pos = indexOf(nodeId);
+		return pos < 0 ? null : getPath(pos, Tree.DEFAULT_DELIMITER, false);
+	}
+
+	/**
+	 * Returns the number of nodes, including the root node
+	 * @return Number of nodes
+	 */
+	public int size() {
+		return parent.length;
+	}
+
+	/**
+	 * Returns the total depth of the tree, counted the same way as the Tree
+	 * @return Depth level of the tree
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Returns the id of a node
+	 * @param position Position of the node
+	 * @return the id
+	 */
+	public String getNodeId(int position) {
+		return ids[position];
+	}
+
+	/**
+	 * Returns the name of a node
+	 * @param position Position of the node
+	 * @return the name
+	 */
+	public String getNodeName(int position) {
+		return names[position];
+	}
+
+	/**
+	 * Returns the name of the parent of a node
+	 * @param position Position of the node
+	 * @return the parent name.  Null for the root node
+	 */
+	public String getParentName(int position) {
+		return parent[position] < 0 ? null : names[parent[position]];
+	}
+
+	/**
+	 * Returns the user object of a node
+	 * @param position Position of the node
+	 * @return the user object
+	 */
+	public Object getUserObject(int position) {
+		return userObjects == null ? null : userObjects[position];
+	}
+
+	/**
+	 * Returns the parent of a node
+	 * @param position Position of the node
+	 * @return Position of the parent.  NOT_FOUND for the root node
+	 */
+	public int getParent(int position) {
+		return parent[position];
+	}
+
+	/**
+	 * Returns the first child of a node
+	 * @param position Position of the node
+	 * @return Position of the first child.  NOT_FOUND for a leaf
+	 */
+	public int getFirstChild(int position) {
+		return firstChild[position];
+	}
+
+	/**
+	 * Returns the next sibling of a node
+	 * @param position Position of the node
+	 * @return Position of the next sibling.  NOT_FOUND for the last child
+	 */
+	public int getNextSibling(int position) {
+		return nextSibling[position];
+	}
+
+	/**
+	 * Returns the depth level of a node
+	 * @param position Position of the node
+	 * @return the depth level
+	 */
+	public int getDepthLevel(int position) {
+		return depthLevel[position];
+	}
+
+	/**
+	 * Returns the number of descendants of a node.  Its descendants are at the
+	 * positions following the node
+	 * @param position Position of the node
+	 * @return Total children (includes grandchildren)
+	 */
+	public int getTotalChildren(int position) {
+		return subtreeSize[position] - 1;
+	}
+
+	/**
+	 * Returns the number of children of a node
+	 * @param position Position of the node
+	 * @return Number of children of the node
+	 */
+	public int getNumberChildren(int position) {
+		int count = 0;
+		for (int child = firstChild[position]; child >= 0; child = nextSibling[child]) count++;
+		return count;
+	}
+
+	/**
+	 * Describe whether a node is a leaf
+	 * @param position Position of the node
+	 * @return True if the node has no children.  False otherwise
+	 */
+	public boolean isLeaf(int position) {
+		return firstChild[position] < 0;
+	}
+
+	/**
+	 * Growable list of ints
+	 */
+	private static class IntList {
+		private int[] values = new int[16];
+		private int size;
+
+		/**
+		 * Adds a value
+		 * @param value Value to add
+		 * @return Index of the value
+		 */
+		int add(int value) {
+			if (size == values.length) values = Arrays.copyOf(values, size * 2);
+			values[size] = value;
+			return size++;
+		}
+
+		/**
+		 * Returns a value
+		 * @param index Index of the value
+		 * @return the value
+		 */
+		int get(int index) {
+			return values[index];
+		}
+
+		/**
+		 * Replaces a value
+		 * @param index Index of the value
+		 * @param value Value to set
+		 */
+		void set(int index, int value) {
+			values[index] = value;
+		}
+	}
+
+	/**
+	 * Links the data nodes layer by layer, the same way the Tree does, into
+	 * temporary first child and next sibling links
+	 */
+	private static class Builder {
+		private final List<Node> data;
+		private final Node root;
+		private final IntList sources = new IntList();
+		private final IntList parent = new IntList();
+		private final IntList level = new IntList();
+		private final IntList firstChild = new IntList();
+		private final IntList lastChild = new IntList();
+		private final IntList nextSibling = new IntList();
+		private int size;
+		private int maxLevel;
+
+		/**
+		 * Links the data nodes
+		 * @param data Unlinked nodes
+		 * @param root Root node
+		 */
+		Builder(List<Node> data, Node root) {
+			this.data = data;
+			this.root = root;
+
+			Map<String, IntList> byParent = new HashMap<>();
+			for (int i = 0; i < data.size(); i++) {
+				String key = Tree.toIndexKey(StringUtil.defaultString(data.get(i).getParentId()));
+				byParent.computeIfAbsent(key, k -> new IntList()).add(i);
+			}
+
+			IntList layer = new IntList();
+			layer.add(add(-1, -1, 0));
+			while (layer.size > 0) {
+				IntList newLayer = new IntList();
+				List<String> assigned = new ArrayList<>();
+				for (int i = 0; i < layer.size; i++) {
+					int node = layer.get(i);
+					String id = source(node).getNodeId();
+					IntList matches = id == null ? null : byParent.get(Tree.toIndexKey(id));
+					if (matches == null) continue;
+
+					for (int m = 0; m < matches.size; m++) newLayer.add(add(matches.get(m), node, level.get(node) + 1));
+					assigned.add(Tree.toIndexKey(id));
+				}
+
+				for (String key : assigned) byParent.remove(key);
+				layer = newLayer;
+			}
+		}
+
+		/**
+		 * Adds a node as the last child of its parent
+		 * @param source Index of the data node.  -1 for the root node
+		 * @param parentNode Parent node.  -1 for the root node
+		 * @param nodeLevel Number of levels below the root
+		 * @return Node added
+		 */
+		private int add(int source, int parentNode, int nodeLevel) {
+			int node = size++;
+			sources.add(source);
+			parent.add(parentNode);
+			level.add(nodeLevel);
+			firstChild.add(-1);
+			lastChild.add(-1);
+			nextSibling.add(-1);
+			maxLevel = Math.max(maxLevel, nodeLevel);
+
+			if (parentNode >= 0) {
+				if (firstChild.get(parentNode) < 0) firstChild.set(parentNode, node);
+				else nextSibling.set(lastChild.get(parentNode), node);
+				lastChild.set(parentNode, node);
+			}
+
+			return node;
+		}
+
+		/**
+		 * Returns the node providing the values of a node
+		 * @param node Node
+		 * @return Data node, or the root node
+		 */
+		Node source(int node) {
+			int index = sources.get(node);
+			return index < 0 ? root : data.get(index);
+		}
+	}
+}
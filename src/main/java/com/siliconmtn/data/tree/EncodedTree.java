@@ -0,0 +1,530 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/****************************************************************************
+ * <b>Title</b>: EncodedTree.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> View of a tree encoded by the TreeCodec.  Opening the
+ * view reads the structure into int arrays and the offsets of the values, so
+ * the strings, values and user objects of a node are read from the encoded
+ * bytes only when they are requested.  The nodes are numbered in preorder,
+ * starting with the root node at position 0, so the subtree of a node is the
+ * range of positions from the node to the node plus its total children.
+ * Strings are kept once read.  User objects are read on each call.  The view
+ * is safe for concurrent readers
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public final class EncodedTree {
+
+	/**
+	 * Position returned when a node is not found
+	 */
+	public static final int NOT_FOUND = -1;
+
+	// Fields of the value record of each node, in the order they are written
+	private static final int ID = 0;
+	private static final int PARENT_ID = 1;
+	private static final int NAME = 2;
+	private static final int PARENT_NAME = 3;
+	private static final int FULL_PATH = 4;
+	private static final int DEPTH_LEVEL = 5;
+	private static final int ORDER_NO = 6;
+	private static final int FLAGS = 8;
+
+	private final byte[] data;
+	private final TreeObjectCodec objectCodec;
+	private final int depth;
+	private final int pathDelimiter;
+	private final boolean pathUseName;
+
+	// Offsets of the strings in the table, and the strings already read
+	private final int[] stringOffsets;
+	private final String[] strings;
+
+	// Structure, by position in preorder
+	private final int[] parent;
+	private final int[] level;
+	private final int[] subtreeSize;
+
+	// Offsets of the value record and user object of each node
+	private final int[] recordOffsets;
+	private final int[] objectOffsets;
+
+	// Positions of the nodes below the root by their case-folded id
+	private volatile Map<String, Integer> positions;
+
+	/**
+	 * Opens the view, reading the structure of the tree
+	 * @param data Encoded tree
+	 * @param objectCodec Codec of the user objects
+	 * @throws IOException When the data is not an encoded tree
+	 */
+	EncodedTree(byte[] data, TreeObjectCodec objectCodec) throws IOException {
+		this.data = data;
+		this.objectCodec = objectCodec;
+
+		try {
+			Cursor in = new Cursor(data, 0);
+			if (data[0] != TreeCodec.MAGIC[0] || data[1] != TreeCodec.MAGIC[1]) throw new IOException("Data is not an encoded tree");
+			in.pos = 2;
+			int version = in.readByte();
+			if (version != TreeCodec.VERSION) throw new IOException("Unsupported tree format version " + version);
+			depth = in.readVarint();
+			pathDelimiter = in.readVarint();
+			pathUseName = in.readByte() == 1;
+
+			// String table.  Reference 0 is null
+			int count = in.readVarint();
+			if (count > data.length) throw new IOException("Encoded tree is truncated");
+			stringOffsets = new int[count + 1];
+			strings = new String[count + 1];
+			for (int i = 1; i <= count; i++) {
+				stringOffsets[i] = in.pos;
+				in.skip(in.readVarint());
+			}
+
+			int size = in.readVarint();
+			if (size > data.length) throw new IOException("Encoded tree is truncated");
+			parent = new int[size];
+			level = new int[size];
+			subtreeSize = new int[size];
+			recordOffsets = new int[size];
+			objectOffsets = new int[size];
+			readStructure(in);
+
+			for (int i = 0; i < size; i++) {
+				recordOffsets[i] = in.pos;
+				for (int field = ID; field < FLAGS; field++) in.readVarint();
+				in.readByte();
+			}
+
+			for (int i = 0; i < size; i++) {
+				objectOffsets[i] = in.pos;
+				int length = in.readVarint();
+				if (length > 0) in.skip(length - 1);
+			}
+
+			if (in.pos > data.length) throw new IOException("Encoded tree is truncated");
+		} catch (ArrayIndexOutOfBoundsException | NegativeArraySizeException e) {
+			throw new IOException("Encoded tree is truncated", e);
+		}
+	}
+
+	/**
+	 * Links the nodes from the number of children of each node in preorder
+	 * @param in Cursor at the number of children of the root node
+	 * @throws IOException When the structure is not a tree
+	 */
+	private void readStructure(Cursor in) throws IOException {
+		int size = parent.length;
+		if (size == 0) throw new IOException("Encoded tree has no root node");
+
+		// Stack of the nodes still missing children, with the number missing
+		int[] open = new int[size];
+		int[] missing = new int[size];
+		int top = 0;
+		open[0] = 0;
+		missing[0] = in.readVarint();
+		parent[0] = NOT_FOUND;
+		for (int pos = 1; pos < size; pos++) {
+			while (top >= 0 && missing[top] == 0) top--;
+			if (top < 0) throw new IOException("Encoded tree has more nodes than children");
+
+			missing[top]--;
+			parent[pos] = open[top];
+			level[pos] = level[parent[pos]] + 1;
+			open[++top] = pos;
+			missing[top] = in.readVarint();
+		}
+
+		for (int pos = size - 1; pos >= 0; pos--) {
+			subtreeSize[pos]++;
+			if (pos > 0) subtreeSize[parent[pos]] += subtreeSize[pos];
+		}
+	}
+
+	/**
+	 * Returns the number of nodes, including the root node
+	 * @return Number of nodes
+	 */
+	public int size() {
+		return parent.length;
+	}
+
+	/**
+	 * Returns the depth of the tree when it was encoded
+	 * @return Depth of the tree
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Returns the position of a node below the root.  Ids are matched ignoring
+	 * case and ids used by several nodes resolve to the node the Tree finds.
+	 * The ids are read on the first call
+	 * @param nodeId Id of the node
+	 * @return Preorder position of the node.  NOT_FOUND if not found
+	 */
+	public int indexOf(String nodeId) {
+		if (nodeId == null) return NOT_FOUND;
+		Integer pos = getPositions().get(Tree.toIndexKey(nodeId));
+		return pos == null ? NOT_FOUND : pos;
+	}
+
+	/**
+	 * Returns the parent of a node
+	 * @param position Preorder position of the node
+	 * @return Position of the parent.  NOT_FOUND for the root node
+	 */
+	public int getParent(int position) {
+		return parent[position];
+	}
+
+	/**
+	 * Returns the first child of a node
+	 * @param position Preorder position of the node
+	 * @return Position of the first child.  NOT_FOUND for a leaf
+	 */
+	public int getFirstChild(int position) {
+		return subtreeSize[position] > 1 ? position + 1 : NOT_FOUND;
+	}
+
+	/**
+	 * Returns the next sibling of a node
+	 * @param position Preorder position of the node
+	 * @return Position of the next sibling.  NOT_FOUND for the last child
+	 */
+	public int getNextSibling(int position) {
+		int next = position + subtreeSize[position];
+		int p = parent[position];
+		return p != NOT_FOUND && next < p + subtreeSize[p] ? next : NOT_FOUND;
+	}
+
+	/**
+	 * Returns the number of descendants of a node
+	 * @param position Preorder position of the node
+	 * @return Number of nodes below the node
+	 */
+	public int getTotalChildren(int position) {
+		return subtreeSize[position] - 1;
+	}
+
+	/**
+	 * Returns the number of levels between a node and the root node
+	 * @param position Preorder position of the node
+	 * @return Level of the node
+	 */
+	public int getLevel(int position) {
+		return level[position];
+	}
+
+	/**
+	 * Returns the id of a node
+	 * @param position Preorder position of the node
+	 * @return Id of the node
+	 */
+	public String getNodeId(int position) {
+		return readString(position, ID);
+	}
+
+	/**
+	 * Returns the name of a node
+	 * @param position Preorder position of the node
+	 * @return Name of the node
+	 */
+	public String getNodeName(int position) {
+		return readString(position, NAME);
+	}
+
+	/**
+	 * Returns the parent id of a node
+	 * @param position Preorder position of the node
+	 * @return Parent id of the node
+	 */
+	public String getParentId(int position) {
+		return readString(position, PARENT_ID);
+	}
+
+	/**
+	 * Returns the parent name of a node
+	 * @param position Preorder position of the node
+	 * @return Parent name of the node
+	 */
+	public String getParentName(int position) {
+		return readString(position, PARENT_NAME);
+	}
+
+	/**
+	 * Returns the depth level of a node
+	 * @param position Preorder position of the node
+	 * @return Depth level of the node
+	 */
+	public int getDepthLevel(int position) {
+		return readInt(position, DEPTH_LEVEL);
+	}
+
+	/**
+	 * Returns the order number of a node
+	 * @param position Preorder position of the node
+	 * @return Order number of the node
+	 */
+	public int getOrderNo(int position) {
+		return readInt(position, ORDER_NO);
+	}
+
+	/**
+	 * Returns the full path of a node
+	 * @param position Preorder position of the node
+	 * @return Full path of the node
+	 */
+	public String getFullPath(int position) {
+		// Collect the parts added by the nodes up to one holding its full path
+		List<String> parts = new ArrayList<>();
+		int pos = position;
+		while (true) {
+			parts.add(readString(pos, FULL_PATH));
+			if (pos == 0 || (readFlags(pos) & TreeCodec.PATH_SUFFIX) == 0) break;
+			pos = parent[pos];
+		}
+
+		if (parts.size() == 1) return parts.get(0);
+		StringBuilder path = new StringBuilder();
+		for (int i = parts.size() - 1; i >= 0; i--) path.append(parts.get(i));
+		return path.toString();
+	}
+
+	/**
+	 * Returns the user object of a node, read on each call
+	 * @param position Preorder position of the node
+	 * @return User object of the node.  Null if none
+	 * @throws IOException When the object can't be read
+	 */
+	public Object getUserObject(int position) throws IOException {
+		Cursor in = new Cursor(data, objectOffsets[position]);
+		int length = in.readVarint();
+		if (length == 0) return null;
+
+		DataInputStream objectIn = new DataInputStream(new ByteArrayInputStream(data, in.pos, length - 1));
+		return objectCodec.read(objectIn);
+	}
+
+	/**
+	 * Creates a node and its descendants, detached from the view
+	 * @param position Preorder position of the node
+	 * @return Node with its children linked
+	 * @throws IOException When a user object can't be read
+	 */
+	public Node toNode(int position) throws IOException {
+		int size = subtreeSize[position];
+		Node[] nodes = new Node[size];
+		for (int i = 0; i < size; i++) {
+			int pos = position + i;
+			Node parentNode = i == 0 ? null : nodes[parent[pos] - position];
+			Node node = readNode(pos, parentNode);
+			nodes[i] = node;
+			if (parentNode != null) parentNode.getChildren().add(node);
+		}
+
+		return nodes[0];
+	}
+
+	/**
+	 * Finds a node and creates it, along with its descendants
+	 * @param nodeId Id of the node
+	 * @return Node with its children linked.  Null if not found
+	 * @throws IOException When a user object can't be read
+	 */
+	public Node findNode(String nodeId) throws IOException {
+		int pos = indexOf(nodeId);
+		return pos == NOT_FOUND ? null : toNode(pos);
+	}
+
+	/**
+	 * Creates the tree with all of its nodes
+	 * @return Tree of the nodes, with the depth and path settings it was encoded with
+	 * @throws IOException When a user object can't be read
+	 */
+	public Tree toTree() throws IOException {
+		return new Tree(toNode(0), depth, readString(pathDelimiter), pathUseName);
+	}
+
+	/**
+	 * Creates a node from its value record, without its children
+	 * @param position Preorder position of the node
+	 * @param parentNode Parent created before the node.  Null to read the full
+	 * path from the records of the ancestors
+	 * @return Node created
+	 * @throws IOException When the user object can't be read
+	 */
+	private Node readNode(int position, Node parentNode) throws IOException {
+		Cursor in = new Cursor(data, recordOffsets[position]);
+		Node node = new Node(readString(in.readVarint()), readString(in.readVarint()), getUserObject(position));
+		node.setNodeName(readString(in.readVarint()));
+		node.setParentName(readString(in.readVarint()));
+		String path = readString(in.readVarint());
+		node.setDepthLevel(unzigzag(in.readVarint()));
+		node.setOrderNo(unzigzag(in.readVarint()));
+		node.setTotalChildren(unzigzag(in.readVarint()));
+
+		int flags = in.readByte();
+		if ((flags & TreeCodec.PATH_SUFFIX) == 0) node.setFullPath(path);
+		else node.setFullPath(parentNode == null ? getFullPath(position) : parentNode.getFullPath() + path);
+		node.setLeaf((flags & TreeCodec.LEAF) != 0);
+		node.setRoot((flags & TreeCodec.ROOT) != 0);
+		return node;
+	}
+
+	/**
+	 * Reads a string field of the value record of a node
+	 * @param position Preorder position of the node
+	 * @param field Field of the record
+	 * @return String of the field
+	 */
+	private String readString(int position, int field) {
+		Cursor in = new Cursor(data, recordOffsets[position]);
+		for (int i = 0; i < field; i++) in.readVarint();
+		return readString(in.readVarint());
+	}
+
+	/**
+	 * Reads the flags of the value record of a node
+	 * @param position Preorder position of the node
+	 * @return Flags of the node
+	 */
+	private int readFlags(int position) {
+		Cursor in = new Cursor(data, recordOffsets[position]);
+		for (int i = 0; i < FLAGS; i++) in.readVarint();
+		return in.readByte();
+	}
+
+	/**
+	 * Reads a signed number field of the value record of a node
+	 * @param position Preorder position of the node
+	 * @param field Field of the record
+	 * @return Number of the field
+	 */
+	private int readInt(int position, int field) {
+		Cursor in = new Cursor(data, recordOffsets[position]);
+		for (int i = 0; i < field; i++) in.readVarint();
+		return unzigzag(in.readVarint());
+	}
+
+	/**
+	 * Returns a string of the table, reading it on first use
+	 * @param ref Reference of the string.  0 for null
+	 * @return String of the table
+	 */
+	private String readString(int ref) {
+		if (ref == 0) return null;
+		String value = strings[ref];
+		if (value != null) return value;
+
+		Cursor in = new Cursor(data, stringOffsets[ref]);
+		int length = in.readVarint();
+		value = new String(data, in.pos, length, StandardCharsets.UTF_8);
+		strings[ref] = value;
+		return value;
+	}
+
+	/**
+	 * Returns the positions of the nodes by their id key, reading the ids on
+	 * the first call.  The shallowest node, first in preorder, keeps an id
+	 * @return Positions of the nodes
+	 */
+	private Map<String, Integer> getPositions() {
+		Map<String, Integer> map = positions;
+		if (map != null) return map;
+
+		synchronized (this) {
+			if (positions != null) return positions;
+
+			map = new HashMap<>();
+			for (int pos = 1; pos < parent.length; pos++) {
+				String id = getNodeId(pos);
+				if (id == null) continue;
+
+				String key = Tree.toIndexKey(id);
+				Integer current = map.get(key);
+				if (current == null || level[pos] < level[current]) map.put(key, pos);
+			}
+
+			positions = map;
+			return map;
+		}
+	}
+
+	/**
+	 * Maps a zigzag encoded value back to a signed value
+	 * @param value Zigzag encoded value
+	 * @return Signed value
+	 */
+	static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Position in the encoded bytes
+	 */
+	private static class Cursor {
+		private final byte[] data;
+		private int pos;
+
+		/**
+		 * Creates the cursor
+		 * @param data Encoded bytes
+		 * @param pos Starting offset
+		 */
+		Cursor(byte[] data, int pos) {
+			this.data = data;
+			this.pos = pos;
+		}
+
+		/**
+		 * Reads a byte
+		 * @return Unsigned value of the byte
+		 */
+		int readByte() {
+			return data[pos++] & 0xFF;
+		}
+
+		/**
+		 * Reads an unsigned int written 7 bits per byte
+		 * @return Value read
+		 */
+		int readVarint() {
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				int b = data[pos++];
+				value |= (b & 0x7F) << shift;
+				if (b >= 0) return value;
+			}
+
+			throw new ArrayIndexOutOfBoundsException("Malformed varint");
+		}
+
+		/**
+		 * Skips bytes
+		 * @param length Number of bytes to skip
+		 */
+		void skip(int length) {
+			if (length < 0 || pos + length > data.length) throw new ArrayIndexOutOfBoundsException("Length past the end of the data");
+			pos += length;
+		}
+	}
+}
@@ -0,0 +1,396 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/****************************************************************************
+ * <b>Title</b>: HashTrie.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Immutable hash map used by the PersistentTree to share
+ * its index between the versions of a tree.  The entries are held in a trie of
+ * 32 way nodes, addressed 5 bits of the hash code at a time.  Put and remove
+ * copy the nodes on the path to the key, at most 7 of them, and share every
+ * other node with the original map.  Values may not be null
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+final class HashTrie<K, V> {
+
+	private static final HashTrie<Object, Object> EMPTY = new HashTrie<>(new Node(0, new Object[0]), 0);
+
+	private final Node root;
+	private final int size;
+
+	/**
+	 * Creates the map
+	 * @param root Root node of the trie
+	 * @param size Number of entries
+	 */
+	private HashTrie(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * Returns the empty map
+	 * @return Map without entries
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> HashTrie<K, V> empty() {
+		return (HashTrie<K, V>) EMPTY;
+	}
+
+	/**
+	 * Creates a map with the entries of another map, building each node of the
+	 * trie once
+	 * @param values Entries of the map
+	 * @return Map created
+	 */
+	static <K, V> HashTrie<K, V> of(Map<K, V> values) {
+		if (values.isEmpty()) return empty();
+
+		List<Leaf> leaves = new ArrayList<>(values.size());
+		for (Map.Entry<K, V> entry : values.entrySet()) {
+			if (entry.getValue() == null) throw new IllegalArgumentException("Value is required");
+			leaves.add(new Leaf(entry.getKey(), entry.getValue()));
+		}
+
+		return new HashTrie<>(build(leaves, 0), leaves.size());
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the value of a key
+	 * @param key Key of the entry
+	 * @return Value of the key.  Null if not found
+	 */
+	@SuppressWarnings("unchecked")
+	V get(Object key) {
+		int hash = key.hashCode();
+		Object slot = root;
+		for (int shift = 0; slot instanceof Node; shift += 5) {
+			Node node = (Node) slot;
+			int bit = bit(hash, shift);
+			if ((node.bitmap & bit) == 0) return null;
+			slot = node.slots[node.index(bit)];
+		}
+
+		for (Leaf leaf : leaves(slot)) {
+			if (leaf.hash == hash && leaf.key.equals(key)) return (V) leaf.value;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns a map with the value of a key assigned
+	 * @param key Key of the entry
+	 * @param value Value of the key
+	 * @return Map with the value.  This map is not changed
+	 */
+	HashTrie<K, V> put(K key, V value) {
+		if (value == null) throw new IllegalArgumentException("Value is required");
+		int added = get(key) == null ? 1 : 0;
+		return new HashTrie<>(put(root, new Leaf(key, value), 0), size + added);
+	}
+
+	/**
+	 * Returns a map without a key
+	 * @param key Key of the entry
+	 * @return Map without the key.  This map if the key is not found
+	 */
+	HashTrie<K, V> remove(Object key) {
+		if (get(key) == null) return this;
+		Object node = remove(root, key.hashCode(), key, 0);
+		return new HashTrie<>(node == null ? EMPTY.root : (Node) node, size - 1);
+	}
+
+	/**
+	 * Returns the bit of a node addressed by the hash code
+	 * @param hash Hash code of the key
+	 * @param shift Number of bits of the hash code used by the levels above
+	 * @return Bit of the slot
+	 */
+	private static int bit(int hash, int shift) {
+		return 1 << ((hash >>> shift) & 31);
+	}
+
+	/**
+	 * Lists the entries of a slot holding a leaf or a collision
+	 * @param slot Leaf or Collision
+	 * @return Entries of the slot
+	 */
+	private static Leaf[] leaves(Object slot) {
+		return slot instanceof Leaf ? new Leaf[] { (Leaf) slot } : ((Collision) slot).leaves;
+	}
+
+	/**
+	 * Returns the hash code of the keys of a slot holding a leaf or a collision
+	 * @param slot Leaf or Collision
+	 * @return Hash code of the keys
+	 */
+	private static int hashOf(Object slot) {
+		return slot instanceof Leaf ? ((Leaf) slot).hash : ((Collision) slot).hash;
+	}
+
+	/**
+	 * Builds the node holding the leaves on a level of the trie
+	 * @param leaves Entries below the node
+	 * @param shift Number of bits of the hash code used by the levels above
+	 * @return Node created
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Node build(List<Leaf> leaves, int shift) {
+		List<Leaf>[] buckets = new List[32];
+		int bitmap = 0;
+		for (Leaf leaf : leaves) {
+			int pos = (leaf.hash >>> shift) & 31;
+			if (buckets[pos] == null) buckets[pos] = new ArrayList<>();
+			buckets[pos].add(leaf);
+			bitmap |= 1 << pos;
+		}
+
+		Object[] slots = new Object[Integer.bitCount(bitmap)];
+		int i = 0;
+		for (List<Leaf> bucket : buckets) {
+			if (bucket != null) slots[i++] = toSlot(bucket, shift + 5);
+		}
+
+		return new Node(bitmap, slots);
+	}
+
+	/**
+	 * Creates the slot holding the leaves sharing a path of the trie
+	 * @param leaves Entries of the slot
+	 * @param shift Number of bits of the hash code used by the levels above
+	 * @return Leaf, Collision or Node
+	 */
+	private static Object toSlot(List<Leaf> leaves, int shift) {
+		if (leaves.size() == 1) return leaves.get(0);
+
+		int hash = leaves.get(0).hash;
+		for (Leaf leaf : leaves) {
+			if (leaf.hash != hash) return build(leaves, shift);
+		}
+
+		return new Collision(hash, leaves.toArray(new Leaf[0]));
+	}
+
+	/**
+	 * Adds a leaf below a node
+	 * @param node Node to copy
+	 * @param leaf Entry to add
+	 * @param shift Number of bits of the hash code used by the levels above
+	 * @return Copy of the node with the leaf
+	 */
+	private static Node put(Node node, Leaf leaf, int shift) {
+		int bit = bit(leaf.hash, shift);
+		int i = node.index(bit);
+		if ((node.bitmap & bit) == 0) return node.insert(bit, i, leaf);
+
+		Object slot = node.slots[i];
+		if (slot instanceof Node) return node.set(i, put((Node) slot, leaf, shift + 5));
+		return node.set(i, merge(slot, leaf, shift + 5));
+	}
+
+	/**
+	 * Adds a leaf to the slot of a leaf or a collision
+	 * @param slot Leaf or Collision
+	 * @param leaf Entry to add
+	 * @param shift Number of bits of the hash code used by the levels above
+	 * @return Slot holding both
+	 */
+	private static Object merge(Object slot, Leaf leaf, int shift) {
+		int hash = hashOf(slot);
+		if (hash != leaf.hash) return pair(slot, hash, leaf, shift);
+
+		Leaf[] leaves = leaves(slot);
+		for (int i = 0; i < leaves.length; i++) {
+			if (! leaves[i].key.equals(leaf.key)) continue;
+			if (leaves.length == 1) return leaf;
+
+			Leaf[] copy = leaves.clone();
+			copy[i] = leaf;
+			return new Collision(hash, copy);
+		}
+
+		Leaf[] copy = new Leaf[leaves.length + 1];
+		System.arraycopy(leaves, 0, copy, 0, leaves.length);
+		copy[leaves.length] = leaf;
+		return new Collision(hash, copy);
+	}
+
+	/**
+	 * Creates the nodes separating two slots with different hash codes
+	 * @param slot Leaf or Collision
+	 * @param hash Hash code of the slot
+	 * @param leaf Entry to add
+	 * @param shift Number of bits of the hash code used by the levels above
+	 * @return Node holding both
+	 */
+	private static Node pair(Object slot, int hash, Leaf leaf, int shift) {
+		int pos = (hash >>> shift) & 31;
+		int leafPos = (leaf.hash >>> shift) & 31;
+		if (pos == leafPos) return new Node(1 << pos, new Object[] { pair(slot, hash, leaf, shift + 5) });
+
+		Object[] slots = pos < leafPos ? new Object[] { slot, leaf } : new Object[] { leaf, slot };
+		return new Node((1 << pos) | (1 << leafPos), slots);
+	}
+
+	/**
+	 * Removes a key below a node
+	 * @param node Node to copy
+	 * @param hash Hash code of the key
+	 * @param key Key to remove
+	 * @param shift Number of bits of the hash code used by the levels above
+	 * @return Copy of the node without the key, the remaining leaf or collision
+	 * when the node holds nothing else, or null when it is empty
+	 */
+	private static Object remove(Node node, int hash, Object key, int shift) {
+		int bit = bit(hash, shift);
+		int i = node.index(bit);
+		Object slot = node.slots[i];
+		Object replacement = slot instanceof Node ? remove((Node) slot, hash, key, shift + 5) : without(slot, key);
+
+		Node copy = replacement == null ? node.delete(bit, i) : node.set(i, replacement);
+		if (copy.slots.length == 0) return null;
+		if (shift > 0 && copy.slots.length == 1 && ! (copy.slots[0] instanceof Node)) return copy.slots[0];
+		return copy;
+	}
+
+	/**
+	 * Removes a key from the slot of a leaf or a collision
+	 * @param slot Leaf or Collision holding the key
+	 * @param key Key to remove
+	 * @return Remaining slot.  Null when empty
+	 */
+	private static Object without(Object slot, Object key) {
+		Leaf[] leaves = leaves(slot);
+		if (leaves.length == 1) return null;
+
+		List<Leaf> remaining = new ArrayList<>(leaves.length - 1);
+		for (Leaf leaf : leaves) {
+			if (! leaf.key.equals(key)) remaining.add(leaf);
+		}
+
+		return remaining.size() == 1 ? remaining.get(0) : new Collision(hashOf(slot), remaining.toArray(new Leaf[0]));
+	}
+
+	/**
+	 * Node of the trie.  Holds the slots in use, in the order of their bits
+	 */
+	private static final class Node {
+		private final int bitmap;
+		private final Object[] slots;
+
+		/**
+		 * Creates the node
+		 * @param bitmap Bits of the slots in use
+		 * @param slots Leaf, Collision or Node of each bit
+		 */
+		Node(int bitmap, Object[] slots) {
+			this.bitmap = bitmap;
+			this.slots = slots;
+		}
+
+		/**
+		 * Returns the position of the slot of a bit
+		 * @param bit Bit of the slot
+		 * @return Position in the slots
+		 */
+		int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		/**
+		 * Copies the node with a new slot
+		 * @param bit Bit of the slot
+		 * @param i Position of the slot
+		 * @param slot Slot to add
+		 * @return Copy of the node
+		 */
+		Node insert(int bit, int i, Object slot) {
+			Object[] copy = new Object[slots.length + 1];
+			System.arraycopy(slots, 0, copy, 0, i);
+			copy[i] = slot;
+			System.arraycopy(slots, i, copy, i + 1, slots.length - i);
+			return new Node(bitmap | bit, copy);
+		}
+
+		/**
+		 * Copies the node with a slot replaced
+		 * @param i Position of the slot
+		 * @param slot Replacement
+		 * @return Copy of the node
+		 */
+		Node set(int i, Object slot) {
+			Object[] copy = slots.clone();
+			copy[i] = slot;
+			return new Node(bitmap, copy);
+		}
+
+		/**
+		 * Copies the node without a slot
+		 * @param bit Bit of the slot
+		 * @param i Position of the slot
+		 * @return Copy of the node
+		 */
+		Node delete(int bit, int i) {
+			Object[] copy = new Object[slots.length - 1];
+			System.arraycopy(slots, 0, copy, 0, i);
+			System.arraycopy(slots, i + 1, copy, i, slots.length - i - 1);
+			return new Node(bitmap & ~bit, copy);
+		}
+	}
+
+	/**
+	 * Entry of the map
+	 */
+	private static final class Leaf {
+		private final int hash;
+		private final Object key;
+		private final Object value;
+
+		/**
+		 * Creates the entry
+		 * @param key Key of the entry
+		 * @param value Value of the key
+		 */
+		Leaf(Object key, Object value) {
+			this.hash = key.hashCode();
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Entries whose keys share the same hash code
+	 */
+	private static final class Collision {
+		private final int hash;
+		private final Leaf[] leaves;
+
+		/**
+		 * Creates the entries
+		 * @param hash Hash code of the keys
+		 * @param leaves Entries sharing the hash code
+		 */
+		Collision(int hash, Leaf[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+	}
+}
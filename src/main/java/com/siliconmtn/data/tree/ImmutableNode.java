@@ -0,0 +1,239 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/****************************************************************************
+ * <b>Title</b>: ImmutableNode.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Node of a PersistentTree.  Holds the values of a Node
+ * and an unmodifiable list of its children, and never changes once created, so
+ * a node and its subtree are shared by every tree version containing them.  The
+ * depth, parent name and path of a node depend on where it is used and are
+ * returned by the tree.  The user objects are shared as is, and should be
+ * immutable themselves
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public final class ImmutableNode implements Serializable {
+	private static final long serialVersionUID = 1l;
+
+	private final String nodeId;
+	private final String parentId;
+	private final String nodeName;
+	private final int orderNo;
+	private final Object userObject;
+	private final List<ImmutableNode> children;
+	private final int totalChildren;
+
+	/**
+	 * Creates the node
+	 * @param nodeId Id of the node
+	 * @param parentId Id of the parent node
+	 * @param nodeName Name of the node
+	 * @param orderNo Order number of the node
+	 * @param userObject Object data of the node
+	 * @param children Children of the node, copied
+	 */
+	public ImmutableNode(String nodeId, String parentId, String nodeName, int orderNo, Object userObject, List<ImmutableNode> children) {
+		this.nodeId = nodeId;
+		this.parentId = parentId;
+		this.nodeName = nodeName;
+		this.orderNo = orderNo;
+		this.userObject = userObject;
+		this.children = children == null ? Collections.emptyList() : List.copyOf(children);
+
+		int total = 0;
+		for (ImmutableNode child : this.children) total += child.totalChildren + 1;
+		this.totalChildren = total;
+	}
+
+	/**
+	 * Copies a node and its descendants.  The nodes are walked without
+	 * recursion, so hierarchies of any depth are copied
+	 * @param node Node to copy
+	 * @return Immutable copy of the node.  Null when the node is null
+	 */
+	public static ImmutableNode of(Node node) {
+		if (node == null) return null;
+
+		// Copies the nodes in postorder, keeping the copied children of each
+		// node on a stack until their parent is copied
+		ArrayDeque<ImmutableNode> copied = new ArrayDeque<>();
+		Iterator<Node> nodes = TreeTraversal.postorder(node);
+		while (nodes.hasNext()) {
+			Node n = nodes.next();
+			int count = n.getChildren().size();
+			List<ImmutableNode> children = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) children.add(copied.pop());
+			Collections.reverse(children);
+			copied.push(new ImmutableNode(n.getNodeId(), n.getParentId(), n.getNodeName(), n.getOrderNo(), n.getUserObject(), children));
+		}
+
+		return copied.pop();
+	}
+
+	/**
+	 * Creates a mutable copy of the node and its descendants, detached from
+	 * any tree.  The depth levels start at 0 and the paths are not built
+	 * @return Node with its children linked
+	 */
+	public Node toNode() {
+		ArrayDeque<ImmutableNode> sources = new ArrayDeque<>();
+		ArrayDeque<Node> copies = new ArrayDeque<>();
+		Node top = copy(this, null);
+		sources.push(this);
+		copies.push(top);
+		while (! sources.isEmpty()) {
+			ImmutableNode source = sources.pop();
+			Node copy = copies.pop();
+			for (ImmutableNode child : source.children) {
+				Node childCopy = copy(child, copy);
+				copy.getChildren().add(childCopy);
+				sources.push(child);
+				copies.push(childCopy);
+			}
+		}
+
+		return top;
+	}
+
+	/**
+	 * Creates a mutable node from the values of a node
+	 * @param source Node to copy
+	 * @param parent Copy of the parent.  Null for the first node
+	 * @return Node created, without its children
+	 */
+	private static Node copy(ImmutableNode source, Node parent) {
+		Node node = new Node(source.nodeId, source.parentId, source.userObject);
+		node.setNodeName(source.nodeName);
+		node.setOrderNo(source.orderNo);
+		node.setTotalChildren(source.totalChildren);
+		node.setLeaf(source.isLeaf());
+		node.setFullPath("");
+		if (parent != null) {
+			node.setParentName(parent.getNodeName());
+			node.setDepthLevel(parent.getDepthLevel() + 1);
+		}
+
+		return node;
+	}
+
+	/**
+	 * Returns a copy of the node with another user object, sharing its children
+	 * @param value User object of the copy
+	 * @return Node created
+	 */
+	public ImmutableNode withUserObject(Object value) {
+		return new ImmutableNode(nodeId, parentId, nodeName, orderNo, value, children);
+	}
+
+	/**
+	 * Returns a copy of the node with another name, sharing its children
+	 * @param name Name of the copy
+	 * @return Node created
+	 */
+	public ImmutableNode withNodeName(String name) {
+		return new ImmutableNode(nodeId, parentId, name, orderNo, userObject, children);
+	}
+
+	/**
+	 * Returns a copy of the node with another parent id, sharing its children
+	 * @param id Parent id of the copy
+	 * @return Node created
+	 */
+	public ImmutableNode withParentId(String id) {
+		return new ImmutableNode(nodeId, id, nodeName, orderNo, userObject, children);
+	}
+
+	/**
+	 * Returns a copy of the node with other children
+	 * @param nodes Children of the copy
+	 * @return Node created
+	 */
+	public ImmutableNode withChildren(List<ImmutableNode> nodes) {
+		return new ImmutableNode(nodeId, parentId, nodeName, orderNo, userObject, nodes);
+	}
+
+	/**
+	 * @return the nodeId
+	 */
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * @return the parentId
+	 */
+	public String getParentId() {
+		return parentId;
+	}
+
+	/**
+	 * @return the nodeName
+	 */
+	public String getNodeName() {
+		return nodeName;
+	}
+
+	/**
+	 * @return the orderNo
+	 */
+	public int getOrderNo() {
+		return orderNo;
+	}
+
+	/**
+	 * @return the userObject
+	 */
+	public Object getUserObject() {
+		return userObject;
+	}
+
+	/**
+	 * @return the unmodifiable list of the children
+	 */
+	public List<ImmutableNode> getChildren() {
+		return children;
+	}
+
+	/**
+	 * @return the number of direct children
+	 */
+	public int getNumberChildren() {
+		return children.size();
+	}
+
+	/**
+	 * @return the number of nodes below the node
+	 */
+	public int getTotalChildren() {
+		return totalChildren;
+	}
+
+	/**
+	 * @return true when the node has no children
+	 */
+	public boolean isLeaf() {
+		return children.isEmpty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ImmutableNode [nodeId=" + nodeId + ", parentId=" + parentId + ", nodeName=" + nodeName + ", children=" + children.size() + "]";
+	}
+}
@@ -0,0 +1,632 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/****************************************************************************
+ * <b>Title</b>: PersistentTree.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Immutable tree of ImmutableNodes, built from the same
+ * unlinked nodes as the Tree.  Updates return a new tree and leave this one
+ * unchanged: only the updated node and its ancestors are copied, and every
+ * other subtree is shared between both trees.  A tree can be cached and read
+ * by any number of threads without locks or defensive copies.  Lookups by id
+ * use an index created on the first lookup, matching ids the same way the Tree
+ * does.  The trees returned by updates share the index as well: only the 
+ * entries of the copied nodes, and of the nodes added or removed, are replaced
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public final class PersistentTree implements Serializable {
+	private static final long serialVersionUID = 1l;
+
+	private final ImmutableNode root;
+
+	// Index of the nodes below the root by their case-folded id, with the depth
+	// of the tree.  Created on first use, or carried over from the updated tree
+	private transient volatile Index index;
+
+	/**
+	 * Creates a tree from its root node
+	 * @param root Root node of the tree
+	 */
+	public PersistentTree(ImmutableNode root) {
+		this(root, null);
+	}
+
+	/**
+	 * Creates a tree from its root node and index
+	 * @param root Root node of the tree
+	 * @param index Index of the tree.  Created on first use when null
+	 */
+	private PersistentTree(ImmutableNode root, Index index) {
+		if (root == null) throw new IllegalArgumentException("Root node is required");
+		this.root = root;
+		this.index = index;
+	}
+
+	/**
+	 * Creates a tree of nodes based upon a Collection of unlinked nodes.  The
+	 * nodes are linked the same way the Tree links them
+	 * @param data Collection of unlinked Node objects
+	 * @param root Root Node object.  A root with no id is used when null
+	 */
+	public PersistentTree(List<Node> data, Node root) {
+		this(ImmutableNode.of(new Tree(data, root).getRootNode()));
+	}
+
+	/**
+	 * Creates an immutable copy of a tree
+	 * @param tree Tree to copy
+	 * @return Tree created
+	 */
+	public static PersistentTree of(Tree tree) {
+		return new PersistentTree(ImmutableNode.of(tree.getRootNode()));
+	}
+
+	/**
+	 * @return the root node
+	 */
+	public ImmutableNode getRoot() {
+		return root;
+	}
+
+	/**
+	 * Returns the number of nodes, including the root node
+	 * @return Number of nodes
+	 */
+	public int size() {
+		return root.getTotalChildren() + 1;
+	}
+
+	/**
+	 * Returns the depth of the tree.  A tree holding only its root has a depth of 1
+	 * @return Depth of the tree
+	 */
+	public int getDepth() {
+		return getIndex().getDepth();
+	}
+
+	/**
+	 * Finds a node below the root.  Ids are matched ignoring case, and the
+	 * shallowest node, first in its level, is returned for ids used by several
+	 * nodes
+	 * @param nodeId Id of the node
+	 * @return Node found.  Null if not found
+	 */
+	public ImmutableNode findNode(String nodeId) {
+		Entry entry = findEntry(nodeId);
+		return entry == null ? null : entry.node;
+	}
+
+	/**
+	 * Returns the parent of a node
+	 * @param nodeId Id of the node
+	 * @return Parent node.  Null if not found
+	 */
+	public ImmutableNode getParent(String nodeId) {
+		Entry entry = findEntry(nodeId);
+		return entry == null ? null : getIndex().get(entry.parent).node;
+	}
+
+	/**
+	 * Returns the number of levels between a node and the root
+	 * @param nodeId Id of the node
+	 * @return Level of the node.  -1 if not found
+	 */
+	public int getDepthLevel(String nodeId) {
+		Entry entry = findEntry(nodeId);
+		return entry == null ? -1 : entry.level;
+	}
+
+	/**
+	 * Returns the path to a node, starting with the root node and ending with
+	 * the node
+	 * @param nodeId Id of the node
+	 * @return Nodes on the path.  Empty if the node is not found
+	 */
+	public List<ImmutableNode> getPath(String nodeId) {
+		Entry entry = findEntry(nodeId);
+		if (entry == null) return Collections.emptyList();
+
+		Index current = getIndex();
+		List<ImmutableNode> path = new ArrayList<>(entry.level + 1);
+		for (Entry e = entry; e != null; e = current.get(e.parent)) path.add(e.node);
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * Returns a tree with a node replaced.  The node and its ancestors are
+	 * copied, and the rest of the tree is shared
+	 * @param nodeId Id of the node
+	 * @param update Creates the replacement from the current node
+	 * @return Tree with the replacement
+	 */
+	public PersistentTree update(String nodeId, UnaryOperator<ImmutableNode> update) {
+		Entry entry = findEntry(nodeId);
+		if (entry == null) throw new IllegalArgumentException("Node is not in the tree");
+		return replace(entry, update.apply(entry.node));
+	}
+
+	/**
+	 * Returns a tree with the user object of a node replaced
+	 * @param nodeId Id of the node
+	 * @param value User object of the node
+	 * @return Tree with the user object
+	 */
+	public PersistentTree setUserObject(String nodeId, Object value) {
+		return update(nodeId, node -> node.withUserObject(value));
+	}
+
+	/**
+	 * Returns a tree with the name of a node replaced
+	 * @param nodeId Id of the node
+	 * @param name Name of the node
+	 * @return Tree with the name
+	 */
+	public PersistentTree setNodeName(String nodeId, String name) {
+		return update(nodeId, node -> node.withNodeName(name));
+	}
+
+	/**
+	 * Returns a tree with a node, along with its children, added as the last
+	 * child of a node
+	 * @param parentId Id of the parent.  Null inserts below the root node
+	 * @param child Node to insert.  Copied, so it may be changed afterwards
+	 * @return Tree with the node
+	 */
+	public PersistentTree insert(String parentId, Node child) {
+		if (child == null) throw new IllegalArgumentException("Child node is required");
+		return insert(parentId, ImmutableNode.of(child));
+	}
+
+	/**
+	 * Returns a tree with a node, along with its children, added as the last
+	 * child of a node
+	 * @param parentId Id of the parent.  Null inserts below the root node
+	 * @param child Node to insert
+	 * @return Tree with the node
+	 */
+	public PersistentTree insert(String parentId, ImmutableNode child) {
+		if (child == null) throw new IllegalArgumentException("Child node is required");
+		Entry parent = parentId == null ? getIndex().get(Index.ROOT) : findEntry(parentId);
+		if (parent == null) throw new IllegalArgumentException("Parent node is not in the tree");
+
+		List<ImmutableNode> children = new ArrayList<>(parent.node.getChildren());
+		children.add(child.withParentId(parent.node.getNodeId()));
+		return replace(parent, parent.node.withChildren(children));
+	}
+
+	/**
+	 * Returns a tree without a node and its descendants
+	 * @param nodeId Id of the node
+	 * @return Tree without the node.  This tree if the node is not found
+	 */
+	public PersistentTree remove(String nodeId) {
+		Entry entry = findEntry(nodeId);
+		if (entry == null) return this;
+
+		Entry parent = getIndex().get(entry.parent);
+		List<ImmutableNode> children = new ArrayList<>(parent.node.getChildren());
+		children.remove(indexOf(children, entry.node));
+		return replace(parent, parent.node.withChildren(children));
+	}
+
+	/**
+	 * Returns a tree with a node, along with its children, moved to the end of
+	 * the children of another node
+	 * @param nodeId Id of the node to move
+	 * @param newParentId Id of the new parent.  Null moves the node below the root node
+	 * @return Tree with the node moved
+	 */
+	public PersistentTree move(String nodeId, String newParentId) {
+		Entry entry = findEntry(nodeId);
+		if (entry == null) throw new IllegalArgumentException("Node is not in the tree");
+		Index current = getIndex();
+		Entry parent = newParentId == null ? current.get(Index.ROOT) : findEntry(newParentId);
+		if (parent == null) throw new IllegalArgumentException("Parent node is not in the tree");
+		for (Entry e = parent; e != null; e = current.get(e.parent)) {
+			if (e == entry) throw new IllegalArgumentException("Node can't be moved below itself");
+		}
+
+		return remove(nodeId).insert(newParentId, entry.node);
+	}
+
+	/**
+	 * Creates a mutable Tree with a copy of the nodes
+	 * @return Tree of the nodes
+	 */
+	public Tree toTree() {
+		Node top = root.toNode();
+		top.setRoot(true);
+		return new Tree(top, getDepth(), null, false);
+	}
+
+	/**
+	 * Replaces the node of an entry and copies its ancestors up to the root.
+	 * The index of the new tree is a copy of this one with the entries of the
+	 * copied, added and removed nodes replaced
+	 * @param entry Entry of the node
+	 * @param replacement Node replacing it
+	 * @return Tree with the new root
+	 */
+	private PersistentTree replace(Entry entry, ImmutableNode replacement) {
+		Index.Edit edit = getIndex().edit();
+		edit.replace(entry, replacement);
+
+		ImmutableNode current = entry.node;
+		ImmutableNode copy = replacement;
+		for (Entry e = edit.get(entry.parent); e != null; e = edit.get(e.parent)) {
+			List<ImmutableNode> children = new ArrayList<>(e.node.getChildren());
+			children.set(indexOf(children, current), copy);
+			current = e.node;
+			copy = e.node.withChildren(children);
+			edit.put(new Entry(e.number, copy, e.parent, e.children, e.level));
+		}
+
+		return new PersistentTree(copy, edit.build());
+	}
+
+	/**
+	 * Finds a node in a list by identity
+	 * @param nodes Nodes to search
+	 * @param node Node to find
+	 * @return Position of the node
+	 */
+	private static int indexOf(List<ImmutableNode> nodes, ImmutableNode node) {
+		for (int i = 0; i < nodes.size(); i++) {
+			if (nodes.get(i) == node) return i;
+		}
+
+		throw new IllegalStateException("Node is not a child of its parent");
+	}
+
+	/**
+	 * Returns the index entry of a node
+	 * @param nodeId Id of the node
+	 * @return Entry of the node.  Null if not found
+	 */
+	private Entry findEntry(String nodeId) {
+		if (nodeId == null) return null;
+		return getIndex().find(Tree.toIndexKey(nodeId));
+	}
+
+	/**
+	 * Returns the index of the tree, creating it on the first call.  Concurrent
+	 * first calls may each create an equal index
+	 * @return Index of the tree
+	 */
+	private Index getIndex() {
+		Index current = index;
+		if (current == null) {
+			current = Index.of(root);
+			index = current;
+		}
+
+		return current;
+	}
+
+	/**
+	 * Index of the nodes of a tree.  The entries are numbered and refer to their
+	 * parent and children by number, so the index of an updated tree replaces
+	 * the entries of the copied nodes and shares all the others.  The ids are
+	 * indexed layer by layer so the shallowest node keeps an id used by several
+	 * nodes.  Trees with such ids create the index of each update from scratch
+	 */
+	private static final class Index {
+		private static final int ROOT = 0;
+
+		private final HashTrie<Integer, Entry> entries;
+		private final HashTrie<String, Integer> ids;
+		private final int[] levelCounts;
+		private final int next;
+		private final boolean duplicates;
+		private final int depth;
+
+		/**
+		 * Creates the index
+		 * @param entries Entries of the nodes by number
+		 * @param ids Numbers of the nodes below the root by case-folded id
+		 * @param levelCounts Number of nodes on each level
+		 * @param next Number of the next entry
+		 * @param duplicates true when an id is used by several nodes
+		 */
+		private Index(HashTrie<Integer, Entry> entries, HashTrie<String, Integer> ids, int[] levelCounts, int next, boolean duplicates) {
+			this.entries = entries;
+			this.ids = ids;
+			this.levelCounts = levelCounts;
+			this.next = next;
+			this.duplicates = duplicates;
+
+			// The deepest level holding nodes
+			int level = levelCounts.length - 1;
+			while (level > 0 && levelCounts[level] == 0) level--;
+			depth = level + 1;
+		}
+
+		/**
+		 * Indexes a tree
+		 * @param node Root node of the tree
+		 * @return Index of the tree
+		 */
+		static Index of(ImmutableNode node) {
+			Map<Integer, Entry> entries = new HashMap<>();
+			Map<String, Integer> ids = new HashMap<>();
+			int[] levelCounts = new int[] { 1 };
+			boolean duplicates = false;
+			int next = ROOT + 1;
+
+			Entry top = new Entry(ROOT, node, -1, new int[node.getNumberChildren()], 0);
+			entries.put(ROOT, top);
+			List<Entry> layer = Collections.singletonList(top);
+			for (int level = 1; ! layer.isEmpty(); level++) {
+				List<Entry> nextLayer = new ArrayList<>();
+				for (Entry parent : layer) {
+					List<ImmutableNode> children = parent.node.getChildren();
+					for (int i = 0; i < children.size(); i++) {
+						ImmutableNode child = children.get(i);
+						Entry entry = new Entry(next++, child, parent.number, new int[child.getNumberChildren()], level);
+						parent.children[i] = entry.number;
+						entries.put(entry.number, entry);
+						if (child.getNodeId() != null) duplicates |= ids.putIfAbsent(Tree.toIndexKey(child.getNodeId()), entry.number) != null;
+						nextLayer.add(entry);
+					}
+				}
+
+				if (! nextLayer.isEmpty()) levelCounts = count(levelCounts, level, nextLayer.size());
+				layer = nextLayer;
+			}
+
+			return new Index(HashTrie.of(entries), HashTrie.of(ids), levelCounts, next, duplicates);
+		}
+
+		/**
+		 * Adjusts the number of nodes on a level
+		 * @param levelCounts Number of nodes on each level.  Updated in place when large enough
+		 * @param level Number of levels below the root node
+		 * @param delta Nodes added, or removed when negative
+		 * @return Number of nodes on each level
+		 */
+		private static int[] count(int[] levelCounts, int level, int delta) {
+			int[] counts = level < levelCounts.length ? levelCounts : Arrays.copyOf(levelCounts, Math.max(level + 1, levelCounts.length * 2));
+			counts[level] += delta;
+			return counts;
+		}
+
+		/**
+		 * @return the depth of the tree
+		 */
+		int getDepth() {
+			return depth;
+		}
+
+		/**
+		 * Returns an entry by number
+		 * @param number Number of the entry
+		 * @return Entry.  Null for the parent of the root node
+		 */
+		Entry get(int number) {
+			return number < 0 ? null : entries.get(number);
+		}
+
+		/**
+		 * Returns the entry of a node below the root
+		 * @param key Case-folded id of the node
+		 * @return Entry.  Null if not found
+		 */
+		Entry find(String key) {
+			Integer number = ids.get(key);
+			return number == null ? null : entries.get(number);
+		}
+
+		/**
+		 * Starts the changes of the index of an updated tree
+		 * @return Changes applied to a copy of this index
+		 */
+		Edit edit() {
+			return new Edit(this);
+		}
+
+		/**
+		 * Changes made to a copy of an index.  The index they are made on is
+		 * not changed
+		 */
+		private static final class Edit {
+			private HashTrie<Integer, Entry> entries;
+			private HashTrie<String, Integer> ids;
+			private int[] levelCounts;
+			private int next;
+			private boolean duplicates;
+
+			/**
+			 * Starts the changes
+			 * @param index Index to copy
+			 */
+			Edit(Index index) {
+				entries = index.entries;
+				ids = index.ids;
+				levelCounts = index.levelCounts.clone();
+				next = index.next;
+				duplicates = index.duplicates;
+			}
+
+			/**
+			 * Returns an entry by number
+			 * @param number Number of the entry
+			 * @return Entry.  Null for the parent of the root node
+			 */
+			Entry get(int number) {
+				return number < 0 ? null : entries.get(number);
+			}
+
+			/**
+			 * Assigns an entry
+			 * @param entry Entry of a node
+			 */
+			void put(Entry entry) {
+				entries = entries.put(entry.number, entry);
+			}
+
+			/**
+			 * Replaces the node of an entry.  The children kept by the replacement
+			 * keep their entries, those dropped are removed along with their
+			 * descendants and the new ones are added
+			 * @param entry Entry of the node
+			 * @param replacement Node replacing it
+			 */
+			void replace(Entry entry, ImmutableNode replacement) {
+				if (duplicates) return;
+
+				List<ImmutableNode> old = entry.node.getChildren();
+				Map<ImmutableNode, Integer> dropped = new IdentityHashMap<>();
+				for (int i = 0; i < old.size(); i++) dropped.put(old.get(i), entry.children[i]);
+
+				List<ImmutableNode> nodes = replacement.getChildren();
+				int[] children = new int[nodes.size()];
+				for (int i = 0; i < children.length; i++) {
+					Integer number = dropped.remove(nodes.get(i));
+					children[i] = number == null ? -1 : number;
+				}
+
+				// Ids of the nodes dropped are released before the new nodes are added
+				for (Integer number : dropped.values()) remove(number);
+				if (entry.number != ROOT && ! Objects.equals(entry.node.getNodeId(), replacement.getNodeId())) {
+					unindex(entry.node, entry.number);
+					index(replacement, entry.number);
+				}
+
+				for (int i = 0; i < children.length; i++) {
+					if (children[i] < 0) children[i] = add(nodes.get(i), entry.number, entry.level + 1);
+				}
+
+				put(new Entry(entry.number, replacement, entry.parent, children, entry.level));
+			}
+
+			/**
+			 * Adds the entries of a node and its descendants
+			 * @param node Node to add
+			 * @param parent Number of the entry of the parent
+			 * @param level Number of levels below the root node
+			 * @return Number of the entry of the node
+			 */
+			private int add(ImmutableNode node, int parent, int level) {
+				Entry top = new Entry(next++, node, parent, new int[node.getNumberChildren()], level);
+				Deque<Entry> pending = new ArrayDeque<>();
+				pending.add(top);
+				while (! pending.isEmpty()) {
+					Entry entry = pending.poll();
+					List<ImmutableNode> children = entry.node.getChildren();
+					for (int i = 0; i < children.size(); i++) {
+						ImmutableNode child = children.get(i);
+						Entry e = new Entry(next++, child, entry.number, new int[child.getNumberChildren()], entry.level + 1);
+						entry.children[i] = e.number;
+						pending.add(e);
+					}
+
+					put(entry);
+					index(entry.node, entry.number);
+					levelCounts = count(levelCounts, entry.level, 1);
+				}
+
+				return top.number;
+			}
+
+			/**
+			 * Removes the entries of a node and its descendants
+			 * @param number Number of the entry of the node
+			 */
+			private void remove(int number) {
+				Deque<Integer> pending = new ArrayDeque<>();
+				pending.add(number);
+				while (! pending.isEmpty()) {
+					Entry entry = entries.get(pending.poll());
+					for (int child : entry.children) pending.add(child);
+
+					entries = entries.remove(entry.number);
+					unindex(entry.node, entry.number);
+					levelCounts[entry.level]--;
+				}
+			}
+
+			/**
+			 * Adds the id of a node.  An id already used by another node turns 
+			 * the index into one created from scratch
+			 * @param node Node to index
+			 * @param number Number of the entry of the node
+			 */
+			private void index(ImmutableNode node, int number) {
+				if (node.getNodeId() == null) return;
+				String key = Tree.toIndexKey(node.getNodeId());
+				if (ids.get(key) != null) duplicates = true;
+				else ids = ids.put(key, number);
+			}
+
+			/**
+			 * Removes the id of a node
+			 * @param node Node to remove
+			 * @param number Number of the entry of the node
+			 */
+			private void unindex(ImmutableNode node, int number) {
+				if (node.getNodeId() == null) return;
+				String key = Tree.toIndexKey(node.getNodeId());
+				Integer current = ids.get(key);
+				if (current != null && current == number) ids = ids.remove(key);
+			}
+
+			/**
+			 * Completes the changes
+			 * @return Index with the changes.  Null when an id is used by several
+			 * nodes, so the index is created from scratch on first use
+			 */
+			Index build() {
+				return duplicates ? null : new Index(entries, ids, levelCounts, next, false);
+			}
+		}
+	}
+
+	/**
+	 * Entry of the index.  Refers to the entries of the parent and children of
+	 * its node by number, so the entries of unchanged nodes are shared between
+	 * the versions of a tree
+	 */
+	private static final class Entry {
+		private final int number;
+		private final ImmutableNode node;
+		private final int parent;
+		private final int[] children;
+		private final int level;
+
+		/**
+		 * Creates the entry
+		 * @param number Number of the entry
+		 * @param node Node of the entry
+		 * @param parent Number of the entry of the parent node.  -1 for the root node
+		 * @param children Numbers of the entries of the children, in the order of the children
+		 * @param level Number of levels below the root node
+		 */
+		Entry(int number, ImmutableNode node, int parent, int[] children, int level) {
+			this.number = number;
+			this.node = node;
+			this.parent = parent;
+			this.children = children;
+			this.level = level;
+		}
+	}
+}
@@ -1,10 +1,22 @@
 package com.siliconmtn.data.tree;
 
 // JDK 11
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 // Spacelibs 1.x
 import com.siliconmtn.core.HashCodeUtil;
@@ -31,7 +43,21 @@ public class Tree implements Serializable {
 
 	private Node rootNode = null;
 	private int depth = 0;
-	private Node tempNode = null;
+
+	// Delimiter and label of the paths once built, so updates keep them current
+	private String pathDelimiter;
+	private boolean pathUseName;
+
+	// Index of the nodes below the root by their case-folded id, and number of
+	// nodes on each level.  Rebuilt after deserialization
+	private transient volatile NodeEntry rootEntry;
+	private transient volatile Map<String, NodeEntry> index;
+	private transient int[] levelCounts;
+
+	// Nested set and path indexes, created on first use and dropped when the
+	// tree changes
+	private transient volatile TreeIntervalIndex intervalIndex;
+	private transient volatile TreePathIndex pathIndex;
 
 	/**
 	 * Creates a Tree of nodes based upon a Collection of unlinked nodes.  
@@ -40,7 +66,6 @@ public class Tree implements Serializable {
 	 * @param root Root Node object
 	 */
 	public Tree(List<Node> data,  Node root) {
-		List<Node> children = new ArrayList<>();
 		depth = 0;
 		if (root == null) {
 			rootNode = new Node(null, null);
@@ -49,9 +74,12 @@ public class Tree implements Serializable {
 			rootNode = root;
 		}
 
-		children.add(rootNode);
-		//need to use a new list here or the passed list is compromised (build removes items from the list). -JM- 11.03.2017
-		build(new ArrayList<>(data), children);
+		index = new ConcurrentHashMap<>();
+		levelCounts = new int[] { 1 };
+		rootEntry = new NodeEntry(rootNode, null);
+		List<NodeEntry> children = new ArrayList<>();
+		children.add(rootEntry);
+		build(data, children);
 	}
 
 	/**
@@ -63,31 +91,454 @@ public class Tree implements Serializable {
 	}
 
 	/**
-	 * Returns a node and all of it's children based upon the node ID
+	 * Returns a node and all of it's children based upon the node ID.  The 
+	 * root node is not searched.  Ids are matched ignoring case.  When an id is
+	 * used by more than one node, the node closest to the root is returned, 
+	 * the first one in the order of the data when they are at the same depth.
+	 * The lookup uses the id index and is safe for concurrent readers.  Nodes
+	 * changed directly (Node.addChild, setChildren or setNodeId) instead of 
+	 * through the tree are not found until the tree is rebuilt with setRootNode
 	 * @param nodeId Id to find
 	 * @return Node within the tree.  Null if not found
 	 */
 	public Node findNode(String nodeId) {
-		tempNode = null;
-		locateNode(rootNode.getChildren(), nodeId);
-		return tempNode;
+		NodeEntry entry = findEntry(nodeId);
+		return entry == null ? null : entry.node;
+	}
+
+	/**
+	 * Returns the parent of a node
+	 * @param nodeId Id of the node
+	 * @return Parent of the node, which may be the root node.  Null if the node
+	 * is not found
+	 */
+	public Node getParent(String nodeId) {
+		NodeEntry entry = findEntry(nodeId);
+		return entry == null ? null : entry.parent.node;
+	}
+
+	/**
+	 * Returns the ancestors of a node, starting with the root node and ending
+	 * with the parent of the node
+	 * @param nodeId Id of the node
+	 * @return Ancestors of the node.  Empty if the node is not found
+	 */
+	public List<Node> getAncestors(String nodeId) {
+		NodeEntry entry = findEntry(nodeId);
+		return entry == null ? Collections.emptyList() : toPath(entry.parent);
+	}
+
+	/**
+	 * Returns the path to a node, starting with the root node and ending with 
+	 * the node
+	 * @param nodeId Id of the node
+	 * @return Nodes on the path.  Empty if the node is not found
+	 */
+	public List<Node> getPath(String nodeId) {
+		NodeEntry entry = findEntry(nodeId);
+		return entry == null ? Collections.emptyList() : toPath(entry);
+	}
+
+	/**
+	 * Creates a tree from a root node already linked to its children, as 
+	 * decoded by the TreeCodec
+	 * @param root Root node of the tree
+	 * @param depth Depth of the tree
+	 * @param pathDelimiter Delimiter of the paths.  Null when the paths are not built
+	 * @param pathUseName true when the paths use the names of the nodes
+	 */
+	Tree(Node root, int depth, String pathDelimiter, boolean pathUseName) {
+		this.rootNode = root;
+		this.pathDelimiter = pathDelimiter;
+		this.pathUseName = pathUseName;
+		reindex();
+		this.depth = depth;
+	}
+
+	/**
+	 * Rolls up a value over the whole tree, root node included, in parallel
+	 * across the subtrees.  See TreeAggregator
+	 * @param <T> Type of the values
+	 * @param mapper Value of a single node
+	 * @param combiner Combines the value of a subtree with the value of the
+	 * subtree of a child.  Must be associative
+	 * @return Value of the tree
+	 */
+	public <T> T aggregate(Function<Node, T> mapper, BinaryOperator<T> combiner) {
+		return TreeAggregator.aggregate(rootNode, mapper, combiner, null);
+	}
+
+	/**
+	 * Rolls up a value over each subtree of the tree, in parallel across the
+	 * subtrees.  See TreeAggregator
+	 * @param <T> Type of the values
+	 * @param mapper Value of a single node
+	 * @param combiner Combines the value of a subtree with the value of the
+	 * subtree of a child.  Must be associative
+	 * @param consumer Receives each node with the value of its subtree, children
+	 * before their parents and from any thread
+	 * @return Value of the tree
+	 */
+	public <T> T aggregate(Function<Node, T> mapper, BinaryOperator<T> combiner, BiConsumer<Node, ? super T> consumer) {
+		return TreeAggregator.aggregate(rootNode, mapper, combiner, consumer);
+	}
+
+	/**
+	 * Returns the nested set index of the tree, for ancestor, descendant and 
+	 * lowest common ancestor checks that don't walk the tree.  The index is 
+	 * created on the first call and kept until the tree is changed through its
+	 * methods.  Nodes changed directly are not seen by an index already created
+	 * @return Interval index of the nodes of the tree
+	 */
+	public TreeIntervalIndex getIntervalIndex() {
+		TreeIntervalIndex intervals = intervalIndex;
+		if (intervals != null) return intervals;
+
+		synchronized (this) {
+			if (intervalIndex == null) intervalIndex = new TreeIntervalIndex(rootNode);
+			return intervalIndex;
+		}
+	}
+
+	/**
+	 * Returns the path index of the tree, for lookups by full path and name.
+	 * The index is created on the first call, once the paths are built, and is
+	 * kept until the paths are rebuilt or the tree is changed through its 
+	 * methods
+	 * @return Path index of the nodes of the tree
+	 */
+	public TreePathIndex getPathIndex() {
+		TreePathIndex paths = pathIndex;
+		if (paths != null) return paths;
+
+		synchronized (this) {
+			if (pathIndex == null) pathIndex = new TreePathIndex(rootNode);
+			return pathIndex;
+		}
+	}
+
+	/**
+	 * Drops the indexes created on first use, so they are created again from
+	 * the current nodes
+	 */
+	private void clearIndexes() {
+		intervalIndex = null;
+		pathIndex = null;
+	}
+
+	/**
+	 * Adds a node, along with its children, below a node of the tree and adds 
+	 * them to the id index.  Use this method instead of Node.addChild on the 
+	 * nodes of a tree, or the index will not find them.  Works the same as 
+	 * insert
+	 * @param parent Root node or node indexed by the tree
+	 * @param child Node to add
+	 */
+	public void addChild(Node parent, Node child) {
+		if (parent == null || child == null) throw new IllegalArgumentException("Parent and child nodes are required");
+		NodeEntry parentEntry = parent == rootNode ? getRootEntry() : findEntry(parent.getNodeId());
+		if (parentEntry == null || parentEntry.node != parent) throw new IllegalArgumentException("Parent node is not in the tree");
+
+		attach(new NodeEntry(child, parentEntry), true);
+	}
+
+	/**
+	 * <p>Inserts a node, along with its children, as the last child of a node
+	 * of the tree.  Only the inserted nodes and their ancestors are updated: the 
+	 * depth levels, parent id and name, and paths (once built) of the inserted 
+	 * nodes, and the total children of their ancestors.</p>
+	 * <p>The total children of the ancestors are adjusted by the number of nodes
+	 * inserted, so totals calculated by calculateTotalChildren stay current.  
+	 * Ids already in the index keep their current node.  The mutations are not
+	 * safe to call while other threads read the tree</p>
+	 * @param parentId Id of the parent.  Null inserts below the root node
+	 * @param child Node to insert
+	 * @return The inserted node
+	 */
+	public Node insert(String parentId, Node child) {
+		if (child == null) throw new IllegalArgumentException("Child node is required");
+		NodeEntry parentEntry = parentId == null ? getRootEntry() : findEntry(parentId);
+		if (parentEntry == null) throw new IllegalArgumentException("Parent node is not in the tree");
+
+		attach(new NodeEntry(child, parentEntry), true);
+		return child;
+	}
+
+	/**
+	 * Moves a node, along with its children, to the end of the children of 
+	 * another node.  Only the moved nodes and the ancestors they leave and join
+	 * are updated, the same way insert and remove update them
+	 * @param nodeId Id of the node to move
+	 * @param newParentId Id of the new parent.  Null moves the node below the root node
+	 * @return The moved node
+	 */
+	public Node move(String nodeId, String newParentId) {
+		NodeEntry entry = findEntry(nodeId);
+		if (entry == null) throw new IllegalArgumentException("Node is not in the tree");
+		NodeEntry parentEntry = newParentId == null ? getRootEntry() : findEntry(newParentId);
+		if (parentEntry == null) throw new IllegalArgumentException("Parent node is not in the tree");
+		for (NodeEntry e = parentEntry; e != null; e = e.parent) {
+			if (e == entry) throw new IllegalArgumentException("Node can't be moved below itself");
+		}
+
+		detach(entry, false);
+		entry.parent = parentEntry;
+		attach(entry, false);
+		return entry.node;
+	}
+
+	/**
+	 * Removes a node, along with its children, from the tree.  The total 
+	 * children of its ancestors are reduced by the number of nodes removed.  
+	 * When the id of a removed node is used by another node, that node is not
+	 * found until the tree is rebuilt
+	 * @param nodeId Id of the node to remove
+	 * @return The removed node.  Null if not found
+	 */
+	public Node remove(String nodeId) {
+		NodeEntry entry = findEntry(nodeId);
+		if (entry == null) return null;
+
+		detach(entry, true);
+		return entry.node;
+	}
+
+	/**
+	 * Adds the node of an entry to the children of its parent and updates the
+	 * node, its descendants and its ancestors
+	 * @param entry Entry of the node, linked to its new parent
+	 * @param added true when the nodes are new to the tree and must be indexed
+	 */
+	private void attach(NodeEntry entry, boolean added) {
+		Node node = entry.node;
+		Node parent = entry.parent.node;
+		parent.addChild(node);
+		node.setParentId(parent.getNodeId());
+		if (added) Tree.calculateTotalChildren(node);
+		clearIndexes();
+
+		int count = updateSubtree(entry, getLevel(entry), added);
+		for (NodeEntry e = entry.parent; e != null; e = e.parent) {
+			e.node.setTotalChildren(e.node.getTotalChildren() + count);
+		}
+
+		updateDepth();
+	}
+
+	/**
+	 * Removes the node of an entry from the children of its parent and updates
+	 * the ancestors it leaves
+	 * @param entry Entry of the node
+	 * @param removed true when the nodes leave the tree and must be removed from the index
+	 */
+	private void detach(NodeEntry entry, boolean removed) {
+		Node node = entry.node;
+		Node parent = entry.parent.node;
+		List<Node> siblings = parent.getChildren();
+		for (int i = 0; i < siblings.size(); i++) {
+			if (siblings.get(i) == node) {
+				siblings.remove(i);
+				break;
+			}
+		}
+
+		if (siblings.isEmpty()) parent.setLeaf(true);
+		clearIndexes();
+		int count = 0;
+		int level = getLevel(entry);
+		for (List<Node> layer = List.of(node); ! layer.isEmpty(); level++) {
+			List<Node> next = new ArrayList<>();
+			for (Node n : layer) {
+				count++;
+				countLevel(level, -1);
+				if (removed) unindex(n);
+				next.addAll(n.getChildren());
+			}
+
+			layer = next;
+		}
+
+		for (NodeEntry e = entry.parent; e != null; e = e.parent) {
+			e.node.setTotalChildren(Math.max(0, e.node.getTotalChildren() - count));
+		}
+
+		updateDepth();
+	}
+
+	/**
+	 * Updates the depth levels, parent names and paths of a node and its 
+	 * descendants from its parent, counts them on their levels and indexes them
+	 * when they are new to the tree
+	 * @param entry Entry of the node, linked to its parent
+	 * @param level Number of levels below the root node
+	 * @param added true to index the nodes
+	 * @return Number of nodes in the subtree
+	 */
+	private int updateSubtree(NodeEntry entry, int level, boolean added) {
+		int count = 0;
+		for (List<NodeEntry> layer = List.of(entry); ! layer.isEmpty(); level++) {
+			List<NodeEntry> next = new ArrayList<>();
+			for (NodeEntry e : layer) {
+				Node node = e.node;
+				Node parent = e.parent.node;
+				node.setDepthLevel(parent.getDepthLevel() + 1);
+				node.setParentName(parent.getNodeName());
+				if (pathDelimiter != null) node.setFullPath(parent.getFullPath() + getPathLabel(node));
+
+				countLevel(level, 1);
+				if (added) index(e);
+				count++;
+				for (Node child : node.getChildren()) next.add(new NodeEntry(child, e));
+			}
+
+			layer = next;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the label a node adds to the path of its parent
+	 * @param node Node of the path
+	 * @return Name or id of the node
+	 */
+	private String getPathLabel(Node node) {
+		return pathUseName && ! StringUtil.isEmpty(node.getNodeName()) ? node.getNodeName() : node.getNodeId();
+	}
+
+	/**
+	 * Returns the number of levels between an entry and the root node
+	 * @param entry Entry of the node
+	 * @return Level of the node
+	 */
+	private int getLevel(NodeEntry entry) {
+		int level = 0;
+		for (NodeEntry e = entry.parent; e != null; e = e.parent) level++;
+		return level;
 	}
 
 	/**
-	 * Recursive method that traverses the tree looking for the appropriate 
-	 * Node id.
-	 * @param nodes List of nodes to use as the starting point of the search
-	 * @param id Node within the tree.  Null if not found
+	 * Returns the index entry of a node
+	 * @param nodeId Id of the node
+	 * @return Entry of the node.  Null if not found
 	 */
-	private void locateNode(List<Node> nodes, String id) {
-		if (!nodes.isEmpty()) {
-			for (Node n : nodes) {
-				if (id.equalsIgnoreCase(n.getNodeId())) {
-					tempNode = n;
-					return;
-				} else locateNode(n.getChildren(), id);
+	private NodeEntry findEntry(String nodeId) {
+		if (nodeId == null) return null;
+		getRootEntry();
+		String key = toIndexKey(nodeId);
+		NodeEntry entry = index.get(key);
+
+		// A node renamed directly keeps its old key until the tree is rebuilt
+		if (entry == null || entry.node.getNodeId() == null || ! key.equals(toIndexKey(entry.node.getNodeId()))) return null;
+		return entry;
+	}
+
+	/**
+	 * Lists the nodes from the root down to the entry
+	 * @param entry Last entry of the path
+	 * @return Nodes of the path
+	 */
+	private List<Node> toPath(NodeEntry entry) {
+		List<Node> path = new ArrayList<>();
+		for (NodeEntry e = entry; e != null; e = e.parent) path.add(e.node);
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * Returns the entry of the root node, indexing the tree when it has not
+	 * been indexed since it was deserialized
+	 * @return Entry of the root node
+	 */
+	private NodeEntry getRootEntry() {
+		NodeEntry entry = rootEntry;
+		if (entry != null) return entry;
+
+		synchronized (this) {
+			if (rootEntry == null) reindex();
+			return rootEntry;
+		}
+	}
+
+	/**
+	 * Rebuilds the id index from the root node.  The new index is only 
+	 * published once complete, so concurrent readers never see a partial index
+	 */
+	private synchronized void reindex() {
+		NodeEntry entry = new NodeEntry(rootNode, null);
+		Map<String, NodeEntry> ids = new ConcurrentHashMap<>();
+		levelCounts = new int[] { 1 };
+
+		List<NodeEntry> layer = new ArrayList<>();
+		if (rootNode != null) {
+			for (Node child : rootNode.getChildren()) layer.add(new NodeEntry(child, entry));
+		}
+
+		int level = 1;
+		for (; ! layer.isEmpty(); level++) {
+			List<NodeEntry> next = new ArrayList<>();
+			for (NodeEntry e : layer) {
+				if (e.node.getNodeId() != null) ids.putIfAbsent(toIndexKey(e.node.getNodeId()), e);
+				countLevel(level, 1);
+				for (Node child : e.node.getChildren()) next.add(new NodeEntry(child, e));
 			}
-		} 
+
+			layer = next;
+		}
+
+		depth = Math.max(depth, level);
+		index = ids;
+		clearIndexes();
+		rootEntry = entry;
+	}
+
+	/**
+	 * Adds a node to the index unless its id is already indexed
+	 * @param entry Entry of the node
+	 */
+	private void index(NodeEntry entry) {
+		if (entry.node.getNodeId() != null) index.putIfAbsent(toIndexKey(entry.node.getNodeId()), entry);
+	}
+
+	/**
+	 * Removes a node from the index when its id is indexed to it
+	 * @param node Node to remove
+	 */
+	private void unindex(Node node) {
+		if (node.getNodeId() == null) return;
+		String key = toIndexKey(node.getNodeId());
+		NodeEntry entry = index.get(key);
+		if (entry != null && entry.node == node) index.remove(key);
+	}
+
+	/**
+	 * Adjusts the number of nodes on a level
+	 * @param level Number of levels below the root node
+	 * @param delta Nodes added, or removed when negative
+	 */
+	private void countLevel(int level, int delta) {
+		if (level >= levelCounts.length) levelCounts = Arrays.copyOf(levelCounts, Math.max(level + 1, levelCounts.length * 2));
+		levelCounts[level] += delta;
+	}
+
+	/**
+	 * Sets the depth of the tree from the deepest level holding nodes
+	 */
+	private void updateDepth() {
+		int level = levelCounts.length - 1;
+		while (level > 0 && levelCounts[level] == 0) level--;
+		depth = level + 1;
+	}
+
+	/**
+	 * Rebuilds the id index once the tree is deserialized
+	 * @param in Stream the tree is read from
+	 * @throws IOException when the tree can't be read
+	 * @throws ClassNotFoundException when a class of the tree can't be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		reindex();
 	}
 
 	/**
@@ -136,60 +587,119 @@ public class Tree implements Serializable {
 	}
 
 	/**
-	 * Recursive method that orders the elements in the appropriate order
+	 * Orders the elements in the appropriate order.  Walks the nodes iteratively,
+	 * so trees of any depth are supported
 	 * This method is stateless; changed to public/static to be usable as a utility.  -JM 05/14/13
 	 * @param nodes List of nodes in this tree
 	 * @param hldr List of nodes in preorder form
 	 */
 	public void createPreorder(List<Node> nodes, List<Node> hldr) {
-		if (!nodes.isEmpty()) {
-			for (Node n : nodes) {
-				hldr.add(n);
-				createPreorder(n.getChildren(), hldr);
-			}
-		}
+		TreeTraversal.preorder(nodes).forEachRemaining(hldr::add);
+	}
+
+	/**
+	 * Iterates the nodes below the root node in preorder, without building a
+	 * list of the nodes
+	 * @return Iterator of the nodes
+	 */
+	public Iterator<Node> preorderIterator() {
+		return TreeTraversal.preorder(rootNode.getChildren());
+	}
+
+	/**
+	 * Iterates the nodes below the root node in postorder (children before 
+	 * their parents)
+	 * @return Iterator of the nodes
+	 */
+	public Iterator<Node> postorderIterator() {
+		return TreeTraversal.postorder(rootNode.getChildren());
+	}
+
+	/**
+	 * Iterates the nodes below the root node breadth first (level by level)
+	 * @return Iterator of the nodes
+	 */
+	public Iterator<Node> breadthFirstIterator() {
+		return TreeTraversal.breadthFirst(rootNode.getChildren());
+	}
+
+	/**
+	 * Streams the nodes below the root node in preorder
+	 * @return Stream of the nodes
+	 */
+	public Stream<Node> stream() {
+		return TreeTraversal.preorderStream(rootNode.getChildren(), false);
+	}
+
+	/**
+	 * Streams the nodes below the root node in preorder, processing the 
+	 * subtrees in parallel
+	 * @return Parallel stream of the nodes
+	 */
+	public Stream<Node> parallelStream() {
+		return TreeTraversal.preorderStream(rootNode.getChildren(), true);
 	}
 
 	/**
 	 * Iterate from the given node through all it's children and set their total
-	 * number of children to be inclusive of 
+	 * number of children to be inclusive of.  The children are totaled before
+	 * their parents, without recursion
 	 * @param node Node of this tree
 	 * @return Total children (includes grandchildren)
 	 */
 	public static int calculateTotalChildren(Node node) {
 		if (node == null) return 0;
-		int total = 0;
-		for (Node n : node.getChildren()) {
-			total += calculateTotalChildren(n);
-			total++;
+
+		Iterator<Node> nodes = TreeTraversal.postorder(node);
+		while (nodes.hasNext()) {
+			Node n = nodes.next();
+			int total = 0;
+			for (Node child : n.getChildren()) total += child.getTotalChildren() + 1;
+			n.setTotalChildren(total);
 		}
-		
-		node.setTotalChildren(total);
 
-		return total;
+		return node.getTotalChildren();
 	}
 
 	/**
 	 * <p>Builds a Tree of Nodes using the ParentId and the NodeId to determine 
-	 * hierarchical structure of the tree.  Recursion is used to iteratively
-	 * add as many tree layers as desirable to the structure.</p>
+	 * hierarchical structure of the tree.  The data nodes are indexed by their
+	 * parent id, so each layer of the tree is added by looking up the children
+	 * of its nodes rather than comparing every data node to every node of the
+	 * layer.  The tree is built in a single pass over the data.</p>
 	 * <p> The tree structure can have from 0...n children per node.  
 	 * Each child can also have from 0 ... n children per node.  This allows 
 	 * the tree to grow in an unbalanced and arbitrary manner.</p>
+	 * <p>Ids are matched ignoring case, and a null parent id matches an empty
+	 * node id.  A data node is added below every node of the shallowest layer 
+	 * holding its parent id, in the order of the data.  Data nodes whose parent
+	 * is not in the tree are ignored.</p>
 	 * @param data Collection of Node elements to be added to the tree.  
 	 * The list can be in any order as long as the nodeId and parentId 
 	 * relationships are intact
-	 * @param children List containing the children to be processed.  On the 
-	 * initial call, the List should contain the root Node.  The root node 
-	 * must have a nodeId and ParentId of NULL.
-	 */
-	private void build(List<Node> data,  List<Node> children) {
-		depth++;
-		List<Node> newChildren = new ArrayList<>();
-		List<Node> removed = new ArrayList<>();
+	 * @param children List containing the first layer of the tree, which 
+	 * should contain the root Node.  The root node must have a nodeId and 
+	 * ParentId of NULL.
+	 */
+	private void build(List<Node> data,  List<NodeEntry> children) {
+		Map<String, List<Node>> byParent = new HashMap<>();
 		for (Node dataNode : data) {
-			for (Node childNode : children) {
-				if (StringUtil.defaultString(dataNode.getParentId()).equalsIgnoreCase(childNode.getNodeId())) {
+			String key = toIndexKey(StringUtil.defaultString(dataNode.getParentId()));
+			byParent.computeIfAbsent(key, k -> new ArrayList<>()).add(dataNode);
+		}
+
+		List<NodeEntry> level = children;
+		while (true) {
+			depth++;
+			List<NodeEntry> newChildren = new ArrayList<>();
+			List<String> assigned = new ArrayList<>();
+			for (NodeEntry childEntry : level) {
+				Node childNode = childEntry.node;
+				String key = childNode.getNodeId() == null ? null : toIndexKey(childNode.getNodeId());
+				List<Node> matches = key == null ? null : byParent.get(key);
+				if (matches == null) continue;
+
+				for (Node dataNode : matches) {
 					// To avoid recursive pointers within the nodes, assign the 
 					// Data node to a new node object. Also assign the 
 					// current depth level
@@ -197,20 +707,42 @@ public class Tree implements Serializable {
 					node.setDepthLevel(depth);
 					node.setParentName(childNode.getNodeName());
 					childNode.addChild(node);
-					newChildren.add(node);
 
-
-					// Add the data node to the removed list.  Once a node has
-					// Been assigned to a parent, it won't be called again.  
-					// We will eventually remove it from the data list to
-					// improve performance
-					removed.add(dataNode);
+					NodeEntry entry = new NodeEntry(node, childEntry);
+					index(entry);
+					countLevel(depth, 1);
+					newChildren.add(entry);
 				}
+
+				assigned.add(key);
 			}
+
+			// Once a node has been assigned to the parents of a layer, it won't 
+			// be assigned again.  Layer nodes sharing an id all receive the
+			// children before they are removed from the index
+			for (String key : assigned) byParent.remove(key);
+			if (newChildren.isEmpty()) break;
+			level = newChildren;
+		}
+	}
+
+	/**
+	 * Normalizes an id so ids equal ignoring case share the same key.  Each
+	 * character is folded the same way String.equalsIgnoreCase compares them
+	 * @param id Id to normalize
+	 * @return Key of the id.  The id itself when it is already normalized
+	 */
+	static String toIndexKey(String id) {
+		char[] key = null;
+		for (int i = 0; i < id.length(); i++) {
+			char c = id.charAt(i);
+			char folded = Character.toLowerCase(Character.toUpperCase(c));
+			if (folded == c) continue;
+			if (key == null) key = id.toCharArray();
+			key[i] = folded;
 		}
-		// Remove the assigned elements from the data list
-		data.removeAll(removed);
-		if (! newChildren.isEmpty()) build(data, newChildren);
+
+		return key == null ? id : new String(key);
 	}
 
 	/**
@@ -223,7 +755,12 @@ public class Tree implements Serializable {
 	 * Assigns the root node to the tree
 	 * @param rootNode Node to set as the root of the tree
 	 */
-	public void setRootNode(Node rootNode) { this.rootNode = rootNode; }
+	public void setRootNode(Node rootNode) { 
+		this.rootNode = rootNode;
+		int treeDepth = depth;
+		reindex();
+		depth = treeDepth;
+	}
 	
 	/**
 	 * 
@@ -233,6 +770,22 @@ public class Tree implements Serializable {
 		return rootNode;
 	}
 
+	/**
+	 * Returns the delimiter the paths were last built with
+	 * @return Delimiter of the paths.  Null when the paths are not built
+	 */
+	String getPathDelimiter() {
+		return pathDelimiter;
+	}
+
+	/**
+	 * Returns if the paths were last built with the names of the nodes
+	 * @return true when the paths use the names of the nodes
+	 */
+	boolean isPathUseName() {
+		return pathUseName;
+	}
+
 	/**
 	 * Set the fullPath variable of all nodes in the tree
 	 * using the tree's default delimiter
@@ -263,27 +816,40 @@ public class Tree implements Serializable {
 
 
 	/**
-	 * Recursively loop over all nodes and their children, setting the fullPath
+	 * Loop over all nodes and their children, setting the fullPath
 	 * variable for each Node in the Tree, starting from the supplied Node and
 	 * moving downwards.  Pass a boolean usage value if the hierarchy should be
-	 * based off names or nodeIds.
+	 * based off names or nodeIds.  Parents are assigned before their children
+	 * without recursion, so trees of any depth are supported
 	 * @param parentNode Node representing the parent node
 	 * @param delimiter delimiter/character to use in the path
 	 * @param useName Deternmines whether to use the name or id in the path
 	 */
 	public void buildNodePaths(Node parentNode, String delimiter, boolean useName) {
-		if (StringUtil.isEmpty(parentNode.getFullPath())) parentNode.setFullPath(delimiter);
-		
-		for (Node child : parentNode.getChildren()) {
-			StringBuilder path = new StringBuilder(50);
-			child.setFullPath(child.getFullPath().replace("null", ""));
-
-			if (StringUtil.isEmpty(child.getFullPath())) path.append(parentNode.getFullPath());
-			path.append(child.getFullPath());
-			path.append(useName && !StringUtil.isEmpty(child.getNodeName()) ? child.getNodeName() : child.getNodeId());
-
-			child.setFullPath(path.toString());
-			buildNodePaths(child, delimiter, useName);
+		if (parentNode == rootNode) {
+			pathDelimiter = delimiter;
+			pathUseName = useName;
+		}
+
+		pathIndex = null;
+
+		ArrayDeque<Node> parents = new ArrayDeque<>();
+		parents.add(parentNode);
+		while (! parents.isEmpty()) {
+			Node parent = parents.poll();
+			if (StringUtil.isEmpty(parent.getFullPath())) parent.setFullPath(delimiter);
+
+			for (Node child : parent.getChildren()) {
+				StringBuilder path = new StringBuilder(50);
+				child.setFullPath(child.getFullPath().replace("null", ""));
+
+				if (StringUtil.isEmpty(child.getFullPath())) path.append(parent.getFullPath());
+				path.append(child.getFullPath());
+				path.append(useName && !StringUtil.isEmpty(child.getNodeName()) ? child.getNodeName() : child.getNodeId());
+
+				child.setFullPath(path.toString());
+				parents.add(child);
+			}
 		}
 	}
 
@@ -295,7 +861,6 @@ public class Tree implements Serializable {
 	public int hashCode() {
 		int result = HashCodeUtil.hash(rootNode);
 		result += HashCodeUtil.hash(depth);
-		result += HashCodeUtil.hash(tempNode);
 
 		return result;
 	}
@@ -308,4 +873,23 @@ public class Tree implements Serializable {
 	public boolean equals(Object that) {
 		return false;
 	}
+
+	/**
+	 * Entry of the id index.  Links a node to the entry of its parent, so the
+	 * ancestors of a node are found without searching the tree
+	 */
+	private static class NodeEntry {
+		private final Node node;
+		private volatile NodeEntry parent;
+
+		/**
+		 * Creates the entry
+		 * @param node Node of the entry
+		 * @param parent Entry of the parent node.  Null for the root node
+		 */
+		NodeEntry(Node node, NodeEntry parent) {
+			this.node = node;
+			this.parent = parent;
+		}
+	}
 }
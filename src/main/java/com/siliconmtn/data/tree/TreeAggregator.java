@@ -0,0 +1,243 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/****************************************************************************
+ * <b>Title</b>: TreeAggregator.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Rolls up a value over each subtree of a hierarchy of
+ * nodes on a fork/join pool.  The value of a subtree is the value of its node
+ * combined, in order, with the values of the subtrees of its children, so the
+ * combiner must be associative but need not be commutative.  The nodes are
+ * first numbered in preorder, so each subtree is a range of positions.  Small
+ * subtrees are rolled up in a single loop over their range.  Larger ones
+ * follow their largest child without recursing and hand the other children to
+ * the pool, so deep trees don't overflow the stack.  The nodes must not be
+ * modified while they are aggregated
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public final class TreeAggregator {
+
+	/**
+	 * Subtrees up to this number of nodes are rolled up by a single task
+	 */
+	static final int SEQUENTIAL_THRESHOLD = 2048;
+
+	/**
+	 * Utility class
+	 */
+	private TreeAggregator() {
+		super();
+	}
+
+	/**
+	 * Rolls up a value over a node and its descendants on the common pool
+	 * @param <T> Type of the values
+	 * @param node Node starting the subtree
+	 * @param mapper Value of a single node.  Called once per node, from any thread
+	 * @param combiner Combines the value of a subtree with the value of the
+	 * subtree of a child.  Must be associative
+	 * @param consumer Receives each node with the value of its subtree, children
+	 * before their parents and from any thread.  May be null
+	 * @return Value of the subtree.  Null when the node is null
+	 */
+	public static <T> T aggregate(Node node, Function<Node, T> mapper, BinaryOperator<T> combiner, BiConsumer<Node, ? super T> consumer) {
+		return aggregate(node, mapper, combiner, consumer, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Rolls up a value over a node and its descendants on the assigned pool
+	 * @param <T> Type of the values
+	 * @param node Node starting the subtree
+	 * @param mapper Value of a single node.  Called once per node, from any thread
+	 * @param combiner Combines the value of a subtree with the value of the
+	 * subtree of a child.  Must be associative
+	 * @param consumer Receives each node with the value of its subtree, children
+	 * before their parents and from any thread.  May be null
+	 * @param pool Pool running the tasks
+	 * @return Value of the subtree.  Null when the node is null
+	 */
+	public static <T> T aggregate(Node node, Function<Node, T> mapper, BinaryOperator<T> combiner, BiConsumer<Node, ? super T> consumer, ForkJoinPool pool) {
+		if (node == null) return null;
+		Aggregation<T> aggregation = new Aggregation<>(node, mapper, combiner, consumer);
+		pool.invoke(new SubtreeTask<>(aggregation, 0, aggregation.size.length));
+		return aggregation.result(0);
+	}
+
+	/**
+	 * State of an aggregation.  Holds the nodes in preorder with the size of
+	 * their subtrees, and the value of each subtree once rolled up
+	 */
+	private static class Aggregation<T> {
+		private final Node[] nodes;
+		private final int[] size;
+		private final Object[] results;
+		private final Function<Node, T> mapper;
+		private final BinaryOperator<T> combiner;
+		private final BiConsumer<Node, ? super T> consumer;
+
+		/**
+		 * Numbers the nodes in preorder and sizes their subtrees
+		 * @param root Node starting the aggregation
+		 * @param mapper Value of a single node
+		 * @param combiner Combines the values of the subtrees
+		 * @param consumer Receives the value of each subtree.  May be null
+		 */
+		Aggregation(Node root, Function<Node, T> mapper, BinaryOperator<T> combiner, BiConsumer<Node, ? super T> consumer) {
+			this.mapper = mapper;
+			this.combiner = combiner;
+			this.consumer = consumer;
+
+			List<Node> order = new ArrayList<>();
+			List<Integer> parents = new ArrayList<>();
+			ArrayDeque<Node> pending = new ArrayDeque<>();
+			ArrayDeque<Integer> pendingParents = new ArrayDeque<>();
+			pending.push(root);
+			pendingParents.push(-1);
+			while (! pending.isEmpty()) {
+				Node node = pending.pop();
+				int parent = pendingParents.pop();
+				List<Node> children = node.getChildren();
+				for (int i = children.size() - 1; i >= 0; i--) {
+					pending.push(children.get(i));
+					pendingParents.push(order.size());
+				}
+
+				order.add(node);
+				parents.add(parent);
+			}
+
+			nodes = order.toArray(new Node[0]);
+			size = new int[nodes.length];
+			results = new Object[nodes.length];
+			for (int pos = nodes.length - 1; pos >= 0; pos--) {
+				size[pos]++;
+				if (pos > 0) size[parents.get(pos)] += size[pos];
+			}
+		}
+
+		/**
+		 * Returns the value of a subtree rolled up
+		 * @param pos Position of the node starting the subtree
+		 * @return Value of the subtree
+		 */
+		@SuppressWarnings("unchecked")
+		T result(int pos) {
+			return (T) results[pos];
+		}
+
+		/**
+		 * Rolls up a subtree.  Small subtrees are rolled up in place.  Larger
+		 * ones descend along the largest child, forking the other children, then
+		 * roll up the nodes of the path from the bottom
+		 * @param top Position of the node starting the subtree
+		 */
+		void computeSubtree(int top) {
+			List<Integer> path = new ArrayList<>();
+			List<ForkJoinTask<?>> forked = new ArrayList<>();
+			int pos = top;
+			while (size[pos] > SEQUENTIAL_THRESHOLD) {
+				path.add(pos);
+				int heavy = pos + 1;
+				for (int c = pos + 1; c < pos + size[pos]; c += size[c]) {
+					if (size[c] > size[heavy]) heavy = c;
+				}
+
+				// Fork the children before and after the largest one, batching
+				// the small ones so each task has enough nodes
+				forkSiblings(pos + 1, heavy, forked);
+				forkSiblings(heavy + size[heavy], pos + size[pos], forked);
+				pos = heavy;
+			}
+
+			computeRange(pos);
+			for (int i = forked.size() - 1; i >= 0; i--) forked.get(i).join();
+			for (int i = path.size() - 1; i >= 0; i--) combine(path.get(i));
+		}
+
+		/**
+		 * Forks the subtrees of consecutive siblings, in batches of about the
+		 * threshold number of nodes
+		 * @param from Position of the first sibling
+		 * @param to Position after the subtree of the last sibling
+		 * @param forked Receives the forked tasks
+		 */
+		private void forkSiblings(int from, int to, List<ForkJoinTask<?>> forked) {
+			int start = from;
+			for (int c = from; c < to; c += size[c]) {
+				if (c + size[c] - start >= SEQUENTIAL_THRESHOLD) {
+					forked.add(new SubtreeTask<>(this, start, c + size[c]).fork());
+					start = c + size[c];
+				}
+			}
+
+			if (start < to) forked.add(new SubtreeTask<>(this, start, to).fork());
+		}
+
+		/**
+		 * Rolls up a subtree in a single loop, from the last position to the
+		 * first, so the children are done before their parents
+		 * @param top Position of the node starting the subtree
+		 */
+		void computeRange(int top) {
+			for (int pos = top + size[top] - 1; pos >= top; pos--) combine(pos);
+		}
+
+		/**
+		 * Rolls up a node with the subtrees of its children, which must be done
+		 * @param pos Position of the node
+		 */
+		private void combine(int pos) {
+			T value = mapper.apply(nodes[pos]);
+			for (int c = pos + 1; c < pos + size[pos]; c += size[c]) value = combiner.apply(value, result(c));
+			results[pos] = value;
+			if (consumer != null) consumer.accept(nodes[pos], value);
+		}
+	}
+
+	/**
+	 * Task rolling up the subtrees of consecutive siblings
+	 */
+	private static class SubtreeTask<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1l;
+		private final transient Aggregation<T> aggregation;
+		private final int from;
+		private final int to;
+
+		/**
+		 * Creates the task
+		 * @param aggregation Aggregation of the subtrees
+		 * @param from Position of the first sibling
+		 * @param to Position after the subtree of the last sibling
+		 */
+		SubtreeTask(Aggregation<T> aggregation, int from, int to) {
+			this.aggregation = aggregation;
+			this.from = from;
+			this.to = to;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			for (int pos = from; pos < to; pos += aggregation.size[pos]) aggregation.computeSubtree(pos);
+		}
+	}
+}
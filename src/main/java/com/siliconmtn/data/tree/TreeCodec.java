@@ -0,0 +1,439 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/****************************************************************************
+ * <b>Title</b>: TreeCodec.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Compact binary format of a Tree, for caches and other
+ * stores where Java serialization is too slow and too large.  The nodes are
+ * written in preorder as the number of children of each node, followed by the
+ * values of each node, with the strings written once in a shared table and the
+ * numbers written as varints.  A full path extending the path of the parent is
+ * written as the part added by the node.  The user objects are written by a pluggable
+ * TreeObjectCodec.  Decoding creates an EncodedTree, which reads the values
+ * of a node only when they are requested, or a Tree with all of its nodes.
+ * The codec holds no state and is safe for concurrent use
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class TreeCodec {
+
+	/**
+	 * Codec of the user objects used when none is assigned.  Writes Strings,
+	 * Integers, Longs, Doubles and Booleans directly and other Serializable
+	 * objects with Java serialization.  Only the value types and collections of
+	 * the JDK (java.lang, java.math, java.time and java.util) are deserialized;
+	 * use createObjectCodec to read other classes
+	 */
+	public static final TreeObjectCodec DEFAULT_OBJECT_CODEC = new DefaultObjectCodec(Set.of());
+
+	// First bytes of the encoded data, followed by the version of the format
+	static final byte[] MAGIC = { 'S', 'T' };
+	static final int VERSION = 1;
+
+	// Flags of the nodes
+	static final int LEAF = 1;
+	static final int ROOT = 2;
+	static final int PATH_SUFFIX = 4;
+
+	private final TreeObjectCodec objectCodec;
+
+	/**
+	 * Creates a codec writing the user objects with the default codec
+	 */
+	public TreeCodec() {
+		this(DEFAULT_OBJECT_CODEC);
+	}
+
+	/**
+	 * Creates a codec writing the user objects with the assigned codec
+	 * @param objectCodec Codec of the user objects
+	 */
+	public TreeCodec(TreeObjectCodec objectCodec) {
+		this.objectCodec = objectCodec == null ? DEFAULT_OBJECT_CODEC : objectCodec;
+	}
+
+	/**
+	 * Creates a codec like the default one that also deserializes the listed
+	 * classes.  Data from an untrusted source must not list classes whose
+	 * deserialization runs code, as any class not listed is rejected
+	 * @param allowed Classes of the user objects read with Java serialization
+	 * @return Codec of the user objects
+	 */
+	public static TreeObjectCodec createObjectCodec(Class<?>... allowed) {
+		return new DefaultObjectCodec(Set.of(allowed));
+	}
+
+	/**
+	 * Encodes a tree
+	 * @param tree Tree to encode
+	 * @return Encoded tree
+	 * @throws IOException When a user object can't be written
+	 */
+	public byte[] encode(Tree tree) throws IOException {
+		List<Node> nodes = new ArrayList<>();
+		List<Integer> parents = new ArrayList<>();
+		ArrayDeque<Node> pending = new ArrayDeque<>();
+		ArrayDeque<Integer> pendingParents = new ArrayDeque<>();
+		pending.push(tree.getRootNode());
+		pendingParents.push(-1);
+		while (! pending.isEmpty()) {
+			Node node = pending.pop();
+			int parent = pendingParents.pop();
+			List<Node> children = node.getChildren();
+			for (int i = children.size() - 1; i >= 0; i--) {
+				pending.push(children.get(i));
+				pendingParents.push(nodes.size());
+			}
+
+			nodes.add(node);
+			parents.add(parent);
+		}
+
+		// Assign the strings to the table.  Reference 0 is null
+		Map<String, Integer> refs = new HashMap<>();
+		List<String> strings = new ArrayList<>();
+		int[] values = new int[nodes.size() * 5];
+		int[] flags = new int[nodes.size()];
+		int delimiter = intern(tree.getPathDelimiter(), refs, strings);
+		for (int i = 0; i < nodes.size(); i++) {
+			Node node = nodes.get(i);
+			values[i * 5] = intern(node.getNodeId(), refs, strings);
+			values[i * 5 + 1] = intern(node.getParentId(), refs, strings);
+			values[i * 5 + 2] = intern(node.getNodeName(), refs, strings);
+			values[i * 5 + 3] = intern(node.getParentName(), refs, strings);
+			flags[i] = (node.isLeaf() ? LEAF : 0) | (node.isRoot() ? ROOT : 0);
+
+			String path = node.getFullPath();
+			String parentPath = i == 0 ? null : nodes.get(parents.get(i)).getFullPath();
+			if (path != null && parentPath != null && path.startsWith(parentPath)) {
+				path = path.substring(parentPath.length());
+				flags[i] |= PATH_SUFFIX;
+			}
+
+			values[i * 5 + 4] = intern(path, refs, strings);
+		}
+
+		ByteWriter out = new ByteWriter();
+		out.writeBytes(MAGIC);
+		out.writeByte(VERSION);
+		out.writeVarint(tree.getDepth());
+		out.writeVarint(delimiter);
+		out.writeByte(tree.isPathUseName() ? 1 : 0);
+
+		out.writeVarint(strings.size());
+		for (String value : strings) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeVarint(bytes.length);
+			out.writeBytes(bytes);
+		}
+
+		out.writeVarint(nodes.size());
+		for (Node node : nodes) out.writeVarint(node.getChildren().size());
+
+		for (int i = 0; i < nodes.size(); i++) {
+			Node node = nodes.get(i);
+			for (int v = 0; v < 5; v++) out.writeVarint(values[i * 5 + v]);
+			out.writeVarint(zigzag(node.getDepthLevel()));
+			out.writeVarint(zigzag(node.getOrderNo()));
+			out.writeVarint(zigzag(node.getTotalChildren()));
+			out.writeByte(flags[i]);
+		}
+
+		// User objects are prefixed by their length + 1, so they can be skipped
+		ByteArrayOutputStream object = new ByteArrayOutputStream();
+		DataOutputStream objectOut = new DataOutputStream(object);
+		for (Node node : nodes) {
+			if (node.getUserObject() == null) {
+				out.writeVarint(0);
+				continue;
+			}
+
+			object.reset();
+			objectCodec.write(node.getUserObject(), objectOut);
+			objectOut.flush();
+			out.writeVarint(object.size() + 1);
+			out.writeBytes(object.toByteArray());
+		}
+
+		return out.toByteArray();
+	}
+
+	/**
+	 * Encodes a tree to a stream
+	 * @param tree Tree to encode
+	 * @param out Stream receiving the encoded tree.  Not closed
+	 * @throws IOException When the tree can't be written
+	 */
+	public void encode(Tree tree, OutputStream out) throws IOException {
+		out.write(encode(tree));
+	}
+
+	/**
+	 * Creates a view of an encoded tree.  Only the structure is read, the
+	 * values of the nodes are read when they are requested
+	 * @param data Encoded tree.  Must not be modified while the view is used
+	 * @return View of the tree
+	 * @throws IOException When the data is not an encoded tree
+	 */
+	public EncodedTree view(byte[] data) throws IOException {
+		return new EncodedTree(data, objectCodec);
+	}
+
+	/**
+	 * Decodes a tree with all of its nodes
+	 * @param data Encoded tree
+	 * @return Tree decoded
+	 * @throws IOException When the data is not an encoded tree
+	 */
+	public Tree decode(byte[] data) throws IOException {
+		return view(data).toTree();
+	}
+
+	/**
+	 * Decodes a tree from a stream
+	 * @param in Stream holding the encoded tree.  Read to its end and not closed
+	 * @return Tree decoded
+	 * @throws IOException When the data is not an encoded tree
+	 */
+	public Tree decode(InputStream in) throws IOException {
+		return decode(in.readAllBytes());
+	}
+
+	/**
+	 * Returns the table reference of a string, adding it to the table when new
+	 * @param value String to add
+	 * @param refs References of the strings in the table
+	 * @param strings Strings of the table
+	 * @return Reference of the string.  0 for null
+	 */
+	private static int intern(String value, Map<String, Integer> refs, List<String> strings) {
+		if (value == null) return 0;
+		Integer ref = refs.get(value);
+		if (ref != null) return ref;
+
+		strings.add(value);
+		refs.put(value, strings.size());
+		return strings.size();
+	}
+
+	/**
+	 * Maps a signed value to an unsigned value, so small negative numbers are
+	 * written in a few bytes
+	 * @param value Signed value
+	 * @return Zigzag encoded value
+	 */
+	static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	/**
+	 * Growable buffer of the encoded bytes
+	 */
+	private static class ByteWriter {
+		private byte[] buffer = new byte[256];
+		private int size;
+
+		/**
+		 * Writes a byte
+		 * @param value Byte to write
+		 */
+		void writeByte(int value) {
+			ensure(1);
+			buffer[size++] = (byte) value;
+		}
+
+		/**
+		 * Writes bytes
+		 * @param bytes Bytes to write
+		 */
+		void writeBytes(byte[] bytes) {
+			ensure(bytes.length);
+			System.arraycopy(bytes, 0, buffer, size, bytes.length);
+			size += bytes.length;
+		}
+
+		/**
+		 * Writes an unsigned int, 7 bits per byte, least significant first
+		 * @param value Value to write
+		 */
+		void writeVarint(int value) {
+			ensure(5);
+			while ((value & ~0x7F) != 0) {
+				buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+
+			buffer[size++] = (byte) value;
+		}
+
+		/**
+		 * Grows the buffer to hold more bytes
+		 * @param length Number of bytes to add
+		 */
+		private void ensure(int length) {
+			if (size + length > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+		}
+
+		/**
+		 * Returns the bytes written
+		 * @return Copy of the bytes
+		 */
+		byte[] toByteArray() {
+			return Arrays.copyOf(buffer, size);
+		}
+	}
+
+	/**
+	 * Codec of the common value types, falling back to Java serialization.  The
+	 * serialized objects are read through a filter rejecting the classes not
+	 * allowed, so the data can't create arbitrary objects of the classpath
+	 */
+	private static class DefaultObjectCodec implements TreeObjectCodec {
+		private static final int STRING = 1;
+		private static final int INTEGER = 2;
+		private static final int LONG = 3;
+		private static final int DOUBLE = 4;
+		private static final int BOOLEAN = 5;
+		private static final int SERIALIZED = 6;
+
+		// Packages of the JDK classes always allowed, and the deepest nesting of
+		// the objects read
+		private static final Set<String> JDK_PACKAGES = Set.of("java.lang", "java.math", "java.time", "java.util");
+		private static final int MAX_DEPTH = 32;
+
+		private final Set<Class<?>> allowed;
+
+		/**
+		 * Creates the codec
+		 * @param allowed Classes deserialized on top of the JDK value types
+		 */
+		DefaultObjectCodec(Set<Class<?>> allowed) {
+			this.allowed = allowed;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.data.tree.TreeObjectCodec#write(java.lang.Object, java.io.DataOutput)
+		 */
+		@Override
+		public void write(Object value, DataOutput out) throws IOException {
+			if (value instanceof String) {
+				byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+				out.writeByte(STRING);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			} else if (value instanceof Integer) {
+				out.writeByte(INTEGER);
+				out.writeInt((Integer) value);
+			} else if (value instanceof Long) {
+				out.writeByte(LONG);
+				out.writeLong((Long) value);
+			} else if (value instanceof Double) {
+				out.writeByte(DOUBLE);
+				out.writeDouble((Double) value);
+			} else if (value instanceof Boolean) {
+				out.writeByte(BOOLEAN);
+				out.writeBoolean((Boolean) value);
+			} else if (value instanceof Serializable) {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+					objectOut.writeObject(value);
+				}
+
+				out.writeByte(SERIALIZED);
+				out.writeInt(bytes.size());
+				out.write(bytes.toByteArray());
+			} else {
+				throw new IOException("No codec for user objects of " + value.getClass().getName());
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.data.tree.TreeObjectCodec#read(java.io.DataInput)
+		 */
+		@Override
+		public Object read(DataInput in) throws IOException {
+			int type = in.readByte();
+			switch (type) {
+				case STRING:
+					return new String(readBytes(in), StandardCharsets.UTF_8);
+				case INTEGER:
+					return in.readInt();
+				case LONG:
+					return in.readLong();
+				case DOUBLE:
+					return in.readDouble();
+				case BOOLEAN:
+					return in.readBoolean();
+				case SERIALIZED:
+					try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+						objectIn.setObjectInputFilter(this::checkInput);
+						return objectIn.readObject();
+					} catch (ClassNotFoundException e) {
+						throw new IOException("Unable to read user object", e);
+					}
+				default:
+					throw new IOException("Unknown user object type " + type);
+			}
+		}
+
+		/**
+		 * Filters the classes of the serialized objects.  The process wide filter,
+		 * when one is set, is applied first
+		 * @param info Class and nesting of the object being read
+		 * @return Status of the object
+		 */
+		private ObjectInputFilter.Status checkInput(ObjectInputFilter.FilterInfo info) {
+			ObjectInputFilter global = ObjectInputFilter.Config.getSerialFilter();
+			if (global != null && global.checkInput(info) == ObjectInputFilter.Status.REJECTED) return ObjectInputFilter.Status.REJECTED;
+			if (info.depth() > MAX_DEPTH) return ObjectInputFilter.Status.REJECTED;
+
+			Class<?> type = info.serialClass();
+			if (type == null) return ObjectInputFilter.Status.UNDECIDED;
+			while (type.isArray()) type = type.getComponentType();
+
+			boolean jdk = JDK_PACKAGES.contains(type.getPackageName());
+			return type.isPrimitive() || jdk || allowed.contains(type) ? ObjectInputFilter.Status.ALLOWED : ObjectInputFilter.Status.REJECTED;
+		}
+
+		/**
+		 * Reads bytes prefixed by their length
+		 * @param in Input holding the bytes
+		 * @return Bytes read
+		 * @throws IOException When the bytes can't be read
+		 */
+		private byte[] readBytes(DataInput in) throws IOException {
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			return bytes;
+		}
+	}
+}
@@ -0,0 +1,292 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/****************************************************************************
+ * <b>Title</b>: TreeIntervalIndex.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Nested set index of a hierarchy of nodes.  Each node is
+ * numbered in preorder when it is entered and records the last number of its
+ * subtree when it is exited, so a node is below another when its number falls
+ * in the interval of the other.  Ancestor, descendant and subtree membership
+ * checks compare two ints, and lowest common ancestors are found in constant
+ * time from a sparse table of the levels, built on the first such query.  The
+ * index is a snapshot of the nodes when it was created, and is safe for
+ * concurrent readers
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public final class TreeIntervalIndex {
+
+	/**
+	 * Position returned when a node is not found
+	 */
+	public static final int NOT_FOUND = -1;
+
+	// Nodes in preorder, with the last position of their subtree, the position
+	// of their parent and their level below the root
+	private final Node[] nodes;
+	private final int[] exit;
+	private final int[] parent;
+	private final int[] level;
+
+	// Positions of the nodes below the root by their case-folded id
+	private final Map<String, Integer> positions = new HashMap<>();
+
+	// Position of the lowest level node in each range of 2^k positions
+	private volatile int[][] sparse;
+
+	/**
+	 * Indexes a node and its descendants.  Ids used by several nodes resolve to
+	 * the shallowest one, first in preorder, the same node Tree.findNode returns
+	 * @param root Root node of the hierarchy.  Null indexes no nodes
+	 */
+	public TreeIntervalIndex(Node root) {
+		int size = root == null ? 0 : (int) TreeTraversal.preorderStream(root, false).count();
+		nodes = new Node[size];
+		exit = new int[size];
+		parent = new int[size];
+		level = new int[size];
+		if (size == 0) return;
+
+		// Number the nodes on entry and close their intervals on exit
+		Deque<Iterator<Node>> children = new ArrayDeque<>();
+		Deque<Integer> open = new ArrayDeque<>();
+		nodes[0] = root;
+		parent[0] = NOT_FOUND;
+		children.push(root.getChildren().iterator());
+		open.push(0);
+		int next = 1;
+		while (! children.isEmpty()) {
+			Iterator<Node> it = children.peek();
+			if (it.hasNext()) {
+				Node node = it.next();
+				int pos = next++;
+				nodes[pos] = node;
+				parent[pos] = open.peek();
+				level[pos] = level[parent[pos]] + 1;
+				children.push(node.getChildren().iterator());
+				open.push(pos);
+			} else {
+				children.pop();
+				exit[open.pop()] = next - 1;
+			}
+		}
+
+		for (int pos = 1; pos < size; pos++) {
+			String id = nodes[pos].getNodeId();
+			if (id == null) continue;
+
+			String key = Tree.toIndexKey(id);
+			Integer current = positions.get(key);
+			if (current == null || level[pos] < level[current]) positions.put(key, pos);
+		}
+	}
+
+	/**
+	 * Returns the number of nodes, including the root node
+	 * @return Number of nodes
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Returns the position of a node below the root.  Ids are matched ignoring
+	 * case
+	 * @param nodeId Id of the node
+	 * @return Preorder position of the node.  NOT_FOUND if not found
+	 */
+	public int indexOf(String nodeId) {
+		if (nodeId == null) return NOT_FOUND;
+		Integer pos = positions.get(Tree.toIndexKey(nodeId));
+		return pos == null ? NOT_FOUND : pos;
+	}
+
+	/**
+	 * Returns the node at a position.  The root node is at position 0
+	 * @param position Preorder position of the node
+	 * @return Node at the position
+	 */
+	public Node getNode(int position) {
+		return nodes[position];
+	}
+
+	/**
+	 * Returns the last position of the subtree of a node
+	 * @param position Preorder position of the node
+	 * @return Position of the last descendant, or the node itself when it is a leaf
+	 */
+	public int getExit(int position) {
+		return exit[position];
+	}
+
+	/**
+	 * Returns the number of levels between a node and the root node
+	 * @param position Preorder position of the node
+	 * @return Level of the node
+	 */
+	public int getLevel(int position) {
+		return level[position];
+	}
+
+	/**
+	 * Returns the parent of a node
+	 * @param position Preorder position of the node
+	 * @return Position of the parent.  NOT_FOUND for the root node
+	 */
+	public int getParent(int position) {
+		return parent[position];
+	}
+
+	/**
+	 * Checks if a node is an ancestor of another node
+	 * @param ancestorId Id of the ancestor
+	 * @param nodeId Id of the node
+	 * @return true when the node is below the ancestor.  false when either
+	 * node is not found or both are the same node
+	 */
+	public boolean isAncestor(String ancestorId, String nodeId) {
+		int ancestor = indexOf(ancestorId);
+		int node = indexOf(nodeId);
+		return ancestor != NOT_FOUND && node != NOT_FOUND && isAncestor(ancestor, node);
+	}
+
+	/**
+	 * Checks if a node is a descendant of another node
+	 * @param nodeId Id of the node
+	 * @param ancestorId Id of the ancestor
+	 * @return true when the node is below the ancestor.  false when either
+	 * node is not found or both are the same node
+	 */
+	public boolean isDescendant(String nodeId, String ancestorId) {
+		return isAncestor(ancestorId, nodeId);
+	}
+
+	/**
+	 * Checks if a node is in the subtree of another node, which includes the
+	 * node starting the subtree
+	 * @param nodeId Id of the node
+	 * @param subtreeId Id of the node starting the subtree
+	 * @return true when the node is the other node or below it
+	 */
+	public boolean isInSubtree(String nodeId, String subtreeId) {
+		int node = indexOf(nodeId);
+		int subtree = indexOf(subtreeId);
+		return node != NOT_FOUND && subtree != NOT_FOUND && isInSubtree(node, subtree);
+	}
+
+	/**
+	 * Checks if a node is an ancestor of another node
+	 * @param ancestor Position of the ancestor
+	 * @param node Position of the node
+	 * @return true when the node is below the ancestor
+	 */
+	public boolean isAncestor(int ancestor, int node) {
+		return ancestor < node && node <= exit[ancestor];
+	}
+
+	/**
+	 * Checks if a node is in the subtree of another node
+	 * @param node Position of the node
+	 * @param subtree Position of the node starting the subtree
+	 * @return true when the node is the other node or below it
+	 */
+	public boolean isInSubtree(int node, int subtree) {
+		return subtree <= node && node <= exit[subtree];
+	}
+
+	/**
+	 * Lists a node and its descendants
+	 * @param nodeId Id of the node starting the subtree
+	 * @return Read only list of the nodes in preorder.  Empty if not found
+	 */
+	public List<Node> getSubtree(String nodeId) {
+		int pos = indexOf(nodeId);
+		if (pos == NOT_FOUND) return Collections.emptyList();
+		return Collections.unmodifiableList(Arrays.asList(nodes).subList(pos, exit[pos] + 1));
+	}
+
+	/**
+	 * Returns the deepest node having both nodes in its subtree
+	 * @param firstId Id of the first node
+	 * @param secondId Id of the second node
+	 * @return Lowest common ancestor, which may be the root node or one of the
+	 * nodes.  Null when either node is not found
+	 */
+	public Node getLowestCommonAncestor(String firstId, String secondId) {
+		int first = indexOf(firstId);
+		int second = indexOf(secondId);
+		if (first == NOT_FOUND || second == NOT_FOUND) return null;
+		return nodes[lowestCommonAncestor(first, second)];
+	}
+
+	/**
+	 * Returns the deepest node having both nodes in its subtree.  The lowest
+	 * level node numbered after the first node, up to the second one, is a
+	 * child of the lowest common ancestor
+	 * @param first Position of the first node
+	 * @param second Position of the second node
+	 * @return Position of the lowest common ancestor
+	 */
+	public int lowestCommonAncestor(int first, int second) {
+		if (first == second) return first;
+		int from = Math.min(first, second) + 1;
+		int to = Math.max(first, second);
+
+		int[][] table = getSparseTable();
+		int k = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+		int a = table[k][from];
+		int b = table[k][to - (1 << k) + 1];
+		return parent[level[a] <= level[b] ? a : b];
+	}
+
+	/**
+	 * Returns the sparse table of the lowest level positions, building it on
+	 * the first call
+	 * @return Sparse table, by power of two then by starting position
+	 */
+	private int[][] getSparseTable() {
+		int[][] table = sparse;
+		if (table != null) return table;
+
+		synchronized (this) {
+			if (sparse != null) return sparse;
+
+			int size = nodes.length;
+			int rows = 32 - Integer.numberOfLeadingZeros(Math.max(1, size));
+			table = new int[rows][];
+			table[0] = new int[size];
+			for (int i = 0; i < size; i++) table[0][i] = i;
+
+			for (int k = 1; k < rows; k++) {
+				int half = 1 << (k - 1);
+				int[] prev = table[k - 1];
+				int[] row = new int[size - (1 << k) + 1];
+				for (int i = 0; i < row.length; i++) {
+					int a = prev[i];
+					int b = prev[i + half];
+					row[i] = level[a] <= level[b] ? a : b;
+				}
+
+				table[k] = row;
+			}
+
+			sparse = table;
+			return table;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/****************************************************************************
+ * <b>Title</b>: TreeObjectCodec.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Writes and reads the user objects of the nodes for the
+ * TreeCodec.  The default codec writes Strings, Integers, Longs, Doubles and
+ * Booleans directly and falls back to Java serialization for other objects,
+ * reading only the JDK value types unless more classes are allowed through
+ * TreeCodec.createObjectCodec.
+ * Applications storing their own types register a codec writing them directly
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public interface TreeObjectCodec {
+
+	/**
+	 * Writes a user object.  Null objects are handled by the TreeCodec and are
+	 * not passed to the codec
+	 * @param value User object of a node
+	 * @param out Output receiving the object
+	 * @throws IOException When the object can't be written
+	 */
+	void write(Object value, DataOutput out) throws IOException;
+
+	/**
+	 * Reads a user object written by the codec
+	 * @param in Input holding the bytes written for the object
+	 * @return User object
+	 * @throws IOException When the object can't be read
+	 */
+	Object read(DataInput in) throws IOException;
+}
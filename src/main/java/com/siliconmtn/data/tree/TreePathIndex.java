@@ -0,0 +1,188 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/****************************************************************************
+ * <b>Title</b>: TreePathIndex.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Sorted index of the full paths and names of a hierarchy
+ * of nodes.  Paths are looked up exactly or by prefix with a binary search over
+ * the sorted paths, and names are completed ignoring case the same way.  The
+ * paths are compared as the strings built by Tree.buildNodePaths, so a prefix
+ * matches every path starting with it, including siblings whose label extends
+ * the last label of the prefix.  Nodes sharing a path or a name are kept in
+ * preorder.  The index is a snapshot of the nodes when it was created, and is
+ * safe for concurrent readers
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public final class TreePathIndex {
+
+	// Nodes sorted by full path, and by case-folded name
+	private final String[] paths;
+	private final Node[] byPath;
+	private final String[] names;
+	private final Node[] byName;
+
+	/**
+	 * Indexes a node and its descendants.  Nodes without a path are not found
+	 * by path, and nodes without a name are not found by name
+	 * @param root Root node of the hierarchy.  Null indexes no nodes
+	 */
+	public TreePathIndex(Node root) {
+		List<Entry> pathEntries = new ArrayList<>();
+		List<Entry> nameEntries = new ArrayList<>();
+		TreeTraversal.preorder(root).forEachRemaining(node -> {
+			if (node.getFullPath() != null) pathEntries.add(new Entry(node.getFullPath(), node));
+			if (node.getNodeName() != null) nameEntries.add(new Entry(Tree.toIndexKey(node.getNodeName()), node));
+		});
+
+		// The sort is stable, so equal keys stay in preorder
+		Entry[] sorted = pathEntries.toArray(new Entry[0]);
+		Arrays.sort(sorted, Comparator.comparing(e -> e.key));
+		paths = new String[sorted.length];
+		byPath = new Node[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			paths[i] = sorted[i].key;
+			byPath[i] = sorted[i].node;
+		}
+
+		sorted = nameEntries.toArray(new Entry[0]);
+		Arrays.sort(sorted, Comparator.comparing(e -> e.key));
+		names = new String[sorted.length];
+		byName = new Node[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			names[i] = sorted[i].key;
+			byName[i] = sorted[i].node;
+		}
+	}
+
+	/**
+	 * Returns the number of nodes having a path
+	 * @return Number of paths indexed
+	 */
+	public int size() {
+		return paths.length;
+	}
+
+	/**
+	 * Finds the node with a full path
+	 * @param path Full path of the node
+	 * @return First node in preorder with the path.  Null if not found
+	 */
+	public Node findByPath(String path) {
+		if (path == null) return null;
+		int i = lowerBound(paths, path);
+		return i < paths.length && paths[i].equals(path) ? byPath[i] : null;
+	}
+
+	/**
+	 * Lists the nodes with a full path starting with a prefix
+	 * @param prefix Start of the paths.  Empty lists every node having a path
+	 * @return Read only list of the nodes, sorted by path
+	 */
+	public List<Node> listByPrefix(String prefix) {
+		if (prefix == null) return Collections.emptyList();
+		int from = lowerBound(paths, prefix);
+		int to = from;
+		while (to < paths.length && paths[to].startsWith(prefix)) to++;
+
+		return Collections.unmodifiableList(Arrays.asList(byPath).subList(from, to));
+	}
+
+	/**
+	 * Lists the nodes below a node, found by its full path
+	 * @param path Full path of the node
+	 * @return Read only list of the node and its descendants in preorder.  Empty
+	 * if not found
+	 */
+	public List<Node> listUnder(String path) {
+		Node node = findByPath(path);
+		if (node == null) return Collections.emptyList();
+
+		List<Node> nodes = new ArrayList<>();
+		TreeTraversal.preorder(node).forEachRemaining(nodes::add);
+		return Collections.unmodifiableList(nodes);
+	}
+
+	/**
+	 * Lists the distinct names starting with a prefix, ignoring case
+	 * @param prefix Start of the names
+	 * @param limit Maximum number of names returned
+	 * @return Names as set on the nodes, sorted ignoring case.  The first node
+	 * in preorder provides the case of names differing only by case
+	 */
+	public List<String> completeName(String prefix, int limit) {
+		if (prefix == null || limit <= 0) return Collections.emptyList();
+		String key = Tree.toIndexKey(prefix);
+		List<String> matches = new ArrayList<>();
+		int from = lowerBound(names, key);
+		for (int i = from; i < names.length && names[i].startsWith(key) && matches.size() < limit; i++) {
+			if (i == from || ! names[i].equals(names[i - 1])) matches.add(byName[i].getNodeName());
+		}
+
+		return matches;
+	}
+
+	/**
+	 * Lists the nodes with a name starting with a prefix, ignoring case
+	 * @param prefix Start of the names
+	 * @return Read only list of the nodes, sorted by name
+	 */
+	public List<Node> listByNamePrefix(String prefix) {
+		if (prefix == null) return Collections.emptyList();
+		String key = Tree.toIndexKey(prefix);
+		int from = lowerBound(names, key);
+		int to = from;
+		while (to < names.length && names[to].startsWith(key)) to++;
+
+		return Collections.unmodifiableList(Arrays.asList(byName).subList(from, to));
+	}
+
+	/**
+	 * Returns the first position of a sorted array holding a value not less
+	 * than the key
+	 * @param sorted Sorted values
+	 * @param key Value searched
+	 * @return Position of the first value not less than the key
+	 */
+	private static int lowerBound(String[] sorted, String key) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (sorted[mid].compareTo(key) < 0) low = mid + 1;
+			else high = mid;
+		}
+
+		return low;
+	}
+
+	/**
+	 * Key of a node while the index is sorted
+	 */
+	private static class Entry {
+		private final String key;
+		private final Node node;
+
+		/**
+		 * Creates the entry
+		 * @param key Path or case-folded name
+		 * @param node Node of the key
+		 */
+		Entry(String key, Node node) {
+			this.key = key;
+			this.node = node;
+		}
+	}
+}
@@ -0,0 +1,393 @@
+package com.siliconmtn.data.tree;
+
+// JDK 11
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/****************************************************************************
+ * <b>Title</b>: TreeTraversal.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Lazy, iterative traversals of a hierarchy of nodes.  The
+ * iterators keep a stack or queue of pending nodes instead of recursing, so
+ * trees of any depth are walked without a StackOverflowError, and the nodes are
+ * returned one at a time instead of being collected into a list.  The preorder
+ * spliterator splits the pending subtrees, so parallel streams process the
+ * subtrees on separate threads.  The nodes must not be modified while they are
+ * traversed
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public final class TreeTraversal {
+
+	/**
+	 * Utility class
+	 */
+	private TreeTraversal() {
+		super();
+	}
+
+	/**
+	 * Iterates the node and its descendants in preorder (parents before their children)
+	 * @param node Node starting the traversal.  Null returns no nodes
+	 * @return Iterator of the nodes
+	 */
+	public static Iterator<Node> preorder(Node node) {
+		return new PreorderIterator(toList(node));
+	}
+
+	/**
+	 * Iterates the nodes and their descendants in preorder (parents before their children)
+	 * @param nodes Nodes starting the traversal
+	 * @return Iterator of the nodes
+	 */
+	public static Iterator<Node> preorder(List<Node> nodes) {
+		return new PreorderIterator(nodes);
+	}
+
+	/**
+	 * Iterates the node and its descendants in postorder (children before their parents)
+	 * @param node Node starting the traversal.  Null returns no nodes
+	 * @return Iterator of the nodes
+	 */
+	public static Iterator<Node> postorder(Node node) {
+		return new PostorderIterator(toList(node));
+	}
+
+	/**
+	 * Iterates the nodes and their descendants in postorder (children before their parents)
+	 * @param nodes Nodes starting the traversal
+	 * @return Iterator of the nodes
+	 */
+	public static Iterator<Node> postorder(List<Node> nodes) {
+		return new PostorderIterator(nodes);
+	}
+
+	/**
+	 * Iterates the node and its descendants breadth first (level by level)
+	 * @param node Node starting the traversal.  Null returns no nodes
+	 * @return Iterator of the nodes
+	 */
+	public static Iterator<Node> breadthFirst(Node node) {
+		return new BreadthFirstIterator(toList(node));
+	}
+
+	/**
+	 * Iterates the nodes and their descendants breadth first (level by level)
+	 * @param nodes Nodes starting the traversal
+	 * @return Iterator of the nodes
+	 */
+	public static Iterator<Node> breadthFirst(List<Node> nodes) {
+		return new BreadthFirstIterator(nodes);
+	}
+
+	/**
+	 * Creates a spliterator of the nodes and their descendants in preorder.
+	 * Splitting hands the first half of the pending subtrees to the new
+	 * spliterator, so the encounter order is kept
+	 * @param nodes Nodes starting the traversal
+	 * @return Spliterator of the nodes
+	 */
+	public static Spliterator<Node> preorderSpliterator(List<Node> nodes) {
+		return new PreorderSpliterator(null, new ArrayDeque<>(nodes), Long.MAX_VALUE);
+	}
+
+	/**
+	 * Streams the node and its descendants in preorder
+	 * @param node Node starting the traversal.  Null returns no nodes
+	 * @param parallel true to process the subtrees in parallel
+	 * @return Stream of the nodes
+	 */
+	public static Stream<Node> preorderStream(Node node, boolean parallel) {
+		return StreamSupport.stream(preorderSpliterator(toList(node)), parallel);
+	}
+
+	/**
+	 * Streams the nodes and their descendants in preorder
+	 * @param nodes Nodes starting the traversal
+	 * @param parallel true to process the subtrees in parallel
+	 * @return Stream of the nodes
+	 */
+	public static Stream<Node> preorderStream(List<Node> nodes, boolean parallel) {
+		return StreamSupport.stream(preorderSpliterator(nodes), parallel);
+	}
+
+	/**
+	 * Streams the node and its descendants in postorder
+	 * @param node Node starting the traversal.  Null returns no nodes
+	 * @return Stream of the nodes
+	 */
+	public static Stream<Node> postorderStream(Node node) {
+		return toStream(postorder(node));
+	}
+
+	/**
+	 * Streams the node and its descendants breadth first
+	 * @param node Node starting the traversal.  Null returns no nodes
+	 * @return Stream of the nodes
+	 */
+	public static Stream<Node> breadthFirstStream(Node node) {
+		return toStream(breadthFirst(node));
+	}
+
+	/**
+	 * Wraps a node in a list
+	 * @param node Node to wrap
+	 * @return List of the node.  Empty when the node is null
+	 */
+	private static List<Node> toList(Node node) {
+		return node == null ? Collections.emptyList() : Collections.singletonList(node);
+	}
+
+	/**
+	 * Streams the nodes of an iterator sequentially
+	 * @param iterator Iterator of the nodes
+	 * @return Stream of the nodes
+	 */
+	private static Stream<Node> toStream(Iterator<Node> iterator) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Preorder iterator.  Keeps an iterator of the children of each level being
+	 * walked, so it holds one entry per level of depth
+	 */
+	private static class PreorderIterator implements Iterator<Node> {
+		private final Deque<Iterator<Node>> stack = new ArrayDeque<>();
+
+		/**
+		 * Starts the traversal
+		 * @param nodes Nodes starting the traversal
+		 */
+		PreorderIterator(List<Node> nodes) {
+			stack.push(nodes.iterator());
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#hasNext()
+		 */
+		@Override
+		public boolean hasNext() {
+			while (! stack.isEmpty() && ! stack.peek().hasNext()) stack.pop();
+			return ! stack.isEmpty();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#next()
+		 */
+		@Override
+		public Node next() {
+			if (! hasNext()) throw new NoSuchElementException();
+			Node node = stack.peek().next();
+			if (! node.getChildren().isEmpty()) stack.push(node.getChildren().iterator());
+			return node;
+		}
+	}
+
+	/**
+	 * Postorder iterator.  Keeps the parents waiting on their children along with
+	 * an iterator of the remaining children
+	 */
+	private static class PostorderIterator implements Iterator<Node> {
+		private final Deque<Node> parents = new ArrayDeque<>();
+		private final Deque<Iterator<Node>> children = new ArrayDeque<>();
+		private final Iterator<Node> roots;
+
+		/**
+		 * Starts the traversal
+		 * @param nodes Nodes starting the traversal
+		 */
+		PostorderIterator(List<Node> nodes) {
+			roots = nodes.iterator();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#hasNext()
+		 */
+		@Override
+		public boolean hasNext() {
+			return ! parents.isEmpty() || roots.hasNext();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#next()
+		 */
+		@Override
+		public Node next() {
+			if (parents.isEmpty()) {
+				if (! roots.hasNext()) throw new NoSuchElementException();
+				descend(roots.next());
+			}
+
+			// Descend to the first leaf below the next child of the current parent
+			while (children.peek().hasNext()) descend(children.peek().next());
+			children.pop();
+			return parents.pop();
+		}
+
+		/**
+		 * Adds a node waiting on its children
+		 * @param node Node to add
+		 */
+		private void descend(Node node) {
+			parents.push(node);
+			children.push(node.getChildren().iterator());
+		}
+	}
+
+	/**
+	 * Breadth first iterator.  Queues the children of each node returned, so
+	 * it holds about one level of the tree
+	 */
+	private static class BreadthFirstIterator implements Iterator<Node> {
+		private final Deque<Node> queue;
+
+		/**
+		 * Starts the traversal
+		 * @param nodes Nodes starting the traversal
+		 */
+		BreadthFirstIterator(List<Node> nodes) {
+			queue = new ArrayDeque<>(nodes);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#hasNext()
+		 */
+		@Override
+		public boolean hasNext() {
+			return ! queue.isEmpty();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#next()
+		 */
+		@Override
+		public Node next() {
+			Node node = queue.poll();
+			if (node == null) throw new NoSuchElementException();
+			queue.addAll(node.getChildren());
+			return node;
+		}
+	}
+
+	/**
+	 * Preorder spliterator.  Holds the subtrees still to be traversed in
+	 * preorder, preceded by an optional node returned without its children.  A
+	 * single pending subtree is opened into its root and children so it can be
+	 * split
+	 */
+	private static class PreorderSpliterator implements Spliterator<Node> {
+		private Node head;
+		private ArrayDeque<Node> pending;
+		private long estimate;
+
+		/**
+		 * Creates the spliterator
+		 * @param head Node returned before the pending subtrees, without its
+		 * children.  May be null
+		 * @param pending Subtrees to traverse
+		 * @param estimate Estimated number of nodes
+		 */
+		PreorderSpliterator(Node head, ArrayDeque<Node> pending, long estimate) {
+			this.head = head;
+			this.pending = pending;
+			this.estimate = estimate;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Spliterator#tryAdvance(java.util.function.Consumer)
+		 */
+		@Override
+		public boolean tryAdvance(Consumer<? super Node> action) {
+			if (head != null) {
+				Node node = head;
+				head = null;
+				action.accept(node);
+				return true;
+			}
+
+			Node node = pending.pollFirst();
+			if (node == null) return false;
+
+			List<Node> children = node.getChildren();
+			for (int i = children.size() - 1; i >= 0; i--) pending.addFirst(children.get(i));
+			action.accept(node);
+			return true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Spliterator#forEachRemaining(java.util.function.Consumer)
+		 */
+		@Override
+		public void forEachRemaining(Consumer<? super Node> action) {
+			if (head != null) {
+				action.accept(head);
+				head = null;
+			}
+
+			Iterator<Node> nodes = new PreorderIterator(List.copyOf(pending));
+			pending.clear();
+			while (nodes.hasNext()) action.accept(nodes.next());
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Spliterator#trySplit()
+		 */
+		@Override
+		public Spliterator<Node> trySplit() {
+			if (head == null && pending.size() == 1) {
+				head = pending.poll();
+				pending.addAll(head.getChildren());
+			}
+
+			if (pending.size() < 2) return null;
+
+			ArrayDeque<Node> prefix = new ArrayDeque<>();
+			for (int i = pending.size() / 2; i > 0; i--) prefix.add(pending.poll());
+			estimate >>>= 1;
+			Spliterator<Node> split = new PreorderSpliterator(head, prefix, estimate);
+			head = null;
+			return split;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Spliterator#estimateSize()
+		 */
+		@Override
+		public long estimateSize() {
+			return estimate;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Spliterator#characteristics()
+		 */
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL;
+		}
+	}
+}
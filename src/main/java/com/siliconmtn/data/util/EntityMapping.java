@@ -0,0 +1,287 @@
+package com.siliconmtn.data.util;
+
+// JDK 11.x
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// JPA
+import javax.persistence.Id;
+
+// SpaceLibs 1.x
+import com.siliconmtn.data.lang.ClassUtil;
+
+/****************************************************************************
+ * <b>Title</b>: EntityMapping.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Mapping plan of a source class into a target class for
+ * the EntityUtil.  The fields, property accessors and related entity @Id
+ * accessors are resolved once per pair of classes and compiled into
+ * MethodHandles, so converting a row only reads and writes the properties.
+ * Plans are resolved with the same rules as the PropertyDescriptors the
+ * EntityUtil used for each field, and a pair of classes that can't be mapped
+ * fails each conversion, without being cached
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+final class EntityMapping {
+
+	// Plans of each source class, by target class
+	private static final Map<Class<?>, Map<Class<?>, EntityMapping>> TO_ENTITY = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Map<Class<?>, EntityMapping>> TO_DTO = new ConcurrentHashMap<>();
+
+	// Erased types of the compiled accessors and constructors
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	private final MethodHandle constructor;
+	private final List<FieldMapping> fields;
+
+	/**
+	 * Creates the plan
+	 * @param constructor No argument constructor of the target.  Null when the
+	 * target is provided by the caller
+	 * @param fields Mappings of the fields
+	 */
+	private EntityMapping(MethodHandle constructor, List<FieldMapping> fields) {
+		this.constructor = constructor;
+		this.fields = Collections.unmodifiableList(fields);
+	}
+
+	/**
+	 * Returns the plan mapping a DTO into an entity.  Every non final field of
+	 * the DTO and its super classes is mapped, unless annotated with EntityIgnore
+	 * @param dto Class of the DTO
+	 * @param entity Class of the entity
+	 * @return Plan of the classes
+	 * @throws ReflectiveOperationException when a field or accessor is missing
+	 * @throws IntrospectionException when a field has no property accessors
+	 */
+	static EntityMapping toEntity(Class<?> dto, Class<?> entity) throws ReflectiveOperationException, IntrospectionException {
+		Map<Class<?>, EntityMapping> plans = TO_ENTITY.computeIfAbsent(dto, k -> new ConcurrentHashMap<>());
+		EntityMapping mapping = plans.get(entity);
+		if (mapping != null) return mapping;
+
+		List<FieldMapping> fields = new ArrayList<>();
+		for (Class<?> c = dto; c != null; c = c.getSuperclass()) {
+			for (Field dtoField : c.getDeclaredFields()) {
+				// Check for constants and continue
+				if (Modifier.isFinal(dtoField.getModifiers()) || dtoField.getDeclaredAnnotation(EntityIgnore.class) != null) continue;
+				fields.add(new FieldMapping(dtoField, dto, entity, false));
+			}
+		}
+
+		mapping = new EntityMapping(null, fields);
+		EntityMapping current = plans.putIfAbsent(entity, mapping);
+		return current == null ? mapping : current;
+	}
+
+	/**
+	 * Returns the plan mapping an entity into a new DTO.  The non final fields
+	 * declared by the DTO class are mapped
+	 * @param entity Class of the entity
+	 * @param dto Class of the DTO
+	 * @return Plan of the classes
+	 * @throws ReflectiveOperationException when a field, accessor or the
+	 * constructor is missing
+	 * @throws IntrospectionException when a field has no property accessors
+	 */
+	static EntityMapping toDto(Class<?> entity, Class<?> dto) throws ReflectiveOperationException, IntrospectionException {
+		Map<Class<?>, EntityMapping> plans = TO_DTO.computeIfAbsent(entity, k -> new ConcurrentHashMap<>());
+		EntityMapping mapping = plans.get(dto);
+		if (mapping != null) return mapping;
+
+		MethodHandle constructor = MethodHandles.lookup().unreflectConstructor(dto.getDeclaredConstructor()).asType(CONSTRUCTOR_TYPE);
+		List<FieldMapping> fields = new ArrayList<>();
+		for (Field dtoField : dto.getDeclaredFields()) {
+			// Check for constants and continue
+			if (Modifier.isFinal(dtoField.getModifiers())) continue;
+			fields.add(new FieldMapping(dtoField, entity, dto, true));
+		}
+
+		mapping = new EntityMapping(constructor, fields);
+		EntityMapping current = plans.putIfAbsent(dto, mapping);
+		return current == null ? mapping : current;
+	}
+
+	/**
+	 * Removes every cached plan
+	 */
+	static void clear() {
+		TO_ENTITY.clear();
+		TO_DTO.clear();
+	}
+
+	/**
+	 * @return the mappings of the fields
+	 */
+	List<FieldMapping> getFields() {
+		return fields;
+	}
+
+	/**
+	 * Creates an instance of the target class
+	 * @return Instance created
+	 * @throws Exception when the constructor fails
+	 */
+	Object newInstance() throws Exception {
+		try {
+			return constructor.invokeExact();
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	/**
+	 * Compiles an accessor into a MethodHandle with erased types
+	 * @param m Getter or setter
+	 * @param type Erased type of the handle
+	 * @return Handle of the accessor
+	 * @throws IllegalAccessException when the accessor isn't accessible
+	 */
+	private static MethodHandle compile(Method m, MethodType type) throws IllegalAccessException {
+		return MethodHandles.lookup().unreflect(m).asType(type);
+	}
+
+	/**
+	 * Invokes a compiled getter
+	 * @param getter Handle of the getter
+	 * @param instance Instance to read
+	 * @return Value of the property
+	 * @throws Exception when the getter fails
+	 */
+	private static Object invokeGetter(MethodHandle getter, Object instance) throws Exception {
+		try {
+			return getter.invokeExact(instance);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	/**
+	 * Mapping of a single field, with the accessors of the source and target
+	 * properties
+	 */
+	static final class FieldMapping {
+		private final String name;
+		private final Class<?> entityType;
+		private final boolean relation;
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		private final MethodHandle idGetter;
+		private final Exception idError;
+
+		/**
+		 * Resolves the mapping of a field.  The field is a relation when its types
+		 * differ in the two classes.  Relations of an entity into a DTO are mapped
+		 * to the @Id of the related entity
+		 * @param dtoField Field of the DTO
+		 * @param source Class the values are read from
+		 * @param target Class the values are written to
+		 * @param resolveId True to resolve the @Id accessor of the relations
+		 * @throws ReflectiveOperationException when the field or accessors are missing
+		 * @throws IntrospectionException when the field has no property accessors
+		 */
+		FieldMapping(Field dtoField, Class<?> source, Class<?> target, boolean resolveId) throws ReflectiveOperationException, IntrospectionException {
+			name = dtoField.getName();
+			getter = compile(new PropertyDescriptor(name, source).getReadMethod(), GETTER_TYPE);
+
+			entityType = (resolveId ? source : target).getDeclaredField(name).getType();
+			relation = entityType != dtoField.getType();
+			setter = compile(new PropertyDescriptor(name, target).getWriteMethod(), SETTER_TYPE);
+
+			MethodHandle id = null;
+			Exception error = null;
+			if (relation && resolveId) {
+				List<Field> fieldsWithId = ClassUtil.getFieldsByAnnotation(entityType, Id.class);
+				try {
+					if (! fieldsWithId.isEmpty()) id = compile(new PropertyDescriptor(fieldsWithId.get(0).getName(), entityType).getReadMethod(), GETTER_TYPE);
+				} catch (IntrospectionException | IllegalAccessException e) {
+					// Only fails the conversions of related entities
+					error = e;
+				}
+			}
+
+			idGetter = id;
+			idError = error;
+		}
+
+		/**
+		 * @return the name of the field
+		 */
+		String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the type of the field in the entity
+		 */
+		Class<?> getEntityType() {
+			return entityType;
+		}
+
+		/**
+		 * @return true when the field has different types in the two classes
+		 */
+		boolean isRelation() {
+			return relation;
+		}
+
+		/**
+		 * Reads the field from the source
+		 * @param instance Source instance
+		 * @return Value of the field
+		 * @throws Exception when the getter fails
+		 */
+		Object read(Object instance) throws Exception {
+			return invokeGetter(getter, instance);
+		}
+
+		/**
+		 * Reads the @Id of a related entity
+		 * @param related Related entity
+		 * @return Id of the entity.  Null when the entity class has no @Id field
+		 * @throws Exception when the @Id can't be read
+		 */
+		Object readId(Object related) throws Exception {
+			if (idError != null) throw idError;
+			return idGetter == null ? null : invokeGetter(idGetter, related);
+		}
+
+		/**
+		 * Writes the field into the target
+		 * @param instance Target instance
+		 * @param value Value of the field
+		 * @throws Exception when the setter fails
+		 */
+		void write(Object instance, Object value) throws Exception {
+			try {
+				setter.invokeExact(instance, value);
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		}
+	}
+}
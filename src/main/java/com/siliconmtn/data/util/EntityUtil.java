@@ -1,24 +1,17 @@
 package com.siliconmtn.data.util;
 
 // JDK 11.3
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 // JPA
 import javax.persistence.EntityManager;
-import javax.persistence.Id;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
 // SpaceLibs 1.x
-import com.siliconmtn.data.lang.ClassUtil;
+import com.siliconmtn.data.util.EntityMapping.FieldMapping;
 import com.siliconmtn.io.api.EndpointRequestException;
 import com.siliconmtn.io.api.base.BaseDTO;
 import com.siliconmtn.io.api.base.BaseEntity;
@@ -29,7 +22,8 @@ import lombok.extern.log4j.Log4j2;
  * <b>Title</b>: EntityUtil.java
  * <b>Project</b>: spaceforce-survey
  * <b>Description: </b> Class to map a Data Transfer Object DTO to Entity object.
- * Uses reflection with PropertyDescriptors to instantiate and set fields in a target class
+ * Uses reflection with PropertyDescriptors to instantiate and set fields in a target class.
+ * The accessors of each pair of classes are resolved once and cached as an EntityMapping
  * <b>Copyright:</b> Copyright (c) 2021
  * <b>Company:</b> Silicon Mountain Technologies
  * 
@@ -87,24 +81,19 @@ public class EntityUtil {
 		if (dto == null || entity == null) return null;
 		
 		try {
-			List<Field> fields = new ArrayList<>();
-			getAllFields(dto.getClass(), fields);
-			for (Field dtoField : fields) {
-				// Check for constants and continue
-				if (Modifier.isFinal(dtoField.getModifiers()) || dtoField.getDeclaredAnnotation(EntityIgnore.class) != null) continue;
-				var value = getValueFromInstance(dtoField.getName(), dto);
-				var entityField = entity.getClass().getDeclaredField(dtoField.getName());
-
-				if (entityField.getType() != dtoField.getType() && value != null) {
-					log.info(entityField.getName());
-					value = entityManager.getReference(entityField.getType(), value);
+			for (FieldMapping field : EntityMapping.toEntity(dto.getClass(), entity.getClass()).getFields()) {
+				var value = field.read(dto);
+
+				if (field.isRelation() && value != null) {
+					log.info(field.getName());
+					value = entityManager.getReference(field.getEntityType(), value);
 					if (value == null) 
 						throw new EndpointRequestException(
 								"dto conversion failed: " + entity.getClass().getSimpleName() + " not found within " + dto.getClass().getSimpleName(), 
 								HttpStatus.NOT_FOUND);
 				}
 				
-				setValueIntoInstance(dtoField.getName(), entity, value);
+				field.write(entity, value);
 			}
 		} catch (Exception e) {
 			log.error("unable to convert dto to entity", e);
@@ -114,19 +103,6 @@ public class EntityUtil {
 		return entity;
 	}
 
-	/**
-	 * Recursively load up all fields for a given class (Inclusive of super class fields)
-	 * @param dtoClass
-	 * @param fields
-	 */
-	private void getAllFields(Class<?> dtoClass, List<Field> fields) {
-		fields.addAll(Arrays.asList(dtoClass.getDeclaredFields()));
-
-	    if (dtoClass.getSuperclass() != null) {
-	        getAllFields(dtoClass.getSuperclass(), fields);
-	    }
-	}
-
 	/**
 	 * To map any given entity object into its respective dto object
 	 * @param <T> type of dto object being returned
@@ -139,27 +115,14 @@ public class EntityUtil {
 		T dtoInstance = null;
 
 		try {
-			dtoInstance = dto.getDeclaredConstructor().newInstance();
-
-			for (Field dtoField : dto.getDeclaredFields()) {
-				// Check for constants and continue
-				if (Modifier.isFinal(dtoField.getModifiers())) continue;
-				
-				Object value = getValueFromInstance(dtoField.getName(), entity);
-				var entityField = entity.getClass().getDeclaredField(dtoField.getName());
-				
-				if (entityField.getType() != dtoField.getType() && value != null) {
-					List<Field> fieldsWithId = ClassUtil.getFieldsByAnnotation(entityField.getType(), Id.class);
-					if (fieldsWithId.isEmpty()) {
-						value = null;
-					} else {
-						String fieldName = fieldsWithId.get(0).getName();
-						value = getValueFromInstance(fieldName, value);
-					}
+			EntityMapping mapping = EntityMapping.toDto(entity.getClass(), dto);
+			dtoInstance = dto.cast(mapping.newInstance());
 
-				}
+			for (FieldMapping field : mapping.getFields()) {
+				Object value = field.read(entity);
+				if (field.isRelation() && value != null) value = field.readId(value);
 
-				setValueIntoInstance(dtoField.getName(), dtoInstance, value);
+				field.write(dtoInstance, value);
 			}
 
 		} catch (Exception ex) {
@@ -205,32 +168,12 @@ public class EntityUtil {
 
 		return dtos;
 	}
-	
-	/**
-	 * Helper function that wraps Property descriptor in order to call the read method on a given class with a given field 
-	 * @param fieldName the field to call a getter on
-	 * @param classInstance the class the getter is inside of
-	 * @return the object that was read from the class
-	 * @throws IllegalAccessException
-	 * @throws InvocationTargetException
-	 * @throws IntrospectionException
-	 */
-	private Object getValueFromInstance(String fieldName, Object classInstance) 
-			throws IllegalAccessException, InvocationTargetException, IntrospectionException {
-		return new PropertyDescriptor(fieldName, classInstance.getClass()).getReadMethod().invoke(classInstance);
-	}
-	
+
 	/**
-	 * Helper function that wraps Property description to write field object from dto to entity
-	 * @param fieldName the field to call a setter on
-	 * @param classInstance the class the setter is inside of
-	 * @param valueToSet the value of the data being set
-	 * @throws IllegalAccessException
-	 * @throws InvocationTargetException
-	 * @throws IntrospectionException
+	 * Clears the cached mappings of the DTO and entity classes.  The mappings
+	 * are resolved again on their next conversion
 	 */
-	private void setValueIntoInstance(String fieldName, Object classInstance, Object valueToSet) 
-			throws IllegalAccessException, InvocationTargetException, IntrospectionException {
-		new PropertyDescriptor(fieldName, classInstance.getClass()).getWriteMethod().invoke(classInstance, valueToSet);
+	public static void clearCache() {
+		EntityMapping.clear();
 	}
 }
@@ -0,0 +1,106 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.util.concurrent.TimeUnit;
+
+/****************************************************************************
+ * <b>Title</b>: CircuitBreaker.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Circuit breaker for a single host.  After a number of
+ * consecutive failures the circuit opens and requests fail immediately instead
+ * of waiting on a host that is down.  Once the open timeout passes, a single
+ * trial request is allowed (half open).  The circuit closes when the trial
+ * succeeds and opens again when it fails
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class CircuitBreaker {
+
+	/**
+	 * State of the circuit
+	 */
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	// Members
+	private final int failureThreshold;
+	private final long openTimeoutNanos;
+	private State state = State.CLOSED;
+	private int failures;
+	private long openedAt;
+	private boolean trialInProgress;
+
+	/**
+	 * Creates the circuit breaker
+	 * @param failureThreshold Number of consecutive failures that opens the circuit
+	 * @param openTimeout Time in ms the circuit stays open
+	 */
+	public CircuitBreaker(int failureThreshold, long openTimeout) {
+		this.failureThreshold = failureThreshold;
+		this.openTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(openTimeout);
+	}
+
+	/**
+	 * Determines if a request may be sent.  When the circuit is half open, only
+	 * the first caller is allowed through
+	 * @return true if the request may be sent
+	 */
+	public synchronized boolean allowRequest() {
+		if (state == State.OPEN) {
+			if (System.nanoTime() - openedAt < openTimeoutNanos) return false;
+			state = State.HALF_OPEN;
+			trialInProgress = false;
+		}
+
+		if (state == State.HALF_OPEN) {
+			if (trialInProgress) return false;
+			trialInProgress = true;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Records a successful request and closes the circuit
+	 */
+	public synchronized void recordSuccess() {
+		failures = 0;
+		trialInProgress = false;
+		state = State.CLOSED;
+	}
+
+	/**
+	 * Records a failed request.  Opens the circuit when the threshold is reached
+	 * or when the trial request failed
+	 */
+	public synchronized void recordFailure() {
+		failures++;
+		if (state == State.HALF_OPEN || failures >= failureThreshold) {
+			state = State.OPEN;
+			openedAt = System.nanoTime();
+			trialInProgress = false;
+		}
+	}
+
+	/**
+	 * Returns the state of the circuit
+	 * @return the state
+	 */
+	public synchronized State getState() {
+		return state;
+	}
+
+	/**
+	 * Returns the number of consecutive failures
+	 * @return the failures
+	 */
+	public synchronized int getFailures() {
+		return failures;
+	}
+}
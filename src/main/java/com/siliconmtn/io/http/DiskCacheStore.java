@@ -0,0 +1,287 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Log4j 2.x
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/****************************************************************************
+ * <b>Title</b>: DiskCacheStore.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> On-disk store of the HttpResponseCache.  Each response is
+ * written to its own file, named with the SHA-256 hash of the cache key, so the
+ * responses survive a restart and may be shared by several managers.  Files are
+ * written to a temporary file and moved into place, so readers never see a
+ * partial response.  The oldest files are removed once the store grows past its
+ * maximum size
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class DiskCacheStore implements HttpCacheStore {
+
+	/**
+	 * Extension of the response files
+	 */
+	public static final String FILE_EXTENSION = ".cache";
+
+	// Members
+	private static final Logger log = LogManager.getLogger(DiskCacheStore.class);
+	private static final int FORMAT_VERSION = 1;
+	private final Path directory;
+	private final long maxSize;
+	private final AtomicLong size = new AtomicLong();
+
+	/**
+	 * Creates the store.  The directory is created when it does not exist
+	 * @param directory Directory holding the response files
+	 * @param maxSize Maximum number of bytes used by the store.  0 does not limit the size
+	 * @throws IOException When the directory can't be created or read
+	 */
+	public DiskCacheStore(Path directory, long maxSize) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.maxSize = maxSize;
+		for (Path file : listFiles()) size.addAndGet(sizeOf(file));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpCacheStore#get(java.lang.String)
+	 */
+	@Override
+	public HttpCacheEntry get(String key) throws IOException {
+		Path file = getFile(key);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			HttpCacheEntry entry = read(in);
+			return key.equals(entry.getKey()) ? entry : null;
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException | RuntimeException e) {
+			// A damaged file is treated as a miss and replaced by the next response
+			log.debug("Unable to read cache file {}", file, e);
+			remove(key);
+			return null;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpCacheStore#put(com.siliconmtn.io.http.HttpCacheEntry)
+	 */
+	@Override
+	public void put(HttpCacheEntry entry) throws IOException {
+		Path file = getFile(entry.getKey());
+		Path temp = Files.createTempFile(directory, "entry", ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				write(entry, out);
+			}
+
+			long previous = sizeOf(file);
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			size.addAndGet(sizeOf(file) - previous);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+
+		if (maxSize > 0 && size.get() > maxSize) trim();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpCacheStore#remove(java.lang.String)
+	 */
+	@Override
+	public void remove(String key) throws IOException {
+		delete(getFile(key));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpCacheStore#clear()
+	 */
+	@Override
+	public void clear() throws IOException {
+		for (Path file : listFiles()) delete(file);
+	}
+
+	/**
+	 * Removes the oldest files until the store is back under 90% of its maximum size
+	 * @throws IOException When the directory can't be read
+	 */
+	synchronized void trim() throws IOException {
+		long target = (long) (maxSize * 0.9);
+		List<Path> files = listFiles();
+		files.sort(Comparator.comparingLong(DiskCacheStore::lastModified));
+		for (Path file : files) {
+			if (size.get() <= target) break;
+			delete(file);
+		}
+	}
+
+	/**
+	 * Deletes a response file and updates the size of the store
+	 * @param file File to delete
+	 * @throws IOException When the file can't be deleted
+	 */
+	private void delete(Path file) throws IOException {
+		long length = sizeOf(file);
+		if (Files.deleteIfExists(file)) size.addAndGet(-length);
+	}
+
+	/**
+	 * Lists the response files of the store
+	 * @return Response files
+	 * @throws IOException When the directory can't be read
+	 */
+	private List<Path> listFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(f -> f.getFileName().toString().endsWith(FILE_EXTENSION)).collect(Collectors.toCollection(ArrayList::new));
+		}
+	}
+
+	/**
+	 * Returns the size of a file
+	 * @param file File to check
+	 * @return Size in bytes.  0 when the file does not exist
+	 */
+	private static long sizeOf(Path file) {
+		try {
+			return Files.size(file);
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns the modification time of a file
+	 * @param file File to check
+	 * @return Time in ms.  0 when the file does not exist
+	 */
+	private static long lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file).toMillis();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns the file of a cache key
+	 * @param key Cache key of the request
+	 * @return File holding the response
+	 */
+	Path getFile(String key) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			StringBuilder name = new StringBuilder(hash.length * 2 + FILE_EXTENSION.length());
+			for (byte b : hash) name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			return directory.resolve(name.append(FILE_EXTENSION).toString());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * Writes an entry to a response file
+	 * @param entry Response to write
+	 * @param out Stream of the file
+	 * @throws IOException When the file can't be written
+	 */
+	static void write(HttpCacheEntry entry, DataOutputStream out) throws IOException {
+		out.writeInt(FORMAT_VERSION);
+		out.writeUTF(entry.getKey());
+		out.writeInt(entry.getResponseCode());
+		out.writeLong(entry.getStoredAt());
+		out.writeLong(entry.getExpiresAt());
+
+		// The status line is stored by the connections under a null key and is not kept
+		Map<String, List<String>> headers = new LinkedHashMap<>(entry.getHeaders());
+		headers.remove(null);
+		out.writeInt(headers.size());
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			out.writeUTF(header.getKey());
+			out.writeInt(header.getValue().size());
+			for (String value : header.getValue()) out.writeUTF(value == null ? "" : value);
+		}
+
+		out.writeInt(entry.getVaryHeaders().size());
+		for (Map.Entry<String, String> vary : entry.getVaryHeaders().entrySet()) {
+			out.writeUTF(vary.getKey());
+			out.writeUTF(vary.getValue() == null ? "" : vary.getValue());
+		}
+
+		out.writeInt(entry.getData().length);
+		out.write(entry.getData());
+	}
+
+	/**
+	 * Reads an entry from a response file
+	 * @param in Stream of the file
+	 * @return Stored response
+	 * @throws IOException When the file can't be read or is not a response file
+	 */
+	static HttpCacheEntry read(DataInputStream in) throws IOException {
+		if (in.readInt() != FORMAT_VERSION) throw new IOException("Unknown cache file format");
+		String key = in.readUTF();
+		int responseCode = in.readInt();
+		long storedAt = in.readLong();
+		long expiresAt = in.readLong();
+
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		for (int i = in.readInt(); i > 0; i--) {
+			String name = in.readUTF();
+			List<String> values = new ArrayList<>();
+			for (int j = in.readInt(); j > 0; j--) values.add(in.readUTF());
+			headers.put(name, values);
+		}
+
+		Map<String, String> vary = new LinkedHashMap<>();
+		for (int i = in.readInt(); i > 0; i--) vary.put(in.readUTF(), in.readUTF());
+
+		byte[] data = new byte[in.readInt()];
+		in.readFully(data);
+		return new HttpCacheEntry(key, responseCode, headers, vary, data, storedAt, expiresAt);
+	}
+
+	/**
+	 * Returns the number of bytes used by the store
+	 * @return Size of the store
+	 */
+	public long getSize() {
+		return size.get();
+	}
+
+	/**
+	 * Returns the directory of the store
+	 * @return the directory
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+}
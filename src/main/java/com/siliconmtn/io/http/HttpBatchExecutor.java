@@ -0,0 +1,385 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Log4j 2.x
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/****************************************************************************
+ * <b>Title</b>: HttpBatchExecutor.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Sends a list of requests through the SMTHttpConnectionManager
+ * with bounded concurrency.  At most parallelism requests are in flight at once,
+ * at most maxPerHost of them to the same host, and no more than requestsPerSecond
+ * are started each second.  Requests are started in the order of the list,
+ * except a request waiting on a busy host does not hold back the requests to
+ * the other hosts.  No thread waits on the batch: the next requests are started
+ * as the previous ones complete, so any number of requests may be queued.  The
+ * rate limit is shared by every batch sent by the executor.  Failed requests
+ * are returned as results holding the error and do not stop the batch
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class HttpBatchExecutor {
+
+	/**
+	 * Default number of requests in flight at once
+	 */
+	public static final int DEFAULT_PARALLELISM = 10;
+
+	private static final Logger log = LogManager.getLogger(HttpBatchExecutor.class);
+
+	// Members
+	private final SMTHttpConnectionManager manager;
+	private final RateLimiter rateLimiter = new RateLimiter();
+	private volatile int parallelism = DEFAULT_PARALLELISM;
+	private volatile int maxPerHost;
+
+	/**
+	 * Creates an executor sending the requests through the manager.  The
+	 * manager's response fields are not updated by the requests
+	 * @param manager Connection manager sending the requests
+	 */
+	public HttpBatchExecutor(SMTHttpConnectionManager manager) {
+		if (manager == null) throw new IllegalArgumentException("Connection manager is required");
+		this.manager = manager;
+	}
+
+	/**
+	 * Sends the requests and waits for all of them to complete
+	 * @param requests Requests to send
+	 * @return Results in the order of the requests
+	 * @throws InterruptedIOException when the thread is interrupted while waiting.
+	 * The requests already started are not cancelled
+	 */
+	public List<HttpBatchResult> execute(List<HttpBatchRequest> requests) throws InterruptedIOException {
+		return execute(requests, null);
+	}
+
+	/**
+	 * Sends the requests and waits for all of them to complete.  Each result is
+	 * passed to the consumer as soon as its request completes
+	 * @param requests Requests to send
+	 * @param consumer Receives the results in the order they complete.  May be null
+	 * @return Results in the order of the requests
+	 * @throws InterruptedIOException when the thread is interrupted while waiting.
+	 * The requests already started are not cancelled
+	 */
+	public List<HttpBatchResult> execute(List<HttpBatchRequest> requests, Consumer<HttpBatchResult> consumer)
+	throws InterruptedIOException {
+		try {
+			return executeAsync(requests, consumer).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw (InterruptedIOException) new InterruptedIOException("Interrupted waiting on the batch").initCause(e);
+		} catch (ExecutionException e) {
+			// Failures are captured in the results, so only a bug gets here
+			throw new IllegalStateException("Unable to complete the batch", e.getCause());
+		}
+	}
+
+	/**
+	 * Sends the requests asynchronously
+	 * @param requests Requests to send
+	 * @return Future completed with the results in the order of the requests once
+	 * every request has completed
+	 */
+	public CompletableFuture<List<HttpBatchResult>> executeAsync(List<HttpBatchRequest> requests) {
+		return executeAsync(requests, null);
+	}
+
+	/**
+	 * Sends the requests asynchronously.  Each result is passed to the consumer
+	 * as soon as its request completes, on the thread completing the request.
+	 * Exceptions thrown by the consumer are logged and ignored
+	 * @param requests Requests to send
+	 * @param consumer Receives the results in the order they complete.  May be null
+	 * @return Future completed with the results in the order of the requests once
+	 * every request has completed
+	 */
+	public CompletableFuture<List<HttpBatchResult>> executeAsync(List<HttpBatchRequest> requests, Consumer<HttpBatchResult> consumer) {
+		if (requests == null) throw new IllegalArgumentException("Requests are required");
+		for (HttpBatchRequest request : requests) {
+			if (request == null) throw new IllegalArgumentException("Requests may not be null");
+		}
+
+		Batch batch = new Batch(requests, consumer);
+		batch.pump();
+		return batch.future;
+	}
+
+	/**
+	 * Returns the maximum number of requests in flight at once
+	 * @return the parallelism
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Assigns the maximum number of requests in flight at once.  Applies to the
+	 * batches started afterwards
+	 * @param parallelism the parallelism to set.  Must be at least 1
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns the maximum number of requests in flight at once to the same host
+	 * @return the maxPerHost.  0 when only the parallelism applies
+	 */
+	public int getMaxPerHost() {
+		return maxPerHost;
+	}
+
+	/**
+	 * Assigns the maximum number of requests in flight at once to the same host.
+	 * The connection limits of a PooledHttpEngine still apply.  Applies to the
+	 * batches started afterwards
+	 * @param maxPerHost the maxPerHost to set.  0 when only the parallelism applies
+	 */
+	public void setMaxPerHost(int maxPerHost) {
+		if (maxPerHost < 0) throw new IllegalArgumentException("Max per host may not be negative");
+		this.maxPerHost = maxPerHost;
+	}
+
+	/**
+	 * Returns the maximum number of requests started each second
+	 * @return the requestsPerSecond.  0 when the requests are not rate limited
+	 */
+	public double getRequestsPerSecond() {
+		return rateLimiter.getRate();
+	}
+
+	/**
+	 * Assigns the maximum number of requests started each second.  The requests
+	 * are spaced evenly, so no burst above the rate is sent
+	 * @param requestsPerSecond the requestsPerSecond to set.  0 removes the limit
+	 */
+	public void setRequestsPerSecond(double requestsPerSecond) {
+		rateLimiter.setRate(requestsPerSecond);
+	}
+
+	/**
+	 * Returns the connection manager sending the requests
+	 * @return the manager
+	 */
+	public SMTHttpConnectionManager getManager() {
+		return manager;
+	}
+
+	/**
+	 * Spaces the start of the requests evenly to stay under a rate
+	 */
+	static class RateLimiter {
+		private long interval;
+		private long next;
+
+		/**
+		 * Reserves the next start time when it has been reached
+		 * @param now Current time in nanoseconds
+		 * @return 0 when the request may start now, otherwise the nanoseconds to wait
+		 */
+		synchronized long tryAcquire(long now) {
+			if (interval == 0) return 0;
+			if (now - next < 0) return next - now;
+			next = now + interval;
+			return 0;
+		}
+
+		/**
+		 * Returns the rate
+		 * @return Requests per second.  0 when not limited
+		 */
+		synchronized double getRate() {
+			return interval == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / (double) interval;
+		}
+
+		/**
+		 * Assigns the rate
+		 * @param rate Requests per second.  0 removes the limit
+		 */
+		synchronized void setRate(double rate) {
+			if (rate < 0 || Double.isNaN(rate)) throw new IllegalArgumentException("Rate may not be negative");
+			interval = rate == 0 ? 0 : Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+			next = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Queue of the requests of a host waiting to start
+	 */
+	private static class HostQueue {
+		private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+		private int inFlight;
+	}
+
+	/**
+	 * State of a batch.  Hosts with pending requests and a free slot are ready,
+	 * ordered by the index of their next request so the requests start in order.
+	 * Pumping is serialized: a thread asking for a pump while another is pumping
+	 * leaves the work to that thread, which keeps the completions of requests
+	 * failing immediately from recursing
+	 */
+	private class Batch {
+		private final List<HttpBatchRequest> requests;
+		private final Consumer<HttpBatchResult> consumer;
+		private final HttpBatchResult[] results;
+		private final CompletableFuture<List<HttpBatchResult>> future = new CompletableFuture<>();
+		private final int maxInFlight = parallelism;
+		private final int hostLimit = maxPerHost == 0 ? Integer.MAX_VALUE : maxPerHost;
+		private final String[] hostKeys;
+		private final Map<String, HostQueue> hosts = new HashMap<>();
+		private final PriorityQueue<HostQueue> ready;
+		private final AtomicInteger pumps = new AtomicInteger();
+		private final AtomicInteger remaining;
+		private final AtomicBoolean delayed = new AtomicBoolean();
+		private int inFlight;
+
+		/**
+		 * Queues the requests by host
+		 * @param requests Requests of the batch
+		 * @param consumer Receives the results as they complete.  May be null
+		 */
+		Batch(List<HttpBatchRequest> requests, Consumer<HttpBatchResult> consumer) {
+			this.requests = requests;
+			this.consumer = consumer;
+			this.results = new HttpBatchResult[requests.size()];
+			this.hostKeys = new String[requests.size()];
+			this.remaining = new AtomicInteger(requests.size());
+			this.ready = new PriorityQueue<>((a, b) -> Integer.compare(a.pending.peek(), b.pending.peek()));
+
+			for (int i = 0; i < requests.size(); i++) {
+				hostKeys[i] = PooledHttpEngine.getHostKey(requests.get(i).getUrl());
+				hosts.computeIfAbsent(hostKeys[i], k -> new HostQueue()).pending.add(i);
+			}
+
+			ready.addAll(hosts.values());
+			if (requests.isEmpty()) future.complete(List.of());
+		}
+
+		/**
+		 * Starts the requests allowed by the limits
+		 */
+		void pump() {
+			if (pumps.getAndIncrement() > 0) return;
+
+			do {
+				int index;
+				while ((index = next()) >= 0) start(index);
+			} while (pumps.decrementAndGet() > 0);
+		}
+
+		/**
+		 * Takes the next request allowed to start.  When the rate limit holds it
+		 * back, a pump is scheduled for the time it may start
+		 * @return Index of the request, or -1 when none may start
+		 */
+		private int next() {
+			synchronized (this) {
+				if (inFlight >= maxInFlight || ready.isEmpty()) return -1;
+
+				long wait = rateLimiter.tryAcquire(System.nanoTime());
+				if (wait > 0) {
+					schedule(wait);
+					return -1;
+				}
+
+				HostQueue host = ready.poll();
+				int index = host.pending.poll();
+				host.inFlight++;
+				inFlight++;
+				if (! host.pending.isEmpty() && host.inFlight < hostLimit) ready.add(host);
+				return index;
+			}
+		}
+
+		/**
+		 * Schedules a single pump after the delay
+		 * @param nanos Delay in nanoseconds
+		 */
+		private void schedule(long nanos) {
+			if (! delayed.compareAndSet(false, true)) return;
+
+			CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS, manager.getAsyncExecutor()).execute(() -> {
+				delayed.set(false);
+				pump();
+			});
+		}
+
+		/**
+		 * Sends a request and records its result once it completes
+		 * @param index Index of the request
+		 */
+		private void start(int index) {
+			HttpBatchRequest request = requests.get(index);
+			CompletableFuture<HttpResponseVO> response;
+			try {
+				response = manager.sendAsync(request.getUrl(), request.getBody(), request.getType());
+			} catch (RuntimeException e) {
+				response = CompletableFuture.failedFuture(e);
+			}
+
+			response.whenComplete((resp, error) -> complete(index, resp, error));
+		}
+
+		/**
+		 * Records the result of a request, frees its slot and starts the next requests
+		 * @param index Index of the request
+		 * @param response Response of the request.  Null when it failed
+		 * @param error Cause of the failure.  Null when a response was received
+		 */
+		private void complete(int index, HttpResponseVO response, Throwable error) {
+			Throwable cause = error;
+			while (cause instanceof CompletionException && cause.getCause() != null) cause = cause.getCause();
+			HttpBatchResult result = new HttpBatchResult(index, requests.get(index), response, cause);
+			results[index] = result;
+
+			synchronized (this) {
+				HostQueue host = hosts.get(hostKeys[index]);
+				inFlight--;
+				if (host.inFlight-- == hostLimit && ! host.pending.isEmpty()) ready.add(host);
+			}
+
+			deliver(result);
+			if (remaining.decrementAndGet() == 0) future.complete(List.copyOf(Arrays.asList(results)));
+			else pump();
+		}
+
+		/**
+		 * Passes a result to the consumer
+		 * @param result Result of a request
+		 */
+		private void deliver(HttpBatchResult result) {
+			if (consumer == null) return;
+
+			try {
+				consumer.accept(result);
+			} catch (RuntimeException e) {
+				log.warn("Batch result consumer failed", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.net.URL;
+
+// Libs
+import com.siliconmtn.io.http.SMTHttpConnectionManager.HttpConnectionType;
+
+/****************************************************************************
+ * <b>Title</b>: HttpBatchRequest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> A single request of a batch sent by the HttpBatchExecutor.
+ * The request is immutable, so it may be sent again in a later batch as long as
+ * its body can be sent more than once
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class HttpBatchRequest {
+
+	// Members
+	private final URL url;
+	private final HttpConnectionType type;
+	private final HttpRequestBody body;
+
+	/**
+	 * Creates a request without a body
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 */
+	public HttpBatchRequest(URL url, HttpConnectionType type) {
+		this(url, type, HttpRequestBody.EMPTY);
+	}
+
+	/**
+	 * Creates a request
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @param data Data sent in the body of the message.  May be null
+	 */
+	public HttpBatchRequest(URL url, HttpConnectionType type, byte[] data) {
+		this(url, type, HttpRequestBody.ofBytes(data));
+	}
+
+	/**
+	 * Creates a request with a streamed body
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @param body Body of the message.  Null sends an empty body
+	 */
+	public HttpBatchRequest(URL url, HttpConnectionType type, HttpRequestBody body) {
+		if (url == null) throw new IllegalArgumentException("Url is required");
+		this.url = url;
+		this.type = type == null ? HttpConnectionType.POST : type;
+		this.body = body == null ? HttpRequestBody.EMPTY : body;
+	}
+
+	/**
+	 * Url of the request
+	 * @return the url
+	 */
+	public URL getUrl() {
+		return url;
+	}
+
+	/**
+	 * Request type
+	 * @return the type
+	 */
+	public HttpConnectionType getType() {
+		return type;
+	}
+
+	/**
+	 * Body of the request
+	 * @return the body
+	 */
+	public HttpRequestBody getBody() {
+		return body;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return type + " " + url;
+	}
+}
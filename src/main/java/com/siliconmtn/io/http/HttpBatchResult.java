@@ -0,0 +1,79 @@
+package com.siliconmtn.io.http;
+
+/****************************************************************************
+ * <b>Title</b>: HttpBatchResult.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Outcome of a single request of a batch sent by the 
+ * HttpBatchExecutor.  Holds either the response or the error of the request,
+ * along with the position of the request in the batch
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class HttpBatchResult {
+
+	// Members
+	private final int index;
+	private final HttpBatchRequest request;
+	private final HttpResponseVO response;
+	private final Throwable error;
+
+	/**
+	 * Creates the result
+	 * @param index Position of the request in the batch
+	 * @param request Request that was sent
+	 * @param response Response of the request.  Null when the request failed
+	 * @param error Cause of the failure.  Null when a response was received
+	 */
+	public HttpBatchResult(int index, HttpBatchRequest request, HttpResponseVO response, Throwable error) {
+		this.index = index;
+		this.request = request;
+		this.response = response;
+		this.error = error;
+	}
+
+	/**
+	 * Determines if a response was received.  Error codes sent by the server are
+	 * responses; check the response code
+	 * @return true when a response was received
+	 */
+	public boolean isSuccess() {
+		return error == null;
+	}
+
+	/**
+	 * Position of the request in the batch
+	 * @return the index, starting at 0
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Request that was sent
+	 * @return the request
+	 */
+	public HttpBatchRequest getRequest() {
+		return request;
+	}
+
+	/**
+	 * Response of the request
+	 * @return the response.  Null when the request failed
+	 */
+	public HttpResponseVO getResponse() {
+		return response;
+	}
+
+	/**
+	 * Cause of the failure
+	 * @return the error.  Null when a response was received
+	 */
+	public Throwable getError() {
+		return error;
+	}
+}
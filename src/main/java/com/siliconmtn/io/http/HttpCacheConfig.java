@@ -0,0 +1,67 @@
+package com.siliconmtn.io.http;
+
+// Spring 5.x
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.Configuration;
+
+// Lombok 1.x
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/****************************************************************************
+ * <b>Title</b>: HttpCacheConfig.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Configuration for the response cache of the
+ * SMTHttpConnectionManager.  The cache is opt-in: it is only applied when this
+ * bean is enabled (smt.http.cache.enabled=true) or an HttpResponseCache is
+ * assigned to the manager.  Entries are held in memory and, when a directory
+ * is provided, on disk as well
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+@Configuration
+@ConfigurationProperties(prefix = "smt.http.cache")
+@ConfigurationPropertiesScan
+@NoArgsConstructor
+@Setter
+@Getter
+@ToString
+public class HttpCacheConfig {
+
+	/**
+	 * Turns the response cache on or off for the managed connection manager
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Maximum number of responses held in memory.  The least recently used
+	 * response is evicted first
+	 */
+	private int maxEntries = HttpResponseCache.DEFAULT_MAX_ENTRIES;
+
+	/**
+	 * Largest response body in bytes that is cached.  Larger responses are
+	 * passed through without being stored
+	 */
+	private int maxEntrySize = HttpResponseCache.DEFAULT_MAX_ENTRY_SIZE;
+
+	/**
+	 * Directory of the on-disk store.  Responses are only held in memory when
+	 * this is not assigned
+	 */
+	private String diskDirectory;
+
+	/**
+	 * Maximum number of bytes used by the on-disk store.  The oldest files are
+	 * removed once the store grows past this size.  0 does not limit the size
+	 */
+	private long maxDiskSize = HttpResponseCache.DEFAULT_MAX_DISK_SIZE;
+}
@@ -0,0 +1,152 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/****************************************************************************
+ * <b>Title</b>: HttpCacheEntry.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Response stored by the HttpResponseCache.  Holds the
+ * status, headers and body of the response, the request header values the
+ * response varies on and the time the response stops being fresh
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class HttpCacheEntry implements Serializable {
+
+	private static final long serialVersionUID = -2394871502288349217L;
+
+	// Members
+	private final String key;
+	private final int responseCode;
+	private final Map<String, List<String>> headers;
+	private final Map<String, String> varyHeaders;
+	private final byte[] data;
+	private final long storedAt;
+	private final long expiresAt;
+
+	/**
+	 * Creates the entry
+	 * @param key Cache key of the request (method and url)
+	 * @param responseCode HTTP response code
+	 * @param headers Response headers
+	 * @param varyHeaders Names and values of the request headers listed in the
+	 * Vary response header.  Names are lower case
+	 * @param data Response body
+	 * @param storedAt Time in ms the response was received or last revalidated
+	 * @param expiresAt Time in ms the response stops being fresh
+	 */
+	public HttpCacheEntry(String key, int responseCode, Map<String, List<String>> headers, Map<String, String> varyHeaders,
+		byte[] data, long storedAt, long expiresAt) {
+		this.key = key;
+		this.responseCode = responseCode;
+		this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+		this.varyHeaders = Collections.unmodifiableMap(new LinkedHashMap<>(varyHeaders));
+		this.data = data;
+		this.storedAt = storedAt;
+		this.expiresAt = expiresAt;
+	}
+
+	/**
+	 * Determines if the response may be used without asking the server
+	 * @param now Current time in ms
+	 * @return true if the response has not expired
+	 */
+	public boolean isFresh(long now) {
+		return now < expiresAt;
+	}
+
+	/**
+	 * Returns the first value of a response header.  Names are not case sensitive
+	 * @param name Header name
+	 * @return Value of the header.  Null when the header was not sent
+	 */
+	public String getHeader(String name) {
+		for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+			if (name.equalsIgnoreCase(entry.getKey()) && ! entry.getValue().isEmpty()) return entry.getValue().get(0);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Value of the ETag header
+	 * @return Entity tag of the response.  Null when not sent
+	 */
+	public String getETag() {
+		return getHeader("ETag");
+	}
+
+	/**
+	 * Value of the Last-Modified header
+	 * @return Modification date of the response.  Null when not sent
+	 */
+	public String getLastModified() {
+		return getHeader("Last-Modified");
+	}
+
+	/**
+	 * Cache key of the request (method and url)
+	 * @return the key
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * HTTP response code
+	 * @return the responseCode
+	 */
+	public int getResponseCode() {
+		return responseCode;
+	}
+
+	/**
+	 * Response headers
+	 * @return the headers
+	 */
+	public Map<String, List<String>> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Names (lower case) and values of the request headers the response varies on
+	 * @return the varyHeaders
+	 */
+	public Map<String, String> getVaryHeaders() {
+		return varyHeaders;
+	}
+
+	/**
+	 * Response body.  The array is shared and must not be modified
+	 * @return the data
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * Time in ms the response was received or last revalidated
+	 * @return the storedAt
+	 */
+	public long getStoredAt() {
+		return storedAt;
+	}
+
+	/**
+	 * Time in ms the response stops being fresh
+	 * @return the expiresAt
+	 */
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+}
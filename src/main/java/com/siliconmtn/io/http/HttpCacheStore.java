@@ -0,0 +1,48 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.IOException;
+
+/****************************************************************************
+ * <b>Title</b>: HttpCacheStore.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Storage of the responses of the HttpResponseCache.
+ * Implementations must be thread safe
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public interface HttpCacheStore {
+
+	/**
+	 * Retrieves a stored response
+	 * @param key Cache key of the request
+	 * @return Stored response.  Null when nothing is stored for the key
+	 * @throws IOException When the store can't be read
+	 */
+	HttpCacheEntry get(String key) throws IOException;
+
+	/**
+	 * Stores a response, replacing any response stored for its key
+	 * @param entry Response to store
+	 * @throws IOException When the store can't be written
+	 */
+	void put(HttpCacheEntry entry) throws IOException;
+
+	/**
+	 * Removes the response stored for the key
+	 * @param key Cache key of the request
+	 * @throws IOException When the store can't be written
+	 */
+	void remove(String key) throws IOException;
+
+	/**
+	 * Removes all of the stored responses
+	 * @throws IOException When the store can't be written
+	 */
+	void clear() throws IOException;
+}
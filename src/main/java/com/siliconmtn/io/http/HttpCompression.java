@@ -0,0 +1,291 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// Libs
+import com.siliconmtn.data.text.StringUtil;
+import com.siliconmtn.io.http.SMTHttpConnectionManager.HttpConnectionType;
+
+/****************************************************************************
+ * <b>Title</b>: HttpCompression.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Compressed transfers of the SMTHttpConnectionManager.
+ * Builds the Accept-Encoding header from the registered codecs, decodes the
+ * responses as they are streamed and, optionally, compresses the request bodies.
+ * gzip and deflate are built in.  The JDK has no brotli or zstd support, so those
+ * encodings are only offered once an HttpContentCodec backed by a library is
+ * registered.  The class is thread safe and may be shared by many managers
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class HttpCompression {
+
+	/**
+	 * Default size in bytes of the smallest request body that is compressed
+	 */
+	public static final int DEFAULT_MIN_REQUEST_SIZE = 1024;
+
+	/**
+	 * gzip encoding name
+	 */
+	public static final String GZIP = "gzip";
+
+	/**
+	 * deflate encoding name
+	 */
+	public static final String DEFLATE = "deflate";
+
+	// Members
+	private final Map<String, HttpContentCodec> codecs = new LinkedHashMap<>();
+	private volatile String acceptEncoding;
+	private volatile String requestEncoding;
+	private volatile int minRequestSize = DEFAULT_MIN_REQUEST_SIZE;
+
+	/**
+	 * Creates the compression with the gzip and deflate codecs.  Request bodies
+	 * are not compressed
+	 */
+	public HttpCompression() {
+		register(new GzipCodec());
+		register(new DeflateCodec());
+	}
+
+	/**
+	 * Creates the compression from the configuration
+	 * @param config Compression configuration
+	 */
+	public HttpCompression(HttpCompressionConfig config) {
+		this();
+		setRequestEncoding(config.getRequestEncoding());
+		setMinRequestSize(config.getMinRequestSize());
+	}
+
+	/**
+	 * Adds a codec, or replaces the codec of the same encoding.  The encoding
+	 * is added to the Accept-Encoding header
+	 * @param codec Codec to add
+	 * @return This compression, so calls may be chained
+	 */
+	public synchronized HttpCompression register(HttpContentCodec codec) {
+		codecs.put(codec.getEncoding().toLowerCase(Locale.ENGLISH), codec);
+		acceptEncoding = String.join(", ", codecs.keySet());
+		return this;
+	}
+
+	/**
+	 * Returns the codec of an encoding
+	 * @param encoding Encoding name.  Not case sensitive
+	 * @return Codec of the encoding.  Null when the encoding is not registered
+	 */
+	public synchronized HttpContentCodec getCodec(String encoding) {
+		return encoding == null ? null : codecs.get(encoding.trim().toLowerCase(Locale.ENGLISH));
+	}
+
+	/**
+	 * Value of the Accept-Encoding header sent on the requests
+	 * @return Registered encodings, in the order they were registered
+	 */
+	public String getAcceptEncoding() {
+		return acceptEncoding;
+	}
+
+	/**
+	 * Wraps a response stream so it is decoded as it is read.  Multiple encodings
+	 * are removed in the reverse of the order they were applied
+	 * @param contentEncoding Value of the Content-Encoding response header.  Null
+	 * or identity returns the stream as is
+	 * @param in Response stream
+	 * @return Stream of the decoded response
+	 * @throws IOException When an encoding is not registered or the data is not valid
+	 */
+	public InputStream decode(String contentEncoding, InputStream in) throws IOException {
+		if (StringUtil.isEmpty(contentEncoding) || in == null) return in;
+
+		String[] encodings = contentEncoding.split(",");
+		InputStream decoded = in;
+		for (int i = encodings.length - 1; i >= 0; i--) {
+			String encoding = encodings[i].trim();
+			if (encoding.isEmpty() || "identity".equalsIgnoreCase(encoding)) continue;
+
+			HttpContentCodec codec = getCodec(encoding);
+			if (codec == null) {
+				in.close();
+				throw new IOException("Unsupported Content-Encoding: " + encoding);
+			}
+
+			decoded = codec.decode(decoded);
+		}
+
+		return decoded;
+	}
+
+	/**
+	 * Compresses a request body using the request encoding.  Only POST and PUT
+	 * bodies at least the minimum request size are compressed
+	 * @param body Body of the request
+	 * @param type Request type
+	 * @return Compressed body, or the body as is when it is not compressed
+	 * @throws IOException When the body can't be compressed
+	 */
+	public HttpRequestBody encode(HttpRequestBody body, HttpConnectionType type) throws IOException {
+		HttpContentCodec codec = getCodec(requestEncoding);
+		if (codec == null || (type != HttpConnectionType.POST && type != HttpConnectionType.PUT)) return body;
+
+		long length = body.getContentLength();
+		if (length == 0 || (length > 0 && length < minRequestSize)) return body;
+		return new HttpRequestBody.EncodedBody(body, codec);
+	}
+
+	/**
+	 * Removes the headers describing the encoded response, since the caller
+	 * receives the decoded data
+	 * @param headers Response headers
+	 * @return Copy of the headers without Content-Encoding and Content-Length
+	 */
+	public static Map<String, List<String>> removeEncodingHeaders(Map<String, List<String>> headers) {
+		Map<String, List<String>> decoded = new LinkedHashMap<>();
+		for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+			String name = entry.getKey();
+			if (! HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) && ! HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name))
+				decoded.put(name, entry.getValue());
+		}
+
+		return decoded;
+	}
+
+	/**
+	 * Encoding used to compress the request bodies
+	 * @return the requestEncoding.  Null when the bodies are not compressed
+	 */
+	public String getRequestEncoding() {
+		return requestEncoding;
+	}
+
+	/**
+	 * Assigns the encoding used to compress the request bodies.  The server must
+	 * accept the encoding
+	 * @param requestEncoding Registered encoding.  Null sends the bodies as is
+	 */
+	public void setRequestEncoding(String requestEncoding) {
+		this.requestEncoding = StringUtil.isEmpty(requestEncoding) ? null : requestEncoding;
+	}
+
+	/**
+	 * Smallest request body in bytes that is compressed
+	 * @return the minRequestSize
+	 */
+	public int getMinRequestSize() {
+		return minRequestSize;
+	}
+
+	/**
+	 * Assigns the smallest request body in bytes that is compressed
+	 * @param minRequestSize Size in bytes.  Bodies of unknown length are always compressed
+	 */
+	public void setMinRequestSize(int minRequestSize) {
+		this.minRequestSize = minRequestSize;
+	}
+
+	/**
+	 * gzip encoding
+	 */
+	public static class GzipCodec implements HttpContentCodec {
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpContentCodec#getEncoding()
+		 */
+		@Override
+		public String getEncoding() {
+			return GZIP;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpContentCodec#decode(java.io.InputStream)
+		 */
+		@Override
+		public InputStream decode(InputStream in) throws IOException {
+			return new GZIPInputStream(in, SMTHttpConnectionManager.STREAM_BUFFER_SIZE);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpContentCodec#encode(java.io.OutputStream)
+		 */
+		@Override
+		public OutputStream encode(OutputStream out) throws IOException {
+			return new GZIPOutputStream(out, SMTHttpConnectionManager.STREAM_BUFFER_SIZE);
+		}
+	}
+
+	/**
+	 * deflate encoding.  The specification calls for zlib wrapped data, but some
+	 * servers send raw deflate data, so the decoder checks for the zlib header
+	 */
+	public static class DeflateCodec implements HttpContentCodec {
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpContentCodec#getEncoding()
+		 */
+		@Override
+		public String getEncoding() {
+			return DEFLATE;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpContentCodec#decode(java.io.InputStream)
+		 */
+		@Override
+		public InputStream decode(InputStream in) throws IOException {
+			BufferedInputStream buffered = new BufferedInputStream(in, SMTHttpConnectionManager.STREAM_BUFFER_SIZE);
+			buffered.mark(2);
+			int cmf = buffered.read();
+			int flg = buffered.read();
+			buffered.reset();
+
+			// zlib header: compression method 8 and a header checksum divisible by 31
+			boolean zlib = cmf >= 0 && flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+			Inflater inflater = new Inflater(! zlib);
+			return new InflaterInputStream(buffered, inflater, SMTHttpConnectionManager.STREAM_BUFFER_SIZE) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						inflater.end();
+					}
+				}
+			};
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpContentCodec#encode(java.io.OutputStream)
+		 */
+		@Override
+		public OutputStream encode(OutputStream out) {
+			return new DeflaterOutputStream(out);
+		}
+	}
+}
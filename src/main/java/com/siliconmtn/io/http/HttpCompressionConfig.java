@@ -0,0 +1,55 @@
+package com.siliconmtn.io.http;
+
+// Spring 5.x
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.Configuration;
+
+// Lombok 1.x
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/****************************************************************************
+ * <b>Title</b>: HttpCompressionConfig.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Configuration for the compressed transfers of the
+ * SMTHttpConnectionManager.  When enabled (smt.http.compression.enabled=true),
+ * the managed SMTHttpConnectionManager sends Accept-Encoding and decodes the
+ * compressed responses as they are read.  Request bodies are only compressed
+ * when a request encoding is assigned, as the server must support it
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+@Configuration
+@ConfigurationProperties(prefix = "smt.http.compression")
+@ConfigurationPropertiesScan
+@NoArgsConstructor
+@Setter
+@Getter
+@ToString
+public class HttpCompressionConfig {
+
+	/**
+	 * Turns the compressed transfers on or off for the managed connection manager
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Encoding (gzip, deflate) used to compress the POST and PUT bodies.  Bodies
+	 * are sent as is when this is not assigned
+	 */
+	private String requestEncoding;
+
+	/**
+	 * Smallest request body in bytes that is compressed.  Bodies of unknown
+	 * length are always compressed
+	 */
+	private int minRequestSize = HttpCompression.DEFAULT_MIN_REQUEST_SIZE;
+}
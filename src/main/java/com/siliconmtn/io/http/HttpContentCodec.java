@@ -0,0 +1,49 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/****************************************************************************
+ * <b>Title</b>: HttpContentCodec.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Content-Encoding supported by the HttpCompression of the
+ * SMTHttpConnectionManager.  gzip and deflate are built in.  Other encodings
+ * (br, zstd) are added by registering an implementation backed by the library
+ * of the application
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public interface HttpContentCodec {
+
+	/**
+	 * Name of the encoding, as sent in the Accept-Encoding and Content-Encoding headers
+	 * @return Encoding name (gzip, br, zstd)
+	 */
+	String getEncoding();
+
+	/**
+	 * Wraps a stream of encoded data so it is decoded as it is read
+	 * @param in Encoded data
+	 * @return Stream of the decoded data.  Closing it closes the encoded stream
+	 * @throws IOException When the data is not in the encoding
+	 */
+	InputStream decode(InputStream in) throws IOException;
+
+	/**
+	 * Wraps a stream so the data written to it is encoded.  The encoded data is
+	 * complete once the returned stream is closed
+	 * @param out Stream receiving the encoded data
+	 * @return Stream encoding the data written to it
+	 * @throws IOException When the stream can't be created
+	 */
+	default OutputStream encode(OutputStream out) throws IOException {
+		throw new IOException("Request bodies can't be encoded with " + getEncoding());
+	}
+}
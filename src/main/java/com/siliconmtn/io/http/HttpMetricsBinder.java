@@ -0,0 +1,190 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.util.concurrent.TimeUnit;
+
+// Micrometer 1.x
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/****************************************************************************
+ * <b>Title</b>: HttpMetricsBinder.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Publishes the metrics of the SMTHttpConnectionManager
+ * requests to a Micrometer registry as histograms.  Add the binder to the
+ * manager with addRequestListener, or declare it as a bean so Spring binds it
+ * to the registry and assigns it to the managed connection manager.  The
+ * timers are tagged by host, so they separate the time spent on the connection
+ * setup (dns, connect, tls) from the time the server took to respond (first
+ * byte).  Requests measured before the binder is bound to a registry are dropped
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class HttpMetricsBinder implements HttpRequestListener, MeterBinder {
+
+	/**
+	 * Prefix of the meter names
+	 */
+	public static final String PREFIX = "smt.http.client";
+
+	/**
+	 * Timer of the total time of the requests
+	 */
+	public static final String REQUESTS = PREFIX + ".requests";
+
+	/**
+	 * Timer of the time to the response headers
+	 */
+	public static final String FIRST_BYTE = PREFIX + ".first.byte";
+
+	/**
+	 * Timer of the DNS lookups
+	 */
+	public static final String DNS = PREFIX + ".dns";
+
+	/**
+	 * Timer of the connection setup, excluding DNS and TLS
+	 */
+	public static final String CONNECT = PREFIX + ".connect";
+
+	/**
+	 * Timer of the TLS handshakes
+	 */
+	public static final String TLS = PREFIX + ".tls";
+
+	/**
+	 * Summary of the body bytes sent
+	 */
+	public static final String BYTES_SENT = PREFIX + ".bytes.sent";
+
+	/**
+	 * Summary of the body bytes received
+	 */
+	public static final String BYTES_RECEIVED = PREFIX + ".bytes.received";
+
+	/**
+	 * Summary of the redirects followed by each request
+	 */
+	public static final String REDIRECTS = PREFIX + ".redirects";
+
+	// Members
+	private volatile MeterRegistry registry;
+
+	/**
+	 * Creates a binder that records once it is bound to a registry
+	 */
+	public HttpMetricsBinder() {
+		super();
+	}
+
+	/**
+	 * Creates a binder recording to the registry
+	 * @param registry Registry receiving the meters
+	 */
+	public HttpMetricsBinder(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see io.micrometer.core.instrument.binder.MeterBinder#bindTo(io.micrometer.core.instrument.MeterRegistry)
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpRequestListener#requestCompleted(com.siliconmtn.io.http.HttpRequestMetrics)
+	 */
+	@Override
+	public void requestCompleted(HttpRequestMetrics metrics) {
+		record(metrics, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpRequestListener#requestFailed(com.siliconmtn.io.http.HttpRequestMetrics, java.lang.Throwable)
+	 */
+	@Override
+	public void requestFailed(HttpRequestMetrics metrics, Throwable error) {
+		record(metrics, error);
+	}
+
+	/**
+	 * Records the metrics of a request.  Phases that were not measured are skipped
+	 * @param metrics Metrics of the request
+	 * @param error Cause of the failure.  Null when the request completed
+	 */
+	private void record(HttpRequestMetrics metrics, Throwable error) {
+		MeterRegistry meters = registry;
+		if (meters == null) return;
+
+		Tags host = Tags.of("host", String.valueOf(metrics.getHost()));
+		Tags request = host.and("method", metrics.getMethod(), "status", getStatus(metrics, error));
+		Tags outcome = request.and("exception", error == null ? "none" : error.getClass().getSimpleName(), "cached", Boolean.toString(metrics.isCached()));
+
+		time(meters, REQUESTS, "Total time of the requests", outcome, metrics.getTotalTime());
+		time(meters, FIRST_BYTE, "Time to the response headers", request, metrics.getTimeToFirstByte());
+		time(meters, DNS, "Time of the DNS lookups", host, metrics.getDnsTime());
+		time(meters, CONNECT, "Time to open the connections", host, metrics.getConnectTime());
+		time(meters, TLS, "Time of the TLS handshakes", host, metrics.getTlsTime());
+		summarize(meters, BYTES_SENT, "Body bytes sent", "bytes", request, metrics.getBytesSent());
+		summarize(meters, BYTES_RECEIVED, "Body bytes received", "bytes", request, metrics.getBytesReceived());
+		summarize(meters, REDIRECTS, "Redirects followed by the requests", null, host, metrics.getRedirects());
+	}
+
+	/**
+	 * Returns the status tag of a request
+	 * @param metrics Metrics of the request
+	 * @param error Cause of the failure.  Null when the request completed
+	 * @return Response code, or IO_ERROR when no response was received
+	 */
+	static String getStatus(HttpRequestMetrics metrics, Throwable error) {
+		if (metrics.getResponseCode() > 0) return Integer.toString(metrics.getResponseCode());
+		return error == null ? "UNKNOWN" : "IO_ERROR";
+	}
+
+	/**
+	 * Records a time to the histogram of a timer
+	 * @param meters Registry of the timer
+	 * @param name Name of the timer
+	 * @param description Description of the timer
+	 * @param tags Tags of the timer
+	 * @param nanos Time in nanoseconds.  Skipped when negative
+	 */
+	private static void time(MeterRegistry meters, String name, String description, Tags tags, long nanos) {
+		if (nanos < 0) return;
+		Timer.builder(name).description(description).tags(tags).publishPercentileHistogram().register(meters).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records an amount to the histogram of a distribution summary
+	 * @param meters Registry of the summary
+	 * @param name Name of the summary
+	 * @param description Description of the summary
+	 * @param unit Base unit of the amounts.  May be null
+	 * @param tags Tags of the summary
+	 * @param amount Amount to record
+	 */
+	private static void summarize(MeterRegistry meters, String name, String description, String unit, Tags tags, long amount) {
+		DistributionSummary.builder(name).description(description).baseUnit(unit).tags(tags).publishPercentileHistogram().register(meters).record(amount);
+	}
+
+	/**
+	 * Returns the registry receiving the meters
+	 * @return the registry.  Null until the binder is bound
+	 */
+	public MeterRegistry getRegistry() {
+		return registry;
+	}
+}
@@ -0,0 +1,59 @@
+package com.siliconmtn.io.http;
+
+// Spring 5.x
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.Configuration;
+
+// Lombok 1.x
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/****************************************************************************
+ * <b>Title</b>: HttpPoolConfig.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Configuration for the pooled connection engine used by
+ * the SMTHttpConnectionManager.  When this bean is available in the Spring
+ * context, the managed SMTHttpConnectionManager routes its requests through a
+ * keep-alive connection pool.  All values are optional and may be overridden
+ * using the smt.http.pool prefix (smt.http.pool.maxConnectionsPerHost=50)
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+@Configuration
+@ConfigurationProperties(prefix = "smt.http.pool")
+@ConfigurationPropertiesScan
+@NoArgsConstructor
+@Setter
+@Getter
+@ToString
+public class HttpPoolConfig {
+
+	/**
+	 * Turns the pooled engine on or off for the managed connection manager
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Maximum number of concurrent connections opened to a single host
+	 */
+	private int maxConnectionsPerHost = PooledHttpEngine.DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+	/**
+	 * Negotiates HTTP/2 over TLS when the server supports it.  Falls back to 
+	 * HTTP/1.1.  Plain http requests always use HTTP/1.1
+	 */
+	private boolean http2 = true;
+
+	/**
+	 * Connect timeout in ms
+	 */
+	private int connectTimeout = SMTHttpConnectionManager.DEFAULT_SOCKET_TIMEOUT;
+}
@@ -0,0 +1,33 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.IOException;
+
+/****************************************************************************
+ * <b>Title</b>: HttpRejectedException.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Thrown when the SMTHttpConnectionManager rejects a request
+ * or response on its own, without a failure of the remote host.  This occurs
+ * when the circuit breaker of the host is open, when the host has reached its
+ * concurrent request limit or when a response exceeds the maximum size.  These
+ * errors are never retried
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class HttpRejectedException extends IOException {
+
+	private static final long serialVersionUID = -2786170284416290157L;
+
+	/**
+	 * Creates the exception
+	 * @param msg Reason the request was rejected
+	 */
+	public HttpRejectedException(String msg) {
+		super(msg);
+	}
+}
@@ -0,0 +1,639 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/****************************************************************************
+ * <b>Title</b>: HttpRequestBody.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Body of a request sent through the SMTHttpConnectionManager.
+ * Besides a byte[], the body may be read from a file, an InputStream or a
+ * Flow.Publisher as it is sent, so large uploads are never held in memory.
+ * Bodies with a known length are sent with a Content-Length header, others are
+ * sent chunked.  Bodies that can only be read once (streams and publishers) are
+ * never retried or re-sent on a redirect
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public abstract class HttpRequestBody {
+
+	/**
+	 * Body of a request without any data
+	 */
+	static final HttpRequestBody EMPTY = ofBytes(new byte[0]);
+
+	/**
+	 * Creates a body from the data
+	 * @param data Data to send.  Null sends an empty body
+	 * @return Body of the request
+	 */
+	public static HttpRequestBody ofBytes(byte[] data) {
+		return new BytesBody(data == null ? new byte[0] : data);
+	}
+
+	/**
+	 * Creates a body that streams the file.  The file is read each time the
+	 * request is sent, so the body may be retried
+	 * @param file File to send
+	 * @return Body of the request
+	 */
+	public static HttpRequestBody ofFile(Path file) {
+		return new FileBody(file);
+	}
+
+	/**
+	 * Creates a body that streams the data of the InputStream.  The stream is
+	 * read once and closed when the request has been sent
+	 * @param in Stream to send
+	 * @param length Number of bytes in the stream.  -1 when unknown, in which case
+	 * the body is sent chunked
+	 * @return Body of the request
+	 */
+	public static HttpRequestBody ofInputStream(InputStream in, long length) {
+		return new StreamBody(in, length);
+	}
+
+	/**
+	 * Creates a body that streams the data of the publisher.  The publisher is
+	 * subscribed to once
+	 * @param publisher Publisher of the data to send
+	 * @param length Number of bytes that will be published.  -1 when unknown, in
+	 * which case the body is sent chunked
+	 * @return Body of the request
+	 */
+	public static HttpRequestBody ofPublisher(Flow.Publisher<ByteBuffer> publisher, long length) {
+		return new PublisherBody(publisher, length);
+	}
+
+	/**
+	 * Number of bytes in the body
+	 * @return Length of the body.  -1 when unknown
+	 * @throws IOException When the length can't be determined
+	 */
+	public abstract long getContentLength() throws IOException;
+
+	/**
+	 * Content type of the body.  Used when the Content-Type request header has not
+	 * been assigned
+	 * @return Content type.  Null to use the default of the manager
+	 */
+	public String getContentType() {
+		return null;
+	}
+
+	/**
+	 * Content encoding of the body.  Assigned as the Content-Encoding request header
+	 * @return Encoding of the body.  Null when the body is not encoded
+	 */
+	public String getContentEncoding() {
+		return null;
+	}
+
+	/**
+	 * Determines if the body can be sent more than once
+	 * @return true if the body may be retried or re-sent on a redirect
+	 */
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	/**
+	 * Writes the body to the stream of a connection
+	 * @param out Stream of the connection.  Not closed by this method
+	 * @throws IOException When the body can't be read or written
+	 */
+	public abstract void writeTo(OutputStream out) throws IOException;
+
+	/**
+	 * Creates the publisher used by the pooled engine to send the body
+	 * @return Publisher of the body
+	 * @throws IOException When the body can't be read
+	 */
+	public abstract BodyPublisher toPublisher() throws IOException;
+
+	/**
+	 * Determines if the body is held in memory.  Buffered bodies are sent the same
+	 * way as the byte[] requests have always been sent
+	 * @return true if the data is in memory
+	 */
+	boolean isBuffered() {
+		return false;
+	}
+
+	/**
+	 * Creates a publisher that reads the stream each time the body is sent
+	 * @param body Body providing the stream
+	 * @param length Length of the body.  -1 when unknown
+	 * @return Publisher of the body
+	 */
+	static BodyPublisher streamPublisher(StreamSource body, long length) {
+		BodyPublisher publisher = BodyPublishers.ofInputStream(() -> {
+			try {
+				return body.open();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+
+		return length < 0 ? publisher : BodyPublishers.fromPublisher(publisher, length);
+	}
+
+	/**
+	 * Opens the stream of a body
+	 */
+	interface StreamSource {
+
+		/**
+		 * Opens a new stream of the body
+		 * @return Stream of the body
+		 * @throws IOException When the stream can't be opened
+		 */
+		InputStream open() throws IOException;
+	}
+
+	/**
+	 * Body held in memory
+	 */
+	static class BytesBody extends HttpRequestBody {
+		private final byte[] data;
+
+		/**
+		 * Creates the body
+		 * @param data Data to send
+		 */
+		BytesBody(byte[] data) {
+			this.data = data;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#getContentLength()
+		 */
+		@Override
+		public long getContentLength() {
+			return data.length;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#writeTo(java.io.OutputStream)
+		 */
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			out.write(data);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#toPublisher()
+		 */
+		@Override
+		public BodyPublisher toPublisher() {
+			return data.length == 0 ? BodyPublishers.noBody() : BodyPublishers.ofByteArray(data);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#isBuffered()
+		 */
+		@Override
+		boolean isBuffered() {
+			return true;
+		}
+	}
+
+	/**
+	 * Body read from a file
+	 */
+	static class FileBody extends HttpRequestBody {
+		private final Path file;
+
+		/**
+		 * Creates the body
+		 * @param file File to send
+		 */
+		FileBody(Path file) {
+			this.file = file;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#getContentLength()
+		 */
+		@Override
+		public long getContentLength() throws IOException {
+			return Files.size(file);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#writeTo(java.io.OutputStream)
+		 */
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			Files.copy(file, out);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#toPublisher()
+		 */
+		@Override
+		public BodyPublisher toPublisher() throws IOException {
+			return BodyPublishers.ofFile(file);
+		}
+	}
+
+	/**
+	 * Body read once from an InputStream
+	 */
+	static class StreamBody extends HttpRequestBody {
+		private final InputStream in;
+		private final long length;
+		private final AtomicBoolean used = new AtomicBoolean();
+
+		/**
+		 * Creates the body
+		 * @param in Stream to send
+		 * @param length Length of the stream.  -1 when unknown
+		 */
+		StreamBody(InputStream in, long length) {
+			this.in = in;
+			this.length = length;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#getContentLength()
+		 */
+		@Override
+		public long getContentLength() {
+			return length;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#isRepeatable()
+		 */
+		@Override
+		public boolean isRepeatable() {
+			return false;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#writeTo(java.io.OutputStream)
+		 */
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			try (InputStream stream = open()) {
+				stream.transferTo(out);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#toPublisher()
+		 */
+		@Override
+		public BodyPublisher toPublisher() {
+			return streamPublisher(this::open, length);
+		}
+
+		/**
+		 * Returns the stream the first time it is requested
+		 * @return Stream of the body
+		 * @throws IOException When the stream has already been sent
+		 */
+		private InputStream open() throws IOException {
+			if (used.getAndSet(true)) throw new IOException("The request body stream has already been sent");
+			return in;
+		}
+	}
+
+	/**
+	 * Body compressed with a content codec.  Bodies held in memory are compressed
+	 * once, so their length is known.  Other bodies are compressed as they are
+	 * sent, and are sent chunked
+	 */
+	static class EncodedBody extends HttpRequestBody {
+		private final HttpRequestBody body;
+		private final HttpContentCodec codec;
+		private final byte[] data;
+
+		/**
+		 * Creates the body
+		 * @param body Body to compress
+		 * @param codec Codec of the encoding
+		 * @throws IOException When a body held in memory can't be compressed
+		 */
+		EncodedBody(HttpRequestBody body, HttpContentCodec codec) throws IOException {
+			this.body = body;
+			this.codec = codec;
+
+			if (body.isBuffered()) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				encodeTo(out);
+				data = out.toByteArray();
+			} else {
+				data = null;
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#getContentLength()
+		 */
+		@Override
+		public long getContentLength() {
+			return data == null ? -1 : data.length;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#getContentType()
+		 */
+		@Override
+		public String getContentType() {
+			return body.getContentType();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#getContentEncoding()
+		 */
+		@Override
+		public String getContentEncoding() {
+			return codec.getEncoding();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#isRepeatable()
+		 */
+		@Override
+		public boolean isRepeatable() {
+			return body.isRepeatable();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#isBuffered()
+		 */
+		@Override
+		boolean isBuffered() {
+			return data != null;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#writeTo(java.io.OutputStream)
+		 */
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			if (data != null) out.write(data);
+			else encodeTo(out);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#toPublisher()
+		 * The body is compressed on the async executor and piped to the publisher
+		 */
+		@Override
+		public BodyPublisher toPublisher() {
+			if (data != null) return BodyPublishers.ofByteArray(data);
+			return streamPublisher(this::openPipe, -1);
+		}
+
+		/**
+		 * Compresses the body to the stream.  The stream is left open
+		 * @param out Stream receiving the compressed body
+		 * @throws IOException When the body can't be read or compressed
+		 */
+		private void encodeTo(OutputStream out) throws IOException {
+			try (OutputStream encoder = codec.encode(new FilterOutputStream(out) {
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					out.write(b, off, len);
+				}
+
+				@Override
+				public void close() throws IOException {
+					flush();
+				}
+			})) {
+				body.writeTo(encoder);
+			}
+		}
+
+		/**
+		 * Starts compressing the body on the async executor
+		 * @return Stream of the compressed body.  Errors of the compression are
+		 * thrown when the end of the stream is reached
+		 * @throws IOException When the pipe can't be created
+		 */
+		private InputStream openPipe() throws IOException {
+			PipedInputStream pipe = new PipedInputStream(SMTHttpConnectionManager.STREAM_BUFFER_SIZE);
+			PipedOutputStream out = new PipedOutputStream(pipe);
+			AtomicReference<IOException> error = new AtomicReference<>();
+			SMTHttpConnectionManager.DEFAULT_ASYNC_EXECUTOR.execute(() -> {
+				try (OutputStream target = out) {
+					encodeTo(target);
+				} catch (IOException e) {
+					error.set(e);
+				}
+			});
+
+			return new FilterInputStream(pipe) {
+				@Override
+				public int read() throws IOException {
+					return check(super.read());
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) throws IOException {
+					return check(super.read(b, off, len));
+				}
+
+				/**
+				 * Throws the error of the compression once the pipe is drained
+				 * @param n Result of the read
+				 * @return Result of the read
+				 * @throws IOException When the compression failed
+				 */
+				private int check(int n) throws IOException {
+					if (n == -1 && error.get() != null) throw error.get();
+					return n;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Body read once from a publisher
+	 */
+	static class PublisherBody extends HttpRequestBody {
+		private final Flow.Publisher<ByteBuffer> publisher;
+		private final long length;
+
+		/**
+		 * Creates the body
+		 * @param publisher Publisher of the data
+		 * @param length Number of bytes published.  -1 when unknown
+		 */
+		PublisherBody(Flow.Publisher<ByteBuffer> publisher, long length) {
+			this.publisher = publisher;
+			this.length = length;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#getContentLength()
+		 */
+		@Override
+		public long getContentLength() {
+			return length;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#isRepeatable()
+		 */
+		@Override
+		public boolean isRepeatable() {
+			return false;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#toPublisher()
+		 */
+		@Override
+		public BodyPublisher toPublisher() {
+			return length < 0 ? BodyPublishers.fromPublisher(publisher) : BodyPublishers.fromPublisher(publisher, length);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpRequestBody#writeTo(java.io.OutputStream)
+		 * Requests one buffer at a time so the publisher never gets ahead of the connection
+		 */
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			OutputSubscriber subscriber = new OutputSubscriber(out);
+			publisher.subscribe(subscriber);
+			subscriber.await();
+		}
+	}
+
+	/**
+	 * Writes the buffers of a publisher to a stream, blocking the sending thread
+	 * until the publisher completes
+	 */
+	static class OutputSubscriber implements Flow.Subscriber<ByteBuffer> {
+		private final OutputStream out;
+		private final CountDownLatch done = new CountDownLatch(1);
+		private volatile Flow.Subscription subscription;
+		private volatile Throwable error;
+
+		/**
+		 * Creates the subscriber
+		 * @param out Stream receiving the data
+		 */
+		OutputSubscriber(OutputStream out) {
+			this.out = out;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Flow.Subscriber#onSubscribe(java.util.concurrent.Flow.Subscription)
+		 */
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			subscription.request(1);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Flow.Subscriber#onNext(java.lang.Object)
+		 */
+		@Override
+		public void onNext(ByteBuffer item) {
+			try {
+				if (item.hasArray()) {
+					out.write(item.array(), item.arrayOffset() + item.position(), item.remaining());
+				} else {
+					byte[] data = new byte[item.remaining()];
+					item.get(data);
+					out.write(data);
+				}
+
+				subscription.request(1);
+			} catch (IOException e) {
+				subscription.cancel();
+				onError(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Flow.Subscriber#onError(java.lang.Throwable)
+		 */
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+			done.countDown();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Flow.Subscriber#onComplete()
+		 */
+		@Override
+		public void onComplete() {
+			done.countDown();
+		}
+
+		/**
+		 * Waits for the publisher to complete
+		 * @throws IOException When the publisher or the stream failed
+		 */
+		void await() throws IOException {
+			try {
+				done.await();
+			} catch (InterruptedException e) {
+				if (subscription != null) subscription.cancel();
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted sending the request body");
+			}
+
+			if (error instanceof IOException) throw (IOException) error;
+			if (error != null) throw new IOException("Unable to send the request body", error);
+		}
+	}
+}
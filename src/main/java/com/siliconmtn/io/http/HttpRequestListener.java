@@ -0,0 +1,52 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.util.Map;
+
+/****************************************************************************
+ * <b>Title</b>: HttpRequestListener.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Receives the start and the outcome of each request sent
+ * by the SMTHttpConnectionManager, for metrics and tracing.  Listeners are
+ * called on the thread sending or reading the request, so they must be fast
+ * and thread safe.  Exceptions thrown by a listener are logged and do not
+ * affect the request
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public interface HttpRequestListener {
+
+	/**
+	 * Called before the request is sent.  Headers added to the map are sent on
+	 * the request, so trace context may be propagated to the server
+	 * @param metrics Metrics of the request.  Only the url and method are assigned
+	 * @param headers Headers of the request.  May be modified
+	 */
+	default void requestStarted(HttpRequestMetrics metrics, Map<String, String> headers) {
+		// Nothing to do by default
+	}
+
+	/**
+	 * Called once the response body was read to the end or the response stream
+	 * was closed.  Any response code, including errors sent by the server,
+	 * completes the request
+	 * @param metrics Metrics of the request
+	 */
+	default void requestCompleted(HttpRequestMetrics metrics) {
+		// Nothing to do by default
+	}
+
+	/**
+	 * Called when no response was received, or the response could not be read
+	 * @param metrics Metrics of the request, up to the failure
+	 * @param error Cause of the failure
+	 */
+	default void requestFailed(HttpRequestMetrics metrics, Throwable error) {
+		// Nothing to do by default
+	}
+}
@@ -0,0 +1,498 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/****************************************************************************
+ * <b>Title</b>: HttpRequestMetrics.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Timings and sizes of a single request sent by the
+ * SMTHttpConnectionManager, passed to each HttpRequestListener.  Times are in
+ * nanoseconds and are -1 when the phase was not measured.  DNS, connect and TLS
+ * times are summed over the connections opened for the request (redirects and
+ * retries), and are only measured by the connection based requests, as the
+ * pooled engine does not expose its connection setup.  A connection reused
+ * from the keep-alive cache reports a connect time near 0 and no TLS time
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class HttpRequestMetrics {
+
+	// Members
+	private final URL url;
+	private final String method;
+	private final boolean pooled;
+	private final long start = System.nanoTime();
+	private final AtomicBoolean finished = new AtomicBoolean();
+	private final AtomicLong bytesSent = new AtomicLong();
+	private final AtomicLong bytesReceived = new AtomicLong();
+	private volatile boolean cached;
+	private volatile int responseCode;
+	private volatile int redirects;
+	private volatile int attempts;
+	private volatile long dnsTime = -1;
+	private volatile long connectTime = -1;
+	private volatile long tlsTime = -1;
+	private volatile long timeToFirstByte = -1;
+	private volatile long totalTime = -1;
+
+	/**
+	 * Starts the timing of a request
+	 * @param url Url of the request
+	 * @param method Request method
+	 * @param pooled True when the request is sent over the pooled engine
+	 */
+	public HttpRequestMetrics(URL url, String method, boolean pooled) {
+		this.url = url;
+		this.method = method;
+		this.pooled = pooled;
+	}
+
+	/**
+	 * Records the opening of a connection, including any redirect or retry
+	 */
+	void connectionOpened() {
+		attempts++;
+	}
+
+	/**
+	 * Records a redirect that was followed
+	 */
+	void redirected() {
+		redirects++;
+	}
+
+	/**
+	 * Records the arrival of the response headers.  Called for each response, so
+	 * the time of the final response is kept
+	 */
+	void headersReceived() {
+		timeToFirstByte = System.nanoTime() - start;
+	}
+
+	/**
+	 * Adds the time of the DNS lookup of a connection
+	 * @param nanos Time in nanoseconds
+	 */
+	void addDnsTime(long nanos) {
+		dnsTime = Math.max(dnsTime, 0) + nanos;
+	}
+
+	/**
+	 * Adds the time used to open a connection
+	 * @param nanos Time in nanoseconds
+	 */
+	void addConnectTime(long nanos) {
+		connectTime = Math.max(connectTime, 0) + nanos;
+	}
+
+	/**
+	 * Adds the time of a TLS handshake
+	 * @param nanos Time in nanoseconds
+	 */
+	void addTlsTime(long nanos) {
+		tlsTime = Math.max(tlsTime, 0) + nanos;
+	}
+
+	/**
+	 * Adds to the number of body bytes sent
+	 * @param count Number of bytes
+	 */
+	void addBytesSent(long count) {
+		bytesSent.addAndGet(count);
+	}
+
+	/**
+	 * Adds to the number of body bytes received
+	 * @param count Number of bytes
+	 */
+	void addBytesReceived(long count) {
+		bytesReceived.addAndGet(count);
+	}
+
+	/**
+	 * Marks the request as answered by the response cache
+	 * @param code Response code of the stored response
+	 */
+	void answeredFromCache(int code) {
+		cached = true;
+		responseCode = code;
+	}
+
+	/**
+	 * Assigns the response code returned to the caller
+	 * @param code HTTP response code
+	 */
+	void setResponseCode(int code) {
+		responseCode = code;
+	}
+
+	/**
+	 * Stops the timing of the request.  Only the first call has an effect
+	 * @return True on the first call, so the listeners are notified once
+	 */
+	boolean finish() {
+		if (! finished.compareAndSet(false, true)) return false;
+		totalTime = System.nanoTime() - start;
+		return true;
+	}
+
+	/**
+	 * Url of the request.  Redirects are not reflected
+	 * @return the url
+	 */
+	public URL getUrl() {
+		return url;
+	}
+
+	/**
+	 * Host of the request
+	 * @return the host name
+	 */
+	public String getHost() {
+		return url.getHost();
+	}
+
+	/**
+	 * Request method
+	 * @return the method (GET, POST ...)
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * Determines if the request was sent over the pooled engine
+	 * @return true for pooled requests
+	 */
+	public boolean isPooled() {
+		return pooled;
+	}
+
+	/**
+	 * Determines if the response came from the response cache without a request
+	 * to the server
+	 * @return true when answered by the cache
+	 */
+	public boolean isCached() {
+		return cached;
+	}
+
+	/**
+	 * HTTP response code returned to the caller
+	 * @return the responseCode.  0 when no response was received
+	 */
+	public int getResponseCode() {
+		return responseCode;
+	}
+
+	/**
+	 * Number of redirects followed.  Redirects followed internally by an 
+	 * HttpURLConnection are counted once, as only the final url is known
+	 * @return the redirects
+	 */
+	public int getRedirects() {
+		return redirects;
+	}
+
+	/**
+	 * Number of times the request was sent, including the redirects and retries
+	 * @return the attempts.  0 when answered by the cache
+	 */
+	public int getAttempts() {
+		return attempts;
+	}
+
+	/**
+	 * Time used to resolve the host
+	 * @return the time in nanoseconds.  -1 when not measured
+	 */
+	public long getDnsTime() {
+		return dnsTime;
+	}
+
+	/**
+	 * Time used to open the connection, excluding DNS and the TLS handshake
+	 * @return the time in nanoseconds.  -1 when not measured
+	 */
+	public long getConnectTime() {
+		return connectTime;
+	}
+
+	/**
+	 * Time of the TLS handshake
+	 * @return the time in nanoseconds.  -1 when not measured or not a secure connection
+	 */
+	public long getTlsTime() {
+		return tlsTime;
+	}
+
+	/**
+	 * Time from the start of the request to the headers of the final response
+	 * @return the time in nanoseconds.  -1 when no response was received
+	 */
+	public long getTimeToFirstByte() {
+		return timeToFirstByte;
+	}
+
+	/**
+	 * Time from the start of the request until the body was read or the request
+	 * failed
+	 * @return the time in nanoseconds.  -1 until the request completes
+	 */
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * Number of body bytes sent, including the bodies sent again on a redirect
+	 * or retry
+	 * @return the bytesSent
+	 */
+	public long getBytesSent() {
+		return bytesSent.get();
+	}
+
+	/**
+	 * Number of body bytes received from the server, as sent on the wire before
+	 * any decoding
+	 * @return the bytesReceived
+	 */
+	public long getBytesReceived() {
+		return bytesReceived.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return method + " " + url + " [code=" + responseCode + ", redirects=" + redirects + ", attempts=" + attempts
+			+ ", dns=" + dnsTime + ", connect=" + connectTime + ", tls=" + tlsTime + ", ttfb=" + timeToFirstByte
+			+ ", total=" + totalTime + ", sent=" + bytesSent + ", received=" + bytesReceived + "]";
+	}
+
+	/**
+	 * Counts the bytes read from a response stream
+	 */
+	static class CountingInputStream extends FilterInputStream {
+		private final HttpRequestMetrics metrics;
+
+		/**
+		 * Wraps the stream
+		 * @param in Response stream
+		 * @param metrics Metrics receiving the count
+		 */
+		CountingInputStream(InputStream in, HttpRequestMetrics metrics) {
+			super(in);
+			this.metrics = metrics;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.FilterInputStream#read()
+		 */
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) metrics.addBytesReceived(1);
+			return b;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.FilterInputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) metrics.addBytesReceived(n);
+			return n;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.FilterInputStream#skip(long)
+		 */
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			if (skipped > 0) metrics.addBytesReceived(skipped);
+			return skipped;
+		}
+	}
+
+	/**
+	 * Counts the bytes written to a request stream
+	 */
+	static class CountingOutputStream extends FilterOutputStream {
+		private final HttpRequestMetrics metrics;
+
+		/**
+		 * Wraps the stream
+		 * @param out Request stream
+		 * @param metrics Metrics receiving the count
+		 */
+		CountingOutputStream(OutputStream out, HttpRequestMetrics metrics) {
+			super(out);
+			this.metrics = metrics;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.FilterOutputStream#write(int)
+		 */
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			metrics.addBytesSent(1);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.FilterOutputStream#write(byte[], int, int)
+		 */
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			metrics.addBytesSent(len);
+		}
+	}
+
+	/**
+	 * Counts the bytes published to the pooled engine
+	 */
+	static class CountingPublisher implements BodyPublisher {
+		private final BodyPublisher publisher;
+		private final HttpRequestMetrics metrics;
+
+		/**
+		 * Wraps the publisher
+		 * @param publisher Publisher of the request body
+		 * @param metrics Metrics receiving the count
+		 */
+		CountingPublisher(BodyPublisher publisher, HttpRequestMetrics metrics) {
+			this.publisher = publisher;
+			this.metrics = metrics;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.net.http.HttpRequest.BodyPublisher#contentLength()
+		 */
+		@Override
+		public long contentLength() {
+			return publisher.contentLength();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Flow.Publisher#subscribe(java.util.concurrent.Flow.Subscriber)
+		 */
+		@Override
+		public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+			publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+				@Override
+				public void onSubscribe(Flow.Subscription subscription) {
+					subscriber.onSubscribe(subscription);
+				}
+
+				@Override
+				public void onNext(ByteBuffer item) {
+					metrics.addBytesSent(item.remaining());
+					subscriber.onNext(item);
+				}
+
+				@Override
+				public void onError(Throwable throwable) {
+					subscriber.onError(throwable);
+				}
+
+				@Override
+				public void onComplete() {
+					subscriber.onComplete();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Completes the request once the response stream is read to the end, fails
+	 * or is closed, whichever comes first
+	 */
+	static class CompletionInputStream extends FilterInputStream {
+		private final Consumer<Throwable> listener;
+
+		/**
+		 * Wraps the stream
+		 * @param in Response stream
+		 * @param listener Called with null on completion, or with the error
+		 */
+		CompletionInputStream(InputStream in, Consumer<Throwable> listener) {
+			super(in);
+			this.listener = listener;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.FilterInputStream#read()
+		 */
+		@Override
+		public int read() throws IOException {
+			try {
+				int b = super.read();
+				if (b == -1) listener.accept(null);
+				return b;
+			} catch (IOException | RuntimeException e) {
+				listener.accept(e);
+				throw e;
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.FilterInputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			try {
+				int n = super.read(b, off, len);
+				if (n == -1) listener.accept(null);
+				return n;
+			} catch (IOException | RuntimeException e) {
+				listener.accept(e);
+				throw e;
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.FilterInputStream#close()
+		 */
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				listener.accept(null);
+			}
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.siliconmtn.io.http;
+
+// Spring 5.x
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.Configuration;
+
+// Lombok 1.x
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/****************************************************************************
+ * <b>Title</b>: HttpResilienceConfig.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Configuration for the retry, circuit breaker and per host
+ * concurrency limits of the SMTHttpConnectionManager.  The policy is opt-in: 
+ * the managed SMTHttpConnectionManager only applies an HttpResiliencePolicy to 
+ * its requests when this bean is enabled (smt.http.resilience.enabled=true) or
+ * a policy is assigned to the manager.  All values are optional and may be
+ * overridden using the smt.http.resilience prefix (smt.http.resilience.maxRetries=3)
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+@Configuration
+@ConfigurationProperties(prefix = "smt.http.resilience")
+@ConfigurationPropertiesScan
+@NoArgsConstructor
+@Setter
+@Getter
+@ToString
+public class HttpResilienceConfig {
+
+	/**
+	 * Turns the resilience policy on or off for the managed connection manager
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Number of times an idempotent request is retried after a connection
+	 * failure or a retryable response code (429, 502, 503, 504)
+	 */
+	private int maxRetries = HttpResiliencePolicy.DEFAULT_MAX_RETRIES;
+
+	/**
+	 * Delay in ms before the first retry
+	 */
+	private long initialBackoff = HttpResiliencePolicy.DEFAULT_INITIAL_BACKOFF;
+
+	/**
+	 * Maximum delay in ms between retries
+	 */
+	private long maxBackoff = HttpResiliencePolicy.DEFAULT_MAX_BACKOFF;
+
+	/**
+	 * Factor applied to the delay after each retry
+	 */
+	private double backoffMultiplier = 2.0;
+
+	/**
+	 * Portion of the delay (0 - 1) that is randomized so clients don't retry in step
+	 */
+	private double jitter = 0.5;
+
+	/**
+	 * Number of consecutive failures that opens the circuit breaker of a host.
+	 * 0 turns the circuit breakers off
+	 */
+	private int failureThreshold = HttpResiliencePolicy.DEFAULT_FAILURE_THRESHOLD;
+
+	/**
+	 * Time in ms the circuit stays open before a trial request is allowed
+	 */
+	private long openTimeout = HttpResiliencePolicy.DEFAULT_OPEN_TIMEOUT;
+
+	/**
+	 * Maximum number of requests in progress to a single host.  Requests past
+	 * the limit fail immediately.  0 does not limit the requests
+	 */
+	private int maxConcurrentPerHost = 0;
+}
@@ -0,0 +1,218 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Libs
+import com.siliconmtn.io.http.SMTHttpConnectionManager.HttpConnectionType;
+
+/****************************************************************************
+ * <b>Title</b>: HttpResiliencePolicy.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Retry, circuit breaker and concurrency policy applied to
+ * the requests of the SMTHttpConnectionManager.  Idempotent requests are retried
+ * with an exponential backoff and jitter.  Each host has its own circuit breaker
+ * and an optional limit on the requests in progress, so a slow or failing partner
+ * causes fast failures instead of threads piling up behind the timeouts.  The
+ * policy is thread safe and may be shared by many managers.  Extend the class
+ * to change which requests and responses are retried
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class HttpResiliencePolicy {
+
+	/**
+	 * Default number of retries of an idempotent request
+	 */
+	public static final int DEFAULT_MAX_RETRIES = 2;
+
+	/**
+	 * Default delay in ms before the first retry
+	 */
+	public static final long DEFAULT_INITIAL_BACKOFF = 200;
+
+	/**
+	 * Default maximum delay in ms between retries
+	 */
+	public static final long DEFAULT_MAX_BACKOFF = 5000;
+
+	/**
+	 * Default number of consecutive failures that opens a circuit
+	 */
+	public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+	/**
+	 * Default time in ms a circuit stays open
+	 */
+	public static final long DEFAULT_OPEN_TIMEOUT = 30000;
+
+	// Members
+	private final HttpResilienceConfig config;
+	private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+	private final Map<String, Semaphore> hostLimits = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the policy using the default settings
+	 */
+	public HttpResiliencePolicy() {
+		this(new HttpResilienceConfig());
+	}
+
+	/**
+	 * Creates the policy using the provided settings
+	 * @param config Retry, circuit breaker and concurrency settings
+	 */
+	public HttpResiliencePolicy(HttpResilienceConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * Reserves a request to the host of the url.  Fails immediately when the host
+	 * is at its concurrency limit or when its circuit is open
+	 * @param url End point being called
+	 * @return Permit to release when the request completes.  Null when the
+	 * requests to a host are not limited
+	 * @throws HttpRejectedException When the request may not be sent
+	 */
+	public Semaphore acquire(URL url) throws HttpRejectedException {
+		Semaphore permit = null;
+		if (config.getMaxConcurrentPerHost() > 0) {
+			permit = hostLimits.computeIfAbsent(PooledHttpEngine.getHostKey(url), k -> new Semaphore(config.getMaxConcurrentPerHost()));
+			if (! permit.tryAcquire())
+				throw new HttpRejectedException("Concurrent request limit reached for host: " + url.getHost());
+		}
+
+		CircuitBreaker breaker = getCircuitBreaker(url);
+		if (breaker != null && ! breaker.allowRequest()) {
+			if (permit != null) permit.release();
+			throw new HttpRejectedException("Circuit open for host: " + url.getHost());
+		}
+
+		return permit;
+	}
+
+	/**
+	 * Records the response of a request on the circuit breaker of the host.
+	 * Server errors (5XX) count as failures
+	 * @param url End point that was called
+	 * @param responseCode HTTP response code
+	 */
+	public void recordResponse(URL url, int responseCode) {
+		CircuitBreaker breaker = getCircuitBreaker(url);
+		if (breaker == null) return;
+
+		if (responseCode >= 500) breaker.recordFailure();
+		else breaker.recordSuccess();
+	}
+
+	/**
+	 * Records a request that failed to connect or read on the circuit breaker of the host
+	 * @param url End point that was called
+	 * @param e Error of the request.  Rejections by the manager are not failures of the host
+	 */
+	public void recordFailure(URL url, Throwable e) {
+		CircuitBreaker breaker = getCircuitBreaker(url);
+		if (breaker == null) return;
+
+		if (e instanceof HttpRejectedException) breaker.recordSuccess();
+		else breaker.recordFailure();
+	}
+
+	/**
+	 * Determines if a failed attempt may be retried
+	 * @param type Request type
+	 * @param attempt Number of the attempt that failed, starting at 1
+	 * @param e Error of the attempt
+	 * @return true if the request should be sent again
+	 */
+	public boolean canRetry(HttpConnectionType type, int attempt, Throwable e) {
+		return ! (e instanceof HttpRejectedException) && ! (e instanceof InterruptedIOException && Thread.currentThread().isInterrupted())
+			&& isIdempotent(type) && attempt <= config.getMaxRetries();
+	}
+
+	/**
+	 * Determines if an attempt that returned the response code may be retried
+	 * @param type Request type
+	 * @param attempt Number of the attempt, starting at 1
+	 * @param responseCode HTTP response code
+	 * @return true if the request should be sent again
+	 */
+	public boolean canRetry(HttpConnectionType type, int attempt, int responseCode) {
+		return isRetryableStatus(responseCode) && isIdempotent(type) && attempt <= config.getMaxRetries();
+	}
+
+	/**
+	 * Determines if the request type may be sent more than once without side effects
+	 * @param type Request type
+	 * @return true for every type but POST
+	 */
+	protected boolean isIdempotent(HttpConnectionType type) {
+		return type != null && type != HttpConnectionType.POST;
+	}
+
+	/**
+	 * Determines if the response code indicates a temporary condition
+	 * @param responseCode HTTP response code
+	 * @return true for 429, 502, 503 and 504
+	 */
+	protected boolean isRetryableStatus(int responseCode) {
+		return responseCode == 429 || responseCode == 502 || responseCode == 503 || responseCode == 504;
+	}
+
+	/**
+	 * Calculates the delay before the next attempt.  The delay grows exponentially
+	 * up to the maximum backoff, and a portion of it is randomized
+	 * @param attempt Number of the attempt that failed, starting at 1
+	 * @return Delay in ms
+	 */
+	public long getBackoff(int attempt) {
+		double delay = config.getInitialBackoff() * Math.pow(Math.max(1, config.getBackoffMultiplier()), attempt - 1.0);
+		delay = Math.min(delay, config.getMaxBackoff());
+
+		double jitter = Math.min(1, Math.max(0, config.getJitter()));
+		// Rounded up, so a full jitter never drops the delay to the lower bound
+		return (long) Math.ceil(delay * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+	}
+
+	/**
+	 * Waits before the next attempt
+	 * @param attempt Number of the attempt that failed, starting at 1
+	 * @throws InterruptedIOException When the thread is interrupted while waiting
+	 */
+	public void pause(int attempt) throws InterruptedIOException {
+		try {
+			Thread.sleep(getBackoff(attempt));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting to retry the request");
+		}
+	}
+
+	/**
+	 * Returns the circuit breaker of the host of the url
+	 * @param url End point
+	 * @return Circuit breaker of the host.  Null when the circuit breakers are turned off
+	 */
+	public CircuitBreaker getCircuitBreaker(URL url) {
+		if (config.getFailureThreshold() <= 0) return null;
+		return breakers.computeIfAbsent(PooledHttpEngine.getHostKey(url), k -> new CircuitBreaker(config.getFailureThreshold(), config.getOpenTimeout()));
+	}
+
+	/**
+	 * Returns the policy settings
+	 * @return the config
+	 */
+	public HttpResilienceConfig getConfig() {
+		return config;
+	}
+}
@@ -0,0 +1,572 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Log4j 2.x
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Libs
+import com.siliconmtn.data.text.StringUtil;
+import com.siliconmtn.io.http.SMTHttpConnectionManager.HttpConnectionType;
+
+/****************************************************************************
+ * <b>Title</b>: HttpResponseCache.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Response cache of the SMTHttpConnectionManager.  GET
+ * responses are stored by method and url, along with the request headers named
+ * in the Vary response header.  Responses are used without contacting the server
+ * while fresh (Cache-Control max-age or Expires).  Stale responses with an ETag
+ * or Last-Modified header are revalidated with If-None-Match / If-Modified-Since,
+ * so an unchanged resource costs a 304 instead of the full body.  Responses
+ * marked no-store or private, responses that vary on every header and responses
+ * larger than the maximum entry size are not stored.  Other requests to a url 
+ * remove its stored response.
+ * Requests sending an Authorization or Cookie header are keyed by a digest of
+ * those headers as well, so a response is never returned to another user, and
+ * their responses are only stored when the server marks them public or assigns
+ * an s-maxage.
+ * Responses are held in an in-memory LRU store and, optionally, an on-disk store
+ * that survives restarts.  A failure of the disk store is logged and treated as
+ * a miss, so the cache never fails a request.  The cache is thread safe and may
+ * be shared by many managers
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class HttpResponseCache {
+
+	/**
+	 * Default number of responses held in memory
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	/**
+	 * Default size in bytes of the largest response that is cached
+	 */
+	public static final int DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+
+	/**
+	 * Default size in bytes of the on-disk store
+	 */
+	public static final long DEFAULT_MAX_DISK_SIZE = 100L * 1024 * 1024;
+
+	/**
+	 * Request header used to revalidate a response with an entity tag
+	 */
+	public static final String IF_NONE_MATCH = "If-None-Match";
+
+	/**
+	 * Request header used to revalidate a response with a modification date
+	 */
+	public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+
+	// Members
+	private static final Logger log = LogManager.getLogger(HttpResponseCache.class);
+	private final HttpCacheStore memory;
+	private final HttpCacheStore disk;
+	private final int maxEntrySize;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong revalidations = new AtomicLong();
+
+	/**
+	 * Creates an in-memory cache using the default sizes
+	 */
+	public HttpResponseCache() {
+		this(new MemoryCacheStore(DEFAULT_MAX_ENTRIES), null, DEFAULT_MAX_ENTRY_SIZE);
+	}
+
+	/**
+	 * Creates the cache from the configuration.  An on-disk store is added when
+	 * a directory is configured
+	 * @param config Cache configuration
+	 * @throws UncheckedIOException When the disk directory can't be created
+	 */
+	public HttpResponseCache(HttpCacheConfig config) {
+		this(new MemoryCacheStore(config.getMaxEntries()), createDiskStore(config), config.getMaxEntrySize());
+	}
+
+	/**
+	 * Creates the cache using the provided stores
+	 * @param memory Store checked first for each request
+	 * @param disk Store checked when the response is not in memory.  May be null
+	 * @param maxEntrySize Largest response body in bytes that is cached
+	 */
+	public HttpResponseCache(HttpCacheStore memory, HttpCacheStore disk, int maxEntrySize) {
+		this.memory = memory;
+		this.disk = disk;
+		this.maxEntrySize = maxEntrySize;
+	}
+
+	/**
+	 * Creates the on-disk store of the configuration
+	 * @param config Cache configuration
+	 * @return Disk store.  Null when no directory is configured
+	 */
+	private static HttpCacheStore createDiskStore(HttpCacheConfig config) {
+		if (StringUtil.isEmpty(config.getDiskDirectory())) return null;
+
+		try {
+			return new DiskCacheStore(Paths.get(config.getDiskDirectory()), config.getMaxDiskSize());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to create the cache directory " + config.getDiskDirectory(), e);
+		}
+	}
+
+	/**
+	 * Determines if responses of the request type are cached
+	 * @param type Request type
+	 * @return true for GET requests
+	 */
+	public boolean isCacheable(HttpConnectionType type) {
+		return HttpConnectionType.GET == type;
+	}
+
+	/**
+	 * Builds the key of an anonymous request
+	 * @param type Request type
+	 * @param url End point
+	 * @return Method and url of the request
+	 */
+	public static String getKey(HttpConnectionType type, URL url) {
+		return type + " " + url.toExternalForm();
+	}
+
+	/**
+	 * Builds the key of a request.  The credentials of the request (Authorization
+	 * and Cookie headers) are added as a digest, so requests of different users
+	 * never share a stored response
+	 * @param type Request type
+	 * @param url End point
+	 * @param requestHeaders Headers of the request
+	 * @return Method and url of the request, followed by the digest of its
+	 * credentials when it has any
+	 */
+	public static String getKey(HttpConnectionType type, URL url, Map<String, String> requestHeaders) {
+		String key = getKey(type, url);
+		if (! hasCredentials(requestHeaders)) return key;
+
+		String credentials = StringUtil.defaultString(getValue(requestHeaders, HttpHeaders.AUTHORIZATION)) + "\n" 
+			+ StringUtil.defaultString(getValue(requestHeaders, SMTHttpConnectionManager.COOKIE_NAME));
+		return key + " " + digest(credentials);
+	}
+
+	/**
+	 * Determines if a request sends credentials, an Authorization or Cookie header
+	 * @param requestHeaders Headers of the request
+	 * @return true if the request has credentials
+	 */
+	static boolean hasCredentials(Map<String, String> requestHeaders) {
+		return ! StringUtil.isEmpty(getValue(requestHeaders, HttpHeaders.AUTHORIZATION)) 
+			|| ! StringUtil.isEmpty(getValue(requestHeaders, SMTHttpConnectionManager.COOKIE_NAME));
+	}
+
+	/**
+	 * Creates the SHA-256 digest of a value, so the credentials are never written
+	 * to the stores in clear text
+	 * @param value Value to digest
+	 * @return Hex encoded digest
+	 */
+	private static String digest(String value) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder(hash.length * 2);
+			for (byte b : hash) hex.append(String.format("%02x", b));
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// Every JVM is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Retrieves the stored response of a request.  The response is only returned
+	 * when the request headers match the headers the response varies on
+	 * @param type Request type
+	 * @param url End point
+	 * @param requestHeaders Headers of the request
+	 * @return Stored response, fresh or stale.  Null when there is no usable response
+	 */
+	public HttpCacheEntry lookup(HttpConnectionType type, URL url, Map<String, String> requestHeaders) {
+		if (! isCacheable(type) || parseCacheControl(getValue(requestHeaders, HttpHeaders.CACHE_CONTROL)).containsKey("no-store")) return null;
+
+		String key = getKey(type, url, requestHeaders);
+		HttpCacheEntry entry = null;
+		try {
+			entry = memory.get(key);
+			if (entry == null && disk != null) {
+				entry = disk.get(key);
+				if (entry != null) memory.put(entry);
+			}
+		} catch (IOException e) {
+			log.warn("Unable to read the cached response of {}", key, e);
+		}
+
+		if (entry == null || ! matchesVary(entry, requestHeaders)) {
+			misses.incrementAndGet();
+			return null;
+		}
+
+		return entry;
+	}
+
+	/**
+	 * Determines if a stored response may be returned without contacting the
+	 * server.  Counts a hit when it can
+	 * @param entry Stored response
+	 * @param requestHeaders Headers of the request.  Cache-Control no-cache or
+	 * max-age=0 forces a revalidation
+	 * @return true if the response is fresh
+	 */
+	public boolean isFresh(HttpCacheEntry entry, Map<String, String> requestHeaders) {
+		Map<String, String> directives = parseCacheControl(getValue(requestHeaders, HttpHeaders.CACHE_CONTROL));
+		boolean fresh = ! directives.containsKey("no-cache") && ! "0".equals(directives.get("max-age"))
+			&& entry.isFresh(System.currentTimeMillis());
+
+		if (fresh) hits.incrementAndGet();
+		return fresh;
+	}
+
+	/**
+	 * Adds the conditional headers used to revalidate a stale response.  Headers
+	 * already assigned by the caller are kept
+	 * @param entry Stored response
+	 * @param requestHeaders Headers of the request.  Not modified
+	 * @return Request headers including If-None-Match and If-Modified-Since
+	 */
+	public Map<String, String> addValidators(HttpCacheEntry entry, Map<String, String> requestHeaders) {
+		Map<String, String> headers = new LinkedHashMap<>(requestHeaders);
+		if (entry.getETag() != null && getValue(headers, IF_NONE_MATCH) == null)
+			headers.put(IF_NONE_MATCH, entry.getETag());
+
+		if (entry.getLastModified() != null && getValue(headers, IF_MODIFIED_SINCE) == null)
+			headers.put(IF_MODIFIED_SINCE, entry.getLastModified());
+
+		return headers;
+	}
+
+	/**
+	 * Updates a stored response after the server confirmed it has not changed
+	 * (304).  The headers of the 304 replace the stored headers of the same name
+	 * and the freshness is calculated again
+	 * @param entry Stored response
+	 * @param headers Headers of the 304 response
+	 * @return Updated response
+	 */
+	public HttpCacheEntry revalidate(HttpCacheEntry entry, Map<String, List<String>> headers) {
+		revalidations.incrementAndGet();
+		Map<String, List<String>> merged = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		copyHeaders(entry.getHeaders(), merged);
+
+		// The 304 describes the stored body, not an empty one
+		Map<String, List<String>> updates = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		copyHeaders(headers, updates);
+		updates.remove(HttpHeaders.CONTENT_LENGTH);
+		updates.remove("Transfer-Encoding");
+		merged.putAll(updates);
+
+		long now = System.currentTimeMillis();
+		HttpCacheEntry updated = new HttpCacheEntry(entry.getKey(), entry.getResponseCode(), merged,
+			entry.getVaryHeaders(), entry.getData(), now, now + getFreshnessLifetime(merged, now));
+
+		put(updated);
+		return updated;
+	}
+
+	/**
+	 * Determines if a response may be stored, before its body is read.  Private
+	 * responses are never stored, and responses to requests with credentials are
+	 * only stored when marked public or assigned an s-maxage
+	 * @param responseCode HTTP response code
+	 * @param headers Response headers
+	 * @param requestHeaders Headers of the request
+	 * @param contentLength Length of the body.  -1 when unknown
+	 * @return true if the response can be cached
+	 */
+	public boolean isStorable(int responseCode, Map<String, List<String>> headers, Map<String, String> requestHeaders, long contentLength) {
+		if (responseCode != 200 || contentLength > maxEntrySize) return false;
+		if (parseCacheControl(getValue(requestHeaders, HttpHeaders.CACHE_CONTROL)).containsKey("no-store")) return false;
+		if ("*".equals(StringUtil.defaultString(getHeader(headers, "Vary")).trim())) return false;
+
+		Map<String, String> directives = parseCacheControl(getHeader(headers, HttpHeaders.CACHE_CONTROL));
+		if (directives.containsKey("no-store") || directives.containsKey("private")) return false;
+		if (hasCredentials(requestHeaders) && ! directives.containsKey("public") && ! directives.containsKey("s-maxage")) return false;
+
+		// Responses without a lifetime are kept when they can be revalidated
+		long now = System.currentTimeMillis();
+		return getFreshnessLifetime(headers, now) > 0 || getHeader(headers, "ETag") != null || getHeader(headers, "Last-Modified") != null;
+	}
+
+	/**
+	 * Stores a response
+	 * @param type Request type
+	 * @param url End point
+	 * @param requestHeaders Headers of the request
+	 * @param responseCode HTTP response code
+	 * @param headers Response headers.  Set-Cookie headers are not stored
+	 * @param data Response body
+	 * @return Stored response.  Null when the response can't be cached
+	 */
+	public HttpCacheEntry store(HttpConnectionType type, URL url, Map<String, String> requestHeaders, int responseCode,
+		Map<String, List<String>> headers, byte[] data) {
+		if (! isCacheable(type) || data == null || ! isStorable(responseCode, headers, requestHeaders, data.length)) return null;
+
+		Map<String, List<String>> stored = new LinkedHashMap<>();
+		copyHeaders(headers, stored);
+
+		Map<String, String> vary = new LinkedHashMap<>();
+		for (String name : StringUtil.defaultString(getHeader(headers, "Vary")).split(",")) {
+			if (! StringUtil.isEmpty(name.trim())) vary.put(name.trim().toLowerCase(Locale.ENGLISH), getValue(requestHeaders, name.trim()));
+		}
+
+		long now = System.currentTimeMillis();
+		HttpCacheEntry entry = new HttpCacheEntry(getKey(type, url, requestHeaders), responseCode, stored, vary, data, now, now + getFreshnessLifetime(headers, now));
+		put(entry);
+		return entry;
+	}
+
+	/**
+	 * Removes the stored anonymous response of a url.  Called when a request 
+	 * other than a GET is sent to the url, as it may have changed the resource
+	 * @param url End point
+	 */
+	public void invalidate(URL url) {
+		remove(getKey(HttpConnectionType.GET, url));
+	}
+
+	/**
+	 * Removes the stored responses of a url, both the anonymous response and the
+	 * response stored for the credentials of the request
+	 * @param url End point
+	 * @param requestHeaders Headers of the request
+	 */
+	public void invalidate(URL url, Map<String, String> requestHeaders) {
+		invalidate(url);
+		if (hasCredentials(requestHeaders)) remove(getKey(HttpConnectionType.GET, url, requestHeaders));
+	}
+
+	/**
+	 * Removes a response from the stores
+	 * @param key Key of the response
+	 */
+	private void remove(String key) {
+		try {
+			memory.remove(key);
+			if (disk != null) disk.remove(key);
+		} catch (IOException e) {
+			log.warn("Unable to remove the cached response of {}", key, e);
+		}
+	}
+
+	/**
+	 * Removes all of the stored responses
+	 */
+	public void clear() {
+		try {
+			memory.clear();
+			if (disk != null) disk.clear();
+		} catch (IOException e) {
+			log.warn("Unable to clear the response cache", e);
+		}
+	}
+
+	/**
+	 * Writes a response to the stores
+	 * @param entry Response to store
+	 */
+	private void put(HttpCacheEntry entry) {
+		try {
+			memory.put(entry);
+			if (disk != null) disk.put(entry);
+		} catch (IOException e) {
+			log.warn("Unable to store the response of {}", entry.getKey(), e);
+		}
+	}
+
+	/**
+	 * Calculates how long a response is fresh from its Cache-Control (s-maxage or
+	 * max-age), Expires, Date and Age headers
+	 * @param headers Response headers
+	 * @param now Time in ms the response was received
+	 * @return Lifetime in ms.  0 when the response must be revalidated before use
+	 */
+	static long getFreshnessLifetime(Map<String, List<String>> headers, long now) {
+		Map<String, String> directives = parseCacheControl(getHeader(headers, HttpHeaders.CACHE_CONTROL));
+		if (directives.containsKey("no-cache") || directives.containsKey("no-store")) return 0;
+
+		// The cache is shared, so s-maxage takes precedence over max-age
+		long lifetime = 0;
+		if (directives.containsKey("s-maxage")) {
+			lifetime = parseSeconds(directives.get("s-maxage")) * 1000;
+		} else if (directives.containsKey("max-age")) {
+			lifetime = parseSeconds(directives.get("max-age")) * 1000;
+		} else if (getHeader(headers, "Expires") != null) {
+			long expires = parseDate(getHeader(headers, "Expires"));
+			long date = parseDate(getHeader(headers, "Date"));
+			lifetime = expires - (date > 0 ? date : now);
+		}
+
+		lifetime -= parseSeconds(getHeader(headers, "Age")) * 1000;
+		return Math.max(0, lifetime);
+	}
+
+	/**
+	 * Parses the directives of a Cache-Control header
+	 * @param value Value of the header.  May be null
+	 * @return Directive names (lower case) and values.  Directives without a value
+	 * are mapped to an empty string
+	 */
+	static Map<String, String> parseCacheControl(String value) {
+		Map<String, String> directives = new LinkedHashMap<>();
+		if (StringUtil.isEmpty(value)) return directives;
+
+		for (String directive : value.split(",")) {
+			int index = directive.indexOf('=');
+			String name = (index < 0 ? directive : directive.substring(0, index)).trim().toLowerCase(Locale.ENGLISH);
+			String arg = index < 0 ? "" : directive.substring(index + 1).trim().replace("\"", "");
+			if (! name.isEmpty()) directives.put(name, arg);
+		}
+
+		return directives;
+	}
+
+	/**
+	 * Parses a number of seconds
+	 * @param value Header value.  May be null
+	 * @return Number of seconds.  0 when the value is missing or invalid
+	 */
+	private static long parseSeconds(String value) {
+		if (StringUtil.isEmpty(value)) return 0;
+
+		try {
+			return Math.max(0, Long.parseLong(value.trim()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Parses an HTTP date
+	 * @param value Header value.  May be null
+	 * @return Time in ms.  0 when the value is missing or invalid, which makes an
+	 * invalid Expires header stale, as required by the specification
+	 */
+	private static long parseDate(String value) {
+		if (StringUtil.isEmpty(value)) return 0;
+
+		try {
+			return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+		} catch (DateTimeParseException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Determines if the request headers match the headers a stored response varies on
+	 * @param entry Stored response
+	 * @param requestHeaders Headers of the request
+	 * @return true if the stored response may be used for the request
+	 */
+	private static boolean matchesVary(HttpCacheEntry entry, Map<String, String> requestHeaders) {
+		for (Map.Entry<String, String> vary : entry.getVaryHeaders().entrySet()) {
+			String value = StringUtil.defaultString(getValue(requestHeaders, vary.getKey()));
+			if (! value.equals(StringUtil.defaultString(vary.getValue()))) return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Copies the named headers from one map to another.  The status line and the 
+	 * cookies are not copied, as they belong to a single response
+	 * @param source Headers to copy
+	 * @param target Headers receiving the copy
+	 */
+	private static void copyHeaders(Map<String, List<String>> source, Map<String, List<String>> target) {
+		for (Map.Entry<String, List<String>> entry : source.entrySet()) {
+			if (entry.getKey() != null && ! SMTHttpConnectionManager.COOKIE_HEADER_NAME.equalsIgnoreCase(entry.getKey()))
+				target.put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Returns the first value of a response header.  Names are not case sensitive
+	 * @param headers Response headers
+	 * @param name Header name
+	 * @return Value of the header.  Null when not sent
+	 */
+	static String getHeader(Map<String, List<String>> headers, String name) {
+		for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+			if (name.equalsIgnoreCase(entry.getKey()) && ! entry.getValue().isEmpty()) return entry.getValue().get(0);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the value of a request header.  Names are not case sensitive
+	 * @param headers Request headers
+	 * @param name Header name
+	 * @return Value of the header.  Null when not assigned
+	 */
+	private static String getValue(Map<String, String> headers, String name) {
+		for (Map.Entry<String, String> entry : headers.entrySet()) {
+			if (name.equalsIgnoreCase(entry.getKey())) return entry.getValue();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the largest response body in bytes that is cached
+	 * @return the maxEntrySize
+	 */
+	public int getMaxEntrySize() {
+		return maxEntrySize;
+	}
+
+	/**
+	 * Number of requests answered from the cache without contacting the server
+	 * @return Hit count
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Number of cacheable requests that had no usable stored response
+	 * @return Miss count
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Number of stored responses the server confirmed had not changed (304)
+	 * @return Revalidation count
+	 */
+	public long getRevalidationCount() {
+		return revalidations.get();
+	}
+}
@@ -0,0 +1,158 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.Serializable;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/****************************************************************************
+ * <b>Title</b>: HttpResponseVO.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Immutable result of a single request made through the
+ * SMTHttpConnectionManager.  Holds the response code, headers and cookies of
+ * the call, so many threads can share one manager without reading each other's
+ * response data.
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class HttpResponseVO implements Serializable {
+
+	private static final long serialVersionUID = 6022563117305434873L;
+
+	// Members
+	private final URL url;
+	private final int responseCode;
+	private final Map<String, List<String>> headers;
+	private final Map<String, String> cookies;
+	private final byte[] data;
+	private final long size;
+
+	/**
+	 * Creates the response
+	 * @param url Url of the final request (after any redirects)
+	 * @param responseCode HTTP response code
+	 * @param headers Response headers
+	 * @param cookies Cookies set by the server during the request
+	 * @param data Response body.  Null when the body was streamed to a sink
+	 */
+	public HttpResponseVO(URL url, int responseCode, Map<String, List<String>> headers, Map<String, String> cookies, byte[] data) {
+		this(url, responseCode, headers, cookies, data, data == null ? 0 : data.length);
+	}
+
+	/**
+	 * Creates the response
+	 * @param url Url of the final request (after any redirects)
+	 * @param responseCode HTTP response code
+	 * @param headers Response headers
+	 * @param cookies Cookies set by the server during the request
+	 * @param data Response body.  Null when the body was streamed to a sink
+	 * @param size Number of bytes in the response body
+	 */
+	public HttpResponseVO(URL url, int responseCode, Map<String, List<String>> headers, Map<String, String> cookies, byte[] data, long size) {
+		this.url = url;
+		this.responseCode = responseCode;
+		this.headers = headers == null ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+		this.cookies = cookies == null ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(cookies));
+		this.data = data;
+		this.size = size;
+	}
+
+	/**
+	 * Url of the final request (after any redirects)
+	 * @return the url
+	 */
+	public URL getUrl() {
+		return url;
+	}
+
+	/**
+	 * HTTP response code
+	 * @return the responseCode
+	 */
+	public int getResponseCode() {
+		return responseCode;
+	}
+
+	/**
+	 * Determines if the response code is in the 2XX range
+	 * @return True if the request was successful
+	 */
+	public boolean isSuccess() {
+		return responseCode >= 200 && responseCode < 300;
+	}
+
+	/**
+	 * Response headers.  The map is read only
+	 * @return the headers
+	 */
+	public Map<String, List<String>> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Returns the first value of a response header.  The name is not case sensitive
+	 * @param name Name of the header
+	 * @return Value of the header.  Null if the header was not returned
+	 */
+	public String getHeader(String name) {
+		if (name == null) return null;
+
+		for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+			if (name.equalsIgnoreCase(entry.getKey()) && ! entry.getValue().isEmpty())
+				return entry.getValue().get(0);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Cookies set by the server during the request.  The map is read only
+	 * @return the cookies
+	 */
+	public Map<String, String> getCookies() {
+		return cookies;
+	}
+
+	/**
+	 * Response body.  Null when the body was streamed to a sink
+	 * @return the data
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * Number of bytes in the response body, including bodies streamed to a sink
+	 * @return the size
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the response body as a UTF-8 string
+	 * @return Body of the response.  Null if there is no body
+	 */
+	public String getDataAsString() {
+		return getDataAsString(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the response body as a string
+	 * @param charset Character set used to decode the body
+	 * @return Body of the response.  Null if there is no body
+	 */
+	public String getDataAsString(Charset charset) {
+		return data == null ? null : new String(data, charset);
+	}
+}
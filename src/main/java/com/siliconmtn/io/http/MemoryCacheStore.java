@@ -0,0 +1,93 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/****************************************************************************
+ * <b>Title</b>: MemoryCacheStore.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> In-memory store of the HttpResponseCache.  Holds a fixed
+ * number of responses and evicts the least recently used response first
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class MemoryCacheStore implements HttpCacheStore {
+
+	// Members
+	private final int maxEntries;
+	private final Map<String, HttpCacheEntry> entries;
+
+	/**
+	 * Creates the store
+	 * @param maxEntries Maximum number of responses held
+	 */
+	public MemoryCacheStore(int maxEntries) {
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<String, HttpCacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, HttpCacheEntry> eldest) {
+				return size() > MemoryCacheStore.this.maxEntries;
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpCacheStore#get(java.lang.String)
+	 */
+	@Override
+	public synchronized HttpCacheEntry get(String key) {
+		return entries.get(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpCacheStore#put(com.siliconmtn.io.http.HttpCacheEntry)
+	 */
+	@Override
+	public synchronized void put(HttpCacheEntry entry) {
+		entries.put(entry.getKey(), entry);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpCacheStore#remove(java.lang.String)
+	 */
+	@Override
+	public synchronized void remove(String key) {
+		entries.remove(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpCacheStore#clear()
+	 */
+	@Override
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Returns the number of responses held
+	 * @return Number of responses
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the maximum number of responses held
+	 * @return the maxEntries
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+}
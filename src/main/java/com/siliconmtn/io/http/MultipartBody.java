@@ -0,0 +1,289 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/****************************************************************************
+ * <b>Title</b>: MultipartBody.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> multipart/form-data request body.  Only the part headers
+ * are held in memory; files and streams are read as the request is sent, so
+ * large uploads are never buffered.  The Content-Type (including the boundary)
+ * is assigned on the request automatically
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class MultipartBody extends HttpRequestBody {
+
+	/**
+	 * Content type used for the file and stream parts when one is not provided
+	 */
+	public static final String DEFAULT_PART_CONTENT_TYPE = "application/octet-stream";
+
+	// Members
+	private static final String CRLF = "\r\n";
+	private static final byte[] CRLF_BYTES = CRLF.getBytes(StandardCharsets.US_ASCII);
+	private final String boundary;
+	private final List<Part> parts = new ArrayList<>();
+
+	/**
+	 * Creates the body with a random boundary
+	 */
+	public MultipartBody() {
+		this("----SMTFormBoundary" + UUID.randomUUID().toString().replace("-", ""));
+	}
+
+	/**
+	 * Creates the body using the boundary
+	 * @param boundary Separator of the parts.  Must not appear in any of the parts
+	 */
+	public MultipartBody(String boundary) {
+		this.boundary = boundary;
+	}
+
+	/**
+	 * Adds a form field
+	 * @param name Name of the field
+	 * @param value Value of the field.  Null sends an empty value
+	 * @return This body, so calls may be chained
+	 */
+	public MultipartBody addField(String name, String value) {
+		byte[] data = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+		parts.add(new Part(buildHeader(name, null, null), () -> new ByteArrayInputStream(data), data.length, true));
+		return this;
+	}
+
+	/**
+	 * Adds a file.  The file is read when the request is sent
+	 * @param name Name of the field
+	 * @param file File to upload.  The file name is sent as the filename of the part
+	 * @param contentType Content type of the file.  Defaults to application/octet-stream
+	 * @return This body, so calls may be chained
+	 * @throws IOException When the size of the file can't be read
+	 */
+	public MultipartBody addFile(String name, Path file, String contentType) throws IOException {
+		String fileName = String.valueOf(file.getFileName());
+		parts.add(new Part(buildHeader(name, fileName, contentType), () -> Files.newInputStream(file), Files.size(file), true));
+		return this;
+	}
+
+	/**
+	 * Adds the data of a stream.  The stream is read once, when the request is
+	 * sent, and closed
+	 * @param name Name of the field
+	 * @param fileName File name sent with the part
+	 * @param contentType Content type of the data.  Defaults to application/octet-stream
+	 * @param in Data to upload
+	 * @param length Number of bytes in the stream.  -1 when unknown, in which case
+	 * the request is sent chunked
+	 * @return This body, so calls may be chained
+	 */
+	public MultipartBody addStream(String name, String fileName, String contentType, InputStream in, long length) {
+		AtomicBoolean used = new AtomicBoolean();
+		parts.add(new Part(buildHeader(name, fileName, contentType), () -> {
+			if (used.getAndSet(true)) throw new IOException("The stream of part " + name + " has already been sent");
+			return in;
+		}, length, false));
+
+		return this;
+	}
+
+	/**
+	 * Builds the header of a part
+	 * @param name Name of the field
+	 * @param fileName File name.  Null for form fields
+	 * @param contentType Content type.  Only sent for files
+	 * @return Boundary and headers of the part
+	 */
+	private byte[] buildHeader(String name, String fileName, String contentType) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("--").append(boundary).append(CRLF);
+		sb.append("Content-Disposition: form-data; name=\"").append(escape(name)).append('"');
+
+		if (fileName != null) {
+			sb.append("; filename=\"").append(escape(fileName)).append('"').append(CRLF);
+			sb.append("Content-Type: ").append(contentType == null ? DEFAULT_PART_CONTENT_TYPE : contentType);
+		}
+
+		sb.append(CRLF).append(CRLF);
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Encodes the quotes and line breaks of a name, the same as browsers do
+	 * @param value Name to encode
+	 * @return Encoded name
+	 */
+	static String escape(String value) {
+		if (value == null) return "";
+		return value.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+	}
+
+	/**
+	 * Returns the closing boundary of the body
+	 * @return Closing boundary
+	 */
+	private byte[] getClosing() {
+		return ("--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Returns the boundary separating the parts
+	 * @return the boundary
+	 */
+	public String getBoundary() {
+		return boundary;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpRequestBody#getContentType()
+	 */
+	@Override
+	public String getContentType() {
+		return "multipart/form-data; boundary=" + boundary;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpRequestBody#getContentLength()
+	 */
+	@Override
+	public long getContentLength() {
+		long length = getClosing().length;
+		for (Part part : parts) {
+			if (part.length < 0) return -1;
+			length += part.header.length + part.length + CRLF_BYTES.length;
+		}
+
+		return length;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpRequestBody#isRepeatable()
+	 */
+	@Override
+	public boolean isRepeatable() {
+		for (Part part : parts) {
+			if (! part.repeatable) return false;
+		}
+
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpRequestBody#writeTo(java.io.OutputStream)
+	 */
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		for (Part part : parts) {
+			out.write(part.header);
+			try (InputStream in = part.source.open()) {
+				in.transferTo(out);
+			}
+
+			out.write(CRLF_BYTES);
+		}
+
+		out.write(getClosing());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.siliconmtn.io.http.HttpRequestBody#toPublisher()
+	 */
+	@Override
+	public BodyPublisher toPublisher() {
+		return streamPublisher(() -> new SequenceInputStream(new PartStreams()), getContentLength());
+	}
+
+	/**
+	 * Opens the streams of the body in order.  Each part is opened only when the
+	 * previous one has been sent
+	 */
+	private class PartStreams implements Enumeration<InputStream> {
+		private int index;
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Enumeration#hasMoreElements()
+		 */
+		@Override
+		public boolean hasMoreElements() {
+			return index <= parts.size() * 3;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Enumeration#nextElement()
+		 * Each part is sent as its header, its data and a line break, followed
+		 * by the closing boundary
+		 */
+		@Override
+		public InputStream nextElement() {
+			if (! hasMoreElements()) throw new NoSuchElementException();
+			int current = index++;
+			if (current == parts.size() * 3) return new ByteArrayInputStream(getClosing());
+
+			Part part = parts.get(current / 3);
+			switch (current % 3) {
+				case 0:
+					return new ByteArrayInputStream(part.header);
+				case 1:
+					try {
+						return part.source.open();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				default:
+					return new ByteArrayInputStream(CRLF_BYTES);
+			}
+		}
+	}
+
+	/**
+	 * Single part of the body
+	 */
+	private static class Part {
+		private final byte[] header;
+		private final StreamSource source;
+		private final long length;
+		private final boolean repeatable;
+
+		/**
+		 * Creates the part
+		 * @param header Boundary and headers of the part
+		 * @param source Opens the data of the part
+		 * @param length Number of bytes of data.  -1 when unknown
+		 * @param repeatable Whether the data can be read more than once
+		 */
+		Part(byte[] header, StreamSource source, long length, boolean repeatable) {
+			this.header = header;
+			this.source = source;
+			this.length = length;
+			this.repeatable = repeatable;
+		}
+	}
+}
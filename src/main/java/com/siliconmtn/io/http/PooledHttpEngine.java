@@ -0,0 +1,638 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+
+/****************************************************************************
+ * <b>Title</b>: PooledHttpEngine.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Connection engine backed by a single java.net.http.HttpClient.
+ * The client keeps connections open between requests (HTTP/1.1 keep-alive and
+ * HTTP/2 multiplexing), so repeated calls to the same host do not pay for a new
+ * TCP and TLS handshake.  The number of concurrent connections to a single host
+ * is bounded by a per-host permit, which is held until the response stream is
+ * closed.  The engine is thread safe and is meant to be shared.  Asynchronous 
+ * requests use the non-blocking I/O of the client and wait for a host permit
+ * in a queue, so no thread is held while waiting on the server or the pool.
+ * Idle connections are closed by the client itself, after the period of the 
+ * JVM wide jdk.httpclient.keepalive.timeout system property
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+public class PooledHttpEngine {
+
+	/**
+	 * Default number of concurrent connections to a single host
+	 */
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 20;
+
+	/**
+	 * Headers managed by the HttpClient.  Assigning them on a request throws an
+	 * exception, so they are skipped (HttpURLConnection ignores them as well)
+	 */
+	static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length",
+		"date", "expect", "from", "host", "upgrade", "via", "warning");
+
+	// Members
+	private final HttpClient client;
+	private final int maxConnectionsPerHost;
+	private final Map<String, HostPermits> hostPermits = new ConcurrentHashMap<>();
+	private final Executor executor;
+
+	/**
+	 * Creates the engine using the default pool settings
+	 */
+	public PooledHttpEngine() {
+		this(new HttpPoolConfig(), null);
+	}
+
+	/**
+	 * Creates the engine using the provided pool settings
+	 * @param config Pool configuration
+	 */
+	public PooledHttpEngine(HttpPoolConfig config) {
+		this(config, null);
+	}
+
+	/**
+	 * Creates the engine using the provided pool settings and ssl context
+	 * @param config Pool configuration
+	 * @param sslContext Context used for certificate based connections.  Uses the
+	 * JDK default context when null
+	 */
+	public PooledHttpEngine(HttpPoolConfig config, SSLContext sslContext) {
+		this(config, sslContext, null);
+	}
+
+	/**
+	 * Creates the engine using the provided pool settings, ssl context and executor
+	 * @param config Pool configuration
+	 * @param sslContext Context used for certificate based connections.  Uses the
+	 * JDK default context when null
+	 * @param executor Executor used by the client for the asynchronous tasks and 
+	 * to time out the requests waiting on a host permit.  Any executor may be used,
+	 * including a virtual thread executor (Executors.newVirtualThreadPerTaskExecutor())
+	 * on JDK 21+.  When null, the client uses its own executor and the time outs 
+	 * use the shared default executor of the manager
+	 */
+	public PooledHttpEngine(HttpPoolConfig config, SSLContext sslContext, Executor executor) {
+		this.executor = executor != null ? executor : SMTHttpConnectionManager.DEFAULT_ASYNC_EXECUTOR;
+		this.maxConnectionsPerHost = config.getMaxConnectionsPerHost() > 0 ?
+			config.getMaxConnectionsPerHost() : DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+		int connectTimeout = config.getConnectTimeout() > 0 ?
+			config.getConnectTimeout() : SMTHttpConnectionManager.DEFAULT_SOCKET_TIMEOUT;
+
+		HttpClient.Builder builder = HttpClient.newBuilder()
+			.version(config.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.connectTimeout(Duration.ofMillis(connectTimeout));
+
+		if (sslContext != null) builder.sslContext(sslContext);
+		if (executor != null) builder.executor(executor);
+		client = builder.build();
+	}
+
+	/**
+	 * Sends the request through the pool.  The returned stream must be closed in
+	 * order to return the host permit.  Redirects are not followed; this is left
+	 * to the caller
+	 * @param url End point to call
+	 * @param method Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE
+	 * @param body Data sent in the body of the message.  May be null or empty
+	 * @param headers Request headers to assign.  Restricted headers are skipped
+	 * @param timeout Time in ms to wait for a connection and the response headers
+	 * @return Response containing the status, headers and the body stream
+	 * @throws IOException When the connection fails or the host limit can't be acquired
+	 */
+	public HttpResponse<InputStream> send(URL url, String method, byte[] body, Map<String, String> headers, int timeout)
+	throws IOException {
+		return send(buildRequest(url, method, toPublisher(body), headers, timeout), timeout);
+	}
+
+	/**
+	 * Sends a request built with buildRequest through the pool.  The returned 
+	 * stream must be closed in order to return the host permit
+	 * @param request Request to send
+	 * @param timeout Time in ms to wait for a connection permit
+	 * @return Response containing the status, headers and the body stream
+	 * @throws IOException When the connection fails or the host limit can't be acquired
+	 */
+	public HttpResponse<InputStream> send(HttpRequest request, int timeout) throws IOException {
+		URL url = request.uri().toURL();
+		Semaphore permit = acquire(url, timeout);
+		boolean sent = false;
+
+		try {
+			HttpResponse<InputStream> response = client.send(request, BodyHandlers.ofInputStream());
+			sent = true;
+			return new PermitResponse(response, permit);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Request interrupted: " + url);
+		} finally {
+			if (! sent) permit.release();
+		}
+	}
+
+	/**
+	 * Sends the request through the pool without blocking the calling thread.  
+	 * The body is read in full by the client, and the host permit is released 
+	 * when the response completes.  When the host limit has been reached, the 
+	 * request is queued and sent once a permit is released, without holding a
+	 * thread.  Redirects are not followed; this is left to the caller
+	 * @param url End point to call
+	 * @param method Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE
+	 * @param body Data sent in the body of the message.  May be null or empty
+	 * @param headers Request headers to assign.  Restricted headers are skipped
+	 * @param timeout Time in ms to wait for a connection and the response headers
+	 * @return Future completed with the response.  Completes exceptionally with an
+	 * IOException when the connection fails or the host limit can't be acquired
+	 */
+	public CompletableFuture<HttpResponse<byte[]>> sendAsync(URL url, String method, byte[] body, Map<String, String> headers, int timeout) {
+		return sendAsync(url, method, body, headers, timeout, 0);
+	}
+
+	/**
+	 * Sends the request through the pool without blocking the calling thread and 
+	 * limits the size of the response body
+	 * @param url End point to call
+	 * @param method Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE
+	 * @param body Data sent in the body of the message.  May be null or empty
+	 * @param headers Request headers to assign.  Restricted headers are skipped
+	 * @param timeout Time in ms to wait for a connection and the response headers
+	 * @param maxResponseSize Maximum number of bytes in the response body.  The 
+	 * future completes exceptionally with an IOException when the body is larger.
+	 * 0 or less does not limit the size
+	 * @return Future completed with the response
+	 */
+	public CompletableFuture<HttpResponse<byte[]>> sendAsync(URL url, String method, byte[] body, Map<String, String> headers, int timeout, long maxResponseSize) {
+		try {
+			return sendAsync(buildRequest(url, method, toPublisher(body), headers, timeout), timeout, maxResponseSize);
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Sends a request built with buildRequest through the pool without blocking 
+	 * the calling thread
+	 * @param request Request to send
+	 * @param timeout Time in ms to wait for a connection permit
+	 * @param maxResponseSize Maximum number of bytes in the response body.  0 or 
+	 * less does not limit the size
+	 * @return Future completed with the response
+	 */
+	public CompletableFuture<HttpResponse<byte[]>> sendAsync(HttpRequest request, int timeout, long maxResponseSize) {
+		return sendAsync(request, timeout, maxResponseSize, null);
+	}
+
+	/**
+	 * Sends a request built with buildRequest through the pool without blocking 
+	 * the calling thread, and reports the arrival of the response headers
+	 * @param request Request to send
+	 * @param timeout Time in ms to wait for a connection permit
+	 * @param maxResponseSize Maximum number of bytes in the response body.  0 or 
+	 * less does not limit the size
+	 * @param headersReceived Called on a client thread when the response headers
+	 * arrive, before the body is read.  May be null
+	 * @return Future completed with the response
+	 */
+	public CompletableFuture<HttpResponse<byte[]>> sendAsync(HttpRequest request, int timeout, long maxResponseSize, Runnable headersReceived) {
+		URL url;
+		try {
+			url = request.uri().toURL();
+		} catch (IOException | IllegalArgumentException e) {
+			return CompletableFuture.failedFuture(new IOException("Invalid URL: " + request.uri(), e));
+		}
+
+		BodyHandler<byte[]> handler = info -> {
+			if (headersReceived != null) headersReceived.run();
+			return maxResponseSize > 0 ? new BoundedBodySubscriber(maxResponseSize) : BodySubscribers.ofByteArray();
+		};
+
+		return getPermit(url).acquireAsync(url, timeout, executor).thenCompose(p -> {
+			try {
+				return client.sendAsync(request, handler).whenComplete((r, t) -> p.release());
+			} catch (RuntimeException e) {
+				// The request was never sent, so the permit is returned here
+				p.release();
+				throw e;
+			}
+		});
+	}
+
+	/**
+	 * Creates the publisher of a request body
+	 * @param body Data sent in the body of the message
+	 * @return Publisher of the data.  An empty publisher when there is no data
+	 */
+	static BodyPublisher toPublisher(byte[] body) {
+		return (body == null || body.length == 0) ? BodyPublishers.noBody() : BodyPublishers.ofByteArray(body);
+	}
+
+	/**
+	 * Builds the HttpClient request from the manager's parameters.  Restricted 
+	 * headers are skipped.  Plain http requests use HTTP/1.1, so HTTP/2 is only
+	 * negotiated over TLS and no h2c upgrade is sent to servers that don't expect it
+	 * @param url End point to call
+	 * @param method Request method
+	 * @param body Publisher of the body of the message.  Null sends no body
+	 * @param headers Request headers
+	 * @param timeout Request timeout in ms
+	 * @return Request to be sent
+	 * @throws IOException When the url can't be converted to a URI
+	 */
+	public HttpRequest buildRequest(URL url, String method, BodyPublisher body, Map<String, String> headers, int timeout)
+	throws IOException {
+		HttpRequest.Builder builder;
+		try {
+			builder = HttpRequest.newBuilder(url.toURI());
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			throw new IOException("Invalid URL: " + url, e);
+		}
+
+		builder.method(method, body == null ? BodyPublishers.noBody() : body).timeout(Duration.ofMillis(timeout));
+		if ("http".equalsIgnoreCase(url.getProtocol())) builder.version(Version.HTTP_1_1);
+		if (headers == null) return builder.build();
+
+		for (Map.Entry<String, String> entry : headers.entrySet()) {
+			if (entry.getKey() == null || entry.getValue() == null) continue;
+			if (RESTRICTED_HEADERS.contains(entry.getKey().toLowerCase())) continue;
+			builder.header(entry.getKey(), entry.getValue());
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Acquires a connection permit for the host of the url
+	 * @param url End point being called
+	 * @param timeout Time in ms to wait for a permit
+	 * @return Permit for the host.  Must be released when the request completes
+	 * @throws IOException When the wait is interrupted, or an 
+	 * HttpRejectedException when a permit isn't available in the timeout period
+	 */
+	Semaphore acquire(URL url, int timeout) throws IOException {
+		CompletableFuture<Semaphore> waiter = getPermit(url).acquireAsync(url, timeout, executor);
+
+		try {
+			return waiter.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			throw new IOException(e.getCause());
+		} catch (InterruptedException e) {
+			// Leave the queue.  A permit handed over in the meantime is returned
+			if (! waiter.cancel(false) && ! waiter.isCompletedExceptionally()) waiter.join().release();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting for a connection to: " + url.getHost());
+		}
+	}
+
+	/**
+	 * Returns the connection permits of the host of the url
+	 * @param url End point being called
+	 * @return Permits for the host
+	 */
+	private HostPermits getPermit(URL url) {
+		return hostPermits.computeIfAbsent(getHostKey(url), k -> new HostPermits(maxConnectionsPerHost));
+	}
+
+	/**
+	 * Builds the key used to group connections by host
+	 * @param url End point
+	 * @return protocol, host and port of the url
+	 */
+	static String getHostKey(URL url) {
+		int port = url.getPort() < 0 ? url.getDefaultPort() : url.getPort();
+		return url.getProtocol() + "://" + String.valueOf(url.getHost()).toLowerCase() + ":" + port;
+	}
+
+	/**
+	 * Returns the number of connections currently available for the host of the url
+	 * @param url End point
+	 * @return Available connections
+	 */
+	public int getAvailableConnections(URL url) {
+		Semaphore permit = hostPermits.get(getHostKey(url));
+		return permit == null ? maxConnectionsPerHost : permit.availablePermits();
+	}
+
+	/**
+	 * Returns the number of requests waiting on a connection to the host of the url
+	 * @param url End point
+	 * @return Waiting requests
+	 */
+	public int getWaitingRequests(URL url) {
+		HostPermits permit = hostPermits.get(getHostKey(url));
+		return permit == null ? 0 : permit.getQueueSize();
+	}
+
+	/**
+	 * Returns the maximum number of concurrent connections per host
+	 * @return the maxConnectionsPerHost
+	 */
+	public int getMaxConnectionsPerHost() {
+		return maxConnectionsPerHost;
+	}
+
+	/**
+	 * Returns the executor used for the asynchronous tasks
+	 * @return the executor
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Returns the underlying client
+	 * @return the client
+	 */
+	public HttpClient getClient() {
+		return client;
+	}
+
+	/**
+	 * Connection permits of a host.  Requests that find no free permit wait in a
+	 * first in, first out queue of futures, and a released permit is handed to
+	 * the oldest waiter instead of being returned to the pool, so waiting never
+	 * holds a thread and synchronous and asynchronous requests are served in order
+	 */
+	static class HostPermits extends Semaphore {
+		private static final long serialVersionUID = 1L;
+		private final transient Deque<CompletableFuture<Semaphore>> waiters = new ArrayDeque<>();
+
+		/**
+		 * Creates the permits
+		 * @param permits Number of concurrent connections to the host
+		 */
+		HostPermits(int permits) {
+			super(permits);
+		}
+
+		/**
+		 * Acquires a permit without blocking
+		 * @param url End point being called
+		 * @param timeout Time in ms to wait for a permit
+		 * @param timer Executor completing the waiters that time out
+		 * @return Future completed with the permit, or exceptionally with an 
+		 * HttpRejectedException when a permit isn't available in the timeout 
+		 * period.  The host did not fail, so the request is not retried
+		 */
+		CompletableFuture<Semaphore> acquireAsync(URL url, int timeout, Executor timer) {
+			CompletableFuture<Semaphore> waiter = new CompletableFuture<>();
+			synchronized (waiters) {
+				if (waiters.isEmpty() && tryAcquire()) return CompletableFuture.completedFuture(this);
+				if (timeout > 0) waiters.add(waiter);
+			}
+
+			IOException limit = new HttpRejectedException("Connection limit reached for host: " + url.getHost());
+			if (timeout <= 0) return CompletableFuture.failedFuture(limit);
+
+			// Waiters that time out or are cancelled leave the queue
+			waiter.whenComplete((p, t) -> {
+				if (t != null) remove(waiter);
+			});
+			CompletableFuture.delayedExecutor(timeout, TimeUnit.MILLISECONDS, timer).execute(() -> {
+				remove(waiter);
+				waiter.completeExceptionally(limit);
+			});
+			return waiter;
+		}
+
+		/**
+		 * Removes a waiter from the queue
+		 * @param waiter Future of the waiting request
+		 */
+		private void remove(CompletableFuture<Semaphore> waiter) {
+			synchronized (waiters) {
+				waiters.remove(waiter);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Semaphore#release()
+		 */
+		@Override
+		public void release() {
+			while (true) {
+				CompletableFuture<Semaphore> waiter;
+				synchronized (waiters) {
+					waiter = waiters.poll();
+					if (waiter == null) {
+						super.release();
+						return;
+					}
+				}
+
+				// Completed outside of the lock, as the waiter sends its request.  A 
+				// waiter that already timed out passes the permit to the next one
+				if (waiter.complete(this)) return;
+			}
+		}
+
+		/**
+		 * Returns the number of requests waiting on a permit
+		 * @return Queue length
+		 */
+		int getQueueSize() {
+			synchronized (waiters) {
+				return waiters.size();
+			}
+		}
+	}
+
+	/**
+	 * Wraps the response so the host permit is released when the body is closed
+	 */
+	static class PermitResponse implements HttpResponse<InputStream> {
+		private final HttpResponse<InputStream> response;
+		private final InputStream body;
+
+		/**
+		 * Wraps the response and body
+		 * @param response Response from the client
+		 * @param permit Host permit to release on close
+		 */
+		PermitResponse(HttpResponse<InputStream> response, Semaphore permit) {
+			this.response = response;
+			this.body = new PermitInputStream(response.body(), permit);
+		}
+
+		@Override
+		public int statusCode() { return response.statusCode(); }
+
+		@Override
+		public HttpRequest request() { return response.request(); }
+
+		@Override
+		public Optional<HttpResponse<InputStream>> previousResponse() { return response.previousResponse(); }
+
+		@Override
+		public HttpHeaders headers() { return response.headers(); }
+
+		@Override
+		public InputStream body() { return body; }
+
+		@Override
+		public Optional<SSLSession> sslSession() { return response.sslSession(); }
+
+		@Override
+		public URI uri() { return response.uri(); }
+
+		@Override
+		public Version version() { return response.version(); }
+	}
+
+	/**
+	 * Releases the host permit once, when the stream is closed
+	 */
+	static class PermitInputStream extends FilterInputStream {
+		private final Semaphore permit;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		/**
+		 * Wraps the stream
+		 * @param in Body stream
+		 * @param permit Host permit to release
+		 */
+		PermitInputStream(InputStream in, Semaphore permit) {
+			super(in);
+			this.permit = permit;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.FilterInputStream#close()
+		 */
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				if (released.compareAndSet(false, true)) permit.release();
+			}
+		}
+	}
+
+	/**
+	 * Collects the response body into an array and fails once the body is larger 
+	 * than the maximum size, so the rest of the body is never buffered
+	 */
+	static class BoundedBodySubscriber implements BodySubscriber<byte[]> {
+		private final BodySubscriber<byte[]> delegate = BodySubscribers.ofByteArray();
+		private final long maxSize;
+		private Flow.Subscription subscription;
+		private long size;
+		private boolean done;
+
+		/**
+		 * Creates the subscriber
+		 * @param maxSize Maximum number of bytes in the body
+		 */
+		BoundedBodySubscriber(long maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.net.http.HttpResponse.BodySubscriber#getBody()
+		 */
+		@Override
+		public CompletionStage<byte[]> getBody() {
+			return delegate.getBody();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Flow.Subscriber#onSubscribe(java.util.concurrent.Flow.Subscription)
+		 */
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			delegate.onSubscribe(subscription);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Flow.Subscriber#onNext(java.lang.Object)
+		 */
+		@Override
+		public void onNext(List<ByteBuffer> items) {
+			if (done) return;
+			for (ByteBuffer item : items) size += item.remaining();
+
+			if (size > maxSize) {
+				done = true;
+				subscription.cancel();
+				delegate.onError(new HttpRejectedException(SMTHttpConnectionManager.getMaxSizeMessage(maxSize)));
+			} else {
+				delegate.onNext(items);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Flow.Subscriber#onError(java.lang.Throwable)
+		 */
+		@Override
+		public void onError(Throwable throwable) {
+			if (done) return;
+			done = true;
+			delegate.onError(throwable);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Flow.Subscriber#onComplete()
+		 */
+		@Override
+		public void onComplete() {
+			if (done) return;
+			done = true;
+			delegate.onComplete();
+		}
+	}
+}
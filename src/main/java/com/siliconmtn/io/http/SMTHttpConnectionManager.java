@@ -1,27 +1,53 @@
 package com.siliconmtn.io.http;
 
 // JDK 11.x
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.DataOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.CookieHandler;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.net.CookieManager;
 import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLSocketFactory;
 
 // Log4j 2.x
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.siliconmtn.data.text.StringUtil;
@@ -35,7 +61,35 @@ import com.siliconmtn.data.text.StringUtil;
  * during the initial connection as well as subsequent sessions.  Allow
  * for the setting of an SSLSocketFactory in support of certificate-based auth
  * connections.  Redirects, timeouts, headers (both request and response) are managed.
- * Because we return byte[], any type of data can be retrieved
+ * Because we return byte[], any type of data can be retrieved.  When a 
+ * PooledHttpEngine is assigned (automatically when an HttpPoolConfig bean is 
+ * present), requests are sent over pooled keep-alive connections instead of 
+ * opening a new connection for each call.
+ * The manager is thread safe.  Each request works on its own copy of the 
+ * request headers and cookies, and the sendRequest methods return the response
+ * code, headers and cookies of the call in an HttpResponseVO, so one instance 
+ * can be shared by many threads.  The responseCode and headerMap fields are
+ * only updated by getRequestData and getConnectionStream and reflect the last
+ * of those calls.  The cookies assigned to the manager are only sent by those
+ * calls, and the cookies they receive are kept in the manager's cookie handler,
+ * which only sends them back to their own domain.  sendRequest and sendAsync 
+ * send neither, unless the cookie handler is enabled.
+ * The sendAsync and getRequestDataAsync methods return a CompletableFuture.  
+ * Pooled requests use non-blocking I/O; connection based requests run on the
+ * async executor, which may be replaced (with a virtual thread executor, for example).
+ * Large responses may be streamed to an OutputStream, channel or file without 
+ * holding the body in memory, and a maximum response size may be assigned.
+ * An HttpResiliencePolicy (automatically when an HttpResilienceConfig bean is 
+ * present) adds retries of idempotent requests, per host circuit breakers and
+ * per host concurrency limits.
+ * An HttpResponseCache (automatically when an enabled HttpCacheConfig bean is 
+ * present) answers repeated GET requests from memory or disk and revalidates 
+ * stale responses with If-None-Match / If-Modified-Since.
+ * An HttpCompression (automatically when an enabled HttpCompressionConfig bean 
+ * is present) negotiates gzip / deflate responses, decoding them as they are 
+ * streamed, and may compress the request bodies.  HttpRequestListeners receive
+ * the DNS, connect, TLS, first byte and total times, the bytes sent and received,
+ * the response code and the redirects of each request
  * <b>Copyright:</b> Copyright (c) 2021
  * <b>Company:</b> Silicon Mountain Technologies
  * 
@@ -69,6 +123,11 @@ public class SMTHttpConnectionManager {
 	 * Socket timeout in ms
 	 */
 	public static final int DEFAULT_SOCKET_TIMEOUT = 30000;
+	
+	/**
+	 * Size of the buffer used when copying a response to a sink
+	 */
+	public static final int STREAM_BUFFER_SIZE = 8192;
 
 	/**
 	 * Response code formatted string
@@ -120,31 +179,60 @@ public class SMTHttpConnectionManager {
 	 */
 	public static final String REQUEST_PROPERTY_CONTENT_LENGTH = "Content-Length";
 	
+	/**
+	 * Largest buffer allocated from the content length announced by a server,
+	 * before any of the body has been read
+	 */
+	static final int MAX_INITIAL_BUFFER = 64 * 1024;
+	
+	/**
+	 * Shared executor for the asynchronous requests when one has not been assigned.
+	 * Uses daemon threads so an idle pool never keeps the JVM running
+	 */
+	static final Executor DEFAULT_ASYNC_EXECUTOR = Executors.newCachedThreadPool(new AsyncThreadFactory());
+	
 	/**
 	 * sslSocketFactory The SSLSocketFactory that is set on the HTTPS connection
 	 * object just after it is instantiated and prior to any other properties being set
 	 * for said object.  If a non-https url is passed to the connect methods, the
 	 * SSLSocketFactory object will be ignored.
 	 */
-	private SSLSocketFactory sslSocketFactory;
+	private volatile SSLSocketFactory sslSocketFactory;
+	
+	/**
+	 * Pooled engine used to send the requests.  When null, or when an 
+	 * SSLSocketFactory has been assigned, a new HttpURLConnection is opened 
+	 * for each request
+	 */
+	private volatile PooledHttpEngine pooledEngine;
 	
 	// Members
 	static final Logger log = LogManager.getLogger(SMTHttpConnectionManager.class);
-	private int connectionTimeout;
-	private boolean followRedirects = true;
-	private Map<String, String> requestHeaders;
-	private int responseCode;
-	private Map<String, String> cookies;
-	private Map<String, String> headerMap;
-	private int redirectLimit = 10;
-	private boolean useCookieHandler = false;
+	private volatile int connectionTimeout;
+	private volatile boolean followRedirects = true;
+	private volatile Map<String, String> requestHeaders;
+	private volatile int responseCode;
+	private volatile Map<String, String> cookies;
+	private volatile Map<String, String> headerMap;
+	private volatile int redirectLimit = 10;
+	private volatile boolean useCookieHandler = false;
+	private volatile Executor asyncExecutor;
+	private volatile long maxResponseSize;
+	private volatile int connectTimeout;
+	private volatile int readTimeout;
+	private volatile HttpResponseCache responseCache;
+	private volatile HttpCompression compression;
+	private volatile HttpResiliencePolicy resiliencePolicy;
+	private volatile TimedSSLSocketFactory timedSocketFactory;
+	private final List<HttpRequestListener> listeners = new CopyOnWriteArrayList<>();
+	private final CookieManager cookieHandler = new CookieManager();
 	
 	/**
 	 * Initializes the manager
 	 */
 	public SMTHttpConnectionManager() {
-		requestHeaders = new HashMap<>();
-		cookies = new LinkedHashMap<>();
+		requestHeaders = createMap();
+		cookies = createMap();
 		headerMap = new LinkedHashMap<>();
 	}
 	
@@ -235,6 +323,294 @@ public class SMTHttpConnectionManager {
         return connect(createURL(url), data == null ? new byte[0] : data, type == null ? HttpConnectionType.POST : type);
     }
     
+	/**
+	 * Sends the request and returns the response code, headers, cookies and body 
+	 * of this call.  Unlike getRequestData, the manager's response fields 
+	 * (responseCode, headerMap, cookies) are not updated, so a single manager 
+	 * can be shared by any number of threads
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param parameters HTTP POST data as a Map of key, value pairs
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Response for this request
+	 * @throws IOException When data can't be retrieved, this exception is thrown
+	 */
+	public HttpResponseVO sendRequest(String url, Map<String, Object> parameters, HttpConnectionType type) 
+	throws IOException {
+		if (StringUtil.isEmpty(url)) throw new IOException("Url is required");
+		return sendRequest(createURL(url), convertPostData(parameters), type);
+	}
+	
+	/**
+	 * Sends the request and returns the response code, headers, cookies and body 
+	 * of this call.  The manager's response fields are not updated
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param parameters HTTP POST data as a Map of key, value pairs
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Response for this request
+	 * @throws IOException When data can't be retrieved, this exception is thrown
+	 */
+	public HttpResponseVO sendRequest(URL url, Map<String, Object> parameters, HttpConnectionType type) 
+	throws IOException {
+		return sendRequest(url, convertPostData(parameters), type);
+	}
+	
+	/**
+	 * Sends the request and returns the response code, headers, cookies and body 
+	 * of this call.  The manager's response fields are not updated
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param data Data sent in the body of the message
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Response for this request
+	 * @throws IOException When data can't be retrieved, this exception is thrown
+	 */
+	public HttpResponseVO sendRequest(String url, byte[] data, HttpConnectionType type) 
+	throws IOException {
+		if (StringUtil.isEmpty(url)) throw new IOException("Url is required");
+		return sendRequest(createURL(url), data, type);
+	}
+	
+	/**
+	 * Sends the request and returns the response code, headers, cookies and body 
+	 * of this call.  The manager's response fields are not updated
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param data Data sent in the body of the message
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Response for this request
+	 * @throws IOException When data can't be retrieved, this exception is thrown
+	 */
+	public HttpResponseVO sendRequest(URL url, byte[] data, HttpConnectionType type) 
+	throws IOException {
+		return sendRequest(url, HttpRequestBody.ofBytes(data), type);
+	}
+	
+	/**
+	 * Sends the request with a streamed body and returns the response.  File, 
+	 * stream, publisher and multipart bodies are written to the server as they 
+	 * are read, so the upload is never held in memory.  Bodies that can only be 
+	 * read once are not re-sent on a redirect or a retry
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param body Body of the message.  Null sends an empty body
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Response for this request
+	 * @throws IOException When data can't be sent or retrieved
+	 */
+	public HttpResponseVO sendRequest(URL url, HttpRequestBody body, HttpConnectionType type) 
+	throws IOException {
+		if (url == null) throw new IOException("Url is required");
+		Exchange exchange = exchange(url, body == null ? HttpRequestBody.EMPTY : body, type == null ? HttpConnectionType.POST : type, false);
+		return exchange.toResponse(readFully(exchange));
+	}
+	
+	/**
+	 * Sends the request and writes the response body to the output stream as it
+	 * is received, so the body is never held in memory.  The body is written for
+	 * any response code; check the code on the response.  The stream is not closed
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param data Data sent in the body of the message
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @param out Stream receiving the response body
+	 * @return Response for this request.  The data is null and the size is the 
+	 * number of bytes written
+	 * @throws IOException When data can't be retrieved or written
+	 */
+	public HttpResponseVO sendRequest(URL url, byte[] data, HttpConnectionType type, OutputStream out) 
+	throws IOException {
+		return stream(url, data, type, in -> in.transferTo(out));
+	}
+	
+	/**
+	 * Sends the request and writes the response body to the channel as it is 
+	 * received.  The channel is not closed
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param data Data sent in the body of the message
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @param channel Channel receiving the response body
+	 * @return Response for this request.  The data is null and the size is the 
+	 * number of bytes written
+	 * @throws IOException When data can't be retrieved or written
+	 */
+	public HttpResponseVO sendRequest(URL url, byte[] data, HttpConnectionType type, WritableByteChannel channel) 
+	throws IOException {
+		return stream(url, data, type, in -> {
+			long total = 0;
+			int nRead;
+			byte[] byteBuffer = new byte[STREAM_BUFFER_SIZE];
+			ByteBuffer buffer = ByteBuffer.wrap(byteBuffer);
+			while ((nRead = in.read(byteBuffer)) != -1) {
+				buffer.clear().limit(nRead);
+				while (buffer.hasRemaining()) channel.write(buffer);
+				total += nRead;
+			}
+			
+			return total;
+		});
+	}
+	
+	/**
+	 * Sends the request and writes the response body to the file.  The file is 
+	 * created or replaced
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param data Data sent in the body of the message
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @param file File receiving the response body
+	 * @return Response for this request.  The data is null and the size is the 
+	 * number of bytes written
+	 * @throws IOException When data can't be retrieved or written
+	 */
+	public HttpResponseVO sendRequest(URL url, byte[] data, HttpConnectionType type, Path file) 
+	throws IOException {
+		return stream(url, data, type, in -> {
+			try (OutputStream out = Files.newOutputStream(file)) {
+				return in.transferTo(out);
+			}
+		});
+	}
+	
+	/**
+	 * Sends the request and passes the response stream to the sink
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param data Data sent in the body of the message
+	 * @param type Request Type.  Defaults to POST if type is null
+	 * @param sink Receives the response body
+	 * @return Response for this request
+	 * @throws IOException When data can't be retrieved or written
+	 */
+	private HttpResponseVO stream(URL url, byte[] data, HttpConnectionType type, ResponseSink sink) 
+	throws IOException {
+		if (url == null) throw new IOException("Url is required");
+		Exchange exchange = exchange(url, HttpRequestBody.ofBytes(data), type == null ? HttpConnectionType.POST : type, false);
+		if (exchange.stream == null) return exchange.toResponse(null, 0);
+		
+		try (InputStream in = exchange.stream) {
+			return exchange.toResponse(null, sink.transfer(in));
+		}
+	}
+
+	/**
+	 * Sends the request asynchronously.  The manager's response fields are not 
+	 * updated, so the status, headers and cookies are only available on the response
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param parameters HTTP POST data as a Map of key, value pairs
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Future completed with the response for this request.  Completes 
+	 * exceptionally with an IOException when data can't be retrieved
+	 */
+	public CompletableFuture<HttpResponseVO> sendAsync(String url, Map<String, Object> parameters, HttpConnectionType type) {
+		return sendAsync(url, convertPostData(parameters), type);
+	}
+	
+	/**
+	 * Sends the request asynchronously.  The manager's response fields are not updated
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param data Data sent in the body of the message
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Future completed with the response for this request
+	 */
+	public CompletableFuture<HttpResponseVO> sendAsync(String url, byte[] data, HttpConnectionType type) {
+		try {
+			if (StringUtil.isEmpty(url)) throw new IOException("Url is required");
+			return sendAsync(createURL(url), data, type);
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+	
+	/**
+	 * Sends the request asynchronously.  Pooled requests are sent with 
+	 * non-blocking I/O, so no thread waits on the server.  Otherwise the request
+	 * runs on the async executor.  The manager's response fields are not updated
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param data Data sent in the body of the message
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Future completed with the response for this request
+	 */
+	public CompletableFuture<HttpResponseVO> sendAsync(URL url, byte[] data, HttpConnectionType type) {
+		return sendAsync(url, HttpRequestBody.ofBytes(data), type);
+	}
+	
+	/**
+	 * Sends the request with a streamed body asynchronously.  The manager's 
+	 * response fields are not updated
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param body Body of the message.  Null sends an empty body
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Future completed with the response for this request
+	 */
+	public CompletableFuture<HttpResponseVO> sendAsync(URL url, HttpRequestBody body, HttpConnectionType type) {
+		if (url == null) return CompletableFuture.failedFuture(new IOException("Url is required"));
+		HttpRequestBody reqBody = body == null ? HttpRequestBody.EMPTY : body;
+		HttpConnectionType reqType = type == null ? HttpConnectionType.POST : type;
+		
+		if (isPooled()) return sendPooledAsync(url, reqBody, reqType);
+		
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return sendRequest(url, reqBody, reqType);
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		}, getAsyncExecutor());
+	}
+	
+	/**
+	 * Retrieves data from an HTTP server asynchronously
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param parameters HTTP POST data as a Map of key, value pairs
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Future completed with the data retrieved from the site
+	 */
+	public CompletableFuture<byte[]> getRequestDataAsync(String url, Map<String, Object> parameters, HttpConnectionType type) {
+		return sendAsync(url, parameters, type).thenApply(HttpResponseVO::getData);
+	}
+	
+	/**
+	 * Retrieves data from an HTTP server asynchronously
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param data Data sent in the body of the message
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Future completed with the data retrieved from the site
+	 */
+	public CompletableFuture<byte[]> getRequestDataAsync(String url, byte[] data, HttpConnectionType type) {
+		return sendAsync(url, data, type).thenApply(HttpResponseVO::getData);
+	}
+	
+	/**
+	 * Retrieves data from an HTTP server asynchronously
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param parameters HTTP POST data as a Map of key, value pairs
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Future completed with the data retrieved from the site
+	 */
+	public CompletableFuture<byte[]> getRequestDataAsync(URL url, Map<String, Object> parameters, HttpConnectionType type) {
+		return sendAsync(url, convertPostData(parameters), type).thenApply(HttpResponseVO::getData);
+	}
+	
+	/**
+	 * Retrieves data from an HTTP server asynchronously
+	 * @param url fully qualified URL (http://www.somedomain.com)
+	 * @param data Data sent in the body of the message
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * Defaults to POST if type is null
+	 * @return Future completed with the data retrieved from the site
+	 */
+	public CompletableFuture<byte[]> getRequestDataAsync(URL url, byte[] data, HttpConnectionType type) {
+		return sendAsync(url, data, type).thenApply(HttpResponseVO::getData);
+	}
 
 	/**
 	 * Connects to a HTTP server using the supplied URL and gets the data
@@ -244,17 +620,57 @@ public class SMTHttpConnectionManager {
 	 * @throws IOException When data can't be retrieved, this exception is thrown
 	 */
 	private byte[] connect(URL actionUrl, byte[] postDataBytes, HttpConnectionType type) throws IOException {
-		int nRead;
-		byte[] byteBuffer = new byte[8192];
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		try (InputStream in = connectStream(actionUrl, postDataBytes, 0, type)) {
-			while ((nRead = in.read(byteBuffer)) != -1) {
-				baos.write(byteBuffer, 0, nRead);
+		Exchange exchange = exchange(actionUrl, HttpRequestBody.ofBytes(postDataBytes), type, true);
+		storeResponse(exchange);
+		return readFully(exchange);
+	}
+	
+	/**
+	 * Reads and closes the response stream.  When the server sends the content 
+	 * length, the body is read directly into an array, without the intermediate
+	 * buffers of readAllBytes.  The array starts at MAX_INITIAL_BUFFER at most 
+	 * and grows as the data arrives, so an announced length is never allocated
+	 * up front
+	 * @param exchange State of the request.  The stream may be null when the 
+	 * server returned no body
+	 * @return data for the request
+	 * @throws IOException When data can't be retrieved, this exception is thrown
+	 */
+	private byte[] readFully(Exchange exchange) throws IOException {
+		if (exchange.stream == null) return new byte[0];
+		
+		long length = exchange.getContentLength();
+		try (InputStream in = exchange.stream) {
+			if (length < 0 || length >= Integer.MAX_VALUE) return in.readAllBytes();
+			
+			byte[] data = new byte[(int) Math.min(length, MAX_INITIAL_BUFFER)];
+			int offset = 0;
+			while (offset < length) {
+				if (offset == data.length) data = Arrays.copyOf(data, (int) Math.min(length, data.length * 2L));
+				int count = in.read(data, offset, data.length - offset);
+				if (count < 0) return Arrays.copyOf(data, offset);
+				offset += count;
 			}
-
+			
+			int next = in.read();
+			return next == -1 ? data : append(data, next, in.readAllBytes());
 		}
-		
-		return baos.toByteArray();
+	}
+	
+	/**
+	 * Joins the data read before and after the content length, for servers that 
+	 * send more data than they announced
+	 * @param data Data read up to the content length
+	 * @param next Next byte read after the content length
+	 * @param rest Remaining data
+	 * @return Joined data
+	 */
+	private static byte[] append(byte[] data, int next, byte[] rest) {
+		byte[] joined = new byte[data.length + 1 + rest.length];
+		System.arraycopy(data, 0, joined, 0, data.length);
+		joined[data.length] = (byte) next;
+		System.arraycopy(rest, 0, joined, data.length + 1, rest.length);
+		return joined;
 	}
 	
 	/**
@@ -267,36 +683,659 @@ public class SMTHttpConnectionManager {
 	 * @throws IOException When data can't be retrieved, this exception is thrown
 	 */
 	public InputStream getConnectionStream(URL url, Map<String, Object> params, HttpConnectionType type) throws IOException {
-		return connectStream(url, convertPostData(params), 0, type);
+		Exchange exchange = exchange(url, HttpRequestBody.ofBytes(convertPostData(params)), type, true);
+		storeResponse(exchange);
+		return exchange.stream;
+	}
+	
+	/**
+	 * Creates the state for a single request from the manager's headers and
+	 * sends the request.  When request listeners are assigned, the request is
+	 * measured and the listeners are notified once the response stream is read
+	 * or closed.  Nothing on the manager is modified
+	 * @param actionUrl URL for the connection
+	 * @param body Body of the request
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @param session True for the requests of getRequestData and getConnectionStream,
+	 * which send the manager's cookies and keep the cookies received per domain
+	 * @return State of the request, including the response stream
+	 * @throws IOException When data can't be retrieved, this exception is thrown
+	 */
+	private Exchange exchange(URL actionUrl, HttpRequestBody body, HttpConnectionType type, boolean session) throws IOException {
+		if (listeners.isEmpty()) return cachedExchange(actionUrl, body, type, requestHeaders, null, session);
+		
+		HttpRequestMetrics metrics = new HttpRequestMetrics(actionUrl, type.toString(), isPooled());
+		Map<String, String> headers = notifyStarted(metrics);
+		Exchange exchange;
+		try {
+			exchange = cachedExchange(actionUrl, body, type, headers, metrics, session);
+		} catch (IOException | RuntimeException e) {
+			notifyFinished(metrics, e);
+			throw e;
+		}
+		
+		metrics.setResponseCode(exchange.responseCode);
+		if (exchange.stream == null) notifyFinished(metrics, null);
+		else exchange.stream = new HttpRequestMetrics.CompletionInputStream(exchange.stream, error -> notifyFinished(metrics, error));
+		return exchange;
+	}
+	
+	/**
+	 * Sends the request.  GET requests are answered from the response cache, 
+	 * when one is assigned, and other requests remove the cached response of 
+	 * the url
+	 * @param actionUrl URL for the connection
+	 * @param body Body of the request
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @param headers Headers to send on the request
+	 * @param metrics Metrics of the request.  Null when the request is not measured
+	 * @param session True when the request uses the manager's cookies
+	 * @return State of the request, including the response stream
+	 * @throws IOException When data can't be retrieved, this exception is thrown
+	 */
+	private Exchange cachedExchange(URL actionUrl, HttpRequestBody body, HttpConnectionType type, Map<String, String> headers, HttpRequestMetrics metrics,
+		boolean session) throws IOException {
+		HttpResponseCache cache = responseCache;
+		if (cache == null) return exchange(actionUrl, body, type, headers, metrics, session);
+		Map<String, String> cacheHeaders = getCacheHeaders(actionUrl, headers, session);
+		if (! cache.isCacheable(type)) {
+			cache.invalidate(actionUrl, cacheHeaders);
+			return exchange(actionUrl, body, type, headers, metrics, session);
+		}
+		
+		// Answer from the cache while fresh, otherwise ask the server if it changed
+		HttpCacheEntry entry = cache.lookup(type, actionUrl, cacheHeaders);
+		if (entry != null && cache.isFresh(entry, cacheHeaders)) {
+			if (metrics != null) metrics.answeredFromCache(entry.getResponseCode());
+			return fromCache(entry, actionUrl);
+		}
+		
+		Map<String, String> sent = entry == null ? headers : cache.addValidators(entry, headers);
+		Exchange exchange = exchange(actionUrl, body, type, sent, metrics, session);
+		if (entry != null && exchange.responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+			if (exchange.stream != null) exchange.stream.close();
+			Exchange cached = fromCache(cache.revalidate(entry, exchange.responseHeaders), exchange.url);
+			cached.receivedCookies.putAll(exchange.receivedCookies);
+			return cached;
+		}
+		
+		long length = exchange.getContentLength();
+		if (! cache.isStorable(exchange.responseCode, exchange.responseHeaders, cacheHeaders, length)) return exchange;
+		
+		// Read the body up to the maximum entry size.  Larger bodies are passed
+		// through to the caller without being stored
+		byte[] data = exchange.stream == null ? new byte[0] : exchange.stream.readNBytes(cache.getMaxEntrySize() + 1);
+		if (data.length > cache.getMaxEntrySize()) {
+			exchange.stream = new SequenceInputStream(new ByteArrayInputStream(data), exchange.stream);
+			return exchange;
+		}
+		
+		if (exchange.stream != null) exchange.stream.close();
+		cache.store(type, actionUrl, cacheHeaders, exchange.responseCode, exchange.responseHeaders, data);
+		exchange.stream = new ByteArrayInputStream(data);
+		return exchange;
+	}
+	
+	/**
+	 * Builds the request headers the response cache is keyed on.  The Cookie 
+	 * header the request will send, from the cookies of the manager and its 
+	 * cookie handler, is added unless the caller assigned one, so responses are
+	 * never shared between sessions
+	 * @param url Url of the request
+	 * @param headers Headers to send on the request
+	 * @param session True when the request uses the manager's cookies
+	 * @return Headers of the request, including its cookies
+	 * @throws IOException When the cookie handler can't be read
+	 */
+	private Map<String, String> getCacheHeaders(URL url, Map<String, String> headers, boolean session) throws IOException {
+		for (String name : headers.keySet()) {
+			if (COOKIE_NAME.equalsIgnoreCase(name)) return headers;
+		}
+		
+		String cookieHeader = buildCookieHeader(newExchange(headers, null, session), url);
+		if (cookieHeader == null) return headers;
+		
+		Map<String, String> cacheHeaders = new LinkedHashMap<>(headers);
+		cacheHeaders.put(COOKIE_NAME, cookieHeader);
+		return cacheHeaders;
+	}
+	
+	/**
+	 * Creates the state of a request answered by the response cache
+	 * @param entry Stored response
+	 * @param url Url of the request
+	 * @return State of the request, with the stored body as its stream
+	 */
+	private Exchange fromCache(HttpCacheEntry entry, URL url) {
+		Exchange exchange = newExchange(requestHeaders, null, false);
+		exchange.url = url;
+		exchange.responseCode = entry.getResponseCode();
+		exchange.responseHeaders = entry.getHeaders();
+		exchange.stream = new ByteArrayInputStream(entry.getData());
+		return exchange;
+	}
+	
+	/**
+	 * Sends the request with the provided headers.  Nothing on the manager is modified
+	 * @param actionUrl URL for the connection
+	 * @param body Body of the request
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @param headers Headers to send on the request
+	 * @param metrics Metrics of the request.  Null when the request is not measured
+	 * @param session True when the request uses the manager's cookies
+	 * @return State of the request, including the response stream
+	 * @throws IOException When data can't be retrieved, this exception is thrown
+	 */
+	private Exchange exchange(URL actionUrl, HttpRequestBody body, HttpConnectionType type, Map<String, String> headers, HttpRequestMetrics metrics,
+		boolean session) throws IOException {
+		HttpCompression codecs = compression;
+		Map<String, String> sent = headers;
+		if (codecs != null) {
+			body = codecs.encode(body, type);
+			sent = addAcceptEncoding(codecs, headers);
+		}
+		
+		HttpResiliencePolicy policy = resiliencePolicy;
+		Exchange exchange;
+		if (policy == null) {
+			exchange = newExchange(sent, metrics, session);
+			connectStream(exchange, actionUrl, body, 0, type);
+		} else {
+			exchange = exchangeResilient(policy, actionUrl, body, type, sent, metrics, session);
+		}
+		
+		// Only the encodings requested by the manager are decoded.  The size limit
+		// applies to the decoded data
+		if (sent != headers) decode(codecs, exchange, type);
+		
+		// HEAD requests and 204/304 responses announce the length of a body they don't send
+		if (exchange.stream != null && ! hasBody(exchange.responseCode, type)) {
+			exchange.stream.close();
+			exchange.stream = null;
+		}
+		
+		long maxSize = maxResponseSize;
+		if (maxSize <= 0 || exchange.stream == null) return exchange;
+		
+		// Fail before reading when the server announces a body that is too large
+		if (exchange.getContentLength() > maxSize) {
+			exchange.stream.close();
+			throw new HttpRejectedException(getMaxSizeMessage(maxSize));
+		}
+		
+		exchange.stream = new BoundedInputStream(exchange.stream, maxSize);
+		return exchange;
+	}
+	
+	/**
+	 * Adds the Accept-Encoding header of the compression, unless the caller 
+	 * assigned one
+	 * @param codecs Compression of the manager
+	 * @param headers Headers of the request.  Not modified
+	 * @return Headers including Accept-Encoding.  The same map when the caller 
+	 * assigned the header, in which case the response is not decoded
+	 */
+	private static Map<String, String> addAcceptEncoding(HttpCompression codecs, Map<String, String> headers) {
+		for (String name : headers.keySet()) {
+			if (HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(name)) return headers;
+		}
+		
+		Map<String, String> sent = new LinkedHashMap<>(headers);
+		sent.put(HttpHeaders.ACCEPT_ENCODING, codecs.getAcceptEncoding());
+		return sent;
+	}
+	
+	/**
+	 * Decodes the response stream as it is read, and removes the encoding headers
+	 * from the response
+	 * @param codecs Compression of the manager
+	 * @param exchange State of the request
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @throws IOException When the encoding is not supported or the data is not valid
+	 */
+	private static void decode(HttpCompression codecs, Exchange exchange, HttpConnectionType type) throws IOException {
+		String encoding = exchange.getHeader(HttpHeaders.CONTENT_ENCODING);
+		if (encoding == null || ! hasBody(exchange.responseCode, type)) return;
+		
+		if (exchange.stream != null) exchange.stream = codecs.decode(encoding, exchange.stream);
+		exchange.responseHeaders = HttpCompression.removeEncodingHeaders(exchange.responseHeaders);
+	}
+	
+	/**
+	 * Determines if a response carries a body
+	 * @param code HTTP response code
+	 * @param type Request type
+	 * @return false for HEAD requests and for 204 and 304 responses
+	 */
+	private static boolean hasBody(int code, HttpConnectionType type) {
+		return type != HttpConnectionType.HEAD && code != HttpURLConnection.HTTP_NO_CONTENT && code != HttpURLConnection.HTTP_NOT_MODIFIED;
+	}
+	
+	/**
+	 * Sends the request under the resilience policy.  Idempotent requests are 
+	 * retried after a connection failure or a retryable response code, as long as
+	 * the body can be sent again.  The host permit is held until the response 
+	 * stream is closed
+	 * @param policy Retry, circuit breaker and concurrency policy
+	 * @param actionUrl URL for the connection
+	 * @param body Body of the request
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @param headers Headers to send on the request
+	 * @param metrics Metrics of the request.  Null when the request is not measured
+	 * @param session True when the request uses the manager's cookies
+	 * @return State of the request, including the response stream
+	 * @throws IOException When data can't be retrieved or the policy rejects the request
+	 */
+	private Exchange exchangeResilient(HttpResiliencePolicy policy, URL actionUrl, HttpRequestBody body, HttpConnectionType type, Map<String, String> headers,
+		HttpRequestMetrics metrics, boolean session) throws IOException {
+		for (int attempt = 1; ; attempt++) {
+			Semaphore permit = policy.acquire(actionUrl);
+			try {
+				Exchange exchange = newExchange(headers, metrics, session);
+				connectStream(exchange, actionUrl, body, 0, type);
+				policy.recordResponse(actionUrl, exchange.responseCode);
+				
+				if (body.isRepeatable() && policy.canRetry(type, attempt, exchange.responseCode)) {
+					if (exchange.stream != null) exchange.stream.close();
+				} else {
+					if (permit != null && exchange.stream != null) {
+						exchange.stream = new PooledHttpEngine.PermitInputStream(exchange.stream, permit);
+						permit = null;
+					}
+					
+					return exchange;
+				}
+			} catch (IOException e) {
+				policy.recordFailure(actionUrl, e);
+				if (! body.isRepeatable() || ! policy.canRetry(type, attempt, e)) throw e;
+				log.debug("Retrying request to {} after failed attempt {}", actionUrl, attempt, e);
+			} finally {
+				if (permit != null) permit.release();
+			}
+			
+			policy.pause(attempt);
+		}
+	}
+	
+	/**
+	 * Sends the request over the pooled engine without blocking.  When request 
+	 * listeners are assigned, the request is measured and the listeners are 
+	 * notified once the future completes
+	 * @param url URL for the connection
+	 * @param body Body of the request
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @return Future completed with the response for the request
+	 */
+	private CompletableFuture<HttpResponseVO> sendPooledAsync(URL url, HttpRequestBody body, HttpConnectionType type) {
+		if (listeners.isEmpty()) return cachedSendAsync(url, body, type, requestHeaders, null);
+		
+		HttpRequestMetrics metrics = new HttpRequestMetrics(url, type.toString(), true);
+		Map<String, String> headers = notifyStarted(metrics);
+		return cachedSendAsync(url, body, type, headers, metrics).whenComplete((response, t) -> {
+			if (response != null) metrics.setResponseCode(response.getResponseCode());
+			notifyFinished(metrics, t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+		});
+	}
+	
+	/**
+	 * Sends the request over the pooled engine without blocking.  GET requests 
+	 * are answered from the response cache, when one is assigned, the same as 
+	 * the synchronous requests
+	 * @param url URL for the connection
+	 * @param body Body of the request
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @param headers Headers to send on the request
+	 * @param metrics Metrics of the request.  Null when the request is not measured
+	 * @return Future completed with the response for the request
+	 */
+	private CompletableFuture<HttpResponseVO> cachedSendAsync(URL url, HttpRequestBody body, HttpConnectionType type, Map<String, String> headers, HttpRequestMetrics metrics) {
+		HttpResponseCache cache = responseCache;
+		if (cache == null) return sendPooledAsync(url, body, type, headers, metrics);
+		
+		Map<String, String> cacheHeaders;
+		try {
+			cacheHeaders = getCacheHeaders(url, headers, false);
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		
+		if (! cache.isCacheable(type)) {
+			cache.invalidate(url, cacheHeaders);
+			return sendPooledAsync(url, body, type, headers, metrics);
+		}
+		
+		HttpCacheEntry entry = cache.lookup(type, url, cacheHeaders);
+		if (entry != null && cache.isFresh(entry, cacheHeaders)) {
+			if (metrics != null) metrics.answeredFromCache(entry.getResponseCode());
+			return CompletableFuture.completedFuture(new HttpResponseVO(url, entry.getResponseCode(), entry.getHeaders(), null, entry.getData()));
+		}
+		
+		Map<String, String> sent = entry == null ? headers : cache.addValidators(entry, headers);
+		return sendPooledAsync(url, body, type, sent, metrics).thenApply(response -> {
+			if (entry != null && response.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+				HttpCacheEntry updated = cache.revalidate(entry, response.getHeaders());
+				return new HttpResponseVO(response.getUrl(), updated.getResponseCode(), updated.getHeaders(), response.getCookies(), updated.getData());
+			}
+			
+			cache.store(type, url, cacheHeaders, response.getResponseCode(), response.getHeaders(), response.getData());
+			return response;
+		});
+	}
+	
+	/**
+	 * Sends the request over the pooled engine without blocking, under the 
+	 * resilience policy when one is assigned
+	 * @param url URL for the connection
+	 * @param body Body of the request
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @param headers Headers to send on the request
+	 * @param metrics Metrics of the request.  Null when the request is not measured
+	 * @return Future completed with the response for the request
+	 */
+	private CompletableFuture<HttpResponseVO> sendPooledAsync(URL url, HttpRequestBody body, HttpConnectionType type, Map<String, String> headers, HttpRequestMetrics metrics) {
+		HttpCompression codecs = compression;
+		HttpRequestBody reqBody = body;
+		Map<String, String> sent = headers;
+		if (codecs != null) {
+			try {
+				reqBody = codecs.encode(body, type);
+			} catch (IOException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+			
+			sent = addAcceptEncoding(codecs, headers);
+		}
+		
+		HttpResiliencePolicy policy = resiliencePolicy;
+		CompletableFuture<HttpResponseVO> future;
+		if (policy == null) future = sendPooledAsync(newExchange(sent, metrics, false), url, reqBody, 0, type);
+		else future = sendResilientAsync(policy, url, reqBody, 1, type, sent, metrics);
+		
+		if (sent == headers) return future;
+		return future.thenApply(response -> {
+			try {
+				return decode(codecs, response, type);
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		});
+	}
+	
+	/**
+	 * Decodes the body of a response received by the pooled async requests
+	 * @param codecs Compression of the manager
+	 * @param response Response with an encoded body
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @return Response with the decoded body
+	 * @throws IOException When the encoding is not supported, the data is not 
+	 * valid or the decoded data is larger than the maximum response size
+	 */
+	private HttpResponseVO decode(HttpCompression codecs, HttpResponseVO response, HttpConnectionType type) throws IOException {
+		String encoding = response.getHeader(HttpHeaders.CONTENT_ENCODING);
+		if (encoding == null || ! hasBody(response.getResponseCode(), type)) return response;
+		
+		byte[] data = response.getData();
+		if (data != null && data.length > 0) {
+			long maxSize = maxResponseSize;
+			InputStream in = codecs.decode(encoding, new ByteArrayInputStream(data));
+			try (InputStream decoded = maxSize > 0 ? new BoundedInputStream(in, maxSize) : in) {
+				data = decoded.readAllBytes();
+			}
+		}
+		
+		return new HttpResponseVO(response.getUrl(), response.getResponseCode(), HttpCompression.removeEncodingHeaders(response.getHeaders()), 
+			response.getCookies(), data);
+	}
+	
+	/**
+	 * Sends the request over the pooled engine without blocking, under the 
+	 * resilience policy.  Retries are scheduled after the backoff delay instead 
+	 * of holding a thread
+	 * @param policy Retry, circuit breaker and concurrency policy
+	 * @param actionUrl URL for the connection
+	 * @param body Body of the request
+	 * @param attempt Number of this attempt, starting at 1
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @param headers Headers to send on the request
+	 * @param metrics Metrics of the request.  Null when the request is not measured
+	 * @return Future completed with the response for the request
+	 */
+	private CompletableFuture<HttpResponseVO> sendResilientAsync(HttpResiliencePolicy policy, URL actionUrl, HttpRequestBody body, int attempt, HttpConnectionType type, 
+		Map<String, String> headers, HttpRequestMetrics metrics) {
+		Semaphore permit;
+		try {
+			permit = policy.acquire(actionUrl);
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		
+		return sendPooledAsync(newExchange(headers, metrics, false), actionUrl, body, 0, type).handle((response, t) -> {
+			if (permit != null) permit.release();
+			
+			if (t == null) {
+				policy.recordResponse(actionUrl, response.getResponseCode());
+				if (! body.isRepeatable() || ! policy.canRetry(type, attempt, response.getResponseCode())) return CompletableFuture.completedFuture(response);
+			} else {
+				Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+				policy.recordFailure(actionUrl, cause);
+				if (! body.isRepeatable() || ! policy.canRetry(type, attempt, cause)) return CompletableFuture.<HttpResponseVO>failedFuture(cause);
+			}
+			
+			Executor delayed = CompletableFuture.delayedExecutor(policy.getBackoff(attempt), TimeUnit.MILLISECONDS, getAsyncExecutor());
+			return CompletableFuture.supplyAsync(() -> attempt + 1, delayed).thenCompose(next -> sendResilientAsync(policy, actionUrl, body, next, type, headers, metrics));
+		}).thenCompose(Function.identity());
+	}
+	
+	/**
+	 * Builds the error message when a response exceeds the maximum size
+	 * @param maxSize Maximum size of the response
+	 * @return Error message
+	 */
+	static String getMaxSizeMessage(long maxSize) {
+		return "Response exceeds the maximum size of " + maxSize + " bytes";
 	}
 	
 	/**
 	 * Connects to the end device and returns a stream so the data can be processed sequentially
+	 * @param exchange State of the request
 	 * @param actionUrl URL for the connection
-	 * @param postData Post data to pass
+	 * @param body Body of the request
 	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
-	 * @return Stream of the connection
 	 * @throws IOException When data can't be retrieved, this exception is thrown
 	 */
-	private InputStream connectStream(URL actionUrl, byte[] postDataBytes, int redirectAttempt, HttpConnectionType type) 
+	private void connectStream(Exchange exchange, URL actionUrl, HttpRequestBody body, int redirectAttempt, HttpConnectionType type) 
 	throws IOException {
+		if (isPooled()) {
+			connectPooledStream(exchange, actionUrl, body, redirectAttempt, type);
+			return;
+		}
+		
 		// build connection
 		HttpURLConnection conn = createConnection(actionUrl);
 
 		// execute the connection
-		executeConnection(conn, postDataBytes, type);
+		executeConnection(conn, actionUrl, exchange, body, type);
 
 		//see if we need to follow a redirect
-		if (followRedirects && (HttpURLConnection.HTTP_MOVED_PERM == responseCode || HttpURLConnection.HTTP_MOVED_TEMP == responseCode) && redirectAttempt < redirectLimit) {
+		if (followRedirects && body.isRepeatable() && isRedirect(exchange.responseCode) && redirectAttempt < redirectLimit) {
 			String redirUrl = conn.getHeaderField("Location");
 			if (!StringUtil.isEmpty(redirUrl)) {
 				conn.disconnect();
-				return connectStream(createURL(redirUrl), postDataBytes, ++redirectAttempt, type);
+				if (exchange.metrics != null) exchange.metrics.redirected();
+				HttpConnectionType redirType = getRedirectType(exchange.responseCode, type);
+				connectStream(exchange, resolveRedirect(actionUrl, redirUrl), redirType == type ? body : HttpRequestBody.EMPTY, ++redirectAttempt, redirType);
+				return;
 			}
 		}
 
 		// return the response stream from the server - if the request failed return the error stream
-		return (200 <= responseCode && 300 > responseCode) ? conn.getInputStream() : conn.getErrorStream();
+		int code = exchange.responseCode;
+		exchange.stream = count(exchange, (200 <= code && 300 > code) ? conn.getInputStream() : conn.getErrorStream());
+	}
+	
+	/**
+	 * Sends the request over the pooled engine and assigns the response stream.  
+	 * Redirects, cookies and headers are handled the same as the connection based
+	 * requests
+	 * @param exchange State of the request
+	 * @param actionUrl URL for the connection
+	 * @param body Body of the request
+	 * @param redirectAttempt Number of redirects followed so far
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @throws IOException When data can't be retrieved, this exception is thrown
+	 */
+	private void connectPooledStream(Exchange exchange, URL actionUrl, HttpRequestBody body, int redirectAttempt, HttpConnectionType type) 
+	throws IOException {
+		Map<String, String> headers = buildPooledHeaders(exchange, actionUrl, body, type);
+		int timeout = getReadTimeoutMs();
+		if (exchange.metrics != null) exchange.metrics.connectionOpened();
+		HttpResponse<InputStream> response = pooledEngine.send(pooledEngine.buildRequest(actionUrl, type.toString(), publish(exchange, body), headers, timeout), timeout);
+		if (exchange.metrics != null) exchange.metrics.headersReceived();
+		exchange.receive(actionUrl, response.statusCode(), response.headers().map());
+		handleCookies(exchange, actionUrl, response.headers().map());
+		
+		//see if we need to follow a redirect
+		String redirUrl = response.headers().firstValue("Location").orElse(null);
+		if (followRedirects && body.isRepeatable() && isRedirect(exchange.responseCode) && redirectAttempt < redirectLimit && ! StringUtil.isEmpty(redirUrl)) {
+			response.body().close();
+			if (exchange.metrics != null) exchange.metrics.redirected();
+			HttpConnectionType redirType = getRedirectType(exchange.responseCode, type);
+			connectPooledStream(exchange, resolveRedirect(actionUrl, redirUrl), redirType == type ? body : HttpRequestBody.EMPTY, ++redirectAttempt, redirType);
+			return;
+		}
+		
+		exchange.stream = count(exchange, response.body());
+	}
+	
+	/**
+	 * Sends the request over the pooled engine without blocking.  Redirects, 
+	 * cookies and headers are handled the same as the synchronous requests
+	 * @param exchange State of the request
+	 * @param actionUrl URL for the connection
+	 * @param body Body of the request
+	 * @param redirectAttempt Number of redirects followed so far
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @return Future completed with the response for the request
+	 */
+	private CompletableFuture<HttpResponseVO> sendPooledAsync(Exchange exchange, URL actionUrl, HttpRequestBody body, int redirectAttempt, HttpConnectionType type) {
+		HttpRequest request;
+		int timeout = getReadTimeoutMs();
+		try {
+			Map<String, String> headers = buildPooledHeaders(exchange, actionUrl, body, type);
+			request = pooledEngine.buildRequest(actionUrl, type.toString(), publish(exchange, body), headers, timeout);
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		
+		HttpRequestMetrics metrics = exchange.metrics;
+		if (metrics != null) metrics.connectionOpened();
+		return pooledEngine.sendAsync(request, timeout, maxResponseSize, metrics == null ? null : metrics::headersReceived).thenCompose(response -> {
+			try {
+				if (metrics != null && response.body() != null) metrics.addBytesReceived(response.body().length);
+				exchange.receive(actionUrl, response.statusCode(), response.headers().map());
+				handleCookies(exchange, actionUrl, response.headers().map());
+				
+				//see if we need to follow a redirect
+				String redirUrl = response.headers().firstValue("Location").orElse(null);
+				if (followRedirects && body.isRepeatable() && isRedirect(exchange.responseCode) && redirectAttempt < redirectLimit && ! StringUtil.isEmpty(redirUrl)) {
+					if (metrics != null) metrics.redirected();
+					HttpConnectionType redirType = getRedirectType(exchange.responseCode, type);
+					return sendPooledAsync(exchange, resolveRedirect(actionUrl, redirUrl), redirType == type ? body : HttpRequestBody.EMPTY, redirectAttempt + 1, redirType);
+				}
+				
+				return CompletableFuture.completedFuture(exchange.toResponse(response.body()));
+			} catch (IOException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		});
+	}
+	
+	/**
+	 * Builds the headers of a pooled request from the request headers and cookies
+	 * @param exchange State of the request
+	 * @param actionUrl URL for the connection
+	 * @param body Body of the request
+	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
+	 * @return Headers to send
+	 * @throws IOException When the cookies can't be retrieved from the cookie handler
+	 */
+	private Map<String, String> buildPooledHeaders(Exchange exchange, URL actionUrl, HttpRequestBody body, HttpConnectionType type) 
+	throws IOException {
+		Map<String, String> headers = new LinkedHashMap<>(exchange.requestHeaders);
+		String cookieHeader = buildCookieHeader(exchange, actionUrl);
+		if (cookieHeader != null) headers.put(COOKIE_NAME, cookieHeader);
+		if ((HttpConnectionType.POST.equals(type) || HttpConnectionType.PUT.equals(type)) && ! headers.containsKey(REQUEST_PROPERTY_CONTENT_TYPE))
+			headers.put(REQUEST_PROPERTY_CONTENT_TYPE, getContentType(body));
+		
+		if (body.getContentEncoding() != null) headers.put(HttpHeaders.CONTENT_ENCODING, body.getContentEncoding());
+		return headers;
+	}
+	
+	/**
+	 * Returns the publisher of a pooled request body.  The bytes published are
+	 * counted when the request is measured
+	 * @param exchange State of the request
+	 * @param body Body of the request
+	 * @return Publisher of the body
+	 * @throws IOException When the body can't be read
+	 */
+	private static BodyPublisher publish(Exchange exchange, HttpRequestBody body) throws IOException {
+		BodyPublisher publisher = body.toPublisher();
+		return exchange.metrics == null ? publisher : new HttpRequestMetrics.CountingPublisher(publisher, exchange.metrics);
+	}
+	
+	/**
+	 * Counts the bytes read from a response stream when the request is measured
+	 * @param exchange State of the request
+	 * @param in Response stream.  May be null
+	 * @return Stream to read
+	 */
+	private static InputStream count(Exchange exchange, InputStream in) {
+		return in == null || exchange.metrics == null ? in : new HttpRequestMetrics.CountingInputStream(in, exchange.metrics);
+	}
+	
+	/**
+	 * Determines if the response code asks the client to follow a redirect
+	 * @param code HTTP response code
+	 * @return true if the response is a redirect
+	 */
+	static boolean isRedirect(int code) {
+		return code == HttpURLConnection.HTTP_MOVED_PERM || code == HttpURLConnection.HTTP_MOVED_TEMP 
+			|| code == HttpURLConnection.HTTP_SEE_OTHER || code == 307 || code == 308;
+	}
+	
+	/**
+	 * Returns the method of the request that follows a redirect.  A 303 (See 
+	 * Other) is followed with a GET and no body, as the server points to the 
+	 * result of the request rather than to a new location for it.  Other 
+	 * redirects keep the method and body
+	 * @param code HTTP response code of the redirect
+	 * @param type Request Type of the request that was redirected
+	 * @return Request Type of the request to the new location
+	 */
+	static HttpConnectionType getRedirectType(int code, HttpConnectionType type) {
+		return code == HttpURLConnection.HTTP_SEE_OTHER && HttpConnectionType.HEAD != type ? HttpConnectionType.GET : type;
+	}
+	
+	/**
+	 * Creates the url of a redirect.  Locations relative to the host are resolved 
+	 * against the url of the request
+	 * @param actionUrl Url of the request that was redirected
+	 * @param location Value of the Location header
+	 * @return Url to follow
+	 * @throws IOException When the location is not a valid url
+	 */
+	private URL resolveRedirect(URL actionUrl, String location) throws IOException {
+		return location.startsWith("/") ? new URL(actionUrl, location) : createURL(location);
+	}
+	
+	/**
+	 * Determines if requests are sent over the pooled engine.  Certificate based
+	 * connections (SSLSocketFactory) always use a dedicated connection
+	 * @return true if the pooled engine is used
+	 */
+	public boolean isPooled() {
+		return pooledEngine != null && sslSocketFactory == null;
 	}
 	
 	/**
@@ -321,17 +1360,14 @@ public class SMTHttpConnectionManager {
 	 * @throws IOException  When data can't be retrieved, this exception is thrown
 	 */
 	private HttpURLConnection createConnection(URL url) throws IOException {
-		// Set the cookie handler. Since this is and accessed 
-		// via static method lack of use still requires action to be taken
-		if (useCookieHandler) {
-			CookieHandler.setDefault(new CookieManager());
-		} else {
-			CookieHandler.setDefault(null);
-		}
 		// build connection
 		if ("https".equalsIgnoreCase(url.getProtocol())) {
 			HttpsURLConnection sConn = (HttpsURLConnection) url.openConnection();
-			if (sslSocketFactory != null) sConn.setSSLSocketFactory(sslSocketFactory);
+			SSLSocketFactory factory = sslSocketFactory;
+			
+			// Measured requests time the TLS handshake separately from the connect
+			if (! listeners.isEmpty()) factory = getTimedSocketFactory(factory == null ? sConn.getSSLSocketFactory() : factory);
+			if (factory != null) sConn.setSSLSocketFactory(factory);
 			return sConn;
 		} else {
 			return (HttpURLConnection) url.openConnection();
@@ -339,99 +1375,309 @@ public class SMTHttpConnectionManager {
 	}
 
 
+	/**
+	 * Returns the socket factory timing the TLS handshakes.  The same factory is
+	 * returned while the wrapped factory does not change, so the connections 
+	 * may still be reused
+	 * @param factory Factory creating the secure sockets
+	 * @return Timed factory wrapping the factory
+	 */
+	private TimedSSLSocketFactory getTimedSocketFactory(SSLSocketFactory factory) {
+		TimedSSLSocketFactory timed = timedSocketFactory;
+		if (factory instanceof TimedSSLSocketFactory) return (TimedSSLSocketFactory) factory;
+		if (timed == null || timed.getDelegate() != factory) {
+			timed = new TimedSSLSocketFactory(factory);
+			timedSocketFactory = timed;
+		}
+		
+		return timed;
+	}
+
 	/**
 	 * Initializes and executes the connection
 	 * @param conn COnnection to the end server
-	 * @param postData data to send to the server
+	 * @param actionUrl URL for the connection
+	 * @param exchange State of the request
+	 * @param body Body of the request
 	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
 	 * @throws IOException  When data can't be retrieved, this exception is thrown
 	 */
-	private void executeConnection(HttpURLConnection conn, byte[] postDataBytes, HttpConnectionType type) throws IOException {
+	private void executeConnection(HttpURLConnection conn, URL actionUrl, Exchange exchange, HttpRequestBody body, HttpConnectionType type) 
+	throws IOException {
 		// Setup the connection parameters
-		initConnection(conn, postDataBytes, type);
+		initConnection(conn, actionUrl, exchange, body, type);
 
-		// connect and retrieve data
-		conn.connect();
-		responseCode = conn.getResponseCode();
+		// connect, send the body and retrieve data
+		connect(conn, actionUrl, exchange.metrics);
+		if (HttpConnectionType.POST.equals(type) || HttpConnectionType.PUT.equals(type)) {
+			OutputStream conOut = conn.getOutputStream();
+			if (exchange.metrics != null) conOut = new HttpRequestMetrics.CountingOutputStream(conOut, exchange.metrics);
+			try (DataOutputStream out = new DataOutputStream(conOut)) {
+				body.writeTo(out);
+			}
+		}
+		
+		int code = conn.getResponseCode();
+		if (exchange.metrics != null) {
+			exchange.metrics.headersReceived();
+			
+			// Redirects followed by the connection itself are only seen through its url
+			if (! conn.getURL().toExternalForm().equals(actionUrl.toExternalForm())) exchange.metrics.redirected();
+		}
 
 		//Parse header information
-		storeCookies(conn);
+		Map<String, List<String>> headers = readHeaders(conn);
+		exchange.receive(actionUrl, code, headers);
+		handleCookies(exchange, actionUrl, headers);
 	}
 	
 	/**
 	 * Initializes the Connection parameters
 	 * @param conn Connecton to the server to be initialized
-	 * @param postData Data to post to the end server
+	 * @param actionUrl URL for the connection
+	 * @param exchange State of the request
+	 * @param body Body of the request
 	 * @param type Request Type.  One of GET, POST, HEAD, OPTIONS, PUT, DELETE, TRACE.
 	 * @throws IOException  When data can't be retrieved, this exception is thrown
 	 */
-	private void initConnection(HttpURLConnection conn, byte[] postDataBytes, HttpConnectionType type) 
+	private void initConnection(HttpURLConnection conn, URL actionUrl, Exchange exchange, HttpRequestBody body, HttpConnectionType type) 
 	throws IOException {
 		// set additional common connection properties
 		conn.setDoOutput(true);
-		conn.setReadTimeout(connectionTimeout > 0 ? connectionTimeout : DEFAULT_SOCKET_TIMEOUT);
-		conn.setConnectTimeout(connectionTimeout > 0 ? connectionTimeout : DEFAULT_SOCKET_TIMEOUT);
+		conn.setReadTimeout(getReadTimeoutMs());
+		conn.setConnectTimeout(getConnectTimeoutMs());
 		conn.setUseCaches (false);
 		conn.setAllowUserInteraction(false);
-		HttpURLConnection.setFollowRedirects(followRedirects);
 		conn.setInstanceFollowRedirects(followRedirects);
 		conn.setDoInput(true);
 
 		// Add any request headers to the connection
-		setRequestHeaders(conn);
+		for (Map.Entry<String, String> entry: exchange.requestHeaders.entrySet())
+			conn.setRequestProperty(entry.getKey(), entry.getValue());
 
 		// Add any cookies to the mix
-		assignCookies(conn);
+		String cookieHeader = buildCookieHeader(exchange, actionUrl);
+		if (cookieHeader != null) conn.addRequestProperty(COOKIE_NAME, cookieHeader);
 
 		// Define the request type
 		conn.setRequestMethod(type.toString());
 
 		if (HttpConnectionType.POST.equals(type) || HttpConnectionType.PUT.equals(type)) {
-			if (! requestHeaders.containsKey(REQUEST_PROPERTY_CONTENT_TYPE))
-				conn.setRequestProperty(REQUEST_PROPERTY_CONTENT_TYPE,"application/x-www-form-urlencoded");
+			if (! exchange.requestHeaders.containsKey(REQUEST_PROPERTY_CONTENT_TYPE))
+				conn.setRequestProperty(REQUEST_PROPERTY_CONTENT_TYPE, getContentType(body));
 			
-			conn.setRequestProperty(REQUEST_PROPERTY_CONTENT_LENGTH, Integer.toString(postDataBytes.length));
-			try (DataOutputStream out = new DataOutputStream(conn.getOutputStream())) {
-				out.write(postDataBytes);
+			if (body.getContentEncoding() != null) conn.setRequestProperty(HttpHeaders.CONTENT_ENCODING, body.getContentEncoding());
+			if (body.isBuffered()) {
+				conn.setRequestProperty(REQUEST_PROPERTY_CONTENT_LENGTH, Long.toString(body.getContentLength()));
+			} else {
+				// Stream the body to the server instead of buffering it in the 
+				// connection.  Streamed requests can't follow redirects on their own
+				long length = body.getContentLength();
+				if (length >= 0) conn.setFixedLengthStreamingMode(length);
+				else conn.setChunkedStreamingMode(STREAM_BUFFER_SIZE);
+				conn.setInstanceFollowRedirects(false);
 			}
 		}
 	}
 	
 	/**
-	 * Parses the returned Set-Cookie parameter in the header into name value
-	 * pairs and stores them in a hash map to be used during future connections.
-	 * @param conn Connection to the server to retrieve / assign cookies
+	 * Opens the connection.  When the request is measured, the DNS lookup, the 
+	 * connect and the TLS handshake are timed separately.  The lookup uses the 
+	 * same address cache as the connection, so it is only slow when the 
+	 * connection would have been
+	 * @param conn Connection to the server
+	 * @param actionUrl URL for the connection
+	 * @param metrics Metrics of the request.  Null when the request is not measured
+	 * @throws IOException When the host can't be resolved or reached
 	 */
-	void storeCookies(HttpURLConnection conn) {
+	private void connect(HttpURLConnection conn, URL actionUrl, HttpRequestMetrics metrics) throws IOException {
+		if (metrics == null) {
+			conn.connect();
+			return;
+		}
+		
+		metrics.connectionOpened();
+		long start = System.nanoTime();
+		InetAddress.getAllByName(actionUrl.getHost());
+		long resolved = System.nanoTime();
+		metrics.addDnsTime(resolved - start);
+		
+		TimedSSLSocketFactory.begin();
+		try {
+			conn.connect();
+		} finally {
+			long connected = System.nanoTime();
+			long handshake = TimedSSLSocketFactory.end();
+			if (handshake < 0) {
+				metrics.addConnectTime(connected - resolved);
+			} else {
+				metrics.addConnectTime(handshake - resolved);
+				metrics.addTlsTime(connected - handshake);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the content type sent when the Content-Type header is not assigned
+	 * @param body Body of the request
+	 * @return Content type of the body, or form encoding when the body has none
+	 */
+	private static String getContentType(HttpRequestBody body) {
+		return body.getContentType() == null ? "application/x-www-form-urlencoded" : body.getContentType();
+	}
+	
+	/**
+	 * Reads the response headers from the connection.  The status line is stored
+	 * under the null key, the same as HttpURLConnection.getHeaderFields()
+	 * @param conn Connection to the server
+	 * @return Map of the header names and values
+	 */
+	Map<String, List<String>> readHeaders(HttpURLConnection conn) {
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		
 		//Loop all of the HTTP header info
 		int c = 0;
 		while (conn.getHeaderField(c) != null) {
-			// Store each header param in the headerMap collection
 			String key = conn.getHeaderFieldKey(c);
-			String value = StringUtil.defaultString(conn.getHeaderField(c));
-			headerMap.put(key, value);
-			
-			// Find the Set-Cookie parameters
-			if (COOKIE_HEADER_NAME.equalsIgnoreCase(key)) {
-				// Parse out the data
-				int length = value.indexOf(COOKIE_DELIMITER);
-				if (length < 0) length = value.length();
-				value = value.substring(0, length);
-
-				// Parse out the name/value pairs
-				int sepVal = value.indexOf(COOKIE_VALUE_DELIMITER);
-				if (sepVal > -1) {
-					String valueKey = value.substring(0,sepVal);
-					String valueVal = value.substring(sepVal + 1, value.length());
-					addCookie(valueKey, valueVal);
-				}
-			}
-
+			headers.computeIfAbsent(key, k -> new ArrayList<>()).add(StringUtil.defaultString(conn.getHeaderField(c)));
 			c++;
 		}
+		
+		return headers;
+	}
+	
+	/**
+	 * Parses the returned Set-Cookie parameter in the header into name value
+	 * pairs and stores them in a hash map to be used during future connections.
+	 * @param conn Connection to the server to retrieve / assign cookies
+	 */
+	void storeCookies(HttpURLConnection conn) {
+		storeCookies(readHeaders(conn));
+	}
+	
+	/**
+	 * Stores the response headers and cookies on the manager
+	 * @param headers Response headers.  When a header has multiple values, the
+	 * last value is stored in the header map
+	 */
+	void storeCookies(Map<String, List<String>> headers) {
+		storeHeaders(headers);
+		for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+			if (! COOKIE_HEADER_NAME.equalsIgnoreCase(entry.getKey())) continue;
+			for (String value : entry.getValue()) parseCookie(StringUtil.defaultString(value), cookies);
+		}
+	}
+
+	/**
+	 * Stores the response headers on the manager's header map
+	 * @param headers Response headers.  When a header has multiple values, the
+	 * last value is stored in the header map
+	 */
+	private void storeHeaders(Map<String, List<String>> headers) {
+		// Build a new map so readers of the header map never see a partial update
+		Map<String, String> values = new LinkedHashMap<>(headerMap);
+		for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+			for (String value : entry.getValue()) values.put(entry.getKey(), StringUtil.defaultString(value));
+		}
 
 		// Add the Response Code
-		headerMap.put(RESPONSE_CODE, Integer.toString(responseCode));
+		values.put(RESPONSE_CODE, Integer.toString(responseCode));
+		headerMap = values;
+	}
+
+	/**
+	 * Copies the response of a request onto the manager's response fields
+	 * (responseCode, headerMap) for callers of getRequestData and
+	 * getConnectionStream.  The cookies received are not added to the manager's
+	 * cookies, which are sent to every host.  The request kept them in the
+	 * cookie handler, scoped to their domain
+	 * @param exchange State of the request
+	 */
+	private void storeResponse(Exchange exchange) {
+		responseCode = exchange.responseCode;
+		storeHeaders(exchange.responseHeaders);
+	}
+	
+	/**
+	 * Parses the name/value pair from a Set-Cookie header value and adds it
+	 * to the cookie map
+	 * @param value Value of the Set-Cookie header
+	 * @param target Map the cookie is added to
+	 */
+	static void parseCookie(String value, Map<String, String> target) {
+		// Parse out the data
+		int length = value.indexOf(COOKIE_DELIMITER);
+		if (length < 0) length = value.length();
+		value = value.substring(0, length);
+
+		// Parse out the name/value pairs
+		int sepVal = value.indexOf(COOKIE_VALUE_DELIMITER);
+		if (sepVal > -1) {
+			String valueKey = value.substring(0,sepVal);
+			String valueVal = value.substring(sepVal + 1, value.length());
+			if (! valueKey.isEmpty()) target.put(valueKey, valueVal);
+		}
+	}
+	
+	/**
+	 * Creates the state of a request.  Requests of getRequestData and
+	 * getConnectionStream send the manager's cookies and keep the cookies they
+	 * receive in the cookie handler, which only sends them back to their domain.
+	 * Other requests only use the cookie handler when it is enabled
+	 * @param headers Headers to send on the request
+	 * @param metrics Metrics of the request.  Null when the request is not measured
+	 * @param session True when the request uses the manager's cookies
+	 * @return State of the request
+	 */
+	private Exchange newExchange(Map<String, String> headers, HttpRequestMetrics metrics, boolean session) {
+		return new Exchange(headers, session ? cookies : Collections.emptyMap(), metrics, session || useCookieHandler);
+	}
+
+	/**
+	 * Builds the Cookie header for the request from the cookies of the request
+	 * and, when the request uses it, the cookies stored in the manager's cookie
+	 * handler for the url
+	 * @param exchange State of the request
+	 * @param url Url being called
+	 * @return Value of the Cookie header.  Null when there are no cookies
+	 * @throws IOException When the cookie handler can't be read
+	 */
+	private String buildCookieHeader(Exchange exchange, URL url) throws IOException {
+		String cookieHeader = formatCookies(exchange.cookies);
+		URI uri = exchange.handled ? toURI(url) : null;
+		if (uri == null) return cookieHeader;
+		
+		List<String> stored = cookieHandler.get(uri, Collections.emptyMap()).get(COOKIE_NAME);
+		if (stored == null || stored.isEmpty()) return cookieHeader;
+		
+		String handlerCookies = String.join("; ", stored);
+		return cookieHeader == null ? handlerCookies : cookieHeader + " " + handlerCookies;
+	}
+	
+	/**
+	 * Stores the response cookies in the manager's cookie handler when the
+	 * request uses it
+	 * @param exchange State of the request
+	 * @param url Url that was called
+	 * @param headers Response headers
+	 * @throws IOException When the cookies can't be stored
+	 */
+	private void handleCookies(Exchange exchange, URL url, Map<String, List<String>> headers) throws IOException {
+		URI uri = exchange.handled ? toURI(url) : null;
+		if (uri != null && headers != null) cookieHandler.put(uri, headers);
+	}
+	
+	/**
+	 * Converts the url to a uri for the cookie handler
+	 * @param url Url to convert
+	 * @return URI of the url.  Null if it can't be converted
+	 */
+	private static URI toURI(URL url) {
+		try {
+			return url == null ? null : url.toURI();
+		} catch (URISyntaxException e) {
+			return null;
+		}
 	}
 	
 	/**
@@ -500,6 +1746,294 @@ public class SMTHttpConnectionManager {
 	public int getConnectionTimeout() {
 		return connectionTimeout;
 	}
+	
+	/**
+	 * Returns the timeout applied to the connection.  Uses the default timeout
+	 * when one has not been assigned
+	 * @return Timeout in ms
+	 */
+	private int getTimeout() {
+		return connectionTimeout > 0 ? connectionTimeout : DEFAULT_SOCKET_TIMEOUT;
+	}
+	
+	/**
+	 * Returns the time allowed to open a connection.  Uses the connection timeout
+	 * when one has not been assigned
+	 * @return Timeout in ms
+	 */
+	private int getConnectTimeoutMs() {
+		return connectTimeout > 0 ? connectTimeout : getTimeout();
+	}
+	
+	/**
+	 * Returns the time allowed to wait on the server for data.  Uses the 
+	 * connection timeout when one has not been assigned
+	 * @return Timeout in ms
+	 */
+	private int getReadTimeoutMs() {
+		return readTimeout > 0 ? readTimeout : getTimeout();
+	}
+	
+	/**
+	 * Gets the connect timeout
+	 * @return the connectTimeout.  0 when the connection timeout is used
+	 */
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * Sets the time in ms allowed to open a connection, separately from the read 
+	 * timeout.  Pooled requests use the connect timeout of the HttpPoolConfig,
+	 * since the pooled connections are shared
+	 * @param connectTimeout the connectTimeout to set.  0 uses the connection timeout
+	 */
+	public void setConnectTimeout(int connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	/**
+	 * Gets the read timeout
+	 * @return the readTimeout.  0 when the connection timeout is used
+	 */
+	public int getReadTimeout() {
+		return readTimeout;
+	}
+
+	/**
+	 * Sets the time in ms allowed to wait on the server for data
+	 * @param readTimeout the readTimeout to set.  0 uses the connection timeout
+	 */
+	public void setReadTimeout(int readTimeout) {
+		this.readTimeout = readTimeout;
+	}
+	
+	/**
+	 * Returns the resilience policy
+	 * @return the resiliencePolicy.  Null when requests are sent once, without limits
+	 */
+	public HttpResiliencePolicy getResiliencePolicy() {
+		return resiliencePolicy;
+	}
+
+	/**
+	 * Assigns the retry, circuit breaker and concurrency policy.  The policy may be
+	 * shared by many managers so the limits apply across them
+	 * @param resiliencePolicy the resiliencePolicy to set.  Null removes the policy
+	 */
+	public void setResiliencePolicy(HttpResiliencePolicy resiliencePolicy) {
+		this.resiliencePolicy = resiliencePolicy;
+	}
+	
+	/**
+	 * Creates the resilience policy from the configuration.  Called by Spring 
+	 * when an HttpResilienceConfig bean is available
+	 * @param resilienceConfig Retry, circuit breaker and concurrency settings
+	 */
+	@Autowired(required = false)
+	public void setResilienceConfig(HttpResilienceConfig resilienceConfig) {
+		if (resilienceConfig == null || ! resilienceConfig.isEnabled()) resiliencePolicy = null;
+		else resiliencePolicy = new HttpResiliencePolicy(resilienceConfig);
+	}
+	
+	/**
+	 * Returns the pooled engine
+	 * @return the pooledEngine.  Null when each request opens its own connection
+	 */
+	public PooledHttpEngine getPooledEngine() {
+		return pooledEngine;
+	}
+
+	/**
+	 * Assigns the pooled engine.  Pass null to open a new connection for each request
+	 * @param pooledEngine the pooledEngine to set
+	 */
+	public void setPooledEngine(PooledHttpEngine pooledEngine) {
+		this.pooledEngine = pooledEngine;
+	}
+	
+	/**
+	 * Returns the maximum size of a response body
+	 * @return the maxResponseSize.  0 when the size is not limited
+	 */
+	public long getMaxResponseSize() {
+		return maxResponseSize;
+	}
+
+	/**
+	 * Limits the size of the response bodies.  When a response exceeds the limit,
+	 * reading it throws an IOException, so a single large response can't exhaust
+	 * the heap.  Applies to all of the request methods and sinks
+	 * @param maxResponseSize the maxResponseSize to set in bytes.  0 or less 
+	 * removes the limit
+	 */
+	public void setMaxResponseSize(long maxResponseSize) {
+		this.maxResponseSize = maxResponseSize;
+	}
+	
+	/**
+	 * Returns the executor used by the asynchronous requests that are not sent 
+	 * over the pooled engine
+	 * @return the asyncExecutor.  The shared default executor when one has not been assigned
+	 */
+	public Executor getAsyncExecutor() {
+		Executor executor = asyncExecutor;
+		return executor == null ? DEFAULT_ASYNC_EXECUTOR : executor;
+	}
+
+	/**
+	 * Assigns the executor used by the asynchronous requests that are not sent
+	 * over the pooled engine.  Any executor may be used, including a virtual thread 
+	 * executor (Executors.newVirtualThreadPerTaskExecutor()) on JDK 21+.  The 
+	 * executor of the pooled engine is set on the PooledHttpEngine
+	 * @param asyncExecutor the asyncExecutor to set.  Null restores the default
+	 */
+	public void setAsyncExecutor(Executor asyncExecutor) {
+		this.asyncExecutor = asyncExecutor;
+	}
+	
+	/**
+	 * Returns the response cache
+	 * @return the responseCache.  Null when responses are not cached
+	 */
+	public HttpResponseCache getResponseCache() {
+		return responseCache;
+	}
+	
+	/**
+	 * Assigns the response cache.  The cache may be shared by many managers
+	 * @param responseCache Response cache.  Null turns the caching off
+	 */
+	public void setResponseCache(HttpResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+	
+	/**
+	 * Creates the response cache from the cache configuration.  Called by Spring
+	 * when an HttpCacheConfig bean is available.  Caching is only turned on when
+	 * the configuration is enabled
+	 * @param cacheConfig Cache configuration
+	 */
+	@Autowired(required = false)
+	public void setCacheConfig(HttpCacheConfig cacheConfig) {
+		if (cacheConfig == null || ! cacheConfig.isEnabled()) responseCache = null;
+		else responseCache = new HttpResponseCache(cacheConfig);
+	}
+	
+	/**
+	 * Returns the compression of the transfers
+	 * @return the compression.  Null when the transfers are not compressed
+	 */
+	public HttpCompression getCompression() {
+		return compression;
+	}
+	
+	/**
+	 * Assigns the compression of the transfers.  Accept-Encoding is sent on each
+	 * request, unless the caller assigned it, and the responses are decoded as 
+	 * they are read
+	 * @param compression Compression of the transfers.  Null turns it off
+	 */
+	public void setCompression(HttpCompression compression) {
+		this.compression = compression;
+	}
+	
+	/**
+	 * Creates the compression from the compression configuration.  Called by 
+	 * Spring when an HttpCompressionConfig bean is available.  Compression is 
+	 * only turned on when the configuration is enabled
+	 * @param compressionConfig Compression configuration
+	 */
+	@Autowired(required = false)
+	public void setCompressionConfig(HttpCompressionConfig compressionConfig) {
+		if (compressionConfig == null || ! compressionConfig.isEnabled()) compression = null;
+		else compression = new HttpCompression(compressionConfig);
+	}
+	
+	/**
+	 * Adds a listener notified of the start, timings and outcome of each request
+	 * @param listener Listener to add
+	 */
+	public void addRequestListener(HttpRequestListener listener) {
+		if (listener != null) listeners.add(listener);
+	}
+	
+	/**
+	 * Removes a request listener
+	 * @param listener Listener to remove
+	 * @return true if the listener was assigned
+	 */
+	public boolean removeRequestListener(HttpRequestListener listener) {
+		return listeners.remove(listener);
+	}
+	
+	/**
+	 * Returns the request listeners
+	 * @return Unmodifiable list of the listeners
+	 */
+	public List<HttpRequestListener> getRequestListeners() {
+		return Collections.unmodifiableList(listeners);
+	}
+	
+	/**
+	 * Replaces the request listeners.  Called by Spring with the HttpRequestListener
+	 * beans, such as the HttpMetricsBinder
+	 * @param requestListeners Listeners to assign.  Null removes the listeners
+	 */
+	@Autowired(required = false)
+	public void setRequestListeners(List<HttpRequestListener> requestListeners) {
+		listeners.clear();
+		if (requestListeners != null) requestListeners.forEach(this::addRequestListener);
+	}
+	
+	/**
+	 * Notifies the listeners a request is starting
+	 * @param metrics Metrics of the request
+	 * @return Headers of the request, including those added by the listeners
+	 */
+	private Map<String, String> notifyStarted(HttpRequestMetrics metrics) {
+		Map<String, String> headers = snapshot(requestHeaders);
+		for (HttpRequestListener listener : listeners) {
+			try {
+				listener.requestStarted(metrics, headers);
+			} catch (RuntimeException e) {
+				log.warn("Request listener failed", e);
+			}
+		}
+		
+		return headers;
+	}
+	
+	/**
+	 * Stops the timing of a request and notifies the listeners of the outcome.  
+	 * Only the first call for a request has an effect
+	 * @param metrics Metrics of the request
+	 * @param error Cause of the failure.  Null when the request completed
+	 */
+	private void notifyFinished(HttpRequestMetrics metrics, Throwable error) {
+		if (! metrics.finish()) return;
+		
+		for (HttpRequestListener listener : listeners) {
+			try {
+				if (error == null) listener.requestCompleted(metrics);
+				else listener.requestFailed(metrics, error);
+			} catch (RuntimeException e) {
+				log.warn("Request listener failed", e);
+			}
+		}
+	}
+	
+	/**
+	 * Creates the pooled engine from the pool configuration.  Called by Spring 
+	 * when an HttpPoolConfig bean is available so the managed instance uses 
+	 * pooled connections without any changes to the callers
+	 * @param poolConfig Pool configuration
+	 */
+	@Autowired(required = false)
+	public void setPoolConfig(HttpPoolConfig poolConfig) {
+		if (poolConfig == null || ! poolConfig.isEnabled()) pooledEngine = null;
+		else pooledEngine = new PooledHttpEngine(poolConfig);
+	}
 
 	/**
 	 * Determines if this class will follow redirects
@@ -510,7 +2044,8 @@ public class SMTHttpConnectionManager {
 	}
 
 	/**
-	 * Gets the request headers
+	 * Gets the request headers.  The map is synchronized, so iterating it 
+	 * requires holding its lock
 	 * @return the requestHeaders
 	 */
 	public Map<String, String> getRequestHeaders() {
@@ -526,7 +2061,9 @@ public class SMTHttpConnectionManager {
 	}
 
 	/**
-	 * Gets the cookies
+	 * Gets the cookies sent by getRequestData and getConnectionStream, in the 
+	 * order they were added.  Cookies received are not added to this map.  The 
+	 * map is synchronized, so iterating it requires holding its lock
 	 * @return the cookies
 	 */
 	public Map<String, String> getCookies() {
@@ -574,12 +2111,45 @@ public class SMTHttpConnectionManager {
 	}
 
 	/**
-	 * Sets request headers for the connection
+	 * Sets request headers for the connection.  The values are copied into the
+	 * manager
 	 * @param requestHeaders the requestHeaders to set
 	 */
 	public void setRequestHeaders(Map<String, String> requestHeaders) {
 		if (requestHeaders == null) this.requestHeaders.clear();
-		else this.requestHeaders = requestHeaders;
+		else this.requestHeaders = copyOf(requestHeaders);
+	}
+	
+	/**
+	 * Creates a map that can be read and updated by many threads and keeps the
+	 * insertion order, so the cookies are sent in the order they were added
+	 * @return Synchronized map
+	 */
+	private static Map<String, String> createMap() {
+		return Collections.synchronizedMap(new LinkedHashMap<>());
+	}
+	
+	/**
+	 * Copies the map into a map that can be read and updated by many threads
+	 * @param source Map to copy
+	 * @return Copy of the map, in the same order
+	 */
+	private static Map<String, String> copyOf(Map<String, String> source) {
+		Map<String, String> copy = createMap();
+		copy.putAll(snapshot(source));
+		return copy;
+	}
+	
+	/**
+	 * Copies a map while holding its lock, so a synchronized map can be copied
+	 * while other threads update it
+	 * @param source Map to copy
+	 * @return Copy of the map, in the same order
+	 */
+	static Map<String, String> snapshot(Map<String, String> source) {
+		synchronized (source) {
+			return new LinkedHashMap<>(source);
+		}
 	}
 	
 	/**
@@ -588,7 +2158,7 @@ public class SMTHttpConnectionManager {
 	 */
 	protected void setRequestHeaders(HttpURLConnection conn) {
 		if (requestHeaders.isEmpty()) return;
-		for (Map.Entry<String, String> entry: requestHeaders.entrySet())
+		for (Map.Entry<String, String> entry: snapshot(requestHeaders).entrySet())
 			conn.setRequestProperty(entry.getKey(), entry.getValue());
 	}
 	
@@ -611,12 +2181,12 @@ public class SMTHttpConnectionManager {
 	}
 
 	/**
-	 * Map containing multiple cookies to add
+	 * Map containing multiple cookies to add.  The values are copied into the manager
 	 * @param cookies the cookies to set
 	 */
 	public void setCookies(Map<String, String> cookies) {
 		if (cookies == null) this.cookies.clear(); 
-		else this.cookies = cookies;
+		else this.cookies = copyOf(cookies);
 	}
 	
 	/**
@@ -628,12 +2198,22 @@ public class SMTHttpConnectionManager {
 	 */
 	void assignCookies(HttpURLConnection conn) {
 		if (cookies.isEmpty() || conn == null) return;
+		conn.addRequestProperty(COOKIE_NAME, formatCookies(snapshot(cookies)));
+	}
+	
+	/**
+	 * Formats the cookies into the Cookie header value: name=value;name=value;
+	 * @param cookies Cookies to format
+	 * @return Formatted cookie header.  Null if there are no cookies
+	 */
+	static String formatCookies(Map<String, String> cookies) {
+		if (cookies.isEmpty()) return null;
 		StringBuilder sb = new StringBuilder(250);
 
 		for (Map.Entry<String, String> entry: cookies.entrySet())
 			sb.append(entry.getKey()).append(COOKIE_VALUE_DELIMITER).append(entry.getValue()).append(COOKIE_DELIMITER);
 
-		conn.addRequestProperty(COOKIE_NAME, sb.toString());
+		return sb.toString();
 	}
 
 	/**
@@ -641,8 +2221,8 @@ public class SMTHttpConnectionManager {
 	 * @param headerMap the headerMap to set
 	 */
 	public void setHeaderMap(Map<String, String> headerMap) {
-		if (headerMap == null) this.headerMap.clear(); 
-		else this.headerMap = headerMap;
+		if (headerMap == null) this.headerMap = new LinkedHashMap<>(); 
+		else this.headerMap = new LinkedHashMap<>(headerMap);
 	}
 
 	/**
@@ -660,4 +2240,187 @@ public class SMTHttpConnectionManager {
 	public void setUseCookieHandler(boolean useCookieHandler) {
 		this.useCookieHandler = useCookieHandler;
 	}
+	
+	/**
+	 * State of a single request.  The request headers and cookies are copied from
+	 * the manager when the request starts, so concurrent requests never share data
+	 */
+	static class Exchange {
+		final Map<String, String> requestHeaders;
+		final Map<String, String> cookies;
+		final Map<String, String> receivedCookies = new LinkedHashMap<>();
+		final HttpRequestMetrics metrics;
+		final boolean handled;
+		Map<String, List<String>> responseHeaders = new LinkedHashMap<>();
+		URL url;
+		int responseCode;
+		InputStream stream;
+		
+		/**
+		 * Creates the request state
+		 * @param requestHeaders Headers to send on the request
+		 * @param cookies Cookies to send on the request
+		 * @param metrics Metrics of the request.  Null when the request is not measured
+		 * @param handled True when the cookies received are kept in the cookie
+		 * handler, which sends them on any redirect to their domain
+		 */
+		Exchange(Map<String, String> requestHeaders, Map<String, String> cookies, HttpRequestMetrics metrics, boolean handled) {
+			this.requestHeaders = snapshot(requestHeaders);
+			this.cookies = snapshot(cookies);
+			this.metrics = metrics;
+			this.handled = handled;
+		}
+		
+		/**
+		 * Stores the response of a request.  Cookies set by the server are sent
+		 * on any redirect that follows, through the cookie handler when the
+		 * request uses it
+		 * @param url Url that was called
+		 * @param responseCode HTTP response code
+		 * @param headers Response headers
+		 */
+		void receive(URL url, int responseCode, Map<String, List<String>> headers) {
+			this.url = url;
+			this.responseCode = responseCode;
+			this.responseHeaders = headers;
+			if (metrics != null) metrics.setResponseCode(responseCode);
+			
+			for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+				if (! COOKIE_HEADER_NAME.equalsIgnoreCase(entry.getKey())) continue;
+				for (String value : entry.getValue()) {
+					parseCookie(StringUtil.defaultString(value), receivedCookies);
+					if (! handled) parseCookie(StringUtil.defaultString(value), cookies);
+				}
+			}
+		}
+		
+		/**
+		 * Returns the value of the Content-Length response header
+		 * @return Length of the body.  -1 when the length was not sent
+		 */
+		long getContentLength() {
+			String length = getHeader(REQUEST_PROPERTY_CONTENT_LENGTH);
+			if (length == null) return -1;
+			
+			try {
+				return Long.parseLong(length.trim());
+			} catch (NumberFormatException e) {
+				return -1;
+			}
+		}
+		
+		/**
+		 * Returns the first value of a response header.  Names are not case sensitive
+		 * @param name Header name
+		 * @return Value of the header.  Null when the header was not sent
+		 */
+		String getHeader(String name) {
+			for (Map.Entry<String, List<String>> entry : responseHeaders.entrySet()) {
+				if (name.equalsIgnoreCase(entry.getKey()) && ! entry.getValue().isEmpty()) return entry.getValue().get(0);
+			}
+			
+			return null;
+		}
+		
+		/**
+		 * Creates the response for the request
+		 * @param data Response body
+		 * @return Response of the request
+		 */
+		HttpResponseVO toResponse(byte[] data) {
+			return new HttpResponseVO(url, responseCode, responseHeaders, receivedCookies, data);
+		}
+		
+		/**
+		 * Creates the response for a request whose body was streamed to a sink
+		 * @param data Response body.  Null when the body was streamed
+		 * @param size Number of bytes received
+		 * @return Response of the request
+		 */
+		HttpResponseVO toResponse(byte[] data, long size) {
+			return new HttpResponseVO(url, responseCode, responseHeaders, receivedCookies, data, size);
+		}
+	}
+	
+	/**
+	 * Receives the response stream of a request
+	 */
+	interface ResponseSink {
+		
+		/**
+		 * Copies the response stream to its destination
+		 * @param in Response stream
+		 * @return Number of bytes copied
+		 * @throws IOException When the data can't be read or written
+		 */
+		long transfer(InputStream in) throws IOException;
+	}
+	
+	/**
+	 * Throws an IOException once more than the maximum number of bytes are read
+	 */
+	static class BoundedInputStream extends FilterInputStream {
+		private final long maxSize;
+		private long count;
+		
+		/**
+		 * Wraps the stream
+		 * @param in Response stream
+		 * @param maxSize Maximum number of bytes that may be read
+		 */
+		BoundedInputStream(InputStream in, long maxSize) {
+			super(in);
+			this.maxSize = maxSize;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.FilterInputStream#read()
+		 */
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) count(1);
+			return b;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.FilterInputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) count(n);
+			return n;
+		}
+		
+		/**
+		 * Adds the bytes read to the count
+		 * @param n Number of bytes read
+		 * @throws IOException When the maximum size is exceeded
+		 */
+		private void count(int n) throws IOException {
+			count += n;
+			if (count > maxSize) throw new HttpRejectedException(getMaxSizeMessage(maxSize));
+		}
+	}
+	
+	/**
+	 * Creates the daemon threads of the default async executor
+	 */
+	static class AsyncThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+		 */
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "smt-http-async-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
 }
@@ -0,0 +1,130 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import javax.net.ssl.SSLSocketFactory;
+
+/****************************************************************************
+ * <b>Title</b>: TimedSSLSocketFactory.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Splits the connect time of an HttpsURLConnection into the
+ * TCP connect and the TLS handshake.  Unconnected sockets are not supported, so
+ * the connection opens a plain socket and layers TLS over it once it is
+ * connected.  The time of that call, on the thread running the connection,
+ * marks the start of the handshake.  The same instance must be used for every
+ * request, as the keep-alive cache of the connections is keyed by the factory
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class TimedSSLSocketFactory extends SSLSocketFactory {
+
+	// Members
+	private static final ThreadLocal<long[]> handshakeStart = new ThreadLocal<>();
+	private final SSLSocketFactory delegate;
+
+	/**
+	 * Wraps the factory
+	 * @param delegate Factory creating the secure sockets
+	 */
+	TimedSSLSocketFactory(SSLSocketFactory delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Starts watching for a handshake on the calling thread
+	 */
+	static void begin() {
+		handshakeStart.set(new long[] { -1 });
+	}
+
+	/**
+	 * Stops watching for a handshake on the calling thread
+	 * @return Time in nanoseconds the handshake started.  -1 when no handshake
+	 * was started, as the connection was reused
+	 */
+	static long end() {
+		long[] start = handshakeStart.get();
+		handshakeStart.remove();
+		return start == null ? -1 : start[0];
+	}
+
+	/**
+	 * Returns the wrapped factory
+	 * @return the delegate
+	 */
+	SSLSocketFactory getDelegate() {
+		return delegate;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.net.ssl.SSLSocketFactory#createSocket(java.net.Socket, java.lang.String, int, boolean)
+	 */
+	@Override
+	public Socket createSocket(Socket s, String host, int port, boolean autoClose) throws IOException {
+		long[] start = handshakeStart.get();
+		if (start != null) start[0] = System.nanoTime();
+		return delegate.createSocket(s, host, port, autoClose);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.net.SocketFactory#createSocket(java.lang.String, int)
+	 */
+	@Override
+	public Socket createSocket(String host, int port) throws IOException {
+		return delegate.createSocket(host, port);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.net.SocketFactory#createSocket(java.lang.String, int, java.net.InetAddress, int)
+	 */
+	@Override
+	public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+		return delegate.createSocket(host, port, localHost, localPort);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.net.SocketFactory#createSocket(java.net.InetAddress, int)
+	 */
+	@Override
+	public Socket createSocket(InetAddress host, int port) throws IOException {
+		return delegate.createSocket(host, port);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.net.SocketFactory#createSocket(java.net.InetAddress, int, java.net.InetAddress, int)
+	 */
+	@Override
+	public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+		return delegate.createSocket(address, port, localAddress, localPort);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.net.ssl.SSLSocketFactory#getDefaultCipherSuites()
+	 */
+	@Override
+	public String[] getDefaultCipherSuites() {
+		return delegate.getDefaultCipherSuites();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.net.ssl.SSLSocketFactory#getSupportedCipherSuites()
+	 */
+	@Override
+	public String[] getSupportedCipherSuites() {
+		return delegate.getSupportedCipherSuites();
+	}
+}
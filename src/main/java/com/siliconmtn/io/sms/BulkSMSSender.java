@@ -7,6 +7,7 @@ import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.siliconmtn.io.http.HttpResponseVO;
 import com.siliconmtn.io.http.SMTHttpConnectionManager;
 import com.siliconmtn.io.http.SMTHttpConnectionManager.HttpConnectionType;
 import com.siliconmtn.io.mail.SMSMessageVO;
@@ -37,9 +38,10 @@ public class BulkSMSSender extends SMSSender {
 			smsParams.put(BulkSMSAttribute.message.name(), msg.getMessage());
 
 			try {
-				byte[] data = mgr.getRequestData(config.getSmsurl(), mgr.convertPostData(smsParams), HttpConnectionType.POST);
-				if(data != null) {
-					msg.setResult(new String(data));
+				// The manager is shared, so the response is read from the call itself
+				HttpResponseVO response = mgr.sendRequest(config.getSmsurl(), mgr.convertPostData(smsParams), HttpConnectionType.POST);
+				if(response != null && response.getData() != null) {
+					msg.setResult(new String(response.getData()));
 				}
 			} catch (IOException e) {
 				msg.setResult(e);
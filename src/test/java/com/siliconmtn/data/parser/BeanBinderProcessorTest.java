@@ -0,0 +1,239 @@
+package com.siliconmtn.data.parser;
+
+// JUnit 5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Space Libs 1.x
+import com.siliconmtn.data.format.DateFormat.DatePattern;
+
+/****************************************************************************
+ * <b>Title</b>: BeanBinderProcessorTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the binders generated by the BeanBinderProcessor
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class BeanBinderProcessorTest {
+
+	/**
+	 * Creates the request data bound by the tests
+	 * @param suffix Suffix of the parameter names
+	 * @return Request data
+	 */
+	private Map<String, String[]> data(String suffix) {
+		Map<String, String[]> data = new HashMap<>();
+		data.put("name" + suffix, new String[] { "James" });
+		data.put("age" + suffix, new String[] { "42" });
+		data.put("active" + suffix, new String[] { "true" });
+		data.put("amount" + suffix, new String[] { "12.50" });
+		data.put("startDate" + suffix, new String[] { "2021-01-15" });
+		data.put("pattern" + suffix, new String[] { "DATE_DASH" });
+		data.put("counts" + suffix, new String[] { "1", "2", "3" });
+		data.put("tags" + suffix, new String[] { "b", "a", "b" });
+		data.put("codes" + suffix, new String[] { "4", "5" });
+		data.put("aliases" + suffix, new String[] { "x,y" });
+		data.put("score" + suffix, new String[] { "abc" });
+		return data;
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.parser.BeanDataMapper#getBinder(java.lang.Class)}.
+	 */
+	@Test
+	void testGetBinder() {
+		BeanBinder<Object> binder = BeanDataMapper.getBinder(BinderBean.class);
+		assertNotNull(binder);
+		assertEquals(BinderBean.class.getName().replace('$', '_') + BeanBinderProcessor.BINDER_SUFFIX, binder.getClass().getName());
+		assertSame(binder, BeanDataMapper.getBinder(BinderBean.class));
+
+		// The annotation isn't inherited, so subclasses are bound through reflection
+		assertNull(BeanDataMapper.getBinder(ReflectedBean.class));
+		assertNull(BeanDataMapper.getBinder(TestDataBeanVO.class));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.parser.BeanDataMapper#parseBean(java.lang.Object, java.util.Map, java.lang.String)}.
+	 */
+	@Test
+	void testParseBean() {
+		BinderBean bean = new BinderBean();
+		BeanDataMapper.parseBean(bean, data("_1"), "_1");
+
+		assertEquals("James", bean.getName());
+		assertEquals(42, bean.getAge());
+		assertEquals(Boolean.TRUE, bean.getActive());
+		assertEquals(new BigDecimal("12.50"), bean.getAmount());
+		assertEquals(LocalDate.of(2021, 1, 15), bean.getStartDate());
+		assertEquals(DatePattern.DATE_DASH, bean.getPattern());
+		assertEquals(List.of(1, 2, 3), bean.getCounts());
+		assertEquals(List.of("b", "a"), List.copyOf(bean.getTags()));
+		assertArrayEquals(new int[] { 4, 5 }, bean.getCodes());
+		assertEquals(0, bean.getScore());
+	}
+
+	/**
+	 * Validates the generated binder binds like the reflection of parseBean
+	 */
+	@Test
+	void testReflectionParity() {
+		BinderBean generated = new BinderBean();
+		BeanDataMapper.parseBean(generated, data(""));
+		ReflectedBean reflected = new ReflectedBean();
+		BeanDataMapper.parseBean(reflected, data(""));
+
+		assertEquals(reflected.getName(), generated.getName());
+		assertEquals(reflected.getAge(), generated.getAge());
+		assertEquals(reflected.getActive(), generated.getActive());
+		assertEquals(reflected.getAmount(), generated.getAmount());
+		assertEquals(reflected.getStartDate(), generated.getStartDate());
+		assertEquals(reflected.getPattern(), generated.getPattern());
+		assertEquals(reflected.getCounts(), generated.getCounts());
+		assertEquals(reflected.getTags(), generated.getTags());
+		assertArrayEquals(reflected.getCodes(), generated.getCodes());
+		assertArrayEquals(reflected.getAliases(), generated.getAliases());
+		assertEquals(reflected.getScore(), generated.getScore());
+	}
+
+	/**
+	 * Validates missing parameters leave the members unchanged
+	 */
+	@Test
+	void testMissingData() {
+		BinderBean bean = new BinderBean();
+		bean.setName("Initial");
+		BeanDataMapper.parseBean(bean, Map.of("age", new String[] { "7" }));
+
+		assertEquals("Initial", bean.getName());
+		assertEquals(7, bean.getAge());
+		assertNull(bean.getCounts());
+	}
+
+	/**
+	 * Bean bound by its generated binder
+	 */
+	@GenerateBinder
+	public static class BinderBean extends BeanDataVO {
+		private static final long serialVersionUID = 1L;
+
+		private String name;
+		private int age;
+		private Boolean active;
+		private BigDecimal amount;
+		private LocalDate startDate;
+		private DatePattern pattern;
+		private List<Integer> counts;
+		private Set<String> tags;
+		private int[] codes;
+		private String[] aliases;
+		private long score;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public Boolean getActive() {
+			return active;
+		}
+
+		public void setActive(Boolean active) {
+			this.active = active;
+		}
+
+		public BigDecimal getAmount() {
+			return amount;
+		}
+
+		public void setAmount(BigDecimal amount) {
+			this.amount = amount;
+		}
+
+		public LocalDate getStartDate() {
+			return startDate;
+		}
+
+		public void setStartDate(LocalDate startDate) {
+			this.startDate = startDate;
+		}
+
+		public DatePattern getPattern() {
+			return pattern;
+		}
+
+		public void setPattern(DatePattern pattern) {
+			this.pattern = pattern;
+		}
+
+		public List<Integer> getCounts() {
+			return counts;
+		}
+
+		public void setCounts(List<Integer> counts) {
+			this.counts = counts;
+		}
+
+		public Set<String> getTags() {
+			return tags;
+		}
+
+		public void setTags(Set<String> tags) {
+			this.tags = tags;
+		}
+
+		public int[] getCodes() {
+			return codes;
+		}
+
+		public void setCodes(int[] codes) {
+			this.codes = codes;
+		}
+
+		public String[] getAliases() {
+			return aliases;
+		}
+
+		public void setAliases(String[] aliases) {
+			this.aliases = aliases;
+		}
+
+		public long getScore() {
+			return score;
+		}
+
+		public void setScore(long score) {
+			this.score = score;
+		}
+	}
+
+	/**
+	 * Same bean without the annotation, bound through reflection
+	 */
+	public static class ReflectedBean extends BinderBean {
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -0,0 +1,99 @@
+package com.siliconmtn.data.parser;
+
+// JUnit 5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Space Libs 1.x
+import com.siliconmtn.data.format.DateFormat.DatePattern;
+import com.siliconmtn.data.parser.BeanMetadata.PropertySetter;
+
+/****************************************************************************
+ * <b>Title</b>: BeanMetadataTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the cached setters of the bean classes
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class BeanMetadataTest {
+
+	/**
+	 * Maps the setters of a class by field name
+	 * @param type Class of the bean
+	 * @return Setters of the class
+	 */
+	private Map<String, PropertySetter> setters(Class<?> type) {
+		return BeanMetadata.forClass(type).getSetters().stream().collect(Collectors.toMap(PropertySetter::getFieldName, Function.identity(), (a, b) -> a));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.parser.BeanMetadata#forClass(java.lang.Class)}.
+	 */
+	@Test
+	void testForClass() {
+		BeanMetadata metadata = BeanMetadata.forClass(TestDataBeanVO.class);
+		assertSame(metadata, BeanMetadata.forClass(TestDataBeanVO.class));
+		assertThrows(UnsupportedOperationException.class, () -> metadata.getSetters().clear());
+
+		Map<String, PropertySetter> setters = setters(TestDataBeanVO.class);
+		assertEquals(int.class, setters.get("someNumber").getParameterType());
+		assertEquals(DatePattern.class, setters.get("datePattern").getParameterType());
+		assertTrue(setters.containsKey("arrNames"));
+		assertFalse(setters.containsKey("name_test"));
+
+		BeanMetadata.clear();
+		assertNotSame(metadata, BeanMetadata.forClass(TestDataBeanVO.class));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.parser.BeanMetadata.PropertySetter#bind(java.lang.Object, java.lang.String[])}.
+	 */
+	@Test
+	void testBind() throws Exception {
+		Map<String, PropertySetter> setters = setters(TestDataBeanVO.class);
+		TestDataBeanVO vo = new TestDataBeanVO();
+
+		setters.get("name").bind(vo, new String[] { "SMT", "Other" });
+		setters.get("someNumber").bind(vo, new String[] { "12" });
+		setters.get("arrNames").bind(vo, new String[] { "one", "two" });
+		setters.get("names").bind(vo, new String[] { "James", "Mary", "Stef" });
+		setters.get("datePattern").bind(vo, new String[] { DatePattern.DATE_DASH.name() });
+
+		assertEquals("SMT", vo.getName());
+		assertEquals(12, vo.getSomeNumber());
+		assertArrayEquals(new String[] { "one", "two" }, vo.getArrNames());
+		assertEquals(List.of("James", "Mary", "Stef"), vo.getNames());
+		assertEquals(DatePattern.DATE_DASH, vo.getDatePattern());
+
+		setters.get("someNumber").bind(vo, new String[] { "abc" });
+		setters.get("datePattern").bind(vo, new String[] { "none" });
+		assertEquals(0, vo.getSomeNumber());
+		assertNull(vo.getDatePattern());
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.parser.BeanMetadata.PropertySetter#set(java.lang.Object, java.lang.Object)}.
+	 */
+	@Test
+	void testSet() throws Exception {
+		Map<String, PropertySetter> setters = setters(TestDataBeanVO.class);
+		TestDataBeanVO vo = new TestDataBeanVO();
+
+		setters.get("name").set(vo, "SMT");
+		setters.get("someNumber").set(vo, 12);
+		assertEquals("SMT", vo.getName());
+		assertEquals(12, vo.getSomeNumber());
+		assertThrows(ClassCastException.class, () -> setters.get("someNumber").set(vo, "12"));
+	}
+}
@@ -0,0 +1,207 @@
+package com.siliconmtn.data.parser;
+
+// JUnit 5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/****************************************************************************
+ * <b>Title</b>: BeanPathTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the binding of nested and indexed parameter names
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class BeanPathTest {
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.parser.BeanPath#parse(java.lang.String)}.
+	 */
+	@Test
+	void testParse() {
+		assertNotNull(BeanPath.parse("address.city"));
+		assertNotNull(BeanPath.parse("items[3].qty"));
+		assertNotNull(BeanPath.parse("tags[0]"));
+		assertNotNull(BeanPath.parse("items[" + BeanPath.MAX_INDEX + "]"));
+
+		assertNull(BeanPath.parse(null));
+		assertNull(BeanPath.parse(""));
+		assertNull(BeanPath.parse("address."));
+		assertNull(BeanPath.parse(".city"));
+		assertNull(BeanPath.parse("items[].qty"));
+		assertNull(BeanPath.parse("items[-1]"));
+		assertNull(BeanPath.parse("items[x]"));
+		assertNull(BeanPath.parse("items[3"));
+		assertNull(BeanPath.parse("items[3]qty"));
+		assertNull(BeanPath.parse("items[" + (BeanPath.MAX_INDEX + 1) + "]"));
+		assertNull(BeanPath.parse("items[99999999999]"));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.parser.BeanDataMapper#parseNestedBean(java.lang.Object, java.util.Map)}.
+	 */
+	@Test
+	void testParseNestedBean() {
+		Map<String, String[]> data = new HashMap<>();
+		data.put("name", new String[] { "Order" });
+		data.put("address.city", new String[] { "Denver" });
+		data.put("address.zip", new String[] { "80202" });
+		data.put("items[2].qty", new String[] { "5" });
+		data.put("items[2].sku", new String[] { "ABC" });
+		data.put("items[0].qty", new String[] { "1" });
+		data.put("codes[1]", new String[] { "7" });
+		data.put("notes[1]", new String[] { "second" });
+		data.put("unknown.city", new String[] { "x" });
+		data.put("class.name", new String[] { "x" });
+		data.put("items[x].qty", new String[] { "x" });
+
+		OrderBean order = new OrderBean();
+		BeanDataMapper.parseNestedBean(order, data);
+
+		assertEquals("Order", order.getName());
+		assertEquals("Denver", order.getAddress().getCity());
+		assertEquals(80202, order.getAddress().getZip());
+		assertEquals(3, order.getItems().size());
+		assertEquals(1, order.getItems().get(0).getQty());
+		assertNull(order.getItems().get(1));
+		assertEquals(5, order.getItems().get(2).getQty());
+		assertEquals("ABC", order.getItems().get(2).getSku());
+		assertArrayEquals(new int[] { 0, 7 }, order.getCodes());
+		assertEquals(2, order.getNotes().size());
+		assertEquals("second", order.getNotes().get(1));
+	}
+
+	/**
+	 * Validates existing nested beans and lists are updated in place
+	 */
+	@Test
+	void testExistingBeans() {
+		OrderBean order = new OrderBean();
+		AddressBean address = new AddressBean();
+		address.setZip(11111);
+		order.setAddress(address);
+		List<ItemBean> items = new ArrayList<>();
+		items.add(new ItemBean());
+		order.setItems(items);
+
+		Map<String, String[]> data = new HashMap<>();
+		data.put("address.city", new String[] { "Boulder" });
+		data.put("items[0].sku", new String[] { "XYZ" });
+		BeanDataMapper.parseNestedBean(order, data);
+
+		assertSame(address, order.getAddress());
+		assertEquals("Boulder", address.getCity());
+		assertEquals(11111, address.getZip());
+		assertSame(items, order.getItems());
+		assertEquals("XYZ", items.get(0).getSku());
+	}
+
+	/**
+	 * Bean holding the nested beans
+	 */
+	public static class OrderBean {
+		private String name;
+		private AddressBean address;
+		private List<ItemBean> items;
+		private List<String> notes;
+		private int[] codes;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public AddressBean getAddress() {
+			return address;
+		}
+
+		public void setAddress(AddressBean address) {
+			this.address = address;
+		}
+
+		public List<ItemBean> getItems() {
+			return items;
+		}
+
+		public void setItems(List<ItemBean> items) {
+			this.items = items;
+		}
+
+		public List<String> getNotes() {
+			return notes;
+		}
+
+		public void setNotes(List<String> notes) {
+			this.notes = notes;
+		}
+
+		public int[] getCodes() {
+			return codes;
+		}
+
+		public void setCodes(int[] codes) {
+			this.codes = codes;
+		}
+	}
+
+	/**
+	 * Nested bean
+	 */
+	public static class AddressBean {
+		private String city;
+		private int zip;
+
+		public String getCity() {
+			return city;
+		}
+
+		public void setCity(String city) {
+			this.city = city;
+		}
+
+		public int getZip() {
+			return zip;
+		}
+
+		public void setZip(int zip) {
+			this.zip = zip;
+		}
+	}
+
+	/**
+	 * Element of an indexed list
+	 */
+	public static class ItemBean {
+		private String sku;
+		private int qty;
+
+		public String getSku() {
+			return sku;
+		}
+
+		public void setSku(String sku) {
+			this.sku = sku;
+		}
+
+		public int getQty() {
+			return qty;
+		}
+
+		public void setQty(int qty) {
+			this.qty = qty;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.siliconmtn.data.parser;
+
+// JUnit 5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Space Libs 1.x
+import com.siliconmtn.data.format.DateFormat.DatePattern;
+
+/****************************************************************************
+ * <b>Title</b>: TypeConverterRegistryTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the converters of the request parameters
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class TypeConverterRegistryTest {
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.parser.TypeConverterRegistry#convert(java.lang.String, java.lang.Class)}.
+	 */
+	@Test
+	void testConvertPrimitives() {
+		assertEquals(Integer.valueOf(12), TypeConverterRegistry.convert(" 12 ", int.class));
+		assertEquals(Integer.valueOf(0), TypeConverterRegistry.convert("abc", Integer.class));
+		assertEquals(Integer.valueOf(0), TypeConverterRegistry.convert("", int.class));
+		assertEquals(Long.valueOf(5), TypeConverterRegistry.convert("5", long.class));
+		assertEquals(Double.valueOf(1.5), TypeConverterRegistry.convert("1.5", Double.class));
+		assertEquals(new BigDecimal("10.25"), TypeConverterRegistry.convert("10.25", BigDecimal.class));
+		assertEquals(Boolean.TRUE, TypeConverterRegistry.convert("Yes", boolean.class));
+		assertEquals(Boolean.TRUE, TypeConverterRegistry.convert("1", Boolean.class));
+		assertEquals(Boolean.FALSE, TypeConverterRegistry.convert("maybe", boolean.class));
+		assertEquals(Character.valueOf('a'), TypeConverterRegistry.convert("abc", char.class));
+		assertEquals(Character.valueOf(' '), TypeConverterRegistry.convert("", char.class));
+		assertEquals("text", TypeConverterRegistry.convert("text", String.class));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.parser.TypeConverterRegistry#convert(java.lang.String, java.lang.Class)}.
+	 */
+	@Test
+	void testConvertObjects() {
+		UUID id = UUID.randomUUID();
+		assertEquals(id, TypeConverterRegistry.convert(id.toString(), UUID.class));
+		assertEquals(LocalDate.of(2021, 1, 15), TypeConverterRegistry.convert("2021-01-15", LocalDate.class));
+		assertEquals(LocalDateTime.of(2021, 1, 15, 10, 30), TypeConverterRegistry.convert("2021-01-15T10:30", LocalDateTime.class));
+		assertEquals(Instant.EPOCH, TypeConverterRegistry.convert("1970-01-01T00:00:00Z", Instant.class));
+		assertNull(TypeConverterRegistry.convert(" ", LocalDate.class));
+		assertThrows(IllegalArgumentException.class, () -> TypeConverterRegistry.convert("01/15/2021", LocalDate.class));
+		assertThrows(IllegalArgumentException.class, () -> TypeConverterRegistry.convert("abc", UUID.class));
+
+		assertEquals(DatePattern.DATE_DASH, TypeConverterRegistry.convert(DatePattern.DATE_DASH.name(), DatePattern.class));
+		assertNull(TypeConverterRegistry.convert("none", DatePattern.class));
+		assertSame(TypeConverterRegistry.lookup(DatePattern.class), TypeConverterRegistry.lookup(DatePattern.class));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.parser.TypeConverterRegistry#register(java.lang.Class, com.siliconmtn.data.parser.TypeConverter)}.
+	 */
+	@Test
+	void testRegister() {
+		assertNull(TypeConverterRegistry.lookup(StringBuilder.class));
+		assertThrows(IllegalArgumentException.class, () -> TypeConverterRegistry.convert("abc", StringBuilder.class));
+
+		BeanMetadata metadata = BeanMetadata.forClass(TestDataBeanVO.class);
+		TypeConverterRegistry.register(StringBuilder.class, StringBuilder::new);
+		assertEquals("abc", TypeConverterRegistry.convert("abc", StringBuilder.class).toString());
+		assertNotSame(metadata, BeanMetadata.forClass(TestDataBeanVO.class));
+		assertThrows(IllegalArgumentException.class, () -> TypeConverterRegistry.register(null, StringBuilder::new));
+	}
+}
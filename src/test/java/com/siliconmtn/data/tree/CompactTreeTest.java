@@ -0,0 +1,188 @@
+package com.siliconmtn.data.tree;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/****************************************************************************
+ * <b>Title</b>: CompactTreeTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the compact tree against the tree built from the
+ * same nodes
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class CompactTreeTest {
+
+	private Node root;
+	private List<Node> nodes = new ArrayList<>();
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUpBeforeEach() throws Exception {
+		root = new Node("root_node_id", null);
+		root.setNodeName("Root Node");
+		Node firstChild = new Node("child_node_1", "root_node_id", (Object) "one");
+		firstChild.setNodeName("First");
+		Node secondChild = new Node("child_node_2", "ROOT_NODE_ID");
+		Node firstFirstChild = new Node("child_node_3", "child_node_1", Integer.valueOf(3));
+
+		nodes.add(root);
+		nodes.add(firstChild);
+		nodes.add(secondChild);
+		nodes.add(firstFirstChild);
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.CompactTree#findNode(java.lang.String)}.
+	 */
+	@Test
+	void testFindNode() {
+		CompactTree t = new CompactTree(nodes, root);
+		assertEquals(4, t.size());
+		assertEquals(3, t.getDepth());
+
+		Node node = t.findNode("CHILD_NODE_1");
+		assertEquals("child_node_1", node.getNodeId());
+		assertEquals("Root Node", node.getParentName());
+		assertEquals(1, node.getDepthLevel());
+		assertEquals("one", node.getUserObject());
+		assertEquals(1, node.getTotalChildren());
+		assertFalse(node.isLeaf());
+		assertEquals("child_node_3", node.getChildren().get(0).getNodeId());
+		assertEquals("First", node.getChildren().get(0).getParentName());
+		assertEquals(Integer.valueOf(3), node.getChildren().get(0).getUserObject());
+
+		assertNull(t.findNode("no_node_id"));
+		assertNull(t.findNode("root_node_id"));
+		assertNull(t.findNode(null));
+		assertEquals(CompactTree.NOT_FOUND, t.indexOf("no_node_id"));
+	}
+
+	/**
+	 * Test method for the position based accessors
+	 */
+	@Test
+	void testPositions() {
+		CompactTree t = new CompactTree(nodes, root);
+		int first = t.indexOf("child_node_1");
+		int third = t.indexOf("child_node_3");
+		int second = t.indexOf("child_node_2");
+
+		assertEquals(1, first);
+		assertEquals(2, third);
+		assertEquals(3, second);
+		assertEquals(CompactTree.NOT_FOUND, t.getParent(0));
+		assertEquals(0, t.getParent(first));
+		assertEquals(first, t.getFirstChild(0));
+		assertEquals(second, t.getNextSibling(first));
+		assertEquals(CompactTree.NOT_FOUND, t.getNextSibling(second));
+		assertEquals(3, t.getTotalChildren(0));
+		assertEquals(2, t.getNumberChildren(0));
+		assertTrue(t.isLeaf(third));
+		assertEquals(2, t.getDepthLevel(third));
+		assertEquals("First", t.getParentName(third));
+		assertNull(t.getParentName(0));
+		assertEquals("root_node_id", t.getNodeId(0));
+		assertEquals("First", t.getNodeName(first));
+		assertNull(t.getUserObject(second));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.CompactTree#getPath(int, java.lang.String, boolean)}.
+	 */
+	@Test
+	void testGetPath() {
+		CompactTree t = new CompactTree(nodes, root);
+		assertEquals("/child_node_1/child_node_3", t.getPath("child_node_3"));
+		assertEquals(">First>child_node_3", t.getPath(t.indexOf("child_node_3"), ">", true));
+		assertEquals("/", t.getPath(0, "/", false));
+		assertNull(t.getPath("no_node_id"));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.CompactTree#preorderList(boolean)}.
+	 */
+	@Test
+	void testPreorderList() {
+		CompactTree t = new CompactTree(nodes, root);
+		assertEquals(3, t.preorderList().size());
+		assertEquals(4, t.preorderList(true).size());
+		assertEquals("child_node_2", t.preorderList().get(2).getNodeId());
+		assertEquals(1, new CompactTree(new ArrayList<>()).size());
+	}
+
+	/**
+	 * Validates a large tree matches the tree built from the same nodes,
+	 * including duplicate ids and ids differing by case
+	 */
+	@Test
+	void testMatchesTree() {
+		Random random = new Random(7);
+		List<Node> data = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			String parent = i < 10 ? "root_node_id" : "n" + random.nextInt(i);
+			String id = random.nextInt(50) == 0 ? "N" + random.nextInt(i + 1) : "n" + i;
+			Node node = new Node(id, random.nextInt(100) == 0 ? parent.toUpperCase() : parent);
+			node.setNodeName("name " + i);
+			data.add(node);
+		}
+
+		Collections.shuffle(data, random);
+		Tree tree = new Tree(data, new Node(root));
+		CompactTree compact = new CompactTree(data, root);
+		List<Node> preorder = tree.preorderList();
+		Tree.calculateTotalChildren(tree.getRootNode());
+
+		assertEquals(preorder.size() + 1, compact.size());
+		assertEquals(tree.getDepth(), compact.getDepth());
+		for (int i = 0; i < preorder.size(); i++) {
+			Node node = preorder.get(i);
+			assertEquals(node.getNodeId(), compact.getNodeId(i + 1));
+			assertEquals(node.getParentName(), compact.getParentName(i + 1));
+			assertEquals(node.getDepthLevel(), compact.getDepthLevel(i + 1));
+			assertEquals(node.getTotalChildren(), compact.getTotalChildren(i + 1));
+			assertEquals(node.getNumberChildren(), compact.getNumberChildren(i + 1));
+
+			int found = compact.indexOf(node.getNodeId());
+			assertEquals(tree.findNode(node.getNodeId()).getDepthLevel(), compact.getDepthLevel(found));
+			assertEquals(tree.getPath(node.getNodeId()).size(), compact.getDepthLevel(found) + 1);
+		}
+	}
+
+	/**
+	 * Validates the tree is serialized
+	 * @throws Exception
+	 */
+	@Test
+	void testSerialization() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(new CompactTree(nodes, root));
+		}
+
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			CompactTree t = (CompactTree) in.readObject();
+			assertEquals(2, t.indexOf("child_node_3"));
+			assertEquals("/child_node_1/child_node_3", t.getPath("child_node_3"));
+		}
+	}
+}
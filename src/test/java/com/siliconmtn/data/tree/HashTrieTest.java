@@ -0,0 +1,145 @@
+package com.siliconmtn.data.tree;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/****************************************************************************
+ * <b>Title</b>: HashTrieTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the immutable hash map shared between the
+ * versions of a PersistentTree
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class HashTrieTest {
+
+	/**
+	 * Key with a fixed hash code, to create collisions
+	 */
+	private static final class Key {
+		private final String value;
+		private final int hash;
+
+		Key(String value, int hash) {
+			this.value = value;
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Key && ((Key) o).value.equals(value);
+		}
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.HashTrie#put(java.lang.Object, java.lang.Object)}.
+	 */
+	@Test
+	void testPut() {
+		HashTrie<String, String> empty = HashTrie.empty();
+		HashTrie<String, String> one = empty.put("a", "1");
+		HashTrie<String, String> two = one.put("b", "2").put("a", "3");
+
+		assertEquals(0, empty.size());
+		assertNull(empty.get("a"));
+		assertEquals(1, one.size());
+		assertEquals("1", one.get("a"));
+		assertEquals(2, two.size());
+		assertEquals("3", two.get("a"));
+		assertEquals("2", two.get("b"));
+		assertThrows(IllegalArgumentException.class, () -> one.put("c", null));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.HashTrie#remove(java.lang.Object)}.
+	 */
+	@Test
+	void testRemove() {
+		HashTrie<String, String> map = HashTrie.<String, String>empty().put("a", "1").put("b", "2");
+		HashTrie<String, String> removed = map.remove("a");
+
+		assertSame(map, map.remove("c"));
+		assertEquals(1, removed.size());
+		assertNull(removed.get("a"));
+		assertEquals("2", removed.get("b"));
+		assertEquals("1", map.get("a"));
+		assertEquals(0, removed.remove("b").size());
+	}
+
+	/**
+	 * Validates keys sharing a hash code, or the first bits of one, are kept apart
+	 */
+	@Test
+	void testCollisions() {
+		Key a = new Key("a", 7);
+		Key b = new Key("b", 7);
+		Key c = new Key("c", 7 | 1 << 30);
+		HashTrie<Key, String> map = HashTrie.<Key, String>empty().put(a, "A").put(b, "B").put(c, "C");
+
+		assertEquals(3, map.size());
+		assertEquals("A", map.get(a));
+		assertEquals("B", map.get(b));
+		assertEquals("C", map.get(c));
+		assertNull(map.get(new Key("d", 7)));
+		assertEquals("b", map.put(b, "b").get(b));
+
+		HashTrie<Key, String> removed = map.remove(a);
+		assertNull(removed.get(a));
+		assertEquals("B", removed.get(b));
+		assertEquals("C", removed.remove(b).get(c));
+
+		Map<Key, String> values = new HashMap<>();
+		values.put(a, "A");
+		values.put(b, "B");
+		values.put(c, "C");
+		assertEquals("B", HashTrie.of(values).get(b));
+	}
+
+	/**
+	 * Validates random changes against a HashMap, checking the earlier versions
+	 * are not changed
+	 */
+	@Test
+	void testRandomChanges() {
+		Random random = new Random(42);
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 2000; i++) expected.put(random.nextInt(5000), i);
+
+		HashTrie<Integer, Integer> map = HashTrie.of(expected);
+		HashTrie<Integer, Integer> original = map;
+		Map<Integer, Integer> values = new HashMap<>(expected);
+		for (int i = 0; i < 20000; i++) {
+			int key = random.nextInt(5000);
+			if (random.nextBoolean()) {
+				map = map.put(key, i);
+				values.put(key, i);
+			} else {
+				map = map.remove(key);
+				values.remove(key);
+			}
+		}
+
+		assertEquals(values.size(), map.size());
+		assertEquals(expected.size(), original.size());
+		for (int key = 0; key < 5000; key++) {
+			assertEquals(values.get(key), map.get(key));
+			assertEquals(expected.get(key), original.get(key));
+		}
+	}
+}
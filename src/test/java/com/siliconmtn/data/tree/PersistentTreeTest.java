@@ -0,0 +1,260 @@
+package com.siliconmtn.data.tree;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/****************************************************************************
+ * <b>Title</b>: PersistentTreeTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the immutable tree and the sharing of unchanged
+ * subtrees between its versions
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class PersistentTreeTest {
+
+	private List<Node> nodes = new ArrayList<>();
+
+	/**
+	 * Builds the nodes root -> (a -> (a1, a2), b -> (b1))
+	 */
+	@BeforeEach
+	void setUpBeforeEach() {
+		nodes.add(new Node("a", "root", (Object) "A"));
+		nodes.add(new Node("b", "root", (Object) "B"));
+		nodes.add(new Node("a1", "a", (Object) "A1"));
+		nodes.add(new Node("a2", "a", (Object) "A2"));
+		nodes.add(new Node("b1", "b", (Object) "B1"));
+	}
+
+	/**
+	 * Lists the ids of the children of a node
+	 * @param node Parent node
+	 * @return Comma separated ids
+	 */
+	private String ids(ImmutableNode node) {
+		return node.getChildren().stream().map(ImmutableNode::getNodeId).collect(Collectors.joining(","));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.PersistentTree#PersistentTree(java.util.List, com.siliconmtn.data.tree.Node)}.
+	 */
+	@Test
+	void testPersistentTree() {
+		PersistentTree t = new PersistentTree(nodes, new Node("root", null));
+
+		assertEquals(6, t.size());
+		assertEquals(3, t.getDepth());
+		assertEquals("root", t.getRoot().getNodeId());
+		assertEquals("a,b", ids(t.getRoot()));
+		assertEquals(5, t.getRoot().getTotalChildren());
+		assertEquals("A1", t.findNode("A1").getUserObject());
+		assertNull(t.findNode("root"));
+		assertNull(t.findNode("c"));
+		assertEquals("a", t.getParent("a2").getNodeId());
+		assertEquals(2, t.getDepthLevel("b1"));
+		assertEquals(-1, t.getDepthLevel("c"));
+		assertEquals("root,a,a1", t.getPath("a1").stream().map(ImmutableNode::getNodeId).collect(Collectors.joining(",")));
+		assertTrue(t.getPath("c").isEmpty());
+		assertThrows(UnsupportedOperationException.class, () -> t.getRoot().getChildren().clear());
+		assertThrows(IllegalArgumentException.class, () -> new PersistentTree((ImmutableNode) null));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.PersistentTree#setUserObject(java.lang.String, java.lang.Object)}.
+	 */
+	@Test
+	void testSetUserObject() {
+		PersistentTree t = new PersistentTree(nodes, new Node("root", null));
+		PersistentTree updated = t.setUserObject("a1", "changed");
+
+		assertEquals("changed", updated.findNode("a1").getUserObject());
+		assertEquals("A1", t.findNode("a1").getUserObject());
+		assertNotSame(t.getRoot(), updated.getRoot());
+		assertNotSame(t.findNode("a"), updated.findNode("a"));
+		assertSame(t.findNode("a2"), updated.findNode("a2"));
+		assertSame(t.findNode("b"), updated.findNode("b"));
+
+		PersistentTree renamed = updated.setNodeName("b1", "Bee");
+		assertEquals("Bee", renamed.findNode("b1").getNodeName());
+		assertSame(updated.findNode("a"), renamed.findNode("a"));
+		assertThrows(IllegalArgumentException.class, () -> t.setUserObject("c", "x"));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.PersistentTree#insert(java.lang.String, com.siliconmtn.data.tree.Node)}.
+	 */
+	@Test
+	void testInsert() {
+		PersistentTree t = new PersistentTree(nodes, new Node("root", null));
+		Node child = new Node("c", null);
+		child.getChildren().add(new Node("c1", "c"));
+		PersistentTree updated = t.insert("b1", child);
+
+		assertEquals(8, updated.size());
+		assertEquals(6, t.size());
+		assertEquals(5, updated.getDepth());
+		assertEquals("b1", updated.findNode("c").getParentId());
+		assertEquals(4, updated.getDepthLevel("c1"));
+		assertEquals(7, updated.getRoot().getTotalChildren());
+		assertSame(t.findNode("a"), updated.findNode("a"));
+		assertNull(t.findNode("c"));
+
+		PersistentTree top = t.insert(null, new Node("d", null));
+		assertEquals("a,b,d", ids(top.getRoot()));
+		assertEquals("root", top.findNode("d").getParentId());
+		assertThrows(IllegalArgumentException.class, () -> t.insert("x", new Node("d", null)));
+		assertThrows(IllegalArgumentException.class, () -> t.insert("a", (Node) null));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.PersistentTree#remove(java.lang.String)}.
+	 */
+	@Test
+	void testRemove() {
+		PersistentTree t = new PersistentTree(nodes, new Node("root", null));
+		PersistentTree updated = t.remove("a");
+
+		assertEquals(3, updated.size());
+		assertEquals("b", ids(updated.getRoot()));
+		assertNull(updated.findNode("a1"));
+		assertSame(t.findNode("b"), updated.findNode("b"));
+		assertEquals(6, t.size());
+		assertSame(t, t.remove("c"));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.PersistentTree#move(java.lang.String, java.lang.String)}.
+	 */
+	@Test
+	void testMove() {
+		PersistentTree t = new PersistentTree(nodes, new Node("root", null));
+		PersistentTree updated = t.move("a", "b1");
+
+		assertEquals(6, updated.size());
+		assertEquals("b", ids(updated.getRoot()));
+		assertEquals("b1", updated.getParent("a").getNodeId());
+		assertEquals(4, updated.getDepthLevel("a2"));
+		assertEquals(5, updated.getDepth());
+		assertSame(t.findNode("a1"), updated.findNode("a1"));
+		assertEquals("a", t.getParent("a1").getNodeId());
+		assertEquals(1, t.getDepthLevel("a"));
+
+		assertThrows(IllegalArgumentException.class, () -> t.move("a", "a1"));
+		assertThrows(IllegalArgumentException.class, () -> t.move("a", "a"));
+		assertThrows(IllegalArgumentException.class, () -> t.move("c", "a"));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.PersistentTree#toTree()}.
+	 */
+	@Test
+	void testToTree() {
+		PersistentTree t = new PersistentTree(nodes, new Node("root", null));
+		Tree tree = t.toTree();
+
+		assertEquals(3, tree.getDepth());
+		assertEquals(2, tree.findNode("a").getNumberChildren());
+		assertEquals("a", tree.findNode("a1").getParentId());
+		tree.findNode("a1").setUserObject("changed");
+		assertEquals("A1", t.findNode("a1").getUserObject());
+
+		PersistentTree copy = PersistentTree.of(tree);
+		assertEquals("changed", copy.findNode("a1").getUserObject());
+		assertEquals(6, copy.size());
+	}
+
+	/**
+	 * Validates the index carried over by random updates finds the same nodes
+	 * as an index created from scratch
+	 */
+	@Test
+	void testUpdatedIndex() {
+		Random random = new Random(7);
+		PersistentTree t = new PersistentTree(nodes, new Node("root", null));
+		List<String> ids = new ArrayList<>(List.of("a", "b", "a1", "a2", "b1"));
+		for (int i = 0; i < 500; i++) {
+			int op = ids.size() < 3 ? 0 : random.nextInt(4);
+			String id = ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+			if (op == 0) {
+				String child = "n" + i;
+				t = t.insert(random.nextBoolean() ? id : null, new Node(child, null));
+				ids.add(child);
+			} else if (op == 1) {
+				PersistentTree removed = t.remove(id);
+				ids.removeIf(n -> removed.findNode(n) == null);
+				t = removed;
+			} else if (op == 2) {
+				String target = ids.get(random.nextInt(ids.size()));
+				if (! t.getPath(target).contains(t.findNode(id))) t = t.move(id, target);
+			} else {
+				t = t.setUserObject(id, i);
+			}
+
+			PersistentTree fresh = new PersistentTree(t.getRoot());
+			assertEquals(fresh.getDepth(), t.getDepth());
+			for (String n : ids) {
+				assertSame(fresh.findNode(n), t.findNode(n));
+				assertSame(fresh.getParent(n), t.getParent(n));
+				assertEquals(fresh.getDepthLevel(n), t.getDepthLevel(n));
+			}
+		}
+	}
+
+	/**
+	 * Validates an id used by several nodes, or given to a node by an update,
+	 * is matched to the shallowest node
+	 */
+	@Test
+	void testDuplicateIds() {
+		PersistentTree t = new PersistentTree(nodes, new Node("root", null));
+		PersistentTree renamed = t.update("b1", n -> new ImmutableNode("A", n.getParentId(), null, 0, null, null));
+		assertSame(t.findNode("a"), renamed.findNode("a"));
+		assertEquals(1, renamed.getDepthLevel("a"));
+		assertNull(renamed.findNode("b1"));
+
+		PersistentTree removed = renamed.remove("a");
+		assertEquals("b", removed.getParent("a").getNodeId());
+		assertEquals(2, removed.getDepthLevel("a"));
+
+		PersistentTree inserted = t.insert(null, new Node("b1", null));
+		assertEquals(1, inserted.getDepthLevel("b1"));
+		assertEquals(2, inserted.remove("b1").getDepthLevel("b1"));
+	}
+
+	/**
+	 * Validates a deep chain of nodes is copied without recursion
+	 */
+	@Test
+	void testDeepChain() {
+		Node top = new Node("n0", null);
+		Node current = top;
+		for (int i = 1; i < 100000; i++) {
+			Node child = new Node("n" + i, current.getNodeId());
+			current.getChildren().add(child);
+			current = child;
+		}
+
+		ImmutableNode copy = ImmutableNode.of(top);
+		assertEquals(99999, copy.getTotalChildren());
+
+		PersistentTree t = new PersistentTree(copy);
+		assertEquals(100000, t.getDepth());
+		PersistentTree updated = t.setUserObject("n99999", "leaf");
+		assertEquals("leaf", updated.findNode("n99999").getUserObject());
+		assertEquals(99999, copy.toNode().getTotalChildren());
+	}
+}
@@ -0,0 +1,128 @@
+package com.siliconmtn.data.tree;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/****************************************************************************
+ * <b>Title</b>: TreeAggregatorTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the parallel roll ups against sequential ones,
+ * including wide and deep trees
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class TreeAggregatorTest {
+
+	private Node root;
+	private List<Node> nodes = new ArrayList<>();
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUpBeforeEach() throws Exception {
+		root = new Node("root_node_id", null, (Object) 1);
+		nodes.add(new Node("child_node_1", "root_node_id", (Object) 10));
+		nodes.add(new Node("child_node_2", "root_node_id", (Object) 100));
+		nodes.add(new Node("child_node_3", "child_node_1", (Object) 1000));
+	}
+
+	/**
+	 * Creates a node with an empty path, so the paths don't grow with the depth
+	 * @param id Id of the node
+	 * @param value User object of the node
+	 * @return Node created
+	 */
+	private Node node(String id, int value) {
+		Node n = new Node(id, null, (Object) value);
+		n.setFullPath("");
+		return n;
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.Tree#aggregate(java.util.function.Function, java.util.function.BinaryOperator)}.
+	 */
+	@Test
+	void testAggregate() {
+		Tree t = new Tree(nodes, root);
+		assertEquals(Integer.valueOf(1111), t.aggregate(n -> (Integer) n.getUserObject(), Integer::sum));
+		assertEquals(Integer.valueOf(1000), t.aggregate(n -> (Integer) n.getUserObject(), Integer::max));
+		assertEquals("root_node_id,child_node_1,child_node_3,child_node_2", t.aggregate(Node::getNodeId, (a, b) -> a + "," + b));
+
+		List<String> totals = new ArrayList<>();
+		t.aggregate(n -> 1, Integer::sum, (n, count) -> totals.add(n.getNodeId() + "=" + count));
+		assertEquals(List.of("child_node_2=1", "child_node_3=1", "child_node_1=2", "root_node_id=4"), totals);
+		assertNull(TreeAggregator.aggregate(null, n -> 1, Integer::sum, null));
+	}
+
+	/**
+	 * Validates a large random tree rolls up the same as sequentially, in
+	 * order and on every node
+	 */
+	@Test
+	void testLargeTree() {
+		Random random = new Random(5);
+		Node top = node("top", 0);
+		List<Node> all = new ArrayList<>();
+		all.add(top);
+		for (int i = 1; i < 100000; i++) {
+			Node child = node("n" + i, random.nextInt(100));
+			all.get(random.nextInt(i) / (random.nextBoolean() ? 1 : 50)).addChild(child);
+			all.add(child);
+		}
+
+		Tree.calculateTotalChildren(top);
+		long sum = 0;
+		StringBuilder ids = new StringBuilder();
+		for (Node n : TreeTraversal.preorderStream(top, false).toArray(Node[]::new)) {
+			sum += (Integer) n.getUserObject();
+			ids.append(n.getNodeId());
+		}
+
+		AtomicInteger mismatches = new AtomicInteger();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Long total = TreeAggregator.aggregate(top, n -> (long) (Integer) n.getUserObject(), Long::sum, null, pool);
+			assertEquals(Long.valueOf(sum), total);
+			assertEquals(ids.toString(), TreeAggregator.aggregate(top, Node::getNodeId, String::concat, null, pool));
+
+			TreeAggregator.aggregate(top, n -> 1, Integer::sum, (n, count) -> {
+				if (count != n.getTotalChildren() + 1) mismatches.incrementAndGet();
+			}, pool);
+			assertEquals(0, mismatches.get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Validates trees too deep for recursion are rolled up
+	 */
+	@Test
+	void testDeepTree() {
+		Node first = node("0", 1);
+		Node last = first;
+		for (int i = 1; i < 200000; i++) {
+			Node next = node(String.valueOf(i), 1);
+			last.addChild(next);
+			if (i % 1000 == 0) next.addChild(node("leaf" + i, 1));
+			last = next;
+		}
+
+		assertEquals(Integer.valueOf(200199), TreeAggregator.aggregate(first, n -> (Integer) n.getUserObject(), Integer::sum, null));
+	}
+}
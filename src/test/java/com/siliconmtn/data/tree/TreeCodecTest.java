@@ -0,0 +1,245 @@
+package com.siliconmtn.data.tree;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/****************************************************************************
+ * <b>Title</b>: TreeCodecTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the binary codec of the tree and the view of the
+ * encoded tree
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class TreeCodecTest {
+
+	private Node root;
+	private List<Node> nodes = new ArrayList<>();
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUpBeforeEach() throws Exception {
+		root = new Node("root_node_id", null);
+		root.setNodeName("Root Node");
+		Node firstChild = new Node("child_node_1", "root_node_id", (Object) "one");
+		firstChild.setNodeName("First");
+		firstChild.setOrderNo(-2);
+		Node secondChild = new Node("child_node_2", "root_node_id", Long.valueOf(2));
+		Node firstFirstChild = new Node("child_node_3", "child_node_1", new BigDecimal("3.5"));
+
+		nodes.add(firstChild);
+		nodes.add(secondChild);
+		nodes.add(firstFirstChild);
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreeCodec#decode(byte[])}.
+	 * @throws Exception
+	 */
+	@Test
+	void testDecode() throws Exception {
+		Tree tree = new Tree(nodes, root);
+		tree.buildNodePaths();
+		Tree.calculateTotalChildren(root);
+
+		TreeCodec codec = new TreeCodec();
+		Tree t = codec.decode(codec.encode(tree));
+		assertEquals(tree.getDepth(), t.getDepth());
+		assertEquals("Root Node", t.getRootNode().getNodeName());
+		assertEquals(3, t.getRootNode().getTotalChildren());
+
+		Node first = t.findNode("CHILD_NODE_1");
+		assertEquals("First", first.getNodeName());
+		assertEquals("root_node_id", first.getParentId());
+		assertEquals("Root Node", first.getParentName());
+		assertEquals("/child_node_1", first.getFullPath());
+		assertEquals(-2, first.getOrderNo());
+		assertEquals(1, first.getDepthLevel());
+		assertEquals("one", first.getUserObject());
+		assertFalse(first.isLeaf());
+		assertEquals(Long.valueOf(2), t.findNode("child_node_2").getUserObject());
+		assertEquals(new BigDecimal("3.5"), t.findNode("child_node_3").getUserObject());
+		assertTrue(t.findNode("child_node_3").isLeaf());
+		assertSame(first, t.getParent("child_node_3"));
+
+		EncodedTree view = codec.view(codec.encode(tree));
+		assertEquals("/child_node_1child_node_3", view.getFullPath(view.indexOf("child_node_3")));
+		assertEquals("/child_node_1child_node_3", view.findNode("child_node_3").getFullPath());
+		assertEquals("/", view.getFullPath(0));
+
+		// Paths settings are kept, so inserts extend the paths
+		t.insert("child_node_3", new Node("child_node_4", null));
+		assertEquals("/child_node_1child_node_3child_node_4", t.findNode("child_node_4").getFullPath());
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreeCodec#view(byte[])}.
+	 * @throws Exception
+	 */
+	@Test
+	void testView() throws Exception {
+		EncodedTree view = new TreeCodec().view(new TreeCodec().encode(new Tree(nodes, root)));
+		assertEquals(4, view.size());
+		assertEquals(3, view.getDepth());
+
+		int first = view.indexOf("child_node_1");
+		int third = view.indexOf("child_node_3");
+		int second = view.indexOf("child_node_2");
+		assertEquals(1, first);
+		assertEquals(2, third);
+		assertEquals(3, second);
+		assertEquals(EncodedTree.NOT_FOUND, view.indexOf("root_node_id"));
+		assertEquals(EncodedTree.NOT_FOUND, view.indexOf(null));
+
+		assertEquals(first, view.getParent(third));
+		assertEquals(EncodedTree.NOT_FOUND, view.getParent(0));
+		assertEquals(first, view.getFirstChild(0));
+		assertEquals(second, view.getNextSibling(first));
+		assertEquals(EncodedTree.NOT_FOUND, view.getNextSibling(second));
+		assertEquals(EncodedTree.NOT_FOUND, view.getFirstChild(third));
+		assertEquals(3, view.getTotalChildren(0));
+		assertEquals(2, view.getLevel(third));
+
+		assertEquals("First", view.getNodeName(first));
+		assertEquals("child_node_1", view.getParentId(third));
+		assertEquals("First", view.getParentName(third));
+		assertEquals(2, view.getDepthLevel(third));
+		assertEquals(-2, view.getOrderNo(first));
+		assertEquals("one", view.getUserObject(first));
+		assertNull(view.getUserObject(0));
+
+		Node node = view.findNode("child_node_1");
+		assertEquals("child_node_3", node.getChildren().get(0).getNodeId());
+		assertNull(view.findNode("no_node_id"));
+	}
+
+	/**
+	 * Validates a custom codec writes the user objects
+	 * @throws Exception
+	 */
+	@Test
+	void testObjectCodec() throws Exception {
+		TreeObjectCodec lengths = new TreeObjectCodec() {
+			@Override
+			public void write(Object value, DataOutput out) throws IOException {
+				out.writeInt(value.toString().length());
+			}
+
+			@Override
+			public Object read(DataInput in) throws IOException {
+				return in.readInt();
+			}
+		};
+
+		Tree t = new TreeCodec(lengths).decode(new ByteArrayInputStream(new TreeCodec(lengths).encode(new Tree(nodes, root))));
+		assertEquals(3, t.findNode("child_node_1").getUserObject());
+		assertEquals(1, t.findNode("child_node_2").getUserObject());
+
+		nodes.get(0).setUserObject(new Object());
+		assertThrows(IOException.class, () -> new TreeCodec().encode(new Tree(nodes, root)));
+	}
+
+	/**
+	 * Validates the serialized user objects are only read when their class is allowed
+	 * @throws Exception
+	 */
+	@Test
+	void testSerializedObjects() throws Exception {
+		nodes.get(0).setUserObject(new Value("one"));
+		byte[] data = new TreeCodec().encode(new Tree(nodes, root));
+
+		assertThrows(InvalidClassException.class, () -> new TreeCodec().decode(data));
+		Tree t = new TreeCodec(TreeCodec.createObjectCodec(Value.class)).decode(data);
+		assertEquals("one", ((Value) t.findNode("child_node_1").getUserObject()).text);
+		assertEquals(new BigDecimal("3.5"), t.findNode("child_node_3").getUserObject());
+	}
+
+	/**
+	 * Serializable user object outside of the JDK
+	 */
+	static class Value implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private final String text;
+
+		Value(String text) {
+			this.text = text;
+		}
+	}
+
+	/**
+	 * Validates invalid data is rejected
+	 * @throws Exception
+	 */
+	@Test
+	void testInvalidData() throws Exception {
+		TreeCodec codec = new TreeCodec();
+		byte[] data = codec.encode(new Tree(nodes, root));
+		assertThrows(IOException.class, () -> codec.view(new byte[0]));
+		assertThrows(IOException.class, () -> codec.view("not a tree".getBytes()));
+		for (int length = 0; length < data.length; length++) {
+			byte[] truncated = Arrays.copyOf(data, length);
+			assertThrows(IOException.class, () -> codec.view(truncated));
+		}
+	}
+
+	/**
+	 * Validates a large tree round trips and is smaller than Java serialization
+	 * @throws Exception
+	 */
+	@Test
+	void testLargeTree() throws Exception {
+		Random random = new Random(3);
+		List<Node> data = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			Node node = new Node("node_" + i, i < 10 ? "root_node_id" : "node_" + random.nextInt(i), (Object) ("value " + i));
+			node.setNodeName("Node " + i);
+			data.add(node);
+		}
+
+		Tree tree = new Tree(data, root);
+		tree.buildNodePaths("/", true);
+		byte[] encoded = new TreeCodec().encode(tree);
+		Tree t = new TreeCodec().decode(encoded);
+
+		List<Node> expected = tree.preorderList();
+		List<Node> actual = t.preorderList();
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getNodeId(), actual.get(i).getNodeId());
+			assertEquals(expected.get(i).getFullPath(), actual.get(i).getFullPath());
+			assertEquals(expected.get(i).getNumberChildren(), actual.get(i).getNumberChildren());
+			assertEquals(expected.get(i).getUserObject(), actual.get(i).getUserObject());
+		}
+
+		ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+			out.writeObject(tree);
+		}
+
+		assertTrue(encoded.length < serialized.size());
+	}
+}
@@ -0,0 +1,135 @@
+package com.siliconmtn.data.tree;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/****************************************************************************
+ * <b>Title</b>: TreeIntervalIndexTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the nested set index against the paths of the
+ * tree
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class TreeIntervalIndexTest {
+
+	private Node root;
+	private List<Node> nodes = new ArrayList<>();
+
+	/**
+	 * Builds the nodes root -> (child_node_1 -> (child_node_3), child_node_2)
+	 */
+	@BeforeEach
+	void setUpBeforeEach() {
+		root = new Node("root_node_id", null);
+		nodes.add(new Node("child_node_1", "root_node_id"));
+		nodes.add(new Node("child_node_2", "root_node_id"));
+		nodes.add(new Node("child_node_3", "child_node_1"));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreeIntervalIndex#isAncestor(java.lang.String, java.lang.String)}.
+	 */
+	@Test
+	void testIsAncestor() {
+		TreeIntervalIndex index = new Tree(nodes, root).getIntervalIndex();
+		assertEquals(4, index.size());
+		assertTrue(index.isAncestor("child_node_1", "CHILD_NODE_3"));
+		assertTrue(index.isDescendant("child_node_3", "child_node_1"));
+		assertFalse(index.isAncestor("child_node_3", "child_node_1"));
+		assertFalse(index.isAncestor("child_node_2", "child_node_3"));
+		assertFalse(index.isAncestor("child_node_1", "child_node_1"));
+		assertFalse(index.isAncestor("no_node_id", "child_node_1"));
+		assertTrue(index.isInSubtree("child_node_1", "child_node_1"));
+		assertTrue(index.isInSubtree("child_node_3", "child_node_1"));
+		assertFalse(index.isInSubtree("child_node_2", "child_node_1"));
+		assertTrue(index.isAncestor(0, index.indexOf("child_node_2")));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreeIntervalIndex#getSubtree(java.lang.String)}.
+	 */
+	@Test
+	void testGetSubtree() {
+		TreeIntervalIndex index = new Tree(nodes, root).getIntervalIndex();
+		List<Node> subtree = index.getSubtree("child_node_1");
+		assertEquals(2, subtree.size());
+		assertEquals("child_node_3", subtree.get(1).getNodeId());
+		assertTrue(index.getSubtree("no_node_id").isEmpty());
+		assertThrows(UnsupportedOperationException.class, () -> subtree.remove(0));
+
+		int pos = index.indexOf("child_node_3");
+		assertEquals(pos, index.getExit(pos));
+		assertEquals(2, index.getLevel(pos));
+		assertEquals(index.indexOf("child_node_1"), index.getParent(pos));
+		assertEquals(TreeIntervalIndex.NOT_FOUND, index.getParent(0));
+		assertEquals(0, new TreeIntervalIndex(null).size());
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreeIntervalIndex#getLowestCommonAncestor(java.lang.String, java.lang.String)}.
+	 */
+	@Test
+	void testGetLowestCommonAncestor() {
+		TreeIntervalIndex index = new Tree(nodes, root).getIntervalIndex();
+		assertSame(root, index.getLowestCommonAncestor("child_node_3", "child_node_2"));
+		assertEquals("child_node_1", index.getLowestCommonAncestor("child_node_3", "child_node_1").getNodeId());
+		assertEquals("child_node_3", index.getLowestCommonAncestor("child_node_3", "child_node_3").getNodeId());
+		assertNull(index.getLowestCommonAncestor("child_node_3", "no_node_id"));
+	}
+
+	/**
+	 * Validates the index is dropped when the tree changes
+	 */
+	@Test
+	void testTreeChanges() {
+		Tree t = new Tree(nodes, root);
+		TreeIntervalIndex index = t.getIntervalIndex();
+		assertSame(index, t.getIntervalIndex());
+
+		t.move("child_node_2", "child_node_3");
+		assertNotSame(index, t.getIntervalIndex());
+		assertTrue(t.getIntervalIndex().isAncestor("child_node_1", "child_node_2"));
+		assertFalse(index.isAncestor("child_node_1", "child_node_2"));
+	}
+
+	/**
+	 * Validates the checks of a large random tree against its paths
+	 */
+	@Test
+	void testMatchesPaths() {
+		Random random = new Random(11);
+		List<Node> data = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			String parent = i < 5 ? "root_node_id" : "n" + random.nextInt(i);
+			data.add(new Node("n" + i, parent));
+		}
+
+		Tree t = new Tree(data, root);
+		TreeIntervalIndex index = t.getIntervalIndex();
+		for (int i = 0; i < 2000; i++) {
+			String first = "n" + random.nextInt(2000);
+			String second = "n" + random.nextInt(2000);
+			List<Node> firstPath = t.getPath(first);
+			List<Node> secondPath = t.getPath(second);
+
+			int common = 0;
+			while (common < firstPath.size() && common < secondPath.size() && firstPath.get(common) == secondPath.get(common)) common++;
+			assertSame(firstPath.get(common - 1), index.getLowestCommonAncestor(first, second));
+			boolean ancestor = common == secondPath.size() && secondPath.size() < firstPath.size();
+			assertEquals(ancestor, index.isAncestor(second, first));
+		}
+	}
+}
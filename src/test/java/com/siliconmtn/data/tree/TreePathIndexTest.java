@@ -0,0 +1,140 @@
+package com.siliconmtn.data.tree;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/****************************************************************************
+ * <b>Title</b>: TreePathIndexTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the lookups by path and name of the tree
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class TreePathIndexTest {
+
+	private Node root;
+	private List<Node> nodes = new ArrayList<>();
+
+	/**
+	 * Builds the nodes root -> (a -> (a1, a2), ab, b -> (b1))
+	 */
+	@BeforeEach
+	void setUpBeforeEach() {
+		root = new Node("root", null);
+		nodes.add(node("a", "root", "Apple"));
+		nodes.add(node("ab", "root", "apricot"));
+		nodes.add(node("b", "root", "Banana"));
+		nodes.add(node("a1", "a", "APPLE"));
+		nodes.add(node("a2", "a", "Avocado"));
+		nodes.add(node("b1", "b", null));
+	}
+
+	/**
+	 * Creates a node
+	 * @param id Id of the node
+	 * @param parentId Id of the parent
+	 * @param name Name of the node
+	 * @return Node created
+	 */
+	private Node node(String id, String parentId, String name) {
+		Node n = new Node(id, parentId);
+		n.setNodeName(name);
+		return n;
+	}
+
+	/**
+	 * Lists the ids of nodes
+	 * @param list Nodes to list
+	 * @return Comma separated ids
+	 */
+	private String ids(List<Node> list) {
+		return list.stream().map(Node::getNodeId).collect(Collectors.joining(","));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreePathIndex#findByPath(java.lang.String)}.
+	 */
+	@Test
+	void testFindByPath() {
+		Tree t = new Tree(nodes, root);
+		t.buildNodePaths();
+		TreePathIndex index = t.getPathIndex();
+
+		assertEquals(7, index.size());
+		assertSame(root, index.findByPath("/"));
+		assertEquals("a1", index.findByPath("/aa1").getNodeId());
+		assertEquals("ab", index.findByPath("/ab").getNodeId());
+		assertNull(index.findByPath("/c"));
+		assertNull(index.findByPath(null));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreePathIndex#listByPrefix(java.lang.String)}.
+	 */
+	@Test
+	void testListByPrefix() {
+		Tree t = new Tree(nodes, root);
+		t.buildNodePaths();
+		TreePathIndex index = t.getPathIndex();
+
+		assertEquals("a,a1,a2,ab", ids(index.listByPrefix("/a")));
+		assertEquals("b,b1", ids(index.listByPrefix("/b")));
+		assertEquals(7, index.listByPrefix("").size());
+		assertTrue(index.listByPrefix("/c").isEmpty());
+		assertThrows(UnsupportedOperationException.class, () -> index.listByPrefix("/a").clear());
+
+		assertEquals("a,a1,a2", ids(index.listUnder("/a")));
+		assertTrue(index.listUnder("/c").isEmpty());
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreePathIndex#completeName(java.lang.String, int)}.
+	 */
+	@Test
+	void testCompleteName() {
+		Tree t = new Tree(nodes, root);
+		TreePathIndex index = t.getPathIndex();
+
+		assertEquals(List.of("Apple", "apricot", "Avocado"), index.completeName("a", 10));
+		assertEquals(List.of("Apple", "apricot"), index.completeName("AP", 10));
+		assertEquals(List.of("Apple"), index.completeName("a", 1));
+		assertTrue(index.completeName("z", 10).isEmpty());
+		assertTrue(index.completeName("a", 0).isEmpty());
+		assertEquals("a,a1,ab", ids(index.listByNamePrefix("ap")));
+	}
+
+	/**
+	 * Validates the index follows the changes of the tree
+	 */
+	@Test
+	void testTreeChanges() {
+		Tree t = new Tree(nodes, root);
+		t.buildNodePaths(".", true);
+		TreePathIndex index = t.getPathIndex();
+		assertSame(index, t.getPathIndex());
+		assertEquals("a1", t.getPathIndex().findByPath(".AppleAPPLE").getNodeId());
+
+		t.move("a1", "b");
+		assertNotSame(index, t.getPathIndex());
+		assertEquals("a1", t.getPathIndex().findByPath(".BananaAPPLE").getNodeId());
+		assertNull(t.getPathIndex().findByPath(".AppleAPPLE"));
+
+		index = t.getPathIndex();
+		t.buildNodePaths();
+		assertNotSame(index, t.getPathIndex());
+		Node moved = t.findNode("a1");
+		assertSame(moved, t.getPathIndex().findByPath(moved.getFullPath()));
+	}
+}
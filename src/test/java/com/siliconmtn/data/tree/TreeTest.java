@@ -6,8 +6,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 // JDK 11.x
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Spacelibs 1.x
+import com.siliconmtn.data.text.StringUtil;
 
 /****************************************************************************
  * <b>Title</b>: TreeTest.java
@@ -67,6 +80,222 @@ class TreeTest {
 		Tree t = new Tree(nodes, root);
 		assertEquals("child_node_1", t.findNode("child_node_1").getNodeId());
 		assertEquals(null, t.findNode("no_node_id"));
+		assertEquals("child_node_3", t.findNode("CHILD_NODE_3").getNodeId());
+		assertNull(t.findNode(null));
+		assertNull(t.findNode("root_node_id"));
+	}
+
+	/**
+	 * Validates nodes linked or renamed directly, after the tree was built, are
+	 * found once the tree is rebuilt
+	 */
+	@Test
+	void testFindNodeChangedDirectly() {
+		Tree t = new Tree(nodes, root);
+		Node child = new Node("child_node_4", "child_node_3");
+		t.findNode("child_node_3").addChild(child);
+		Node other = new Node("child_node_5", "child_node_2");
+		t.findNode("child_node_2").setChildren(new ArrayList<>(List.of(other)));
+		assertNull(t.findNode("child_node_4"));
+		assertNull(t.findNode("child_node_5"));
+
+		t.setRootNode(t.getRootNode());
+		assertSame(child, t.findNode("child_node_4"));
+		assertEquals(4, t.getPath("child_node_4").size());
+		assertSame(other, t.findNode("CHILD_NODE_5"));
+		assertSame(t.findNode("child_node_2"), t.getParent("child_node_5"));
+
+		other.setNodeId("renamed");
+		assertNull(t.findNode("child_node_5"));
+		assertNull(t.findNode("renamed"));
+		t.setRootNode(t.getRootNode());
+		assertSame(other, t.findNode("renamed"));
+		assertNull(t.findNode("no_node_id"));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.Tree#getParent(java.lang.String)},
+	 * {@link com.siliconmtn.data.tree.Tree#getAncestors(java.lang.String)} and 
+	 * {@link com.siliconmtn.data.tree.Tree#getPath(java.lang.String)}.
+	 */
+	@Test
+	void testAncestors() {
+		Tree t = new Tree(nodes, root);
+		assertSame(root, t.getParent("child_node_1"));
+		assertSame(t.findNode("child_node_1"), t.getParent("child_node_3"));
+		assertNull(t.getParent("no_node_id"));
+
+		List<Node> ancestors = t.getAncestors("child_node_3");
+		assertEquals(2, ancestors.size());
+		assertSame(root, ancestors.get(0));
+		assertEquals("child_node_1", ancestors.get(1).getNodeId());
+
+		List<Node> path = t.getPath("child_node_3");
+		assertEquals(3, path.size());
+		assertEquals("child_node_3", path.get(2).getNodeId());
+		assertTrue(t.getPath("no_node_id").isEmpty());
+		assertTrue(t.getAncestors(null).isEmpty());
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.Tree#addChild(com.siliconmtn.data.tree.Node, com.siliconmtn.data.tree.Node)}.
+	 */
+	@Test
+	void testAddChild() {
+		Tree t = new Tree(nodes, root);
+		Node child = new Node("child_node_4", "child_node_3");
+		child.addChild(new Node("child_node_5", "child_node_4"));
+		t.addChild(t.findNode("child_node_3"), child);
+
+		assertSame(child, t.findNode("child_node_4"));
+		assertEquals(5, t.getPath("child_node_5").size());
+		assertEquals(5, t.getDepth());
+
+		Node top = new Node("child_node_6", "root_node_id");
+		t.addChild(root, top);
+		assertSame(root, t.getParent("child_node_6"));
+		assertEquals(5, t.getDepth());
+
+		assertThrows(IllegalArgumentException.class, () -> t.addChild(new Node("other", null), new Node("x", "other")));
+		assertThrows(IllegalArgumentException.class, () -> t.addChild(root, null));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.Tree#insert(java.lang.String, com.siliconmtn.data.tree.Node)}.
+	 */
+	@Test
+	void testInsert() {
+		Tree t = new Tree(nodes, root);
+		t.buildNodePaths();
+		Tree.calculateTotalChildren(root);
+		assertEquals(3, root.getTotalChildren());
+
+		Node child = new Node("child_node_4", null);
+		child.setNodeName("Fourth");
+		child.addChild(new Node("child_node_5", null));
+		assertSame(child, t.insert("CHILD_NODE_3", child));
+
+		assertEquals("child_node_3", child.getParentId());
+		assertEquals(3, child.getDepthLevel());
+		assertEquals(4, t.findNode("child_node_5").getDepthLevel());
+		assertEquals("Fourth", t.findNode("child_node_5").getParentName());
+		assertEquals("/child_node_1child_node_3child_node_4child_node_5", t.findNode("child_node_5").getFullPath());
+		assertEquals(1, child.getTotalChildren());
+		assertEquals(2, t.findNode("child_node_3").getTotalChildren());
+		assertEquals(5, root.getTotalChildren());
+		assertEquals(5, t.getDepth());
+
+		t.insert(null, new Node("child_node_6", null));
+		assertSame(root, t.getParent("child_node_6"));
+		assertEquals(6, root.getTotalChildren());
+		assertThrows(IllegalArgumentException.class, () -> t.insert("no_node_id", new Node("x", null)));
+		assertThrows(IllegalArgumentException.class, () -> t.insert(null, null));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.Tree#move(java.lang.String, java.lang.String)}.
+	 */
+	@Test
+	void testMove() {
+		Tree t = new Tree(nodes, root);
+		t.buildNodePaths(">", false);
+		Tree.calculateTotalChildren(root);
+		Node first = t.findNode("child_node_1");
+
+		assertSame(first, t.move("child_node_1", "child_node_2"));
+		Node second = t.findNode("child_node_2");
+		assertSame(second, t.getParent("child_node_1"));
+		assertEquals(1, root.getChildren().size());
+		assertEquals(2, second.getTotalChildren());
+		assertFalse(second.isLeaf());
+		assertEquals(3, root.getTotalChildren());
+		assertEquals(3, t.findNode("child_node_3").getDepthLevel());
+		assertEquals(">child_node_2child_node_1child_node_3", t.findNode("child_node_3").getFullPath());
+		assertEquals(4, t.getPath("child_node_3").size());
+		assertEquals(4, t.getDepth());
+
+		t.move("child_node_3", null);
+		assertTrue(first.isLeaf());
+		assertEquals(1, second.getTotalChildren());
+		assertEquals(1, t.findNode("child_node_3").getDepthLevel());
+		assertEquals(3, t.getDepth());
+
+		assertThrows(IllegalArgumentException.class, () -> t.move("child_node_2", "child_node_1"));
+		assertThrows(IllegalArgumentException.class, () -> t.move("child_node_2", "child_node_2"));
+		assertThrows(IllegalArgumentException.class, () -> t.move("no_node_id", null));
+		assertThrows(IllegalArgumentException.class, () -> t.move("child_node_2", "no_node_id"));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.Tree#remove(java.lang.String)}.
+	 */
+	@Test
+	void testRemove() {
+		Tree t = new Tree(nodes, root);
+		Tree.calculateTotalChildren(root);
+		Node first = t.findNode("child_node_1");
+
+		assertSame(first, t.remove("child_node_1"));
+		assertNull(t.findNode("child_node_1"));
+		assertNull(t.findNode("child_node_3"));
+		assertEquals(1, root.getChildren().size());
+		assertEquals(1, root.getTotalChildren());
+		assertEquals(2, t.getDepth());
+		assertEquals(1, t.preorderList().size());
+
+		assertSame(t.findNode("child_node_2"), t.remove("child_node_2"));
+		assertTrue(root.isLeaf());
+		assertEquals(1, t.getDepth());
+		assertNull(t.remove("child_node_2"));
+	}
+
+	/**
+	 * Validates concurrent lookups on a shared tree return their own nodes
+	 * @throws Exception
+	 */
+	@Test
+	void testConcurrentFindNode() throws Exception {
+		List<Node> data = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) data.add(new Node("n" + i, i < 10 ? "root_node_id" : "n" + (i / 10)));
+		Tree t = new Tree(data, root);
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				int offset = thread;
+				results.add(pool.submit(() -> {
+					for (int i = offset; i < 1000; i += 4) {
+						if (! ("n" + i).equals(t.findNode("N" + i).getNodeId())) return false;
+					}
+
+					return true;
+				}));
+			}
+
+			for (Future<Boolean> result : results) assertTrue(result.get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Validates the index is rebuilt when the tree is deserialized
+	 * @throws Exception
+	 */
+	@Test
+	void testSerialization() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(new Tree(nodes, root));
+		}
+
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			Tree t = (Tree) in.readObject();
+			assertEquals("child_node_3", t.findNode("child_node_3").getNodeId());
+			assertEquals(3, t.getPath("child_node_3").size());
+			assertEquals(3, t.getDepth());
+		}
 	}
 
 	/**
@@ -119,6 +348,27 @@ class TreeTest {
 		
 	}
 
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.Tree#preorderIterator()}, 
+	 * {@link com.siliconmtn.data.tree.Tree#postorderIterator()}, 
+	 * {@link com.siliconmtn.data.tree.Tree#breadthFirstIterator()} and the streams.
+	 */
+	@Test
+	void testTraversals() {
+		Tree t = new Tree(nodes, root);
+		List<Node> preorder = t.preorderList();
+		Iterator<Node> iterator = t.preorderIterator();
+		for (Node n : preorder) assertSame(n, iterator.next());
+		assertFalse(iterator.hasNext());
+
+		assertEquals("child_node_3", t.postorderIterator().next().getNodeId());
+		Iterator<Node> breadthFirst = t.breadthFirstIterator();
+		breadthFirst.next();
+		assertEquals("child_node_2", breadthFirst.next().getNodeId());
+		assertEquals(3, t.stream().count());
+		assertEquals(3, t.parallelStream().count());
+	}
+
 	/**
 	 * Test method for {@link com.siliconmtn.data.tree.Tree#calculateTotalChildren(com.siliconmtn.data.tree.Node)}.
 	 */
@@ -257,4 +507,116 @@ class TreeTest {
 		assertFalse(isEqual);
 	}
 
+	/**
+	 * Validates ids are matched ignoring case, and that orphans and nodes in a 
+	 * cycle are not added to the tree
+	 */
+	@Test
+	void testBuildMatching() {
+		List<Node> data = new ArrayList<>();
+		data.add(new Node("CHILD_A", "Root_Node_Id"));
+		data.add(new Node("child_b", "child_a"));
+		data.add(new Node("orphan", "missing"));
+		data.add(new Node("cycle_1", "cycle_2"));
+		data.add(new Node("cycle_2", "cycle_1"));
+		root.setNodeName("Root Node");
+
+		Tree t = new Tree(data, root);
+		List<Node> preorder = t.preorderList();
+		assertEquals(2, preorder.size());
+		assertEquals("CHILD_A", preorder.get(0).getNodeId());
+		assertEquals("Root Node", preorder.get(0).getParentName());
+		assertEquals(1, preorder.get(0).getDepthLevel());
+		assertEquals("child_b", preorder.get(1).getNodeId());
+		assertEquals(2, preorder.get(1).getDepthLevel());
+		assertEquals(3, t.getDepth());
+		assertEquals(5, data.size());
+		assertEquals(1, new Tree(new ArrayList<>(), root).getDepth());
+		assertTrue("\u0130d".equalsIgnoreCase("iD"));
+		assertEquals(Tree.toIndexKey("\u0130d"), Tree.toIndexKey("iD"));
+	}
+
+	/**
+	 * Validates a large tree is built the same way the layer by layer matching
+	 * of the previous implementation built it, including duplicate ids, ids
+	 * differing by case and a deep branch
+	 */
+	@Test
+	void testBuildLarge() {
+		Random random = new Random(42);
+		List<Node> data = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			String parent = i < 10 ? "root_node_id" : "n" + random.nextInt(i);
+			String id = random.nextInt(50) == 0 ? "N" + random.nextInt(i + 1) : "n" + i;
+			Node node = new Node(id, random.nextInt(100) == 0 ? parent.toUpperCase() : parent);
+			node.setNodeName("name " + i);
+			data.add(node);
+		}
+
+		for (int i = 0; i < 200; i++) data.add(new Node("deep" + (i + 1), i == 0 ? "n5" : "deep" + i));
+		Collections.shuffle(data, random);
+
+		Node expectedRoot = new Node(root);
+		int expectedDepth = legacyBuild(new ArrayList<>(data), new ArrayList<>(List.of(expectedRoot)), 0);
+		Tree t = new Tree(data, root);
+
+		assertEquals(expectedDepth, t.getDepth());
+		assertTrue(t.getDepth() > 200);
+		assertSameTree(expectedRoot, t.getRootNode());
+	}
+
+	/**
+	 * Builds the tree with the layer by layer matching of the previous implementation
+	 * @param data Nodes not yet added
+	 * @param children Nodes of the current layer
+	 * @param depth Depth of the previous layer
+	 * @return Depth of the tree
+	 */
+	private int legacyBuild(List<Node> data, List<Node> children, int depth) {
+		while (true) {
+			depth++;
+			List<Node> newChildren = new ArrayList<>();
+			List<Node> remaining = new ArrayList<>();
+			for (Node dataNode : data) {
+				boolean added = false;
+				for (Node childNode : children) {
+					if (StringUtil.defaultString(dataNode.getParentId()).equalsIgnoreCase(childNode.getNodeId())) {
+						Node node = new Node(dataNode);
+						node.setDepthLevel(depth);
+						node.setParentName(childNode.getNodeName());
+						childNode.addChild(node);
+						newChildren.add(node);
+						added = true;
+					}
+				}
+
+				if (! added) remaining.add(dataNode);
+			}
+
+			if (newChildren.isEmpty()) return depth;
+			data = remaining;
+			children = newChildren;
+		}
+	}
+
+	/**
+	 * Compares the structure and values of two trees
+	 * @param expected Expected node
+	 * @param actual Actual node
+	 */
+	private void assertSameTree(Node expected, Node actual) {
+		List<Node[]> pending = new ArrayList<>();
+		pending.add(new Node[] { expected, actual });
+		while (! pending.isEmpty()) {
+			Node[] pair = pending.remove(pending.size() - 1);
+			assertEquals(pair[0].getNodeId(), pair[1].getNodeId());
+			assertEquals(pair[0].getParentName(), pair[1].getParentName());
+			assertEquals(pair[0].getDepthLevel(), pair[1].getDepthLevel());
+			assertEquals(pair[0].isLeaf(), pair[1].isLeaf());
+			assertEquals(pair[0].getNumberChildren(), pair[1].getNumberChildren());
+			for (int i = 0; i < pair[0].getNumberChildren(); i++) {
+				pending.add(new Node[] { pair[0].getChildren().get(i), pair[1].getChildren().get(i) });
+			}
+		}
+	}
 }
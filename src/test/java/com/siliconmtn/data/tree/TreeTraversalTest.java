@@ -0,0 +1,184 @@
+package com.siliconmtn.data.tree;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+/****************************************************************************
+ * <b>Title</b>: TreeTraversalTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the iterative traversals of the nodes, including
+ * trees too deep to be walked recursively
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class TreeTraversalTest {
+
+	private Node root;
+
+	/**
+	 * Builds the tree root -> (a -> (a1, a2), b -> (b1))
+	 */
+	@BeforeEach
+	void setUpBeforeEach() {
+		root = node("root");
+		Node a = node("a");
+		Node b = node("b");
+		root.addChild(a);
+		root.addChild(b);
+		a.addChild(node("a1"));
+		a.addChild(node("a2"));
+		b.addChild(node("b1"));
+	}
+
+	/**
+	 * Creates a node with an empty path, so the paths don't grow with the depth
+	 * @param id Id of the node
+	 * @return Node created
+	 */
+	private Node node(String id) {
+		Node n = new Node(id, null);
+		n.setFullPath("");
+		return n;
+	}
+
+	/**
+	 * Lists the ids of the nodes of an iterator
+	 * @param nodes Iterator of the nodes
+	 * @return Comma separated ids
+	 */
+	private String ids(Iterator<Node> nodes) {
+		List<String> ids = new ArrayList<>();
+		nodes.forEachRemaining(n -> ids.add(n.getNodeId()));
+		return String.join(",", ids);
+	}
+
+	/**
+	 * Builds a chain of nodes, each the only child of the previous one
+	 * @param length Number of nodes
+	 * @return First node of the chain
+	 */
+	private Node chain(int length) {
+		Node first = node("0");
+		Node last = first;
+		for (int i = 1; i < length; i++) {
+			Node next = node(String.valueOf(i));
+			last.addChild(next);
+			last = next;
+		}
+
+		return first;
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreeTraversal#preorder(com.siliconmtn.data.tree.Node)}.
+	 */
+	@Test
+	void testPreorder() {
+		assertEquals("root,a,a1,a2,b,b1", ids(TreeTraversal.preorder(root)));
+		assertEquals("a,a1,a2,b,b1", ids(TreeTraversal.preorder(root.getChildren())));
+		assertEquals("", ids(TreeTraversal.preorder((Node) null)));
+		assertThrows(NoSuchElementException.class, () -> TreeTraversal.preorder((Node) null).next());
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreeTraversal#postorder(com.siliconmtn.data.tree.Node)}.
+	 */
+	@Test
+	void testPostorder() {
+		assertEquals("a1,a2,a,b1,b,root", ids(TreeTraversal.postorder(root)));
+		assertEquals("a1,a2,a,b1,b", ids(TreeTraversal.postorder(root.getChildren())));
+		assertEquals("a1,a2,a,b1,b,root", TreeTraversal.postorderStream(root).map(Node::getNodeId).collect(Collectors.joining(",")));
+		assertThrows(NoSuchElementException.class, () -> TreeTraversal.postorder((Node) null).next());
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreeTraversal#breadthFirst(com.siliconmtn.data.tree.Node)}.
+	 */
+	@Test
+	void testBreadthFirst() {
+		assertEquals("root,a,b,a1,a2,b1", ids(TreeTraversal.breadthFirst(root)));
+		assertEquals("a,b,a1,a2,b1", ids(TreeTraversal.breadthFirst(root.getChildren())));
+		assertEquals("root,a,b,a1,a2,b1", TreeTraversal.breadthFirstStream(root).map(Node::getNodeId).collect(Collectors.joining(",")));
+		assertThrows(NoSuchElementException.class, () -> TreeTraversal.breadthFirst((Node) null).next());
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.tree.TreeTraversal#preorderSpliterator(java.util.List)}.
+	 */
+	@Test
+	void testPreorderSpliterator() {
+		Spliterator<Node> suffix = TreeTraversal.preorderSpliterator(List.of(root));
+		Spliterator<Node> prefix = suffix.trySplit();
+		assertNotNull(prefix);
+		assertTrue(suffix.hasCharacteristics(Spliterator.ORDERED));
+
+		List<String> ids = new ArrayList<>();
+		prefix.forEachRemaining(n -> ids.add(n.getNodeId()));
+		assertEquals(List.of("root", "a", "a1", "a2"), ids);
+		while (suffix.tryAdvance(n -> ids.add(n.getNodeId())));
+		assertEquals(List.of("root", "a", "a1", "a2", "b", "b1"), ids);
+		assertNull(suffix.trySplit());
+	}
+
+	/**
+	 * Validates the parallel stream returns every node in preorder
+	 */
+	@Test
+	void testParallelStream() {
+		Node top = node("top");
+		int count = 1;
+		for (int i = 0; i < 20; i++) {
+			Node child = node("c" + i);
+			top.addChild(child);
+			count++;
+			for (int j = 0; j < 500; j++) {
+				child.addChild(node("c" + i + "_" + j));
+				count++;
+			}
+		}
+
+		List<Node> sequential = new ArrayList<>();
+		TreeTraversal.preorder(top).forEachRemaining(sequential::add);
+		List<Node> parallel = TreeTraversal.preorderStream(top, true).collect(Collectors.toList());
+
+		assertEquals(count, parallel.size());
+		for (int i = 0; i < count; i++) assertSame(sequential.get(i), parallel.get(i));
+		assertEquals(count, TreeTraversal.preorderStream(top, true).filter(n -> n.getNodeId() != null).count());
+	}
+
+	/**
+	 * Validates trees too deep for recursion are traversed and totaled
+	 */
+	@Test
+	void testDeepTree() {
+		int length = 200000;
+		Node first = chain(length);
+
+		Iterator<Node> postorder = TreeTraversal.postorder(first);
+		assertEquals(String.valueOf(length - 1), postorder.next().getNodeId());
+		assertEquals(length, TreeTraversal.preorderStream(first, false).count());
+		assertEquals(length, TreeTraversal.breadthFirstStream(first).count());
+		assertEquals(length - 1, Tree.calculateTotalChildren(first));
+		assertEquals(length - 4, first.getChildren().get(0).getChildren().get(0).getChildren().get(0).getTotalChildren());
+
+		Tree t = new Tree(new ArrayList<>(), root);
+		List<Node> hldr = new ArrayList<>();
+		t.createPreorder(List.of(first), hldr);
+		assertEquals(length, hldr.size());
+	}
+}
@@ -0,0 +1,126 @@
+package com.siliconmtn.data.util;
+
+// Junit 5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+// JDK 11.x
+import java.beans.IntrospectionException;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// spacelibs-java 1.1.x
+import com.siliconmtn.data.util.EntityMapping.FieldMapping;
+import com.siliconmtn.io.api.base.BaseDTO;
+
+// Lombok 1.18.x
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/****************************************************************************
+ * <b>Title</b>: EntityMappingTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the cached mapping plans of the EntityUtil
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class EntityMappingTest {
+
+	/**
+	 * Maps the fields of a plan by name
+	 * @param mapping Plan of the classes
+	 * @return Fields of the plan
+	 */
+	private Map<String, FieldMapping> fields(EntityMapping mapping) {
+		return mapping.getFields().stream().collect(Collectors.toMap(FieldMapping::getName, Function.identity()));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.util.EntityMapping#toDto(java.lang.Class, java.lang.Class)}.
+	 */
+	@Test
+	void testToDto() throws Exception {
+		EntityMapping mapping = EntityMapping.toDto(Category.class, CategoryDTO.class);
+		assertSame(mapping, EntityMapping.toDto(Category.class, CategoryDTO.class));
+		assertTrue(mapping.newInstance() instanceof CategoryDTO);
+
+		Map<String, FieldMapping> fields = fields(mapping);
+		assertEquals(6, fields.size());
+		assertFalse(fields.get("code").isRelation());
+		assertTrue(fields.get("parentCode").isRelation());
+		assertEquals(Category.class, fields.get("parentCode").getEntityType());
+
+		Category category = new Category();
+		category.setCode("CODE");
+		category.setDepth((short) 2);
+		assertEquals("CODE", fields.get("code").read(category));
+		assertEquals("CODE", fields.get("parentCode").readId(category));
+
+		CategoryDTO dto = new CategoryDTO();
+		fields.get("depth").write(dto, fields.get("depth").read(category));
+		assertEquals(2, dto.getDepth());
+	}
+
+	/**
+	 * Validates relations without an @Id are mapped to null
+	 */
+	@Test
+	void testToDtoWithoutId() throws Exception {
+		FieldMapping parent = fields(EntityMapping.toDto(CategoryWithoutId.class, CategoryDTO.class)).get("parentCode");
+		assertTrue(parent.isRelation());
+		assertNull(parent.readId(new CategoryWithoutId()));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.util.EntityMapping#toEntity(java.lang.Class, java.lang.Class)}.
+	 */
+	@Test
+	void testToEntity() throws Exception {
+		EntityMapping mapping = EntityMapping.toEntity(CategoryDTO.class, Category.class);
+		assertSame(mapping, EntityMapping.toEntity(CategoryDTO.class, Category.class));
+		assertNotSame(mapping, EntityMapping.toDto(Category.class, CategoryDTO.class));
+
+		Map<String, FieldMapping> fields = fields(mapping);
+		assertEquals(6, fields.size());
+		assertTrue(fields.get("parentCode").isRelation());
+		assertEquals(Category.class, fields.get("parentCode").getEntityType());
+
+		Category category = new Category();
+		fields.get("name").write(category, "Name");
+		assertEquals("Name", category.getName());
+	}
+
+	/**
+	 * Validates classes that can't be mapped fail each time, without being cached
+	 */
+	@Test
+	void testUnmappedField() {
+		assertThrows(IntrospectionException.class, () -> EntityMapping.toDto(Category.class, UnmappedDTO.class));
+		assertThrows(IntrospectionException.class, () -> EntityMapping.toDto(Category.class, UnmappedDTO.class));
+		assertThrows(NoSuchFieldException.class, () -> EntityMapping.toEntity(UnmappedDTO.class, Category.class));
+	}
+
+	/**
+	 * Test method for {@link com.siliconmtn.data.util.EntityMapping#clear()}.
+	 */
+	@Test
+	void testClear() throws Exception {
+		EntityMapping mapping = EntityMapping.toDto(Category.class, CategoryDTO.class);
+		EntityUtil.clearCache();
+		assertNotSame(mapping, EntityMapping.toDto(Category.class, CategoryDTO.class));
+	}
+}
+
+@Data
+@NoArgsConstructor
+class UnmappedDTO implements BaseDTO {
+	private static final long serialVersionUID = 1L;
+	private String code;
+	private String description;
+}
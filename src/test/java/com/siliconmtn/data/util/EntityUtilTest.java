@@ -237,6 +237,8 @@ class EntityUtilTest {
 	 */
 	@Test
 	void testEntityToDtoThrow() throws Exception {
+		// The @Id fields are looked up when the mapping is resolved, so clear the cached mappings
+		EntityUtil.clearCache();
 		try (MockedStatic<ClassUtil> classUtilMock = Mockito.mockStatic(ClassUtil.class)) {
 			classUtilMock.when(() -> ClassUtil.getFieldsByAnnotation(ArgumentMatchers.any(), ArgumentMatchers.any()))
 					.thenThrow(new RuntimeException());
@@ -0,0 +1,63 @@
+package com.siliconmtn.io.http;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+// Libs
+import com.siliconmtn.io.http.CircuitBreaker.State;
+
+/****************************************************************************
+ * <b>Title</b>: CircuitBreakerTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the state changes of the circuit breaker
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class CircuitBreakerTest {
+
+	/**
+	 * Opens the circuit after the failure threshold and validates the trial request
+	 * @throws Exception
+	 */
+	@Test
+	void testStateChanges() throws Exception {
+		CircuitBreaker breaker = new CircuitBreaker(2, 50);
+		assertEquals(State.CLOSED, breaker.getState());
+		assertTrue(breaker.allowRequest());
+
+		breaker.recordFailure();
+		assertEquals(State.CLOSED, breaker.getState());
+		assertEquals(1, breaker.getFailures());
+		breaker.recordSuccess();
+		assertEquals(0, breaker.getFailures());
+
+		breaker.recordFailure();
+		breaker.recordFailure();
+		assertEquals(State.OPEN, breaker.getState());
+		assertFalse(breaker.allowRequest());
+
+		// Only a single trial is allowed once the timeout passes
+		Thread.sleep(80);
+		assertTrue(breaker.allowRequest());
+		assertEquals(State.HALF_OPEN, breaker.getState());
+		assertFalse(breaker.allowRequest());
+
+		// A failed trial opens the circuit again
+		breaker.recordFailure();
+		assertEquals(State.OPEN, breaker.getState());
+		assertFalse(breaker.allowRequest());
+
+		Thread.sleep(80);
+		assertTrue(breaker.allowRequest());
+		breaker.recordSuccess();
+		assertEquals(State.CLOSED, breaker.getState());
+		assertTrue(breaker.allowRequest());
+		assertTrue(breaker.allowRequest());
+	}
+}
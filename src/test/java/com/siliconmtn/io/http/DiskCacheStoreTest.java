@@ -0,0 +1,131 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/****************************************************************************
+ * <b>Title</b>: DiskCacheStoreTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the files, size limit and damaged files of the
+ * disk store
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class DiskCacheStoreTest {
+
+	// Members
+	private Path directory;
+
+	/**
+	 * Creates the directory of the store
+	 * @throws Exception
+	 */
+	@BeforeEach
+	void setUp() throws Exception {
+		directory = Files.createTempDirectory("cache");
+	}
+
+	/**
+	 * Removes the directory of the store
+	 * @throws Exception
+	 */
+	@AfterEach
+	void tearDown() throws Exception {
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+		}
+	}
+
+	/**
+	 * Writes and reads back an entry
+	 * @throws Exception
+	 */
+	@Test
+	void testPutGet() throws Exception {
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		headers.put(null, Arrays.asList("HTTP/1.1 200 OK"));
+		headers.put("ETag", Arrays.asList("\"v1\""));
+		headers.put("Vary", Arrays.asList("Accept", "Accept-Language"));
+		HttpCacheEntry entry = new HttpCacheEntry("GET http://localhost/a", 200, headers, Collections.singletonMap("accept", "text/xml"),
+			"Hello".getBytes(), 10, 20);
+
+		DiskCacheStore store = new DiskCacheStore(directory.resolve("cache"), 0);
+		assertNull(store.get(entry.getKey()));
+		store.put(entry);
+		assertTrue(Files.exists(store.getFile(entry.getKey())));
+		assertEquals(Files.size(store.getFile(entry.getKey())), store.getSize());
+
+		// A new store reads the files of the directory
+		store = new DiskCacheStore(directory.resolve("cache"), 0);
+		HttpCacheEntry read = store.get(entry.getKey());
+		assertEquals(entry.getKey(), read.getKey());
+		assertEquals(200, read.getResponseCode());
+		assertEquals(10, read.getStoredAt());
+		assertEquals(20, read.getExpiresAt());
+		assertEquals("\"v1\"", read.getETag());
+		assertEquals(Arrays.asList("Accept", "Accept-Language"), read.getHeaders().get("Vary"));
+		assertFalse(read.getHeaders().containsKey(null));
+		assertEquals("text/xml", read.getVaryHeaders().get("accept"));
+		assertEquals("Hello", new String(read.getData()));
+		assertTrue(store.getSize() > 0);
+
+		store.remove(entry.getKey());
+		assertNull(store.get(entry.getKey()));
+		assertEquals(0, store.getSize());
+	}
+
+	/**
+	 * Validates damaged files are removed and treated as a miss
+	 * @throws Exception
+	 */
+	@Test
+	void testDamagedFile() throws Exception {
+		DiskCacheStore store = new DiskCacheStore(directory, 0);
+		Files.write(store.getFile("GET http://localhost/a"), new byte[] { 0, 0, 0, 1, 0 });
+		assertNull(store.get("GET http://localhost/a"));
+		assertFalse(Files.exists(store.getFile("GET http://localhost/a")));
+	}
+
+	/**
+	 * Validates the oldest files are removed when the store is too large
+	 * @throws Exception
+	 */
+	@Test
+	void testTrim() throws Exception {
+		DiskCacheStore store = new DiskCacheStore(directory, 2500);
+		for (int i = 0; i < 5; i++) {
+			store.put(new HttpCacheEntry("GET /" + i, 200, Collections.emptyMap(), Collections.emptyMap(), new byte[1000], 0, 0));
+			Files.setLastModifiedTime(store.getFile("GET /" + i), FileTime.fromMillis(1000L * i));
+		}
+
+		assertTrue(store.getSize() <= 2500);
+		assertNotNull(store.get("GET /4"));
+		assertNull(store.get("GET /0"));
+
+		store.clear();
+		assertEquals(0, store.getSize());
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals(0, files.count());
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.sun.net.httpserver.HttpServer;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Libs
+import com.siliconmtn.io.http.SMTHttpConnectionManager.HttpConnectionType;
+
+/****************************************************************************
+ * <b>Title</b>: HttpBatchExecutorTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the batch executor against a local http server
+ * that records how many requests it serves at once
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class HttpBatchExecutorTest {
+
+	static HttpServer server;
+	static int port;
+	static final AtomicInteger active = new AtomicInteger();
+	static final AtomicInteger maxActive = new AtomicInteger();
+	static final Map<String, AtomicInteger> hostActive = new ConcurrentHashMap<>();
+	static final Map<String, AtomicInteger> hostMaxActive = new ConcurrentHashMap<>();
+
+	HttpBatchExecutor executor;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/slow", ex -> {
+			String host = ex.getRequestHeaders().getFirst("Host").split(":")[0];
+			AtomicInteger current = hostActive.computeIfAbsent(host, k -> new AtomicInteger());
+			AtomicInteger currentMax = hostMaxActive.computeIfAbsent(host, k -> new AtomicInteger());
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			currentMax.accumulateAndGet(current.incrementAndGet(), Math::max);
+
+			try {
+				Thread.sleep(50);
+				byte[] body = ex.getRequestURI().getQuery().getBytes();
+				ex.getRequestBody().readAllBytes();
+				ex.sendResponseHeaders(200, body.length);
+				ex.getResponseBody().write(body);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				current.decrementAndGet();
+				active.decrementAndGet();
+				ex.close();
+			}
+		});
+		server.start();
+		port = server.getAddress().getPort();
+	}
+
+	@AfterAll
+	static void tearDownAfterClass() {
+		server.stop(0);
+	}
+
+	@BeforeEach
+	void setUpBeforeEach() {
+		executor = new HttpBatchExecutor(new SMTHttpConnectionManager());
+		maxActive.set(0);
+		hostMaxActive.clear();
+	}
+
+	/**
+	 * Builds the requests of a batch
+	 * @param hosts Hosts the requests alternate between
+	 * @param count Number of requests
+	 * @return Requests numbered by their query
+	 * @throws IOException
+	 */
+	List<HttpBatchRequest> requests(String[] hosts, int count) throws IOException {
+		List<HttpBatchRequest> requests = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			URL url = new URL("http://" + hosts[i % hosts.length] + ":" + port + "/slow?" + i);
+			requests.add(new HttpBatchRequest(url, HttpConnectionType.GET));
+		}
+
+		return requests;
+	}
+
+	/**
+	 * Validates the results are returned in order, delivered as they complete and
+	 * the number of requests in flight is bounded
+	 * @throws Exception
+	 */
+	@Test
+	void testExecute() throws Exception {
+		executor.setParallelism(4);
+		List<HttpBatchResult> completed = new CopyOnWriteArrayList<>();
+		List<HttpBatchResult> results = executor.execute(requests(new String[] { "localhost" }, 20), completed::add);
+
+		assertEquals(20, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			HttpBatchResult result = results.get(i);
+			assertTrue(result.isSuccess());
+			assertEquals(i, result.getIndex());
+			assertEquals(200, result.getResponse().getResponseCode());
+			assertEquals(String.valueOf(i), result.getResponse().getDataAsString());
+		}
+
+		assertEquals(20, completed.size());
+		assertTrue(maxActive.get() <= 4);
+		assertTrue(maxActive.get() > 1);
+		assertTrue(executor.executeAsync(new ArrayList<>()).get().isEmpty());
+	}
+
+	/**
+	 * Validates the requests to a busy host do not exceed its limit nor hold
+	 * back the requests to the other hosts
+	 * @throws Exception
+	 */
+	@Test
+	void testMaxPerHost() throws Exception {
+		executor.setParallelism(10);
+		executor.setMaxPerHost(2);
+		List<HttpBatchResult> results = executor.executeAsync(requests(new String[] { "localhost", "localhost", "127.0.0.1" }, 15)).get(10, TimeUnit.SECONDS);
+
+		assertEquals(15, results.size());
+		assertTrue(results.stream().allMatch(HttpBatchResult::isSuccess));
+		assertEquals(2, hostMaxActive.get("localhost").get());
+		assertEquals(2, hostMaxActive.get("127.0.0.1").get());
+		assertTrue(maxActive.get() <= 4);
+		assertTrue(maxActive.get() > 2);
+	}
+
+	/**
+	 * Validates the requests are spaced by the rate limit
+	 * @throws Exception
+	 */
+	@Test
+	void testRequestsPerSecond() throws Exception {
+		executor.setRequestsPerSecond(20);
+		assertEquals(20, executor.getRequestsPerSecond(), 0.001);
+
+		long start = System.nanoTime();
+		List<HttpBatchResult> results = executor.execute(requests(new String[] { "localhost" }, 6));
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertEquals(6, results.size());
+		assertTrue(elapsed >= 250, "Elapsed " + elapsed);
+
+		executor.setRequestsPerSecond(0);
+		assertEquals(0, executor.getRequestsPerSecond());
+	}
+
+	/**
+	 * Validates failed requests are captured in their result without stopping
+	 * the batch
+	 * @throws Exception
+	 */
+	@Test
+	void testFailure() throws Exception {
+		int closedPort;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			closedPort = socket.getLocalPort();
+		}
+
+		List<HttpBatchRequest> requests = requests(new String[] { "localhost" }, 2);
+		requests.add(1, new HttpBatchRequest(new URL("http://localhost:" + closedPort + "/slow?x"), HttpConnectionType.POST, "data".getBytes()));
+		List<HttpBatchResult> results = executor.execute(requests, r -> { throw new IllegalStateException("Ignored"); });
+
+		assertTrue(results.get(0).isSuccess());
+		assertFalse(results.get(1).isSuccess());
+		assertNull(results.get(1).getResponse());
+		assertTrue(results.get(1).getError() instanceof IOException);
+		assertSame(requests.get(1), results.get(1).getRequest());
+		assertTrue(results.get(2).isSuccess());
+	}
+
+	/**
+	 * Validates the arguments
+	 */
+	@Test
+	void testValidation() {
+		assertThrows(IllegalArgumentException.class, () -> new HttpBatchExecutor(null));
+		assertThrows(IllegalArgumentException.class, () -> executor.setParallelism(0));
+		assertThrows(IllegalArgumentException.class, () -> executor.setMaxPerHost(-1));
+		assertThrows(IllegalArgumentException.class, () -> executor.setRequestsPerSecond(-1));
+		assertThrows(IllegalArgumentException.class, () -> executor.execute(null));
+		assertThrows(IllegalArgumentException.class, () -> new HttpBatchRequest(null, HttpConnectionType.GET));
+		assertEquals(HttpBatchExecutor.DEFAULT_PARALLELISM, executor.getParallelism());
+		assertEquals(0, executor.getMaxPerHost());
+	}
+}
@@ -0,0 +1,213 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+// Libs
+import com.siliconmtn.io.http.SMTHttpConnectionManager.HttpConnectionType;
+
+/****************************************************************************
+ * <b>Title</b>: HttpCompressionTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the codecs, the response decoding and the request
+ * body encoding of the compressed transfers
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class HttpCompressionTest {
+
+	private static final byte[] DATA = "Hello World Hello World Hello World".getBytes();
+
+	/**
+	 * Validates the registered codecs and the Accept-Encoding header
+	 * @throws Exception
+	 */
+	@Test
+	void testRegister() throws Exception {
+		HttpCompression compression = new HttpCompression();
+		assertEquals("gzip, deflate", compression.getAcceptEncoding());
+		assertNotNull(compression.getCodec(" GZIP "));
+		assertNull(compression.getCodec("br"));
+		assertNull(compression.getCodec(null));
+
+		compression.register(new ReverseCodec());
+		assertEquals("gzip, deflate, br", compression.getAcceptEncoding());
+		assertArrayEquals(DATA, compression.decode("br", new ByteArrayInputStream(reverse(DATA))).readAllBytes());
+	}
+
+	/**
+	 * Validates gzip and deflate responses are decoded
+	 * @throws Exception
+	 */
+	@Test
+	void testDecode() throws Exception {
+		HttpCompression compression = new HttpCompression();
+		assertArrayEquals(DATA, compression.decode("gzip", new ByteArrayInputStream(gzip(DATA))).readAllBytes());
+		assertArrayEquals(DATA, compression.decode("deflate", new ByteArrayInputStream(deflate(DATA, false))).readAllBytes());
+		assertArrayEquals(DATA, compression.decode("deflate", new ByteArrayInputStream(deflate(DATA, true))).readAllBytes());
+
+		// Encodings are removed in the reverse order they were applied
+		byte[] twice = deflate(gzip(DATA), false);
+		assertArrayEquals(DATA, compression.decode("gzip, identity, deflate", new ByteArrayInputStream(twice)).readAllBytes());
+
+		InputStream in = new ByteArrayInputStream(DATA);
+		assertSame(in, compression.decode(null, in));
+		assertSame(in, compression.decode("identity", in));
+		assertThrows(IOException.class, () -> compression.decode("zstd", new ByteArrayInputStream(DATA)));
+		assertThrows(IOException.class, () -> compression.decode("gzip", new ByteArrayInputStream(DATA)));
+	}
+
+	/**
+	 * Validates only the POST and PUT bodies at least the minimum size are encoded
+	 * @throws Exception
+	 */
+	@Test
+	void testEncode() throws Exception {
+		HttpCompressionConfig config = new HttpCompressionConfig();
+		config.setRequestEncoding("gzip");
+		config.setMinRequestSize(10);
+		HttpCompression compression = new HttpCompression(config);
+		assertEquals("gzip", compression.getRequestEncoding());
+		assertEquals(10, compression.getMinRequestSize());
+
+		HttpRequestBody body = HttpRequestBody.ofBytes(DATA);
+		HttpRequestBody encoded = compression.encode(body, HttpConnectionType.POST);
+		assertEquals("gzip", encoded.getContentEncoding());
+		assertTrue(encoded.isBuffered());
+		assertArrayEquals(DATA, compression.decode("gzip", new ByteArrayInputStream(write(encoded))).readAllBytes());
+		assertEquals(write(encoded).length, encoded.getContentLength());
+
+		assertSame(body, compression.encode(body, HttpConnectionType.GET));
+		HttpRequestBody small = HttpRequestBody.ofBytes("Small".getBytes());
+		assertSame(small, compression.encode(small, HttpConnectionType.PUT));
+
+		// Bodies of unknown length are compressed as they are written
+		HttpRequestBody stream = compression.encode(HttpRequestBody.ofInputStream(new ByteArrayInputStream(DATA), -1), HttpConnectionType.PUT);
+		assertEquals(-1, stream.getContentLength());
+		assertFalse(stream.isBuffered());
+		assertFalse(stream.isRepeatable());
+		assertArrayEquals(DATA, compression.decode("gzip", new ByteArrayInputStream(write(stream))).readAllBytes());
+
+		compression.setRequestEncoding(null);
+		assertSame(body, compression.encode(body, HttpConnectionType.POST));
+	}
+
+	/**
+	 * Validates the encoding headers are removed from the decoded response
+	 */
+	@Test
+	void testRemoveEncodingHeaders() {
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		headers.put(null, Arrays.asList("HTTP/1.1 200 OK"));
+		headers.put("content-encoding", Arrays.asList("gzip"));
+		headers.put("Content-Length", Arrays.asList("20"));
+		headers.put("Content-Type", Arrays.asList("text/plain"));
+
+		Map<String, List<String>> decoded = HttpCompression.removeEncodingHeaders(headers);
+		assertEquals(2, decoded.size());
+		assertTrue(decoded.containsKey(null));
+		assertEquals("text/plain", decoded.get("Content-Type").get(0));
+		assertEquals(4, headers.size());
+	}
+
+	/**
+	 * Compresses data with gzip
+	 * @param data Data to compress
+	 * @return Compressed data
+	 * @throws IOException
+	 */
+	static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		}
+
+		return out.toByteArray();
+	}
+
+	/**
+	 * Compresses data with deflate
+	 * @param data Data to compress
+	 * @param raw True for raw deflate data, false for zlib wrapped data
+	 * @return Compressed data
+	 * @throws IOException
+	 */
+	private static byte[] deflate(byte[] data, boolean raw) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+		try (OutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+			deflate.write(data);
+		} finally {
+			deflater.end();
+		}
+
+		return out.toByteArray();
+	}
+
+	/**
+	 * Writes the body to an array
+	 * @param body Body to write
+	 * @return Data of the body
+	 * @throws IOException
+	 */
+	private static byte[] write(HttpRequestBody body) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		body.writeTo(out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Reverses the order of the bytes
+	 * @param data Data to reverse
+	 * @return Reversed copy of the data
+	 */
+	private static byte[] reverse(byte[] data) {
+		byte[] reversed = new byte[data.length];
+		for (int i = 0; i < data.length; i++) reversed[i] = data[data.length - 1 - i];
+		return reversed;
+	}
+
+	/**
+	 * Codec registered under a name the JDK does not support
+	 */
+	private static class ReverseCodec implements HttpContentCodec {
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpContentCodec#getEncoding()
+		 */
+		@Override
+		public String getEncoding() {
+			return "br";
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.siliconmtn.io.http.HttpContentCodec#decode(java.io.InputStream)
+		 */
+		@Override
+		public InputStream decode(InputStream in) throws IOException {
+			return new ByteArrayInputStream(reverse(in.readAllBytes()));
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+// Micrometer 1.x
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/****************************************************************************
+ * <b>Title</b>: HttpMetricsBinderTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the request metrics are published to the Micrometer
+ * registry
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class HttpMetricsBinderTest {
+
+	/**
+	 * Validates the timers and summaries of a completed request
+	 * @throws Exception
+	 */
+	@Test
+	void testRequestCompleted() throws Exception {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		HttpMetricsBinder binder = new HttpMetricsBinder();
+		binder.requestCompleted(createMetrics(200));
+		assertNull(registry.find(HttpMetricsBinder.REQUESTS).timer());
+
+		binder.bindTo(registry);
+		assertSame(registry, binder.getRegistry());
+		binder.requestCompleted(createMetrics(200));
+		binder.requestCompleted(createMetrics(200));
+
+		assertEquals(2, registry.find(HttpMetricsBinder.REQUESTS).tag("host", "localhost").tag("status", "200").tag("exception", "none").timer().count());
+		assertEquals(2, registry.find(HttpMetricsBinder.DNS).tag("host", "localhost").timer().count());
+		assertEquals(4000, registry.find(HttpMetricsBinder.CONNECT).tag("host", "localhost").timer().totalTime(TimeUnit.NANOSECONDS), 0.1);
+		assertEquals(2, registry.find(HttpMetricsBinder.FIRST_BYTE).tag("method", "GET").timer().count());
+		assertNull(registry.find(HttpMetricsBinder.TLS).timer());
+		assertEquals(600, registry.find(HttpMetricsBinder.BYTES_RECEIVED).tag("host", "localhost").summary().totalAmount(), 0.1);
+		assertEquals(2, registry.find(HttpMetricsBinder.REDIRECTS).tag("host", "localhost").summary().totalAmount(), 0.1);
+	}
+
+	/**
+	 * Validates failed requests are tagged with the exception
+	 * @throws Exception
+	 */
+	@Test
+	void testRequestFailed() throws Exception {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		HttpMetricsBinder binder = new HttpMetricsBinder(registry);
+		HttpRequestMetrics metrics = new HttpRequestMetrics(new URL("http://localhost/"), "POST", true);
+		metrics.finish();
+		binder.requestFailed(metrics, new IOException("Refused"));
+
+		assertEquals(1, registry.find(HttpMetricsBinder.REQUESTS).tag("status", "IO_ERROR").tag("exception", "IOException").timer().count());
+		assertNull(registry.find(HttpMetricsBinder.FIRST_BYTE).timer());
+		assertEquals("UNKNOWN", HttpMetricsBinder.getStatus(metrics, null));
+	}
+
+	/**
+	 * Creates the metrics of a completed request
+	 * @param code Response code of the request
+	 * @return Metrics of the request
+	 * @throws IOException
+	 */
+	private HttpRequestMetrics createMetrics(int code) throws IOException {
+		HttpRequestMetrics metrics = new HttpRequestMetrics(new URL("http://localhost/path"), "GET", false);
+		metrics.connectionOpened();
+		metrics.addDnsTime(1000);
+		metrics.addConnectTime(2000);
+		metrics.redirected();
+		metrics.headersReceived();
+		metrics.setResponseCode(code);
+		metrics.addBytesReceived(300);
+		metrics.finish();
+		return metrics;
+	}
+}
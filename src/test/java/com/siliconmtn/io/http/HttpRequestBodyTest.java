@@ -0,0 +1,171 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/****************************************************************************
+ * <b>Title</b>: HttpRequestBodyTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the lengths, repeatability and output of the 
+ * request bodies
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class HttpRequestBodyTest {
+
+	/**
+	 * Validates the body held in memory
+	 * @throws Exception
+	 */
+	@Test
+	void testOfBytes() throws Exception {
+		HttpRequestBody body = HttpRequestBody.ofBytes("Hello".getBytes());
+		assertEquals(5, body.getContentLength());
+		assertTrue(body.isRepeatable());
+		assertTrue(body.isBuffered());
+		assertNull(body.getContentType());
+		assertEquals("Hello", write(body));
+		assertEquals("Hello", write(body));
+		assertEquals(5, body.toPublisher().contentLength());
+
+		assertEquals(0, HttpRequestBody.ofBytes(null).getContentLength());
+		assertEquals(0, HttpRequestBody.EMPTY.toPublisher().contentLength());
+	}
+
+	/**
+	 * Validates the file is read each time the body is written
+	 * @throws Exception
+	 */
+	@Test
+	void testOfFile() throws Exception {
+		Path file = Files.createTempFile("body", ".txt");
+		try {
+			Files.write(file, "File Data".getBytes());
+			HttpRequestBody body = HttpRequestBody.ofFile(file);
+			assertEquals(9, body.getContentLength());
+			assertTrue(body.isRepeatable());
+			assertFalse(body.isBuffered());
+			assertEquals("File Data", write(body));
+			assertEquals("File Data", write(body));
+			assertEquals(9, body.toPublisher().contentLength());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+
+		assertThrows(IOException.class, () -> HttpRequestBody.ofFile(file).getContentLength());
+	}
+
+	/**
+	 * Validates the stream may only be sent once
+	 * @throws Exception
+	 */
+	@Test
+	void testOfInputStream() throws Exception {
+		HttpRequestBody body = HttpRequestBody.ofInputStream(new ByteArrayInputStream("Stream".getBytes()), -1);
+		assertEquals(-1, body.getContentLength());
+		assertFalse(body.isRepeatable());
+		assertEquals("Stream", write(body));
+		assertThrows(IOException.class, () -> write(body));
+
+		BodyPublisher publisher = HttpRequestBody.ofInputStream(new ByteArrayInputStream("Stream".getBytes()), 6).toPublisher();
+		assertEquals(6, publisher.contentLength());
+	}
+
+	/**
+	 * Validates the data of a publisher is written to the connection stream
+	 * @throws Exception
+	 */
+	@Test
+	void testOfPublisher() throws Exception {
+		HttpRequestBody body = HttpRequestBody.ofPublisher(BodyPublishers.ofString("Published"), 9);
+		assertEquals(9, body.getContentLength());
+		assertFalse(body.isRepeatable());
+		assertEquals(9, body.toPublisher().contentLength());
+		assertEquals("Published", write(body));
+
+		// Publisher delivering the data over several buffers
+		SubmissionPublisher<ByteBuffer> submitter = new SubmissionPublisher<>();
+		HttpRequestBody multi = HttpRequestBody.ofPublisher(submitter, -1);
+		assertEquals(-1, multi.toPublisher().contentLength());
+		Thread producer = new Thread(() -> {
+			while (submitter.getNumberOfSubscribers() == 0) Thread.onSpinWait();
+			submitter.submit(ByteBuffer.wrap("One ".getBytes()));
+			submitter.submit(ByteBuffer.wrap("Two".getBytes()));
+			submitter.close();
+		});
+		producer.start();
+		assertEquals("One Two", write(multi));
+		producer.join();
+
+		// Errors of the publisher are thrown to the writer
+		HttpRequestBody failed = HttpRequestBody.ofPublisher(new Flow.Publisher<ByteBuffer>() {
+			@Override
+			public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+				subscriber.onError(new IllegalStateException("No data"));
+			}
+		}, -1);
+		assertThrows(IOException.class, () -> write(failed));
+	}
+
+	/**
+	 * Validates the compressed bodies, including those compressed as they are
+	 * published
+	 * @throws Exception
+	 */
+	@Test
+	void testEncodedBody() throws Exception {
+		HttpContentCodec gzip = new HttpCompression.GzipCodec();
+		HttpRequestBody buffered = new HttpRequestBody.EncodedBody(HttpRequestBody.ofBytes("Encoded".getBytes()), gzip);
+		assertEquals("gzip", buffered.getContentEncoding());
+		assertTrue(buffered.isRepeatable());
+		assertEquals(buffered.getContentLength(), buffered.toPublisher().contentLength());
+		assertEquals("Encoded", new String(gzip.decode(new ByteArrayInputStream(bytes(buffered))).readAllBytes()));
+
+		HttpRequestBody stream = new HttpRequestBody.EncodedBody(HttpRequestBody.ofInputStream(new ByteArrayInputStream("Streamed".getBytes()), -1), gzip);
+		assertEquals(-1, stream.getContentLength());
+		HttpRequestBody published = HttpRequestBody.ofPublisher(stream.toPublisher(), -1);
+		assertEquals("Streamed", new String(gzip.decode(new ByteArrayInputStream(bytes(published))).readAllBytes()));
+
+		assertNull(HttpRequestBody.EMPTY.getContentEncoding());
+	}
+
+	/**
+	 * Writes the body to a string
+	 * @param body Body to write
+	 * @return Data of the body
+	 * @throws IOException
+	 */
+	private String write(HttpRequestBody body) throws IOException {
+		return new String(bytes(body));
+	}
+
+	/**
+	 * Writes the body to an array
+	 * @param body Body to write
+	 * @return Data of the body
+	 * @throws IOException
+	 */
+	private byte[] bytes(HttpRequestBody body) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		body.writeTo(out);
+		return out.toByteArray();
+	}
+}
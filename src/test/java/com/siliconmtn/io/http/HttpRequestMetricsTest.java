@@ -0,0 +1,126 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.util.ArrayList;
+import java.util.List;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/****************************************************************************
+ * <b>Title</b>: HttpRequestMetricsTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the timings and the byte counting streams of the 
+ * request metrics
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class HttpRequestMetricsTest {
+
+	/**
+	 * Validates the phases are summed and the request only finishes once
+	 * @throws Exception
+	 */
+	@Test
+	void testTimings() throws Exception {
+		HttpRequestMetrics metrics = new HttpRequestMetrics(new URL("https://www.siliconmtn.com/path"), "GET", false);
+		assertEquals("www.siliconmtn.com", metrics.getHost());
+		assertEquals("GET", metrics.getMethod());
+		assertFalse(metrics.isPooled());
+		assertEquals(-1, metrics.getDnsTime());
+		assertEquals(-1, metrics.getConnectTime());
+		assertEquals(-1, metrics.getTlsTime());
+		assertEquals(-1, metrics.getTimeToFirstByte());
+		assertEquals(-1, metrics.getTotalTime());
+
+		metrics.connectionOpened();
+		metrics.addDnsTime(10);
+		metrics.addConnectTime(20);
+		metrics.redirected();
+		metrics.connectionOpened();
+		metrics.addDnsTime(5);
+		metrics.addConnectTime(0);
+		metrics.headersReceived();
+		metrics.setResponseCode(200);
+		assertEquals(15, metrics.getDnsTime());
+		assertEquals(20, metrics.getConnectTime());
+		assertEquals(-1, metrics.getTlsTime());
+		assertEquals(1, metrics.getRedirects());
+		assertEquals(2, metrics.getAttempts());
+		assertEquals(200, metrics.getResponseCode());
+		assertTrue(metrics.getTimeToFirstByte() >= 0);
+
+		assertTrue(metrics.finish());
+		long total = metrics.getTotalTime();
+		assertTrue(total >= metrics.getTimeToFirstByte());
+		assertFalse(metrics.finish());
+		assertEquals(total, metrics.getTotalTime());
+		assertTrue(metrics.toString().startsWith("GET https://www.siliconmtn.com/path [code=200"));
+	}
+
+	/**
+	 * Validates the bytes read, written and published are counted
+	 * @throws Exception
+	 */
+	@Test
+	void testCounting() throws Exception {
+		HttpRequestMetrics metrics = new HttpRequestMetrics(new URL("http://localhost/"), "POST", true);
+		try (InputStream in = new HttpRequestMetrics.CountingInputStream(new ByteArrayInputStream(new byte[100]), metrics)) {
+			in.read();
+			in.skip(9);
+			in.readAllBytes();
+		}
+		assertEquals(100, metrics.getBytesReceived());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (HttpRequestMetrics.CountingOutputStream counting = new HttpRequestMetrics.CountingOutputStream(out, metrics)) {
+			counting.write(1);
+			counting.write(new byte[49]);
+		}
+		assertEquals(50, metrics.getBytesSent());
+		assertEquals(50, out.size());
+
+		HttpRequestBody published = HttpRequestBody.ofPublisher(new HttpRequestMetrics.CountingPublisher(BodyPublishers.ofString("Hello"), metrics), 5);
+		published.writeTo(new ByteArrayOutputStream());
+		assertEquals(55, metrics.getBytesSent());
+	}
+
+	/**
+	 * Validates the completion is reported at the end of the stream, on an error
+	 * and on close
+	 * @throws Exception
+	 */
+	@Test
+	void testCompletionInputStream() throws Exception {
+		List<Throwable> calls = new ArrayList<>();
+		InputStream in = new HttpRequestMetrics.CompletionInputStream(new ByteArrayInputStream(new byte[10]), calls::add);
+		assertEquals(10, in.readAllBytes().length);
+		assertEquals(1, calls.size());
+		assertNull(calls.get(0));
+		in.close();
+		assertEquals(2, calls.size());
+
+		calls.clear();
+		InputStream failing = new HttpRequestMetrics.CompletionInputStream(new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("Reset");
+			}
+		}, calls::add);
+		assertThrows(IOException.class, () -> failing.read());
+		assertThrows(IOException.class, () -> failing.read(new byte[5], 0, 5));
+		assertTrue(calls.get(0) instanceof IOException);
+	}
+}
@@ -0,0 +1,110 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.concurrent.Semaphore;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+// Libs
+import com.siliconmtn.io.http.CircuitBreaker.State;
+import com.siliconmtn.io.http.SMTHttpConnectionManager.HttpConnectionType;
+
+/****************************************************************************
+ * <b>Title</b>: HttpResiliencePolicyTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the retry, circuit breaker and concurrency rules
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class HttpResiliencePolicyTest {
+
+	/**
+	 * Validates the requests that are retried
+	 */
+	@Test
+	void testCanRetry() {
+		HttpResiliencePolicy policy = new HttpResiliencePolicy();
+		IOException e = new SocketTimeoutException("Read timed out");
+
+		assertTrue(policy.canRetry(HttpConnectionType.GET, 1, e));
+		assertTrue(policy.canRetry(HttpConnectionType.PUT, 2, e));
+		assertFalse(policy.canRetry(HttpConnectionType.GET, 3, e));
+		assertFalse(policy.canRetry(HttpConnectionType.POST, 1, e));
+		assertFalse(policy.canRetry(null, 1, e));
+		assertFalse(policy.canRetry(HttpConnectionType.GET, 1, new HttpRejectedException("Circuit open")));
+
+		assertTrue(policy.canRetry(HttpConnectionType.GET, 1, 503));
+		assertTrue(policy.canRetry(HttpConnectionType.DELETE, 1, 429));
+		assertFalse(policy.canRetry(HttpConnectionType.GET, 1, 500));
+		assertFalse(policy.canRetry(HttpConnectionType.GET, 1, 200));
+		assertFalse(policy.canRetry(HttpConnectionType.POST, 1, 503));
+	}
+
+	/**
+	 * Validates the backoff grows and stays in its bounds
+	 */
+	@Test
+	void testGetBackoff() {
+		HttpResilienceConfig config = new HttpResilienceConfig();
+		config.setInitialBackoff(100);
+		config.setMaxBackoff(1000);
+		config.setJitter(0);
+		HttpResiliencePolicy policy = new HttpResiliencePolicy(config);
+		assertEquals(100, policy.getBackoff(1));
+		assertEquals(200, policy.getBackoff(2));
+		assertEquals(400, policy.getBackoff(3));
+		assertEquals(1000, policy.getBackoff(10));
+
+		config.setJitter(0.5);
+		for (int i = 0; i < 100; i++) {
+			long delay = policy.getBackoff(2);
+			assertTrue(delay > 100 && delay <= 200);
+		}
+	}
+
+	/**
+	 * Validates the host limits and circuit breakers
+	 * @throws Exception
+	 */
+	@Test
+	void testAcquire() throws Exception {
+		HttpResilienceConfig config = new HttpResilienceConfig();
+		config.setMaxConcurrentPerHost(1);
+		config.setFailureThreshold(2);
+		HttpResiliencePolicy policy = new HttpResiliencePolicy(config);
+		URL url = new URL("http://www.siliconmtn.com/test");
+		URL other = new URL("http://www.google.com");
+
+		Semaphore permit = policy.acquire(url);
+		assertThrows(HttpRejectedException.class, () -> policy.acquire(url));
+		assertNotNull(policy.acquire(other));
+		permit.release();
+
+		policy.recordResponse(url, 500);
+		policy.recordFailure(url, new IOException("Connection refused"));
+		assertEquals(State.OPEN, policy.getCircuitBreaker(url).getState());
+		assertThrows(HttpRejectedException.class, () -> policy.acquire(url));
+		assertThrows(HttpRejectedException.class, () -> policy.acquire(new URL("http://www.siliconmtn.com/other")));
+		policy.recordFailure(other, new HttpRejectedException("Response exceeds the maximum size"));
+		assertEquals(0, policy.getCircuitBreaker(other).getFailures());
+		assertEquals(State.CLOSED, policy.getCircuitBreaker(other).getState());
+
+		config.setFailureThreshold(0);
+		config.setMaxConcurrentPerHost(0);
+		HttpResiliencePolicy open = new HttpResiliencePolicy(config);
+		assertNull(open.acquire(url));
+		assertNull(open.getCircuitBreaker(url));
+		open.recordResponse(url, 500);
+		open.recordFailure(url, new IOException());
+	}
+}
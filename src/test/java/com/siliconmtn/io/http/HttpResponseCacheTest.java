@@ -0,0 +1,234 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+// Libs
+import com.siliconmtn.io.http.SMTHttpConnectionManager.HttpConnectionType;
+
+/****************************************************************************
+ * <b>Title</b>: HttpResponseCacheTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the freshness, validation and storage rules of the
+ * response cache
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class HttpResponseCacheTest {
+
+	/**
+	 * Validates the lifetime calculated from the response headers
+	 */
+	@Test
+	void testGetFreshnessLifetime() {
+		long now = System.currentTimeMillis();
+		assertEquals(60000, HttpResponseCache.getFreshnessLifetime(headers("Cache-Control", "public, max-age=60"), now));
+		assertEquals(50000, HttpResponseCache.getFreshnessLifetime(headers("Cache-Control", "max-age=60", "Age", "10"), now));
+		assertEquals(30000, HttpResponseCache.getFreshnessLifetime(headers("Cache-Control", "max-age=60, s-maxage=30"), now));
+		assertEquals(0, HttpResponseCache.getFreshnessLifetime(headers("Cache-Control", "max-age=60, no-cache"), now));
+		assertEquals(0, HttpResponseCache.getFreshnessLifetime(headers("Cache-Control", "max-age=abc"), now));
+		assertEquals(0, HttpResponseCache.getFreshnessLifetime(headers("ETag", "\"1\""), now));
+
+		ZonedDateTime date = ZonedDateTime.now(ZoneOffset.UTC).withNano(0);
+		String expires = DateTimeFormatter.RFC_1123_DATE_TIME.format(date.plusMinutes(5));
+		String sent = DateTimeFormatter.RFC_1123_DATE_TIME.format(date);
+		assertEquals(300000, HttpResponseCache.getFreshnessLifetime(headers("Expires", expires, "Date", sent), now));
+		assertEquals(0, HttpResponseCache.getFreshnessLifetime(headers("Expires", "0"), now));
+	}
+
+	/**
+	 * Validates the parsing of the Cache-Control directives
+	 */
+	@Test
+	void testParseCacheControl() {
+		Map<String, String> directives = HttpResponseCache.parseCacheControl("No-Cache, max-age=\"30\", private");
+		assertEquals("", directives.get("no-cache"));
+		assertEquals("30", directives.get("max-age"));
+		assertTrue(directives.containsKey("private"));
+		assertTrue(HttpResponseCache.parseCacheControl(null).isEmpty());
+		assertTrue(HttpResponseCache.parseCacheControl(" , ").isEmpty());
+	}
+
+	/**
+	 * Validates the responses that are stored
+	 */
+	@Test
+	void testIsStorable() {
+		HttpResponseCache cache = new HttpResponseCache(new MemoryCacheStore(10), null, 100);
+		Map<String, String> request = Collections.emptyMap();
+		assertTrue(cache.isStorable(200, headers("Cache-Control", "max-age=60"), request, 10));
+		assertTrue(cache.isStorable(200, headers("ETag", "\"1\""), request, -1));
+		assertTrue(cache.isStorable(200, headers("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT"), request, -1));
+		assertTrue(cache.isStorable(200, headers("Cache-Control", "no-cache", "ETag", "\"1\""), request, -1));
+		assertFalse(cache.isStorable(200, headers("Cache-Control", "max-age=60"), request, 101));
+		assertFalse(cache.isStorable(404, headers("Cache-Control", "max-age=60"), request, 10));
+		assertFalse(cache.isStorable(200, headers("Cache-Control", "no-store, max-age=60"), request, 10));
+		assertFalse(cache.isStorable(200, headers("Cache-Control", "max-age=60", "Vary", "*"), request, 10));
+		assertFalse(cache.isStorable(200, headers("Content-Type", "text/plain"), request, 10));
+		assertFalse(cache.isStorable(200, headers("Cache-Control", "max-age=60"), Collections.singletonMap("cache-control", "no-store"), 10));
+		assertFalse(cache.isStorable(200, headers("Cache-Control", "private, max-age=60"), request, 10));
+		assertFalse(cache.isStorable(200, headers("Cache-Control", "max-age=60"), Collections.singletonMap("Authorization", "Basic dXNlcg=="), 10));
+		assertTrue(cache.isStorable(200, headers("Cache-Control", "public, max-age=60"), Collections.singletonMap("Authorization", "Basic dXNlcg=="), 10));
+		assertTrue(cache.isStorable(200, headers("Cache-Control", "s-maxage=60"), Collections.singletonMap("Cookie", "ID=1"), 10));
+	}
+
+	/**
+	 * Stores a response and validates the lookups, vary headers and freshness
+	 * @throws Exception
+	 */
+	@Test
+	void testStoreLookup() throws Exception {
+		HttpResponseCache cache = new HttpResponseCache();
+		URL url = new URL("http://localhost/data");
+		Map<String, String> request = new HashMap<>();
+		request.put("Accept", "application/json");
+
+		Map<String, List<String>> response = headers("Cache-Control", "max-age=60", "Vary", "accept", "Set-Cookie", "ID=1");
+		assertNull(cache.store(HttpConnectionType.POST, url, request, 200, response, "Data".getBytes()));
+		HttpCacheEntry entry = cache.store(HttpConnectionType.GET, url, request, 200, response, "Data".getBytes());
+		assertEquals("GET http://localhost/data", entry.getKey());
+		assertNull(entry.getHeader("Set-Cookie"));
+		assertEquals("application/json", entry.getVaryHeaders().get("accept"));
+
+		assertNull(cache.lookup(HttpConnectionType.POST, url, request));
+		assertSame(entry, cache.lookup(HttpConnectionType.GET, url, request));
+		assertTrue(cache.isFresh(entry, request));
+		assertEquals(1, cache.getHitCount());
+		assertFalse(cache.isFresh(entry, Collections.singletonMap("Cache-Control", "no-cache")));
+		assertFalse(cache.isFresh(entry, Collections.singletonMap("Cache-Control", "max-age=0")));
+		assertNull(cache.lookup(HttpConnectionType.GET, url, Collections.singletonMap("Cache-Control", "no-store")));
+
+		// A different value of a vary header is a miss
+		assertNull(cache.lookup(HttpConnectionType.GET, url, Collections.singletonMap("accept", "text/xml")));
+		assertEquals(1, cache.getMissCount());
+
+		cache.invalidate(url);
+		assertNull(cache.lookup(HttpConnectionType.GET, url, request));
+		cache.store(HttpConnectionType.GET, url, request, 200, response, "Data".getBytes());
+		cache.clear();
+		assertNull(cache.lookup(HttpConnectionType.GET, url, request));
+	}
+
+	/**
+	 * Validates responses are never shared between requests with different
+	 * credentials, and private responses are not stored
+	 * @throws Exception
+	 */
+	@Test
+	void testCredentials() throws Exception {
+		HttpResponseCache cache = new HttpResponseCache();
+		URL url = new URL("http://localhost/data");
+		Map<String, String> userA = Collections.singletonMap("Authorization", "Bearer A");
+		Map<String, String> userB = Collections.singletonMap("authorization", "Bearer B");
+		Map<String, String> cookie = Collections.singletonMap("Cookie", "ID=A");
+
+		assertNotEquals(HttpResponseCache.getKey(HttpConnectionType.GET, url, userA), HttpResponseCache.getKey(HttpConnectionType.GET, url, userB));
+		assertNotEquals(HttpResponseCache.getKey(HttpConnectionType.GET, url), HttpResponseCache.getKey(HttpConnectionType.GET, url, cookie));
+		assertEquals(HttpResponseCache.getKey(HttpConnectionType.GET, url), HttpResponseCache.getKey(HttpConnectionType.GET, url, Collections.emptyMap()));
+		assertFalse(HttpResponseCache.getKey(HttpConnectionType.GET, url, userA).contains("Bearer"));
+
+		// Credentialed responses are only stored when the server allows it
+		assertNull(cache.store(HttpConnectionType.GET, url, userA, 200, headers("Cache-Control", "max-age=60"), "A".getBytes()));
+		assertNull(cache.store(HttpConnectionType.GET, url, cookie, 200, headers("ETag", "\"1\""), "A".getBytes()));
+		assertNull(cache.store(HttpConnectionType.GET, url, Collections.emptyMap(), 200, headers("Cache-Control", "private, max-age=60"), "A".getBytes()));
+		assertNull(cache.store(HttpConnectionType.GET, url, userA, 200, headers("Cache-Control", "public, private, max-age=60"), "A".getBytes()));
+
+		HttpCacheEntry entryA = cache.store(HttpConnectionType.GET, url, userA, 200, headers("Cache-Control", "public, max-age=60"), "A".getBytes());
+		assertNotNull(entryA);
+		assertSame(entryA, cache.lookup(HttpConnectionType.GET, url, userA));
+		assertNull(cache.lookup(HttpConnectionType.GET, url, userB));
+		assertNull(cache.lookup(HttpConnectionType.GET, url, Collections.emptyMap()));
+
+		// Each user gets its own entry
+		HttpCacheEntry entryB = cache.store(HttpConnectionType.GET, url, userB, 200, headers("Cache-Control", "s-maxage=60"), "B".getBytes());
+		assertNotNull(entryB);
+		assertEquals("A", new String(cache.lookup(HttpConnectionType.GET, url, userA).getData()));
+		assertEquals("B", new String(cache.lookup(HttpConnectionType.GET, url, userB).getData()));
+
+		cache.invalidate(url, userA);
+		assertNull(cache.lookup(HttpConnectionType.GET, url, userA));
+		assertNotNull(cache.lookup(HttpConnectionType.GET, url, userB));
+	}
+
+	/**
+	 * Validates the conditional headers and the update after a 304
+	 * @throws Exception
+	 */
+	@Test
+	void testRevalidate() throws Exception {
+		HttpResponseCache cache = new HttpResponseCache();
+		URL url = new URL("http://localhost/data");
+		Map<String, List<String>> response = headers("ETag", "\"v1\"", "Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT", "Content-Length", "4");
+		HttpCacheEntry entry = cache.store(HttpConnectionType.GET, url, Collections.emptyMap(), 200, response, "Data".getBytes());
+		assertFalse(cache.isFresh(entry, Collections.emptyMap()));
+
+		Map<String, String> validators = cache.addValidators(entry, Collections.singletonMap("Referer", "test"));
+		assertEquals("\"v1\"", validators.get(HttpResponseCache.IF_NONE_MATCH));
+		assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", validators.get(HttpResponseCache.IF_MODIFIED_SINCE));
+		assertEquals("test", validators.get("Referer"));
+		assertEquals("\"v0\"", cache.addValidators(entry, Collections.singletonMap("if-none-match", "\"v0\"")).get("if-none-match"));
+
+		HttpCacheEntry updated = cache.revalidate(entry, headers("Cache-Control", "max-age=60", "Content-Length", "0"));
+		assertEquals(1, cache.getRevalidationCount());
+		assertTrue(cache.isFresh(updated, Collections.emptyMap()));
+		assertEquals("4", updated.getHeader("Content-Length"));
+		assertEquals("\"v1\"", updated.getETag());
+		assertSame(updated, cache.lookup(HttpConnectionType.GET, url, Collections.emptyMap()));
+		assertEquals("Data", new String(updated.getData()));
+	}
+
+	/**
+	 * Validates responses are read from disk when they are not in memory
+	 * @throws Exception
+	 */
+	@Test
+	void testDiskStore() throws Exception {
+		Path directory = Files.createTempDirectory("cache");
+		try {
+			HttpCacheConfig config = new HttpCacheConfig();
+			config.setDiskDirectory(directory.toString());
+			URL url = new URL("http://localhost/data");
+			new HttpResponseCache(config).store(HttpConnectionType.GET, url, Collections.emptyMap(), 200, headers("Cache-Control", "max-age=60"), "Disk".getBytes());
+
+			HttpResponseCache cache = new HttpResponseCache(config);
+			HttpCacheEntry entry = cache.lookup(HttpConnectionType.GET, url, Collections.emptyMap());
+			assertEquals("Disk", new String(entry.getData()));
+			assertTrue(cache.isFresh(entry, Collections.emptyMap()));
+			cache.clear();
+			assertNull(new HttpResponseCache(config).lookup(HttpConnectionType.GET, url, Collections.emptyMap()));
+		} finally {
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	/**
+	 * Creates the response headers from name and value pairs
+	 * @param values Names and values
+	 * @return Response headers
+	 */
+	private Map<String, List<String>> headers(String... values) {
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		for (int i = 0; i < values.length; i += 2) headers.put(values[i], Arrays.asList(values[i + 1]));
+		return headers;
+	}
+}
@@ -0,0 +1,70 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/****************************************************************************
+ * <b>Title</b>: HttpResponseVOTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the per request response object
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class HttpResponseVOTest {
+
+	/**
+	 * Tests the values of the response
+	 * @throws Exception
+	 */
+	@Test
+	void testResponse() throws Exception {
+		Map<String, List<String>> headers = new HashMap<>();
+		headers.put("Content-Type", List.of("text/html", "text/plain"));
+		Map<String, String> cookies = new HashMap<>();
+		cookies.put("JSESSION_ID", "12345678");
+
+		HttpResponseVO resp = new HttpResponseVO(new URL("http://www.siliconmtn.com"), 200, headers, cookies, "Hello World".getBytes());
+		headers.clear();
+		cookies.clear();
+
+		assertEquals("www.siliconmtn.com", resp.getUrl().getHost());
+		assertEquals(200, resp.getResponseCode());
+		assertTrue(resp.isSuccess());
+		assertEquals("text/html", resp.getHeader("content-type"));
+		assertNull(resp.getHeader("Location"));
+		assertNull(resp.getHeader(null));
+		assertEquals("12345678", resp.getCookies().get("JSESSION_ID"));
+		assertEquals("Hello World", resp.getDataAsString());
+		assertEquals(11, resp.getSize());
+		assertEquals("Hello World", resp.getDataAsString(StandardCharsets.US_ASCII));
+		assertThrows(UnsupportedOperationException.class, () -> resp.getCookies().put("A", "B"));
+	}
+
+	/**
+	 * Tests a response with no data
+	 */
+	@Test
+	void testEmptyResponse() {
+		HttpResponseVO resp = new HttpResponseVO(null, 404, null, null, null);
+		assertFalse(resp.isSuccess());
+		assertEquals(0, resp.getHeaders().size());
+		assertEquals(0, resp.getCookies().size());
+		assertNull(resp.getData());
+		assertNull(resp.getDataAsString());
+		assertEquals(0, resp.getSize());
+		assertEquals(2048, new HttpResponseVO(null, 200, null, null, null, 2048).getSize());
+	}
+}
@@ -0,0 +1,55 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.util.Collections;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/****************************************************************************
+ * <b>Title</b>: MemoryCacheStoreTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the least recently used eviction of the memory store
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class MemoryCacheStoreTest {
+
+	/**
+	 * Validates the least recently used response is evicted
+	 */
+	@Test
+	void testEviction() {
+		MemoryCacheStore store = new MemoryCacheStore(2);
+		assertEquals(2, store.getMaxEntries());
+		store.put(entry("a"));
+		store.put(entry("b"));
+		assertNotNull(store.get("a"));
+
+		store.put(entry("c"));
+		assertEquals(2, store.size());
+		assertNull(store.get("b"));
+		assertNotNull(store.get("a"));
+		assertNotNull(store.get("c"));
+
+		store.remove("a");
+		assertNull(store.get("a"));
+		store.clear();
+		assertEquals(0, store.size());
+	}
+
+	/**
+	 * Creates an entry for the key
+	 * @param key Cache key
+	 * @return Entry
+	 */
+	private HttpCacheEntry entry(String key) {
+		return new HttpCacheEntry(key, 200, Collections.emptyMap(), Collections.emptyMap(), new byte[0], 0, 0);
+	}
+}
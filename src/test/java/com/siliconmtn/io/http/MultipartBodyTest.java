@@ -0,0 +1,132 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Flow;
+import java.util.concurrent.CompletableFuture;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/****************************************************************************
+ * <b>Title</b>: MultipartBodyTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the layout and length of the multipart bodies
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class MultipartBodyTest {
+
+	/**
+	 * Validates the parts written for fields and files, and that the publisher
+	 * sends the same data
+	 * @throws Exception
+	 */
+	@Test
+	void testWriteTo() throws Exception {
+		Path file = Files.createTempFile("multipart", ".txt");
+		try {
+			Files.write(file, "File Data".getBytes());
+			MultipartBody body = new MultipartBody("AbC").addField("name", "value").addField("empty", null).addFile("file", file, null);
+			String expected = "--AbC\r\nContent-Disposition: form-data; name=\"name\"\r\n\r\nvalue\r\n"
+				+ "--AbC\r\nContent-Disposition: form-data; name=\"empty\"\r\n\r\n\r\n"
+				+ "--AbC\r\nContent-Disposition: form-data; name=\"file\"; filename=\"" + file.getFileName() + "\"\r\n"
+				+ "Content-Type: application/octet-stream\r\n\r\nFile Data\r\n--AbC--\r\n";
+
+			assertEquals("multipart/form-data; boundary=AbC", body.getContentType());
+			assertEquals("AbC", body.getBoundary());
+			assertTrue(body.isRepeatable());
+			assertFalse(body.isBuffered());
+			assertEquals(expected.length(), body.getContentLength());
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			body.writeTo(out);
+			assertEquals(expected, out.toString());
+			assertEquals(expected, publish(body.toPublisher()));
+			assertEquals(expected, publish(body.toPublisher()));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Validates the streamed parts and the length when a part length is unknown
+	 * @throws Exception
+	 */
+	@Test
+	void testAddStream() throws Exception {
+		MultipartBody body = new MultipartBody().addStream("data", "a\"b.csv", "text/csv", new ByteArrayInputStream("1,2".getBytes()), -1);
+		assertTrue(body.getBoundary().startsWith("----SMTFormBoundary"));
+		assertEquals(-1, body.getContentLength());
+		assertFalse(body.isRepeatable());
+
+		String data = publish(body.toPublisher());
+		assertTrue(data.contains("name=\"data\"; filename=\"a%22b.csv\"\r\nContent-Type: text/csv\r\n\r\n1,2\r\n"));
+		assertTrue(data.endsWith("--" + body.getBoundary() + "--\r\n"));
+		assertThrows(IOException.class, () -> body.writeTo(new ByteArrayOutputStream()));
+
+		MultipartBody known = new MultipartBody("x").addStream("data", "d.bin", null, new ByteArrayInputStream(new byte[10]), 10);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		known.writeTo(out);
+		assertEquals(out.size(), known.getContentLength());
+		assertEquals(new MultipartBody("x").getContentLength(), "--x--\r\n".length());
+	}
+
+	/**
+	 * Validates the encoding of the names
+	 */
+	@Test
+	void testEscape() {
+		assertEquals("", MultipartBody.escape(null));
+		assertEquals("a%22b%0D%0Ac", MultipartBody.escape("a\"b\r\nc"));
+		assertEquals("plain.txt", MultipartBody.escape("plain.txt"));
+	}
+
+	/**
+	 * Reads all of the data of a publisher
+	 * @param publisher Publisher of a body
+	 * @return Published data
+	 * @throws Exception
+	 */
+	private String publish(BodyPublisher publisher) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		CompletableFuture<String> done = new CompletableFuture<>();
+		publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(ByteBuffer item) {
+				byte[] data = new byte[item.remaining()];
+				item.get(data);
+				out.write(data, 0, data.length);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				done.completeExceptionally(throwable);
+			}
+
+			@Override
+			public void onComplete() {
+				done.complete(out.toString());
+			}
+		});
+
+		return done.get();
+	}
+}
@@ -0,0 +1,211 @@
+package com.siliconmtn.io.http;
+
+// JDK 11.x
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import com.sun.net.httpserver.HttpServer;
+
+// JUnit5
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/****************************************************************************
+ * <b>Title</b>: PooledHttpEngineTest.java
+ * <b>Project</b>: SpaceLibs-Java
+ * <b>Description: </b> Tests the pooled connection engine against a local
+ * http server
+ * <b>Copyright:</b> Copyright (c) 2021
+ * <b>Company:</b> Silicon Mountain Technologies
+ *
+ * @author agent
+ * @version 3.0
+ * @since Oct 18, 2026
+ * @updates:
+ ****************************************************************************/
+class PooledHttpEngineTest {
+
+	static HttpServer server;
+	static String baseUrl;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/echo", ex -> {
+			byte[] body = (ex.getRequestMethod() + ":" + new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+			ex.sendResponseHeaders(200, body.length);
+			ex.getResponseBody().write(body);
+			ex.close();
+		});
+		server.start();
+		baseUrl = "http://localhost:" + server.getAddress().getPort();
+	}
+
+	@AfterAll
+	static void tearDownAfterClass() {
+		server.stop(0);
+	}
+
+	/**
+	 * Sends a request through the engine and validates the permit is returned
+	 * @throws Exception
+	 */
+	@Test
+	void testSend() throws Exception {
+		HttpPoolConfig config = new HttpPoolConfig();
+		config.setMaxConnectionsPerHost(2);
+		config.setHttp2(false);
+		PooledHttpEngine engine = new PooledHttpEngine(config);
+		URL url = new URL(baseUrl + "/echo");
+
+		HttpResponse<InputStream> response = engine.send(url, "POST", "Hello".getBytes(), new HashMap<>(), 1000);
+		assertEquals(200, response.statusCode());
+		assertEquals(1, engine.getAvailableConnections(url));
+
+		try (InputStream in = response.body()) {
+			assertEquals("POST:Hello", new String(in.readAllBytes()));
+		}
+
+		assertEquals(2, engine.getAvailableConnections(url));
+	}
+
+	/**
+	 * Sends requests asynchronously and validates the requests past the host 
+	 * limit wait for a permit
+	 * @throws Exception
+	 */
+	@Test
+	void testSendAsync() throws Exception {
+		HttpPoolConfig config = new HttpPoolConfig();
+		config.setMaxConnectionsPerHost(1);
+		config.setHttp2(false);
+		PooledHttpEngine engine = new PooledHttpEngine(config, null, Executors.newFixedThreadPool(2));
+		URL url = new URL(baseUrl + "/echo");
+
+		CompletableFuture<HttpResponse<byte[]>> first = engine.sendAsync(url, "POST", "1".getBytes(), null, 1000);
+		CompletableFuture<HttpResponse<byte[]>> second = engine.sendAsync(url, "POST", "2".getBytes(), null, 1000);
+		assertEquals("POST:1", new String(first.get().body()));
+		assertEquals("POST:2", new String(second.get().body()));
+		assertEquals(1, engine.getAvailableConnections(url));
+
+		assertEquals("POST:1234", new String(engine.sendAsync(url, "POST", "1234".getBytes(), null, 1000, 9).get().body()));
+		ExecutionException e = assertThrows(ExecutionException.class, () -> engine.sendAsync(url, "POST", "12345".getBytes(), null, 1000, 9).get());
+		assertTrue(e.getCause() instanceof IOException);
+		assertEquals(1, engine.getAvailableConnections(url));
+
+		engine.acquire(url, 10);
+		e = assertThrows(ExecutionException.class, () -> engine.sendAsync(url, "GET", null, null, 10).get());
+		assertTrue(e.getCause() instanceof HttpRejectedException);
+		assertThrows(ExecutionException.class, () -> engine.sendAsync(new URL("http://local host/"), "GET", null, null, 10).get());
+	}
+
+	/**
+	 * Validates the requests past the host limit are queued, without holding a
+	 * thread, and sent in order as the permits are released
+	 * @throws Exception
+	 */
+	@Test
+	void testSendAsyncQueue() throws Exception {
+		HttpPoolConfig config = new HttpPoolConfig();
+		config.setMaxConnectionsPerHost(1);
+		config.setHttp2(false);
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+		PooledHttpEngine engine = new PooledHttpEngine(config, null, executor);
+		URL url = new URL(baseUrl + "/echo");
+
+		Semaphore permit = engine.acquire(url, 10);
+		List<CompletableFuture<HttpResponse<byte[]>>> queued = new ArrayList<>();
+		for (int i = 0; i < 5; i++) queued.add(engine.sendAsync(url, "POST", Integer.toString(i).getBytes(), null, 5000));
+		assertEquals(5, engine.getWaitingRequests(url));
+		assertEquals(0, executor.getPoolSize());
+
+		// A waiter that times out leaves the queue
+		assertThrows(ExecutionException.class, () -> engine.sendAsync(url, "GET", null, null, 10).get());
+		assertEquals(5, engine.getWaitingRequests(url));
+
+		permit.release();
+		for (int i = 0; i < 5; i++) assertEquals("POST:" + i, new String(queued.get(i).get().body()));
+		assertEquals(0, engine.getWaitingRequests(url));
+		assertEquals(1, engine.getAvailableConnections(url));
+		executor.shutdown();
+	}
+
+	/**
+	 * Validates the host limit is enforced
+	 * @throws Exception
+	 */
+	@Test
+	void testAcquire() throws Exception {
+		HttpPoolConfig config = new HttpPoolConfig();
+		config.setMaxConnectionsPerHost(1);
+		PooledHttpEngine engine = new PooledHttpEngine(config);
+		URL url = new URL(baseUrl + "/echo");
+
+		engine.acquire(url, 10);
+		assertEquals(0, engine.getAvailableConnections(url));
+		assertThrows(HttpRejectedException.class, () -> engine.acquire(url, 10));
+		assertThrows(HttpRejectedException.class, () -> engine.send(url, "GET", null, null, 10));
+	}
+
+	/**
+	 * Validates the restricted headers are skipped
+	 * @throws Exception
+	 */
+	@Test
+	void testBuildRequest() throws Exception {
+		PooledHttpEngine engine = new PooledHttpEngine();
+		Map<String, String> headers = new HashMap<>();
+		headers.put("Host", "www.siliconmtn.com");
+		headers.put("Referer", "www.google.com");
+		headers.put("Content-Length", "12");
+
+		HttpRequest request = engine.buildRequest(new URL(baseUrl), "GET", null, headers, 1000);
+		assertTrue(request.headers().firstValue("Referer").isPresent());
+		assertFalse(request.headers().firstValue("Host").isPresent());
+		assertFalse(request.headers().firstValue("Content-Length").isPresent());
+		assertEquals("GET", request.method());
+
+		// HTTP/2 is only negotiated over TLS
+		assertEquals(Optional.of(HttpClient.Version.HTTP_1_1), request.version());
+		assertFalse(engine.buildRequest(new URL("https://www.siliconmtn.com"), "GET", null, null, 1000).version().isPresent());
+	}
+
+	/**
+	 * Tests the host key used for the connection limits
+	 * @throws Exception
+	 */
+	@Test
+	void testGetHostKey() throws Exception {
+		assertEquals("https://www.siliconmtn.com:443", PooledHttpEngine.getHostKey(new URL("https://WWW.siliconmtn.com/test")));
+		assertEquals("http://localhost:8080", PooledHttpEngine.getHostKey(new URL("http://localhost:8080")));
+	}
+
+	/**
+	 * Tests the defaults of the engine
+	 */
+	@Test
+	void testDefaults() {
+		HttpPoolConfig config = new HttpPoolConfig();
+		config.setMaxConnectionsPerHost(0);
+		PooledHttpEngine engine = new PooledHttpEngine(config);
+		assertEquals(PooledHttpEngine.DEFAULT_MAX_CONNECTIONS_PER_HOST, engine.getMaxConnectionsPerHost());
+		assertNotNull(engine.getClient());
+	}
+}
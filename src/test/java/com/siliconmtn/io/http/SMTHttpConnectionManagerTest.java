@@ -1,17 +1,36 @@
 package com.siliconmtn.io.http;
 
 // JDK 11.x
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
 import java.net.URL;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLSocketFactory;
+import com.sun.net.httpserver.HttpServer;
 
 // JUnit5
 import static org.junit.jupiter.api.Assertions.*;
@@ -496,6 +515,24 @@ class SMTHttpConnectionManagerTest {
 		connection.assignCookies(cConn);
 	}
 
+	/**
+	 * Validates the cookies are sent in the order they were added
+	 * @throws Exception
+	 */
+	@Test
+	void testCookieOrder() throws Exception {
+		connection.setCookies(null);
+		connection.addCookie("zeta", "1");
+		connection.addCookie("alpha", "2");
+		connection.addCookie("mid", "3");
+		assertEquals("zeta=1;alpha=2;mid=3;", SMTHttpConnectionManager.formatCookies(SMTHttpConnectionManager.snapshot(connection.getCookies())));
+
+		// A null value is kept, as it always has been
+		connection.addCookie("alpha", null);
+		assertTrue(connection.getCookies().containsKey("alpha"));
+		assertEquals("zeta=1;alpha=null;mid=3;", SMTHttpConnectionManager.formatCookies(SMTHttpConnectionManager.snapshot(connection.getCookies())));
+	}
+
 	/**
 	 * Gets the values in the headerMap
 	 * @throws Exception
@@ -710,4 +747,842 @@ class SMTHttpConnectionManagerTest {
 		assertTrue(mockUrlConn.getRequestProperties().toString().contains("User-Agent"));
 		assertFalse(mockUrlConn.getRequestProperties().toString().contains("Host"));
 	}
+
+	/**
+	 * Sends requests through the pooled engine using a local server.  Validates
+	 * cookies, headers and redirects are handled the same as the connection
+	 * based requests
+	 * @throws Exception
+	 */
+	@Test
+	void testPooledEngine() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/hello", ex -> {
+			byte[] body = ("Hello World " + ex.getRequestHeaders().getFirst("Cookie")).getBytes();
+			ex.getResponseHeaders().add("Set-Cookie", "JSESSION_ID=12345678; Path=/");
+			ex.sendResponseHeaders(200, body.length);
+			ex.getResponseBody().write(body);
+			ex.close();
+		});
+		server.createContext("/redirect", ex -> {
+			ex.getResponseHeaders().add("Location", "/hello");
+			ex.sendResponseHeaders(HttpURLConnection.HTTP_MOVED_TEMP, -1);
+			ex.close();
+		});
+		server.start();
+
+		try {
+			String base = "http://localhost:" + server.getAddress().getPort();
+			connection.setPooledEngine(new PooledHttpEngine());
+			connection.setRequestHeaders(headers);
+			assertTrue(connection.isPooled());
+
+			assertEquals("Hello World null", new String(connection.getRequestData(base + "/hello", params, HttpConnectionType.POST)));
+			assertEquals(200, connection.getResponseCode());
+			assertEquals("JSESSION_ID=12345678; Path=/", connection.getHeaderMap().get("set-cookie"));
+			assertTrue(connection.getCookies().isEmpty());
+			assertEquals("200", connection.getHeaderMap().get(SMTHttpConnectionManager.RESPONSE_CODE));
+
+			assertEquals("Hello World JSESSION_ID=12345678", new String(connection.getRequestData(base + "/redirect", new byte[0], HttpConnectionType.GET)));
+			assertEquals(PooledHttpEngine.DEFAULT_MAX_CONNECTIONS_PER_HOST, connection.getPooledEngine().getAvailableConnections(new URL(base)));
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Validates a 303 is followed with a GET and no body, while other redirects
+	 * keep the method
+	 * @throws Exception
+	 */
+	@Test
+	void testRedirectSeeOther() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/result", ex -> {
+			byte[] body = (ex.getRequestMethod() + ":" + ex.getRequestBody().readAllBytes().length).getBytes();
+			ex.sendResponseHeaders(200, body.length);
+			ex.getResponseBody().write(body);
+			ex.close();
+		});
+		server.createContext("/form", ex -> {
+			ex.getRequestBody().readAllBytes();
+			ex.getResponseHeaders().add("Location", "/result");
+			ex.sendResponseHeaders(ex.getRequestURI().getQuery() == null ? HttpURLConnection.HTTP_SEE_OTHER : 307, -1);
+			ex.close();
+		});
+		server.start();
+
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		pooled.setPooledEngine(new PooledHttpEngine());
+		try {
+			String base = "http://localhost:" + server.getAddress().getPort();
+			for (SMTHttpConnectionManager mgr : new SMTHttpConnectionManager[] { connection, pooled }) {
+				assertEquals("GET:0", mgr.sendRequest(base + "/form", "data".getBytes(), HttpConnectionType.POST).getDataAsString());
+				assertEquals("POST:4", mgr.sendRequest(base + "/form?keep", "data".getBytes(), HttpConnectionType.POST).getDataAsString());
+			}
+
+			// Connections follow their redirects in the JDK, which only turns a POST into a GET
+			assertEquals("GET:0", pooled.sendAsync(new URL(base + "/form"), "data".getBytes(), HttpConnectionType.PUT).get().getDataAsString());
+			assertEquals("GET:0", pooled.sendRequest(base + "/form", "data".getBytes(), HttpConnectionType.DELETE).getDataAsString());
+		} finally {
+			server.stop(0);
+		}
+
+		assertEquals(HttpConnectionType.GET, SMTHttpConnectionManager.getRedirectType(HttpURLConnection.HTTP_SEE_OTHER, HttpConnectionType.DELETE));
+		assertEquals(HttpConnectionType.HEAD, SMTHttpConnectionManager.getRedirectType(HttpURLConnection.HTTP_SEE_OTHER, HttpConnectionType.HEAD));
+		assertEquals(HttpConnectionType.POST, SMTHttpConnectionManager.getRedirectType(HttpURLConnection.HTTP_MOVED_TEMP, HttpConnectionType.POST));
+	}
+
+	/**
+	 * Validates HEAD requests and 204 responses return no data, without being 
+	 * rejected or sized by the content length of the resource
+	 * @throws Exception
+	 */
+	@Test
+	void testHeadRequest() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/large", ex -> {
+			ex.getResponseHeaders().set("Content-Length", "1500000000");
+			ex.sendResponseHeaders(200, -1);
+			ex.close();
+		});
+		server.createContext("/empty", ex -> {
+			ex.sendResponseHeaders(HttpURLConnection.HTTP_NO_CONTENT, -1);
+			ex.close();
+		});
+		server.start();
+
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		pooled.setPooledEngine(new PooledHttpEngine());
+		try {
+			String base = "http://localhost:" + server.getAddress().getPort();
+			for (SMTHttpConnectionManager mgr : new SMTHttpConnectionManager[] { connection, pooled }) {
+				mgr.setMaxResponseSize(1000);
+				HttpResponseVO resp = mgr.sendRequest(base + "/large", (byte[])null, HttpConnectionType.HEAD);
+				assertEquals(200, resp.getResponseCode());
+				assertEquals(0, resp.getData().length);
+				assertEquals("1500000000", resp.getHeader("Content-Length"));
+				assertEquals(0, mgr.getRequestData(base + "/large", (byte[])null, HttpConnectionType.HEAD).length);
+				assertEquals(0, mgr.sendAsync(new URL(base + "/large"), (byte[])null, HttpConnectionType.HEAD).get().getData().length);
+				
+				resp = mgr.sendRequest(base + "/empty", (byte[])null, HttpConnectionType.GET);
+				assertEquals(HttpURLConnection.HTTP_NO_CONTENT, resp.getResponseCode());
+				assertEquals(0, resp.getData().length);
+				mgr.setMaxResponseSize(0);
+			}
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Validates the pool configuration assigns the engine
+	 */
+	@Test
+	void testSetPoolConfig() {
+		HttpPoolConfig config = new HttpPoolConfig();
+		connection.setPoolConfig(config);
+		assertTrue(connection.isPooled());
+
+		connection.setSslSocketFactory((SSLSocketFactory)SSLSocketFactory.getDefault());
+		assertFalse(connection.isPooled());
+
+		config.setEnabled(false);
+		connection.setPoolConfig(config);
+		assertNull(connection.getPooledEngine());
+		
+		connection.setPoolConfig(null);
+		assertNull(connection.getPooledEngine());
+	}
+
+	/**
+	 * Sends requests from many threads through a single manager and validates 
+	 * each thread receives its own response, headers and cookies
+	 * @throws Exception
+	 */
+	@Test
+	void testSendRequest() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(Executors.newFixedThreadPool(8));
+		server.createContext("/echo", ex -> {
+			String id = ex.getRequestURI().getQuery();
+			byte[] body = id.getBytes();
+			ex.getResponseHeaders().add("Set-Cookie", "ID=" + id + "; Path=/");
+			ex.getResponseHeaders().add("X-Request-Id", id);
+			ex.sendResponseHeaders(200 + Integer.parseInt(id) % 2, body.length);
+			ex.getResponseBody().write(body);
+			ex.close();
+		});
+		server.start();
+
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		pooled.setPooledEngine(new PooledHttpEngine());
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		try {
+			String base = "http://localhost:" + server.getAddress().getPort() + "/echo?";
+			for (SMTHttpConnectionManager mgr : new SMTHttpConnectionManager[] { connection, pooled }) {
+				List<Future<Boolean>> results = new ArrayList<>();
+				for (int i = 0; i < 100; i++) {
+					String id = Integer.toString(i);
+					Callable<Boolean> call = () -> {
+						HttpResponseVO resp = mgr.sendRequest(base + id, new byte[0], HttpConnectionType.GET);
+						return id.equals(resp.getDataAsString()) && id.equals(resp.getHeader("x-request-id")) 
+							&& id.equals(resp.getCookies().get("ID")) && resp.getResponseCode() == 200 + Integer.parseInt(id) % 2;
+					};
+					results.add(pool.submit(call));
+				}
+
+				for (Future<Boolean> result : results) assertTrue(result.get());
+				assertEquals(0, mgr.getResponseCode());
+				assertTrue(mgr.getCookies().isEmpty());
+			}
+			
+			assertThrows(IOException.class, () -> connection.sendRequest((String)null, new byte[0], HttpConnectionType.GET));
+			assertThrows(IOException.class, () -> connection.sendRequest((URL)null, new byte[0], HttpConnectionType.GET));
+			assertEquals("1", connection.sendRequest(new URL(base + "1"), params, HttpConnectionType.GET).getDataAsString());
+			assertEquals("2", connection.sendRequest(base + "2", params, null).getDataAsString());
+		} finally {
+			pool.shutdown();
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Validates the cookie handler keeps the session cookies on the manager
+	 * instead of the JVM wide cookie handler
+	 * @throws Exception
+	 */
+	@Test
+	void testCookieHandler() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/session", ex -> {
+			byte[] body = String.valueOf(ex.getRequestHeaders().getFirst("Cookie")).getBytes();
+			ex.getResponseHeaders().add("Set-Cookie", "SESSION=abc; Path=/");
+			ex.sendResponseHeaders(200, body.length);
+			ex.getResponseBody().write(body);
+			ex.close();
+		});
+		server.start();
+
+		try {
+			String sessionUrl = "http://localhost:" + server.getAddress().getPort() + "/session";
+			SMTHttpConnectionManager mgr = new SMTHttpConnectionManager(true);
+			assertEquals("null", mgr.sendRequest(sessionUrl, new byte[0], HttpConnectionType.GET).getDataAsString());
+			assertEquals("SESSION=abc", mgr.sendRequest(sessionUrl, new byte[0], HttpConnectionType.GET).getDataAsString());
+			assertNull(java.net.CookieHandler.getDefault());
+			
+			mgr = new SMTHttpConnectionManager(false);
+			mgr.sendRequest(sessionUrl, new byte[0], HttpConnectionType.GET);
+			assertEquals("null", mgr.sendRequest(sessionUrl, new byte[0], HttpConnectionType.GET).getDataAsString());
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Validates the cookies received by one caller are only sent back to their 
+	 * own domain by getRequestData, and never by sendRequest or sendAsync
+	 * @throws Exception
+	 */
+	@Test
+	void testSessionCookies() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/login", ex -> {
+			ex.getResponseHeaders().add("Set-Cookie", "SESSION=abc; Path=/");
+			ex.sendResponseHeaders(200, -1);
+			ex.close();
+		});
+		server.createContext("/echo", ex -> {
+			byte[] body = String.valueOf(ex.getRequestHeaders().getFirst("Cookie")).getBytes();
+			ex.sendResponseHeaders(200, body.length);
+			ex.getResponseBody().write(body);
+			ex.close();
+		});
+		server.start();
+
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		pooled.setPooledEngine(new PooledHttpEngine());
+		try {
+			int port = server.getAddress().getPort();
+			String host = "http://localhost:" + port;
+			String other = "http://127.0.0.1:" + port;
+			for (SMTHttpConnectionManager mgr : new SMTHttpConnectionManager[] { new SMTHttpConnectionManager(), pooled }) {
+				mgr.getRequestData(host + "/login", new byte[0], HttpConnectionType.GET);
+				assertTrue(mgr.getCookies().isEmpty());
+				assertEquals("SESSION=abc", new String(mgr.getRequestData(host + "/echo", new byte[0], HttpConnectionType.GET)));
+				assertEquals("null", new String(mgr.getRequestData(other + "/echo", new byte[0], HttpConnectionType.GET)));
+				assertEquals("null", mgr.sendRequest(host + "/echo", new byte[0], HttpConnectionType.GET).getDataAsString());
+				assertEquals("null", mgr.sendAsync(new URL(host + "/echo"), new byte[0], HttpConnectionType.GET).get().getDataAsString());
+				
+				// Assigned cookies are only sent by getRequestData
+				mgr.addCookie("user", "1");
+				assertEquals("user=1; SESSION=abc", new String(mgr.getRequestData(host + "/echo", new byte[0], HttpConnectionType.GET)));
+				assertEquals("null", mgr.sendRequest(host + "/echo", new byte[0], HttpConnectionType.GET).getDataAsString());
+			}
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Sends asynchronous requests over the pooled and connection based managers
+	 * @throws Exception
+	 */
+	@Test
+	void testSendAsync() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(Executors.newFixedThreadPool(8));
+		server.createContext("/echo", ex -> {
+			byte[] body = ex.getRequestURI().getQuery().getBytes();
+			ex.sendResponseHeaders(200, body.length);
+			ex.getResponseBody().write(body);
+			ex.close();
+		});
+		server.createContext("/redir", ex -> {
+			ex.getResponseHeaders().add("Location", "/echo?redirected");
+			ex.getResponseHeaders().add("Set-Cookie", "REDIR=true; Path=/");
+			ex.sendResponseHeaders(302, -1);
+			ex.close();
+		});
+		server.start();
+
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		HttpPoolConfig config = new HttpPoolConfig();
+		config.setMaxConnectionsPerHost(2);
+		config.setHttp2(false);
+		pooled.setPooledEngine(new PooledHttpEngine(config));
+		AtomicInteger tasks = new AtomicInteger();
+		connection.setAsyncExecutor(r -> { tasks.incrementAndGet(); new Thread(r).start(); });
+
+		try {
+			String base = "http://localhost:" + server.getAddress().getPort();
+			for (SMTHttpConnectionManager mgr : new SMTHttpConnectionManager[] { connection, pooled }) {
+				List<CompletableFuture<byte[]>> results = new ArrayList<>();
+				for (int i = 0; i < 50; i++) results.add(mgr.getRequestDataAsync(base + "/echo?" + i, new byte[0], HttpConnectionType.GET));
+				for (int i = 0; i < 50; i++) assertEquals(Integer.toString(i), new String(results.get(i).get()));
+
+				HttpResponseVO resp = mgr.sendAsync(new URL(base + "/redir"), (byte[])null, HttpConnectionType.GET).get();
+				assertEquals("redirected", resp.getDataAsString());
+				assertEquals(200, resp.getResponseCode());
+				assertEquals("1", new String(mgr.getRequestDataAsync(new URL(base + "/echo?1"), params, HttpConnectionType.GET).get()));
+				assertEquals(0, mgr.getResponseCode());
+			}
+
+			assertEquals(52, tasks.get());
+			assertEquals("true", pooled.sendAsync(base + "/redir", params, HttpConnectionType.GET).get().getCookies().get("REDIR"));
+			assertEquals(2, pooled.getPooledEngine().getAvailableConnections(new URL(base)));
+			ExecutionException e = assertThrows(ExecutionException.class, () -> connection.sendAsync((String)null, params, HttpConnectionType.GET).get());
+			assertTrue(e.getCause() instanceof IOException);
+			assertThrows(ExecutionException.class, () -> pooled.getRequestDataAsync((URL)null, params, null).get());
+			assertThrows(ExecutionException.class, () -> pooled.getRequestDataAsync("http://localhost:1/echo", params, HttpConnectionType.GET).get());
+			
+			connection.setAsyncExecutor(null);
+			assertEquals(SMTHttpConnectionManager.DEFAULT_ASYNC_EXECUTOR, connection.getAsyncExecutor());
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Streams the response bodies to the sinks and validates the maximum 
+	 * response size
+	 * @throws Exception
+	 */
+	@Test
+	void testSendRequestSink() throws Exception {
+		byte[] payload = new byte[100000];
+		for (int i = 0; i < payload.length; i++) payload[i] = (byte) i;
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/fixed", ex -> {
+			ex.sendResponseHeaders(200, payload.length);
+			ex.getResponseBody().write(payload);
+			ex.close();
+		});
+		server.createContext("/chunked", ex -> {
+			ex.sendResponseHeaders(200, 0);
+			ex.getResponseBody().write(payload);
+			ex.close();
+		});
+		server.start();
+
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		pooled.setPooledEngine(new PooledHttpEngine());
+		Path file = File.createTempFile("sink", ".bin").toPath();
+
+		try {
+			String base = "http://localhost:" + server.getAddress().getPort();
+			for (SMTHttpConnectionManager mgr : new SMTHttpConnectionManager[] { connection, pooled }) {
+				for (String path : new String[] { "/fixed", "/chunked" }) {
+					URL url = new URL(base + path);
+					assertArrayEquals(payload, mgr.sendRequest(url, (byte[])null, HttpConnectionType.GET).getData());
+
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					HttpResponseVO resp = mgr.sendRequest(url, null, HttpConnectionType.GET, out);
+					assertNull(resp.getData());
+					assertEquals(payload.length, resp.getSize());
+					assertArrayEquals(payload, out.toByteArray());
+
+					out = new ByteArrayOutputStream();
+					assertEquals(payload.length, mgr.sendRequest(url, null, HttpConnectionType.GET, Channels.newChannel(out)).getSize());
+					assertArrayEquals(payload, out.toByteArray());
+
+					assertEquals(payload.length, mgr.sendRequest(url, null, HttpConnectionType.GET, file).getSize());
+					assertArrayEquals(payload, Files.readAllBytes(file));
+
+					mgr.setMaxResponseSize(payload.length);
+					assertEquals(payload.length, mgr.getRequestData(url, (byte[])null, HttpConnectionType.GET).length);
+					mgr.setMaxResponseSize(1000);
+					assertThrows(IOException.class, () -> mgr.sendRequest(url, (byte[])null, HttpConnectionType.GET));
+					assertThrows(IOException.class, () -> mgr.sendRequest(url, null, HttpConnectionType.GET, new ByteArrayOutputStream()));
+					assertThrows(ExecutionException.class, () -> mgr.sendAsync(url, (byte[])null, HttpConnectionType.GET).get());
+					mgr.setMaxResponseSize(0);
+				}
+			}
+			
+			assertEquals(0, connection.getMaxResponseSize());
+			assertEquals(PooledHttpEngine.DEFAULT_MAX_CONNECTIONS_PER_HOST, pooled.getPooledEngine().getAvailableConnections(new URL(base)));
+		} finally {
+			Files.deleteIfExists(file);
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Uploads file, stream, publisher and multipart bodies to a local server with
+	 * the connection based and pooled requests
+	 * @throws Exception
+	 */
+	@Test
+	void testSendRequestBody() throws Exception {
+		byte[] payload = new byte[50000];
+		for (int i = 0; i < payload.length; i++) payload[i] = (byte) ('a' + i % 26);
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/echo", ex -> {
+			byte[] data = ex.getRequestBody().readAllBytes();
+			String length = ex.getRequestHeaders().getFirst("Content-Length");
+			ex.getResponseHeaders().add("X-Length", length == null ? "chunked" : length);
+			ex.getResponseHeaders().add("X-Type", ex.getRequestHeaders().getFirst("Content-Type"));
+			ex.sendResponseHeaders(200, data.length);
+			ex.getResponseBody().write(data);
+			ex.close();
+		});
+		server.createContext("/moved", ex -> {
+			ex.getRequestBody().readAllBytes();
+			ex.getResponseHeaders().add("Location", "/echo");
+			ex.sendResponseHeaders(307, -1);
+			ex.close();
+		});
+		server.start();
+
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		pooled.setPooledEngine(new PooledHttpEngine());
+		Path file = File.createTempFile("upload", ".txt").toPath();
+		Files.write(file, payload);
+
+		try {
+			String base = "http://localhost:" + server.getAddress().getPort();
+			URL url = new URL(base + "/echo");
+			for (SMTHttpConnectionManager mgr : new SMTHttpConnectionManager[] { connection, pooled }) {
+				HttpResponseVO resp = mgr.sendRequest(url, HttpRequestBody.ofFile(file), HttpConnectionType.POST);
+				assertArrayEquals(payload, resp.getData());
+				assertEquals(Integer.toString(payload.length), resp.getHeader("X-Length"));
+				assertEquals("application/x-www-form-urlencoded", resp.getHeader("X-Type"));
+
+				resp = mgr.sendRequest(url, HttpRequestBody.ofInputStream(new ByteArrayInputStream(payload), -1), HttpConnectionType.PUT);
+				assertArrayEquals(payload, resp.getData());
+				assertEquals("chunked", resp.getHeader("X-Length"));
+
+				resp = mgr.sendAsync(url, HttpRequestBody.ofPublisher(BodyPublishers.ofByteArray(payload), payload.length), HttpConnectionType.POST).get();
+				assertArrayEquals(payload, resp.getData());
+				assertEquals(Integer.toString(payload.length), resp.getHeader("X-Length"));
+
+				MultipartBody multipart = new MultipartBody("XyZ").addField("name", "value").addFile("file", file, "text/plain");
+				resp = mgr.sendRequest(url, multipart, HttpConnectionType.POST);
+				assertEquals("multipart/form-data; boundary=XyZ", resp.getHeader("X-Type"));
+				assertEquals(Long.toString(multipart.getContentLength()), resp.getHeader("X-Length"));
+				assertTrue(resp.getDataAsString().startsWith("--XyZ\r\nContent-Disposition: form-data; name=\"name\"\r\n\r\nvalue\r\n"));
+				assertTrue(resp.getDataAsString().endsWith(new String(payload) + "\r\n--XyZ--\r\n"));
+
+				// Repeatable bodies follow the redirect, single use bodies return it
+				assertArrayEquals(payload, mgr.sendRequest(new URL(base + "/moved"), HttpRequestBody.ofFile(file), HttpConnectionType.POST).getData());
+				resp = mgr.sendRequest(new URL(base + "/moved"), HttpRequestBody.ofInputStream(new ByteArrayInputStream(payload), payload.length), HttpConnectionType.POST);
+				assertEquals(307, resp.getResponseCode());
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Validates fresh responses are answered from the cache and stale responses
+	 * are revalidated with If-None-Match
+	 * @throws Exception
+	 */
+	@Test
+	void testResponseCache() throws Exception {
+		Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", ex -> {
+			ex.getRequestBody().readAllBytes();
+			String path = ex.getRequestURI().getPath();
+			int count = calls.computeIfAbsent(path + ex.getRequestMethod(), k -> new AtomicInteger()).incrementAndGet();
+			byte[] body = ("Data " + count).getBytes();
+			if (path.startsWith("/fresh")) {
+				ex.getResponseHeaders().add("Cache-Control", "max-age=60");
+			} else if ("\"v1\"".equals(ex.getRequestHeaders().getFirst("If-None-Match"))) {
+				ex.getResponseHeaders().add("ETag", "\"v1\"");
+				ex.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+				ex.close();
+				return;
+			} else {
+				ex.getResponseHeaders().add("ETag", "\"v1\"");
+				ex.getResponseHeaders().add("Cache-Control", "no-cache");
+			}
+			
+			ex.sendResponseHeaders(200, body.length);
+			ex.getResponseBody().write(body);
+			ex.close();
+		});
+		server.start();
+
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		pooled.setPooledEngine(new PooledHttpEngine());
+		HttpCacheConfig config = new HttpCacheConfig();
+		connection.setCacheConfig(config);
+		assertNull(connection.getResponseCache());
+		config.setEnabled(true);
+		connection.setCacheConfig(config);
+		pooled.setResponseCache(new HttpResponseCache());
+
+		try {
+			String base = "http://localhost:" + server.getAddress().getPort();
+			for (SMTHttpConnectionManager mgr : new SMTHttpConnectionManager[] { connection, pooled }) {
+				String id = mgr.isPooled() ? "pooled" : "legacy";
+				URL fresh = new URL(base + "/fresh/" + id);
+				URL etag = new URL(base + "/etag/" + id);
+				
+				assertEquals("Data 1", mgr.sendRequest(fresh, (byte[])null, HttpConnectionType.GET).getDataAsString());
+				assertEquals("Data 1", new String(mgr.getRequestData(fresh, (byte[])null, HttpConnectionType.GET)));
+				assertEquals(200, mgr.getResponseCode());
+				assertEquals("Data 1", mgr.sendAsync(fresh, (byte[])null, HttpConnectionType.GET).get().getDataAsString());
+				assertEquals(1, calls.get("/fresh/" + id + "GET").get());
+				
+				// Other requests remove the cached response
+				mgr.sendRequest(fresh, new byte[0], HttpConnectionType.POST);
+				assertEquals("Data 2", mgr.sendRequest(fresh, (byte[])null, HttpConnectionType.GET).getDataAsString());
+				
+				// Stale responses are revalidated and the stored body is returned on a 304
+				assertEquals("Data 1", mgr.sendRequest(etag, (byte[])null, HttpConnectionType.GET).getDataAsString());
+				HttpResponseVO resp = mgr.sendRequest(etag, (byte[])null, HttpConnectionType.GET);
+				assertEquals(200, resp.getResponseCode());
+				assertEquals("Data 1", resp.getDataAsString());
+				assertEquals("\"v1\"", resp.getHeader("ETag"));
+				assertEquals("Data 1", mgr.sendAsync(etag, (byte[])null, HttpConnectionType.GET).get().getDataAsString());
+				assertEquals(3, calls.get("/etag/" + id + "GET").get());
+				assertEquals(2, mgr.getResponseCache().getRevalidationCount());
+				assertEquals(2, mgr.getResponseCache().getHitCount());
+			}
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Validates gzip responses are decoded and request bodies are compressed with
+	 * the connection based, pooled and async requests
+	 * @throws Exception
+	 */
+	@Test
+	void testCompression() throws Exception {
+		byte[] payload = new byte[20000];
+		for (int i = 0; i < payload.length; i++) payload[i] = (byte) ('a' + i % 26);
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/gzip", ex -> {
+			InputStream in = ex.getRequestBody();
+			String encoding = ex.getRequestHeaders().getFirst("Content-Encoding");
+			if ("gzip".equals(encoding)) in = new GZIPInputStream(in);
+			byte[] data = in.readAllBytes();
+			ex.getResponseHeaders().add("X-Encoding", String.valueOf(encoding));
+			ex.getResponseHeaders().add("X-Length", Integer.toString(data.length));
+			
+			String accept = ex.getRequestHeaders().getFirst("Accept-Encoding");
+			if (accept == null || ! accept.contains("gzip")) {
+				ex.sendResponseHeaders(200, payload.length);
+				ex.getResponseBody().write(payload);
+			} else {
+				ex.getResponseHeaders().add("Content-Encoding", "gzip");
+				byte[] gzip = HttpCompressionTest.gzip(payload);
+				ex.sendResponseHeaders(200, gzip.length);
+				ex.getResponseBody().write(gzip);
+			}
+			
+			ex.close();
+		});
+		server.start();
+
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		pooled.setPooledEngine(new PooledHttpEngine());
+		HttpCompressionConfig config = new HttpCompressionConfig();
+		connection.setCompressionConfig(config);
+		assertNull(connection.getCompression());
+		config.setEnabled(true);
+		config.setRequestEncoding("gzip");
+		connection.setCompressionConfig(config);
+		pooled.setCompression(new HttpCompression(config));
+
+		try {
+			URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/gzip");
+			for (SMTHttpConnectionManager mgr : new SMTHttpConnectionManager[] { connection, pooled }) {
+				HttpResponseVO resp = mgr.sendRequest(url, (byte[])null, HttpConnectionType.GET);
+				assertArrayEquals(payload, resp.getData());
+				assertNull(resp.getHeader("Content-Encoding"));
+				assertArrayEquals(payload, mgr.getRequestData(url, (byte[])null, HttpConnectionType.GET));
+				assertArrayEquals(payload, mgr.sendAsync(url, (byte[])null, HttpConnectionType.GET).get().getData());
+				
+				resp = mgr.sendRequest(url, payload, HttpConnectionType.POST);
+				assertEquals("gzip", resp.getHeader("X-Encoding"));
+				assertEquals(Integer.toString(payload.length), resp.getHeader("X-Length"));
+				resp = mgr.sendAsync(url, HttpRequestBody.ofInputStream(new ByteArrayInputStream(payload), -1), HttpConnectionType.PUT).get();
+				assertEquals(Integer.toString(payload.length), resp.getHeader("X-Length"));
+				assertArrayEquals(payload, resp.getData());
+				
+				// The decoded size is limited, and a caller assigned Accept-Encoding is left encoded
+				mgr.setMaxResponseSize(1000);
+				assertThrows(IOException.class, () -> mgr.sendRequest(url, (byte[])null, HttpConnectionType.GET));
+				mgr.setMaxResponseSize(0);
+				Map<String, String> headers = new HashMap<>();
+				headers.put("accept-encoding", "gzip");
+				mgr.setRequestHeaders(headers);
+				assertEquals("gzip", mgr.sendRequest(url, (byte[])null, HttpConnectionType.GET).getHeader("Content-Encoding"));
+			}
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Validates the listeners receive the timings, sizes, redirects and outcome 
+	 * of the connection based, pooled and async requests, and may add headers
+	 * @throws Exception
+	 */
+	@Test
+	void testRequestListener() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/echo", ex -> {
+			byte[] data = ex.getRequestBody().readAllBytes();
+			ex.getResponseHeaders().add("X-Trace", String.valueOf(ex.getRequestHeaders().getFirst("X-Trace")));
+			ex.sendResponseHeaders(200, data.length);
+			ex.getResponseBody().write(data);
+			ex.close();
+		});
+		server.createContext("/moved", ex -> {
+			ex.getRequestBody().readAllBytes();
+			ex.getResponseHeaders().add("Location", "/echo");
+			ex.sendResponseHeaders(307, -1);
+			ex.close();
+		});
+		server.start();
+		
+		List<HttpRequestMetrics> completed = new ArrayList<>();
+		List<Throwable> failed = new ArrayList<>();
+		HttpRequestListener listener = new HttpRequestListener() {
+			@Override
+			public void requestStarted(HttpRequestMetrics metrics, Map<String, String> headers) {
+				headers.put("X-Trace", "trace-1");
+			}
+			
+			@Override
+			public synchronized void requestCompleted(HttpRequestMetrics metrics) {
+				completed.add(metrics);
+			}
+			
+			@Override
+			public synchronized void requestFailed(HttpRequestMetrics metrics, Throwable error) {
+				failed.add(error);
+			}
+		};
+		
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		pooled.setPooledEngine(new PooledHttpEngine());
+		byte[] payload = "Metrics Payload".getBytes();
+		
+		try {
+			String base = "http://localhost:" + server.getAddress().getPort();
+			for (SMTHttpConnectionManager mgr : new SMTHttpConnectionManager[] { connection, pooled }) {
+				mgr.setRequestListeners(List.of(listener));
+				assertEquals(1, mgr.getRequestListeners().size());
+				completed.clear();
+				
+				HttpResponseVO resp = mgr.sendRequest(new URL(base + "/moved"), payload, HttpConnectionType.POST);
+				assertEquals("trace-1", resp.getHeader("X-Trace"));
+				assertEquals(1, completed.size());
+				HttpRequestMetrics metrics = completed.get(0);
+				assertEquals(200, metrics.getResponseCode());
+				assertEquals(1, metrics.getRedirects());
+				assertEquals("POST", metrics.getMethod());
+				
+				// The connections follow the redirect internally, resending the body themselves
+				int attempts = mgr.isPooled() ? 2 : 1;
+				assertEquals(attempts, metrics.getAttempts());
+				assertEquals(attempts * payload.length, metrics.getBytesSent());
+				assertEquals(payload.length, metrics.getBytesReceived());
+				assertTrue(metrics.getTimeToFirstByte() >= 0);
+				assertTrue(metrics.getTotalTime() >= metrics.getTimeToFirstByte());
+				assertEquals(mgr.isPooled(), metrics.isPooled());
+				assertEquals(mgr.isPooled(), metrics.getConnectTime() < 0);
+				assertEquals(mgr.isPooled(), metrics.getDnsTime() < 0);
+				assertEquals(-1, metrics.getTlsTime());
+				
+				// Streams complete once they are read or closed
+				InputStream in = mgr.getConnectionStream(new URL(base + "/echo"), new HashMap<>(), HttpConnectionType.GET);
+				assertEquals(1, completed.size());
+				in.close();
+				assertEquals(2, completed.size());
+				
+				metrics = mgr.sendAsync(new URL(base + "/echo"), payload, HttpConnectionType.PUT).thenApply(r -> completed.get(2)).get();
+				assertEquals(payload.length, metrics.getBytesReceived());
+				assertEquals(200, metrics.getResponseCode());
+				assertTrue(metrics.getTimeToFirstByte() >= 0);
+				
+				mgr.removeRequestListener(listener);
+				mgr.sendRequest(new URL(base + "/echo"), payload, HttpConnectionType.POST);
+				assertEquals(3, completed.size());
+			}
+			
+			// Requests failing before a response are reported
+			server.stop(0);
+			connection.addRequestListener(listener);
+			assertThrows(IOException.class, () -> connection.sendRequest(new URL(base + "/echo"), payload, HttpConnectionType.POST));
+			assertEquals(1, failed.size());
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Validates the retries, circuit breakers, concurrency limits and timeouts 
+	 * of the resilience policy
+	 * @throws Exception
+	 */
+	@Test
+	void testResiliencePolicy() throws Exception {
+		Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+		CountDownLatch release = new CountDownLatch(1);
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(Executors.newFixedThreadPool(4));
+		server.createContext("/flaky", ex -> {
+			int count = calls.computeIfAbsent(ex.getRequestURI().getQuery(), k -> new AtomicInteger()).incrementAndGet();
+			byte[] body = Integer.toString(count).getBytes();
+			ex.sendResponseHeaders(count < 3 ? 503 : 200, body.length);
+			ex.getResponseBody().write(body);
+			ex.close();
+		});
+		server.createContext("/slow", ex -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			
+			ex.sendResponseHeaders(200, -1);
+			ex.close();
+		});
+		server.start();
+
+		HttpResilienceConfig config = new HttpResilienceConfig();
+		config.setInitialBackoff(10);
+		config.setMaxConcurrentPerHost(1);
+		config.setFailureThreshold(3);
+		HttpResiliencePolicy policy = new HttpResiliencePolicy(config);
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		pooled.setPooledEngine(new PooledHttpEngine());
+		connection.setResiliencePolicy(policy);
+		pooled.setResiliencePolicy(policy);
+
+		try {
+			String base = "http://localhost:" + server.getAddress().getPort();
+			assertEquals("3", new String(connection.getRequestData(base + "/flaky?legacy", new byte[0], HttpConnectionType.GET)));
+			assertEquals(200, connection.getResponseCode());
+			assertEquals("3", pooled.sendRequest(base + "/flaky?pooled", new byte[0], HttpConnectionType.GET).getDataAsString());
+			assertEquals("3", pooled.sendAsync(base + "/flaky?async", new byte[0], HttpConnectionType.GET).get().getDataAsString());
+			
+			// POST is not retried
+			assertEquals(503, connection.sendRequest(base + "/flaky?post", new byte[0], HttpConnectionType.POST).getResponseCode());
+			assertEquals(1, calls.get("post").get());
+			
+			// Host limit fails fast and is released when the stream is closed
+			InputStream in = connection.getConnectionStream(new URL(base + "/flaky?stream"), null, HttpConnectionType.POST);
+			assertThrows(HttpRejectedException.class, () -> pooled.sendRequest(base + "/flaky?blocked", new byte[0], HttpConnectionType.GET));
+			ExecutionException e = assertThrows(ExecutionException.class, () -> pooled.sendAsync(base + "/flaky?blocked", new byte[0], HttpConnectionType.GET).get());
+			assertTrue(e.getCause() instanceof HttpRejectedException);
+			in.close();
+			assertNull(calls.get("blocked"));
+			assertEquals("1", pooled.sendRequest(base + "/flaky?open", new byte[0], HttpConnectionType.POST).getDataAsString());
+			
+			// Separate read timeout with retries opens the circuit
+			connection.setReadTimeout(100);
+			connection.setConnectTimeout(1000);
+			assertEquals(100, connection.getReadTimeout());
+			assertEquals(1000, connection.getConnectTimeout());
+			assertThrows(IOException.class, () -> connection.sendRequest(base + "/slow", new byte[0], HttpConnectionType.GET));
+			assertEquals(CircuitBreaker.State.OPEN, policy.getCircuitBreaker(new URL(base)).getState());
+			assertThrows(HttpRejectedException.class, () -> connection.sendRequest(base + "/flaky?closed", new byte[0], HttpConnectionType.GET));
+			
+			connection.setResilienceConfig(config);
+			assertNull(connection.getResiliencePolicy());
+			config.setEnabled(true);
+			connection.setResilienceConfig(config);
+			assertNotNull(connection.getResiliencePolicy());
+			connection.setResilienceConfig(null);
+			assertNull(connection.getResiliencePolicy());
+		} finally {
+			release.countDown();
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Validates a request rejected by a saturated connection pool is neither
+	 * retried nor counted as a failure of the host
+	 * @throws Exception
+	 */
+	@Test
+	void testPoolLimitRejected() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/hello", ex -> {
+			calls.incrementAndGet();
+			ex.sendResponseHeaders(200, -1);
+			ex.close();
+		});
+		server.start();
+
+		HttpPoolConfig poolConfig = new HttpPoolConfig();
+		poolConfig.setMaxConnectionsPerHost(1);
+		HttpResilienceConfig config = new HttpResilienceConfig();
+		config.setInitialBackoff(10);
+		config.setFailureThreshold(1);
+		HttpResiliencePolicy policy = new HttpResiliencePolicy(config);
+		SMTHttpConnectionManager pooled = new SMTHttpConnectionManager();
+		pooled.setPooledEngine(new PooledHttpEngine(poolConfig));
+		pooled.setResiliencePolicy(policy);
+		pooled.setConnectTimeout(50);
+
+		try {
+			URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/hello");
+			Semaphore permit = pooled.getPooledEngine().acquire(url, 10);
+			assertThrows(HttpRejectedException.class, () -> pooled.sendRequest(url, new byte[0], HttpConnectionType.GET));
+			ExecutionException e = assertThrows(ExecutionException.class, () -> pooled.sendAsync(url, new byte[0], HttpConnectionType.GET).get());
+			assertTrue(e.getCause() instanceof HttpRejectedException);
+			assertEquals(CircuitBreaker.State.CLOSED, policy.getCircuitBreaker(url).getState());
+			assertEquals(0, calls.get());
+
+			permit.release();
+			assertEquals(200, pooled.sendRequest(url, new byte[0], HttpConnectionType.GET).getResponseCode());
+			assertEquals(1, calls.get());
+		} finally {
+			server.stop(0);
+		}
+	}
 }